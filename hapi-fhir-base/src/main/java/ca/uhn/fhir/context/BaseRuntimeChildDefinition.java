@@ -21,17 +21,21 @@ package ca.uhn.fhir.context;
 
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.model.api.annotation.Child;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseReference;
 
+import java.lang.reflect.Modifier;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class BaseRuntimeChildDefinition {
 
+	private final Map<Class<? extends IBase>, ChildNameAndDef> myChildNameAndDefCache = new ConcurrentHashMap<>();
 	private BaseRuntimeChildDefinition myReplacedParentDefinition;
 
 	public abstract IAccessor getAccessor();
@@ -83,6 +87,96 @@ public abstract class BaseRuntimeChildDefinition {
 		return this.getMax() > 1 || this.getMax() == Child.MAX_UNLIMITED;
 	}
 
+	/**
+	 * Returns the element name and element definition which are used when encoding a value of the
+	 * given type in this child. For choice types the name is the type specific name (e.g.
+	 * <code>valueQuantity</code>). The result is computed once per datatype and cached, since the
+	 * parsers need it for every value they encode.
+	 *
+	 * @param theContext  The context which this child definition belongs to
+	 * @param theDatatype The type of the value being encoded
+	 * @return The name and definition, or <code>null</code> if values of the given type can not be placed in this child
+	 * @since 8.6.0
+	 */
+	@Nullable
+	public ChildNameAndDef getChildNameAndDefForEncoding(FhirContext theContext, Class<? extends IBase> theDatatype) {
+		ChildNameAndDef retVal = myChildNameAndDefCache.get(theDatatype);
+		if (retVal == null) {
+			retVal = resolveChildNameAndDef(theContext, theDatatype);
+			if (retVal != null) {
+				myChildNameAndDefCache.put(theDatatype, retVal);
+			}
+		}
+		return retVal;
+	}
+
+	@SuppressWarnings("unchecked")
+	private ChildNameAndDef resolveChildNameAndDef(FhirContext theContext, Class<? extends IBase> theDatatype) {
+		String childName = getChildNameByDatatype(theDatatype);
+		BaseRuntimeElementDefinition<?> childDef = getChildElementDefinitionByDatatype(theDatatype);
+		if (childDef == null) {
+
+			/*
+			 * For RI structures Enumeration class, this replaces the child def
+			 * with the "code" one. This is messy, and presumably there is a better
+			 * way..
+			 */
+			BaseRuntimeElementDefinition<?> elementDef = theContext.getElementDefinition(theDatatype);
+			if (elementDef.getName().equals("code")) {
+				Class<? extends IBase> type2 =
+						theContext.getElementDefinition("code").getImplementingClass();
+				childDef = getChildElementDefinitionByDatatype(type2);
+				childName = getChildNameByDatatype(type2);
+			}
+
+			// See possibly the user has extended a built-in type without
+			// declaring it anywhere, as in XmlParserDstu3Test#testEncodeUndeclaredBlock
+			if (childDef == null) {
+				Class<?> nextSuperType = theDatatype;
+				while (IBase.class.isAssignableFrom(nextSuperType) && childDef == null) {
+					if (Modifier.isAbstract(nextSuperType.getModifiers()) == false) {
+						BaseRuntimeElementDefinition<?> def =
+								theContext.getElementDefinition((Class<? extends IBase>) nextSuperType);
+						Class<?> nextChildType = def.getImplementingClass();
+						childDef = getChildElementDefinitionByDatatype((Class<? extends IBase>) nextChildType);
+						childName = getChildNameByDatatype((Class<? extends IBase>) nextChildType);
+					}
+					nextSuperType = nextSuperType.getSuperclass();
+				}
+			}
+
+			if (childDef == null) {
+				return null;
+			}
+		}
+
+		return new ChildNameAndDef(childName, childDef);
+	}
+
+	/**
+	 * The name and definition used to encode a value of a specific datatype in a child
+	 *
+	 * @since 8.6.0
+	 */
+	public static final class ChildNameAndDef {
+
+		private final BaseRuntimeElementDefinition<?> myChildDef;
+		private final String myChildName;
+
+		public ChildNameAndDef(String theChildName, BaseRuntimeElementDefinition<?> theChildDef) {
+			myChildName = theChildName;
+			myChildDef = theChildDef;
+		}
+
+		public BaseRuntimeElementDefinition<?> getChildDef() {
+			return myChildDef;
+		}
+
+		public String getChildName() {
+			return myChildName;
+		}
+	}
+
 	public interface IAccessor {
 		List<IBase> getValues(IBase theTarget);
 
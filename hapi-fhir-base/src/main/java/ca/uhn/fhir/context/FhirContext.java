@@ -38,6 +38,7 @@ import ca.uhn.fhir.parser.JsonParser;
 import ca.uhn.fhir.parser.LenientErrorHandler;
 import ca.uhn.fhir.parser.NDJsonParser;
 import ca.uhn.fhir.parser.RDFParser;
+import ca.uhn.fhir.parser.SmileParser;
 import ca.uhn.fhir.parser.XmlParser;
 import ca.uhn.fhir.rest.api.IVersionSpecificBundleFactory;
 import ca.uhn.fhir.rest.client.api.IBasicClient;
@@ -122,20 +123,20 @@ public class FhirContext {
 	private HapiLocalizer myLocalizer = new HapiLocalizer();
 	private volatile Map<String, BaseRuntimeElementDefinition<?>> myNameToElementDefinition = Collections.emptyMap();
 	private volatile Map<String, RuntimeResourceDefinition> myNameToResourceDefinition = Collections.emptyMap();
-	private volatile Map<String, Class<? extends IBaseResource>> myNameToResourceType;
+	private volatile Map<String, String> myNameToResourceClassName;
 	private volatile INarrativeGenerator myNarrativeGenerator;
 	private volatile IParserErrorHandler myParserErrorHandler = new LenientErrorHandler();
 	private ParserOptions myParserOptions = new ParserOptions();
 	private volatile IRestfulClientFactory myRestfulClientFactory;
 	private volatile RuntimeChildUndeclaredExtensionDefinition myRuntimeChildUndeclaredExtensionDefinition;
 	private IValidationSupport myValidationSupport;
-	private Map<FhirVersionEnum, Map<String, Class<? extends IBaseResource>>> myVersionToNameToResourceType =
-			Collections.emptyMap();
+	private Map<FhirVersionEnum, Map<String, String>> myVersionToNameToResourceClassName = Collections.emptyMap();
 	private volatile Set<String> myResourceNames;
 	private volatile Boolean myFormatXmlSupported;
 	private volatile Boolean myFormatJsonSupported;
 	private volatile Boolean myFormatNDJsonSupported;
 	private volatile Boolean myFormatRdfSupported;
+	private volatile Boolean myFormatSmileSupported;
 	private IFhirValidatorFactory myFhirValidatorFactory = FhirValidator::new;
 	/**
 	 * If true, parsed resources will have the json string
@@ -521,25 +522,25 @@ public class FhirContext {
 			return getResourceDefinition(theResourceName);
 		}
 
-		Map<String, Class<? extends IBaseResource>> nameToType = myVersionToNameToResourceType.get(theVersion);
-		if (nameToType == null) {
-			nameToType = new HashMap<>();
+		Map<String, String> nameToClassName = myVersionToNameToResourceClassName.get(theVersion);
+		if (nameToClassName == null) {
+			nameToClassName = new HashMap<>();
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> existing = new HashMap<>();
-			ModelScanner.scanVersionPropertyFile(null, nameToType, theVersion, existing);
+			ModelScanner.scanVersionPropertyFile(null, nameToClassName, theVersion, existing);
 
-			Map<FhirVersionEnum, Map<String, Class<? extends IBaseResource>>> newVersionToNameToResourceType =
-					new HashMap<>();
-			newVersionToNameToResourceType.putAll(myVersionToNameToResourceType);
-			newVersionToNameToResourceType.put(theVersion, nameToType);
-			myVersionToNameToResourceType = newVersionToNameToResourceType;
+			Map<FhirVersionEnum, Map<String, String>> newVersionToNameToResourceClassName = new HashMap<>();
+			newVersionToNameToResourceClassName.putAll(myVersionToNameToResourceClassName);
+			newVersionToNameToResourceClassName.put(theVersion, nameToClassName);
+			myVersionToNameToResourceClassName = newVersionToNameToResourceClassName;
 		}
 
-		Class<? extends IBaseResource> resourceType = nameToType.get(theResourceName.toLowerCase());
-		if (resourceType == null) {
+		String resourceName = theResourceName.toLowerCase();
+		String className = nameToClassName.get(resourceName);
+		if (className == null) {
 			throw new DataFormatException(Msg.code(1683) + createUnknownResourceNameError(theResourceName, theVersion));
 		}
 
-		return getResourceDefinition(resourceType);
+		return getResourceDefinition(ModelScanner.loadResourceType(resourceName, className));
 	}
 
 	/**
@@ -597,8 +598,8 @@ public class FhirContext {
 		RuntimeResourceDefinition retVal = myNameToResourceDefinition.get(resourceName);
 
 		if (retVal == null) {
-			Class<? extends IBaseResource> clazz = myNameToResourceType.get(resourceName.toLowerCase());
-			if (clazz == null) {
+			String className = myNameToResourceClassName.get(resourceName);
+			if (className == null) {
 				// ***********************************************************************
 				// Multiple spots in HAPI FHIR and Smile CDR depend on DataFormatException
 				// being thrown by this method, don't change that.
@@ -606,9 +607,8 @@ public class FhirContext {
 				throw new DataFormatException(
 						Msg.code(1684) + createUnknownResourceNameError(theResourceName, myVersion.getVersion()));
 			}
-			if (IBaseResource.class.isAssignableFrom(clazz)) {
-				retVal = scanResourceType(clazz);
-			}
+			// Resource classes are only loaded the first time they are needed
+			retVal = scanResourceType(ModelScanner.loadResourceType(resourceName, className));
 		}
 		return retVal;
 	}
@@ -855,6 +855,21 @@ public class FhirContext {
 		return retVal;
 	}
 
+	/**
+	 * @return Returns <code>true</code> if the binary SMILE serialization format is supported, based on the
+	 * available libraries on the classpath.
+	 *
+	 * @since 8.6.0
+	 */
+	public boolean isFormatSmileSupported() {
+		Boolean retVal = myFormatSmileSupported;
+		if (retVal == null) {
+			retVal = tryToInitParser(() -> newSmileParser());
+			myFormatSmileSupported = retVal;
+		}
+		return retVal;
+	}
+
 	public IVersionSpecificBundleFactory newBundleFactory() {
 		return myVersion.newBundleFactory(this);
 	}
@@ -945,6 +960,29 @@ public class FhirContext {
 		return new RDFParser(this, myParserErrorHandler, Lang.TURTLE);
 	}
 
+	/**
+	 * Create and return a new parser for the binary SMILE encoding. This parser produces the
+	 * same model as the {@link #newJsonParser() JSON parser}, but encodes it using the
+	 * compact binary Jackson SMILE format. Because the encoding is binary, resources must be
+	 * encoded using {@link IParser#encodeResourceToOutputStream(IBaseResource, java.io.OutputStream)}
+	 * and parsed using {@link IParser#parseResource(java.io.InputStream)}.
+	 * This parser requires the <code>jackson-dataformat-smile</code> library to be on the classpath.
+	 *
+	 * <p>
+	 * Thread safety: <b>Parsers are not guaranteed to be thread safe</b>. Create a new parser instance for every thread
+	 * or every message being parsed/encoded.
+	 * </p>
+	 * <p>
+	 * Performance Note: <b>This method is cheap</b> to call, and may be called once for every message being processed
+	 * without incurring any performance penalty
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public IParser newSmileParser() {
+		return new SmileParser(this, myParserErrorHandler);
+	}
+
 	/**
 	 * Instantiates a new client instance. This method requires an interface which is defined specifically for your use
 	 * cases to contain methods for each of the RESTful operations you wish to implement (e.g. "read ImagingStudy",
@@ -1138,7 +1176,7 @@ public class FhirContext {
 		myIdToResourceDefinition = idToElementDefinition;
 		myNameToResourceDefinition = nameToResourceDefinition;
 
-		myNameToResourceType = scanner.getNameToResourceType();
+		myNameToResourceClassName = scanner.getNameToResourceClassName();
 
 		myInitialized = true;
 		return classToElementDefinition;
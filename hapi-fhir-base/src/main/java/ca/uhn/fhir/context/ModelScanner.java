@@ -78,7 +78,7 @@ class ModelScanner {
 	private Map<String, RuntimeResourceDefinition> myIdToResourceDefinition = new HashMap<>();
 	private Map<String, BaseRuntimeElementDefinition<?>> myNameToElementDefinitions = new HashMap<>();
 	private Map<String, RuntimeResourceDefinition> myNameToResourceDefinitions = new HashMap<>();
-	private Map<String, Class<? extends IBaseResource>> myNameToResourceType = new HashMap<>();
+	private Map<String, String> myNameToResourceClassName = new HashMap<>();
 	private RuntimeChildUndeclaredExtensionDefinition myRuntimeChildUndeclaredExtensionDefinition;
 	private Set<Class<? extends IBase>> myScanAlso = new HashSet<>();
 	private FhirVersionEnum myVersion;
@@ -114,8 +114,8 @@ class ModelScanner {
 		return myNameToResourceDefinitions;
 	}
 
-	Map<String, Class<? extends IBaseResource>> getNameToResourceType() {
-		return myNameToResourceType;
+	Map<String, String> getNameToResourceClassName() {
+		return myNameToResourceClassName;
 	}
 
 	RuntimeChildUndeclaredExtensionDefinition getRuntimeChildUndeclaredExtensionDefinition() {
@@ -131,7 +131,7 @@ class ModelScanner {
 
 		int startSize = myClassToElementDefinitions.size();
 		long start = System.currentTimeMillis();
-		Map<String, Class<? extends IBaseResource>> resourceTypes = myNameToResourceType;
+		Map<String, String> resourceTypes = myNameToResourceClassName;
 
 		Set<Class<? extends IBase>> typesToScan = theTypesToScan;
 		myVersionTypes = scanVersionPropertyFile(typesToScan, resourceTypes, myVersion, myClassToElementDefinitions);
@@ -341,10 +341,10 @@ class ModelScanner {
 		}
 
 		String resourceNameLowerCase = resourceName.toLowerCase();
-		Class<? extends IBaseResource> builtInType = myNameToResourceType.get(resourceNameLowerCase);
-		boolean standardType = builtInType != null && builtInType.equals(theClass) == true;
+		String builtInType = myNameToResourceClassName.get(resourceNameLowerCase);
+		boolean standardType = builtInType != null && builtInType.equals(theClass.getName()) == true;
 		if (primaryNameProvider) {
-			if (builtInType != null && builtInType.equals(theClass) == false) {
+			if (builtInType != null && builtInType.equals(theClass.getName()) == false) {
 				primaryNameProvider = false;
 			}
 		}
@@ -550,9 +550,35 @@ class ModelScanner {
 		return type;
 	}
 
+	/**
+	 * Loads a built-in resource class which was listed in the version property file
+	 */
+	@SuppressWarnings("unchecked")
+	static Class<? extends IBaseResource> loadResourceType(String theResourceName, String theClassName) {
+		Class<?> retVal;
+		try {
+			retVal = Class.forName(theClassName);
+		} catch (ClassNotFoundException e) {
+			throw new ConfigurationException(
+					Msg.code(1727) + "Unknown class[" + theClassName + "] for resource definition: " + theResourceName,
+					e);
+		}
+		if (!IBaseResource.class.isAssignableFrom(retVal)) {
+			throw new ConfigurationException(Msg.code(1726) + "Class is not assignable from "
+					+ IBaseResource.class.getSimpleName() + ": " + theClassName);
+		}
+		return (Class<? extends IBaseResource>) retVal;
+	}
+
+	/**
+	 * Loads the version property file, which is generated at build time for each structures module and
+	 * lists every built-in datatype and resource class. Datatype classes are loaded immediately, but
+	 * resource types are only recorded by class name in <code>theResourceTypes</code> (keyed by lowercase
+	 * resource name), and are loaded using {@link #loadResourceType(String, String)} when first needed.
+	 */
 	static Set<Class<? extends IBase>> scanVersionPropertyFile(
 			Set<Class<? extends IBase>> theDatatypes,
-			Map<String, Class<? extends IBaseResource>> theResourceTypes,
+			Map<String, String> theResourceTypes,
 			FhirVersionEnum theVersion,
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theExistingElementDefinitions) {
 		Set<Class<? extends IBase>> retVal = new HashSet<>();
@@ -598,27 +624,9 @@ class ModelScanner {
 						}
 					}
 				} else if (nextKey.startsWith("resource.")) {
-					// Resources
+					// Resources - The class is only loaded when the resource type is first used
 					String resName = nextKey.substring("resource.".length()).toLowerCase();
-					try {
-						@SuppressWarnings("unchecked")
-						Class<? extends IBaseResource> nextClass =
-								(Class<? extends IBaseResource>) Class.forName(nextValue);
-						if (theExistingElementDefinitions.containsKey(nextClass)) {
-							continue;
-						}
-						if (!IBaseResource.class.isAssignableFrom(nextClass)) {
-							throw new ConfigurationException(Msg.code(1726) + "Class is not assignable from "
-									+ IBaseResource.class.getSimpleName() + ": " + nextValue);
-						}
-
-						theResourceTypes.put(resName, nextClass);
-					} catch (ClassNotFoundException e) {
-						throw new ConfigurationException(
-								Msg.code(1727) + "Unknown class[" + nextValue + "] for resource definition: "
-										+ nextKey.substring("resource.".length()),
-								e);
-					}
+					theResourceTypes.put(resName, nextValue);
 				} else {
 					throw new ConfigurationException(Msg.code(1728) + "Unexpected property in version property file: "
 							+ nextKey + "=" + nextValue);
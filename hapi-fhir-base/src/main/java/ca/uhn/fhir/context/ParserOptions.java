@@ -20,6 +20,7 @@
 package ca.uhn.fhir.context;
 
 import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.StringPool;
 import ca.uhn.fhir.util.CollectionUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
@@ -48,6 +49,105 @@ public class ParserOptions {
 	private boolean myAutoContainReferenceTargetsWithNoId = true;
 	private Set<String> myEncodeElementsForSummaryMode = null;
 	private Set<String> myDontEncodeElementsForSummaryMode = null;
+	private boolean myJsonTokenStreamingEnabled = false;
+	private boolean myDeferredPrimitiveParsingEnabled = false;
+	private StringPool myStringPool;
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the JSON parser will populate the
+	 * resource model directly from the stream of JSON tokens as they are read, instead of first
+	 * loading the entire document into an intermediate tree and then walking that tree. This
+	 * produces the same results, but substantially reduces the peak memory required to parse
+	 * large documents such as Bundles.
+	 *
+	 * @since 8.6.0
+	 */
+	public boolean isJsonTokenStreamingEnabled() {
+		return myJsonTokenStreamingEnabled;
+	}
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the JSON parser will populate the
+	 * resource model directly from the stream of JSON tokens as they are read, instead of first
+	 * loading the entire document into an intermediate tree and then walking that tree. This
+	 * produces the same results, but substantially reduces the peak memory required to parse
+	 * large documents such as Bundles.
+	 *
+	 * @since 8.6.0
+	 */
+	public ParserOptions setJsonTokenStreamingEnabled(boolean theJsonTokenStreamingEnabled) {
+		myJsonTokenStreamingEnabled = theJsonTokenStreamingEnabled;
+		return this;
+	}
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the parser stores the raw text of
+	 * date, dateTime, instant and decimal values and only converts them into their typed form (e.g.
+	 * a {@link java.util.Date} or {@link java.math.BigDecimal}) the first time the typed value is accessed.
+	 * Resources which are parsed and then re-encoded unchanged never pay for the conversion.
+	 * <p>
+	 * Note that when this setting is enabled, an invalid value is not reported to the
+	 * {@link ca.uhn.fhir.parser.IParserErrorHandler parser error handler} during parsing. Instead, a
+	 * {@link ca.uhn.fhir.parser.DataFormatException} is thrown when the value is first accessed.
+	 * This setting currently applies to datatypes which extend {@link ca.uhn.fhir.model.api.BasePrimitive}
+	 * (i.e. the DSTU2 structures).
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public boolean isDeferredPrimitiveParsingEnabled() {
+		return myDeferredPrimitiveParsingEnabled;
+	}
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the parser stores the raw text of
+	 * date, dateTime, instant and decimal values and only converts them into their typed form (e.g.
+	 * a {@link java.util.Date} or {@link java.math.BigDecimal}) the first time the typed value is accessed.
+	 * Resources which are parsed and then re-encoded unchanged never pay for the conversion.
+	 * <p>
+	 * Note that when this setting is enabled, an invalid value is not reported to the
+	 * {@link ca.uhn.fhir.parser.IParserErrorHandler parser error handler} during parsing. Instead, a
+	 * {@link ca.uhn.fhir.parser.DataFormatException} is thrown when the value is first accessed.
+	 * This setting currently applies to datatypes which extend {@link ca.uhn.fhir.model.api.BasePrimitive}
+	 * (i.e. the DSTU2 structures). The deferred conversion is thread-safe, so a parsed resource
+	 * which is not modified may still be read from several threads at once (e.g. when it is cached).
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public ParserOptions setDeferredPrimitiveParsingEnabled(boolean theDeferredPrimitiveParsingEnabled) {
+		myDeferredPrimitiveParsingEnabled = theDeferredPrimitiveParsingEnabled;
+		return this;
+	}
+
+	/**
+	 * If set (default is {@literal null}), the parser passes the values of <code>code</code>, <code>id</code>,
+	 * <code>uri</code>, <code>url</code> and <code>canonical</code> primitives through the given pool so that
+	 * repeated values such as code systems, profiles and status codes share a single {@link String} instance.
+	 * This can substantially reduce the memory retained by large numbers of parsed resources. The pool's
+	 * hit and miss counts can be used to judge whether it is effective for a given workload.
+	 *
+	 * @since 8.6.0
+	 */
+	@Nullable
+	public StringPool getStringPool() {
+		return myStringPool;
+	}
+
+	/**
+	 * If set (default is {@literal null}), the parser passes the values of <code>code</code>, <code>id</code>,
+	 * <code>uri</code>, <code>url</code> and <code>canonical</code> primitives through the given pool so that
+	 * repeated values such as code systems, profiles and status codes share a single {@link String} instance.
+	 * This can substantially reduce the memory retained by large numbers of parsed resources. The pool's
+	 * hit and miss counts can be used to judge whether it is effective for a given workload.
+	 *
+	 * @param theStringPool The pool to use, or {@literal null} to disable pooling
+	 * @since 8.6.0
+	 */
+	public ParserOptions setStringPool(@Nullable StringPool theStringPool) {
+		myStringPool = theStringPool;
+		return this;
+	}
 
 	/**
 	 * If set to {@literal true} (which is the default), contained resources may be specified by
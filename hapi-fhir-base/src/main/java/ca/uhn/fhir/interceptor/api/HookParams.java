@@ -35,6 +35,11 @@ import java.util.stream.Collectors;
 public class HookParams {
 
 	private ListMultimap<Class<?>, Object> myParams = ArrayListMultimap.create();
+	/**
+	 * Tracked on add so that {@link #get(Class, int)} can skip the (surprisingly costly)
+	 * failed interface type check for the common case where no value is a {@link Supplier}
+	 */
+	private boolean myHaveSupplierValues;
 
 	/**
 	 * Constructor
@@ -72,6 +77,9 @@ public class HookParams {
 	private <T> HookParams doAdd(Class<T> theType, Object theParam) {
 		Validate.isTrue(theType.equals(Supplier.class) == false, "Can not add parameters of type Supplier");
 		myParams.put(theType, theParam);
+		if (theParam instanceof Supplier) {
+			myHaveSupplierValues = true;
+		}
 		return this;
 	}
 
@@ -93,7 +101,7 @@ public class HookParams {
 	}
 
 	private Object unwrapValue(Object theValue) {
-		if (theValue instanceof Supplier) {
+		if (myHaveSupplierValues && theValue instanceof Supplier) {
 			theValue = ((Supplier) theValue).get();
 		}
 		return theValue;
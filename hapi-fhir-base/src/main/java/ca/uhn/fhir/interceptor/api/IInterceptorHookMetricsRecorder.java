@@ -0,0 +1,67 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.interceptor.api;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Service provider interface for collecting timing metrics about individual interceptor
+ * hook methods. An implementation can be supplied to
+ * {@link ca.uhn.fhir.interceptor.executor.BaseInterceptorService#setHookMetricsRecorder(IInterceptorHookMetricsRecorder)}
+ * in order to find out which hooks are contributing to request latency. Implementations
+ * might keep statistics in memory (see
+ * {@link ca.uhn.fhir.interceptor.executor.InMemoryInterceptorHookMetricsRecorder}) or forward
+ * them to an external metrics library.
+ * <p>
+ * When no recorder is set, hooks are invoked without any timing or additional overhead.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public interface IInterceptorHookMetricsRecorder {
+
+	/**
+	 * Returns the metrics sink for a single registered hook. This method is called whenever
+	 * the interceptor service rebuilds its list of hooks (i.e. when an interceptor is registered
+	 * or unregistered, or when the recorder is set), and not on every hook invocation, so it
+	 * may do comparatively expensive work such as looking up or registering a meter. It may be
+	 * called more than once for the same hook and should return an equivalent sink each time.
+	 *
+	 * @param thePointcut The pointcut the hook is registered against
+	 * @param theInvoker  The hook. {@link IBaseInterceptorBroadcaster.IInvoker#getHookDescription()} returns a
+	 *                    human readable name for the hook, typically the interceptor class and method name.
+	 */
+	@Nonnull
+	IHookMetrics getHookMetrics(
+			@Nonnull IPointcut thePointcut, @Nonnull IBaseInterceptorBroadcaster.IInvoker theInvoker);
+
+	/**
+	 * Receives the timing for individual invocations of a single hook. Implementations must be
+	 * thread safe and should be cheap, since this is called on the hook invocation path.
+	 */
+	interface IHookMetrics {
+
+		/**
+		 * @param theElapsedNanos The time spent in the hook method, in nanoseconds
+		 * @param theSuccessful   <code>false</code> if the hook method threw an exception
+		 */
+		void recordInvocation(long theElapsedNanos, boolean theSuccessful);
+	}
+}
@@ -525,6 +525,10 @@ public enum Pointcut implements IPointcut {
 	 * Hook methods should return a {@link Writer} instance that will be used to stream the response. Hook methods
 	 * should not throw any exception.
 	 * </p>
+	 * <p>
+	 * This hook is not invoked for responses using a binary encoding (e.g. SMILE), since those are written
+	 * directly to the response output stream.
+	 * </p>
 	 *
 	 * @since 5.0.0
 	 */
@@ -19,11 +19,13 @@
  */
 package ca.uhn.fhir.interceptor.executor;
 
+import ca.uhn.fhir.context.ConfigurationException;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.Hook;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IBaseInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.IBaseInterceptorService;
+import ca.uhn.fhir.interceptor.api.IInterceptorHookMetricsRecorder;
 import ca.uhn.fhir.interceptor.api.IPointcut;
 import ca.uhn.fhir.interceptor.api.Interceptor;
 import ca.uhn.fhir.interceptor.api.Pointcut;
@@ -45,14 +47,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -80,7 +86,15 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private final ListMultimap<POINTCUT, IInvoker> myAnonymousInvokers = ArrayListMultimap.create();
 	private final Object myRegistryMutex = new Object();
 	private final Class<POINTCUT> myPointcutType;
-	private volatile EnumSet<POINTCUT> myRegisteredPointcuts;
+	/**
+	 * Immutable snapshot of the sorted invokers for each pointcut that has at least one
+	 * registered hook. This is rebuilt and swapped in whenever the registry changes, so
+	 * that dispatching a pointcut never needs to lock or merge the invoker lists.
+	 */
+	private volatile Map<POINTCUT, List<IInvoker>> myPointcutToInvokers;
+
+	private volatile IInterceptorHookMetricsRecorder myHookMetricsRecorder;
+
 	private boolean myWarnOnInterceptorWithNoHooks = true;
 
 	/**
@@ -110,6 +124,31 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		myWarnOnInterceptorWithNoHooks = theWarnOnInterceptorWithNoHooks;
 	}
 
+	/**
+	 * Sets a recorder which will be notified of the elapsed time of every hook method
+	 * invocation dispatched through this service, or <code>null</code> (which is the default)
+	 * to disable hook metrics. When no recorder is set, hooks are invoked directly and no
+	 * timing overhead is incurred.
+	 *
+	 * @see InMemoryInterceptorHookMetricsRecorder
+	 * @since 8.6.0
+	 */
+	public void setHookMetricsRecorder(@Nullable IInterceptorHookMetricsRecorder theHookMetricsRecorder) {
+		synchronized (myRegistryMutex) {
+			myHookMetricsRecorder = theHookMetricsRecorder;
+			rebuildRegisteredPointcutSet();
+		}
+	}
+
+	/**
+	 * @since 8.6.0
+	 * @see #setHookMetricsRecorder(IInterceptorHookMetricsRecorder)
+	 */
+	@Nullable
+	public IInterceptorHookMetricsRecorder getHookMetricsRecorder() {
+		return myHookMetricsRecorder;
+	}
+
 	@VisibleForTesting
 	List<Object> getGlobalInterceptorsForUnitTest() {
 		return myInterceptors;
@@ -228,7 +267,20 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		EnumSet<POINTCUT> registeredPointcuts = EnumSet.noneOf(myPointcutType);
 		registeredPointcuts.addAll(myAnonymousInvokers.keySet());
 		registeredPointcuts.addAll(myGlobalInvokers.keySet());
-		myRegisteredPointcuts = registeredPointcuts;
+
+		Map<POINTCUT, List<IInvoker>> pointcutToInvokers = new EnumMap<>(myPointcutType);
+		for (POINTCUT next : registeredPointcuts) {
+			List<IInvoker> globalInvokers = myGlobalInvokers.get(next);
+			List<IInvoker> anonymousInvokers = myAnonymousInvokers.get(next);
+			List<IInvoker> invokers = union(Arrays.asList(globalInvokers, anonymousInvokers));
+			if (myHookMetricsRecorder != null) {
+				invokers = invokers.stream()
+						.map(t -> new MetricsRecordingInvoker(t, myHookMetricsRecorder.getHookMetrics(next, t)))
+						.collect(Collectors.toList());
+			}
+			pointcutToInvokers.put(next, List.copyOf(invokers));
+		}
+		myPointcutToInvokers = pointcutToInvokers;
 	}
 
 	private boolean isInterceptorAlreadyRegistered(Object theInterceptor) {
@@ -276,7 +328,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	@Override
 	public boolean hasHooks(POINTCUT thePointcut) {
-		return myRegisteredPointcuts.contains(thePointcut);
+		return myPointcutToInvokers.containsKey(thePointcut);
 	}
 
 	protected Class<?> getBooleanReturnType() {
@@ -294,7 +346,10 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams) {
-		List<IInvoker> invokers = getInvokersForPointcut(thePointcut);
+		List<IInvoker> invokers = myPointcutToInvokers.get(thePointcut);
+		if (invokers == null) {
+			return null;
+		}
 		return callInvokers(thePointcut, theParams, invokers);
 	}
 
@@ -314,15 +369,11 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	 */
 	@Override
 	public List<IInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<IInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<IInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<IInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			invokers = union(Arrays.asList(globalInvokers, anonymousInvokers));
+		List<IInvoker> invokers = myPointcutToInvokers.get(thePointcut);
+		if (invokers == null) {
+			return new ArrayList<>();
 		}
-
-		return invokers;
+		return new ArrayList<>(invokers);
 	}
 
 	/**
@@ -525,6 +576,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private class HookInvoker extends BaseInvoker {
 
 		private final Method myMethod;
+		private final MethodHandle myMethodHandle;
 		private final Class<?>[] myParameterTypes;
 		private final int[] myParameterIndexes;
 		private final POINTCUT myPointcut;
@@ -564,6 +616,28 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			}
 
 			myMethod.setAccessible(true);
+			myMethodHandle = createMethodHandle(theInterceptor, theHookMethod, myParameterTypes.length);
+		}
+
+		/**
+		 * Creates a handle with the signature <code>(Object[])Object</code> which invokes the
+		 * hook method on the interceptor. Unlike {@link Method#invoke(Object, Object...)} this
+		 * does not need an access check or a varargs array copy on every call, and the JIT can
+		 * inline through it.
+		 */
+		private static MethodHandle createMethodHandle(
+				Object theInterceptor, Method theHookMethod, int theParameterCount) {
+			MethodHandle retVal;
+			try {
+				retVal = MethodHandles.lookup().unreflect(theHookMethod);
+			} catch (IllegalAccessException e) {
+				throw new ConfigurationException(Msg.code(2831) + "Unable to access hook method: " + theHookMethod, e);
+			}
+			if (!Modifier.isStatic(theHookMethod.getModifiers())) {
+				retVal = retVal.bindTo(theInterceptor);
+			}
+			return retVal.asSpreader(Object[].class, theParameterCount)
+					.asType(MethodType.methodType(Object.class, Object[].class));
 		}
 
 		@Override
@@ -603,8 +677,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			// Invoke the method
 			try {
 				return invokeMethod(args);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getTargetException();
+			} catch (Throwable targetException) {
 				ourLog.error(
 						"Exception thrown by interceptor for pointcut {}: {}",
 						getPointcut(),
@@ -621,13 +694,11 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 							Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(),
 							targetException);
 				}
-			} catch (Exception e) {
-				throw new InternalErrorException(Msg.code(1911) + e);
 			}
 		}
 
 		@WithSpan("hapifhir.interceptor")
-		private Object invokeMethod(Object[] args) throws InvocationTargetException, IllegalAccessException {
+		private Object invokeMethod(Object[] args) throws Throwable {
 			// Add attributes to the opentelemetry span
 			Span currentSpan = Span.current();
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_POINTCUT_NAME_ATT_KEY, myPointcut.name());
@@ -636,7 +707,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 					myMethod.getDeclaringClass().getName());
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_METHOD_NAME_ATT_KEY, myMethod.getName());
 
-			return myMethod.invoke(getInterceptor(), args);
+			return (Object) myMethodHandle.invokeExact(args);
 		}
 	}
 
@@ -659,6 +730,60 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		}
 	}
 
+	/**
+	 * Decorates an invoker in order to time each invocation. These are only placed in the
+	 * invoker snapshot when a {@link IInterceptorHookMetricsRecorder} is set.
+	 */
+	private static class MetricsRecordingInvoker implements IInvoker {
+
+		private final IInvoker myDelegate;
+		private final IInterceptorHookMetricsRecorder.IHookMetrics myHookMetrics;
+
+		private MetricsRecordingInvoker(
+				IInvoker theDelegate, IInterceptorHookMetricsRecorder.IHookMetrics theHookMetrics) {
+			myDelegate = theDelegate;
+			myHookMetrics = theHookMetrics;
+		}
+
+		@Override
+		public Object invoke(HookParams theParams) {
+			long start = System.nanoTime();
+			boolean successful = false;
+			try {
+				Object retVal = myDelegate.invoke(theParams);
+				successful = true;
+				return retVal;
+			} finally {
+				myHookMetrics.recordInvocation(System.nanoTime() - start, successful);
+			}
+		}
+
+		@Override
+		public int getOrder() {
+			return myDelegate.getOrder();
+		}
+
+		@Override
+		public Object getInterceptor() {
+			return myDelegate.getInterceptor();
+		}
+
+		@Override
+		public String getHookDescription() {
+			return myDelegate.getHookDescription();
+		}
+
+		@Override
+		public int compareTo(IInvoker theInvoker) {
+			return getOrder() - theInvoker.getOrder();
+		}
+
+		@Override
+		public String toString() {
+			return myDelegate.toString();
+		}
+	}
+
 	public abstract static class BaseInvoker implements IInvoker {
 
 		private final int myOrder;
@@ -0,0 +1,254 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.interceptor.executor;
+
+import ca.uhn.fhir.interceptor.api.IBaseInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.IInterceptorHookMetricsRecorder;
+import ca.uhn.fhir.interceptor.api.IPointcut;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link IInterceptorHookMetricsRecorder} which keeps invocation counts and a latency
+ * histogram for each hook in memory. Statistics are aggregated by pointcut and
+ * {@link IBaseInterceptorBroadcaster.IInvoker#getHookDescription() hook description}, so
+ * they survive an interceptor being unregistered and registered again.
+ *
+ * @since 8.6.0
+ */
+public class InMemoryInterceptorHookMetricsRecorder implements IInterceptorHookMetricsRecorder {
+
+	/**
+	 * The upper bound (inclusive) of each latency histogram bucket. An additional final
+	 * bucket holds any invocations slower than the last bound.
+	 */
+	private static final long[] ourBucketUpperBoundsMicros = {
+		10, 100, 500, 1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000
+	};
+
+	private static final long[] ourBucketUpperBoundsNanos = new long[ourBucketUpperBoundsMicros.length];
+
+	static {
+		for (int i = 0; i < ourBucketUpperBoundsMicros.length; i++) {
+			ourBucketUpperBoundsNanos[i] = TimeUnit.MICROSECONDS.toNanos(ourBucketUpperBoundsMicros[i]);
+		}
+	}
+
+	private final ConcurrentHashMap<Pair<String, String>, HookMetrics> myHookMetrics = new ConcurrentHashMap<>();
+
+	@Nonnull
+	@Override
+	public IHookMetrics getHookMetrics(
+			@Nonnull IPointcut thePointcut, @Nonnull IBaseInterceptorBroadcaster.IInvoker theInvoker) {
+		Pair<String, String> key = Pair.of(thePointcut.name(), theInvoker.getHookDescription());
+		return myHookMetrics.computeIfAbsent(key, t -> new HookMetrics(t.getLeft(), t.getRight()));
+	}
+
+	/**
+	 * Returns a snapshot of the statistics for every hook which has been registered while
+	 * this recorder was active, ordered by total time spent in the hook (descending)
+	 */
+	@Nonnull
+	public List<HookStatistics> getStatistics() {
+		List<HookStatistics> retVal = new ArrayList<>(myHookMetrics.size());
+		for (HookMetrics next : myHookMetrics.values()) {
+			retVal.add(next.toStatistics());
+		}
+		retVal.sort(Comparator.comparingLong(HookStatistics::getTotalNanos)
+				.reversed()
+				.thenComparing(HookStatistics::getPointcutName)
+				.thenComparing(HookStatistics::getHookDescription));
+		return retVal;
+	}
+
+	/**
+	 * Resets all counters to zero
+	 */
+	public void clear() {
+		myHookMetrics.values().forEach(HookMetrics::reset);
+	}
+
+	/**
+	 * Returns the upper bound (inclusive, in microseconds) of each latency histogram bucket.
+	 * {@link HookStatistics#getBucketCounts()} contains one more entry than this list, holding
+	 * any invocations slower than the last bound.
+	 */
+	@Nonnull
+	public static List<Long> getBucketUpperBoundsMicros() {
+		List<Long> retVal = new ArrayList<>(ourBucketUpperBoundsMicros.length);
+		for (long next : ourBucketUpperBoundsMicros) {
+			retVal.add(next);
+		}
+		return retVal;
+	}
+
+	private static class HookMetrics implements IHookMetrics {
+
+		private final String myPointcutName;
+		private final String myHookDescription;
+		private final LongAdder myInvocationCount = new LongAdder();
+		private final LongAdder myFailureCount = new LongAdder();
+		private final LongAdder myTotalNanos = new LongAdder();
+		private final LongAccumulator myMaxNanos = new LongAccumulator(Long::max, 0);
+		private final LongAdder[] myBucketCounts = new LongAdder[ourBucketUpperBoundsNanos.length + 1];
+
+		private HookMetrics(String thePointcutName, String theHookDescription) {
+			myPointcutName = thePointcutName;
+			myHookDescription = theHookDescription;
+			for (int i = 0; i < myBucketCounts.length; i++) {
+				myBucketCounts[i] = new LongAdder();
+			}
+		}
+
+		@Override
+		public void recordInvocation(long theElapsedNanos, boolean theSuccessful) {
+			myInvocationCount.increment();
+			if (!theSuccessful) {
+				myFailureCount.increment();
+			}
+			myTotalNanos.add(theElapsedNanos);
+			myMaxNanos.accumulate(theElapsedNanos);
+
+			int bucket = 0;
+			while (bucket < ourBucketUpperBoundsNanos.length && theElapsedNanos > ourBucketUpperBoundsNanos[bucket]) {
+				bucket++;
+			}
+			myBucketCounts[bucket].increment();
+		}
+
+		private void reset() {
+			myInvocationCount.reset();
+			myFailureCount.reset();
+			myTotalNanos.reset();
+			myMaxNanos.reset();
+			for (LongAdder next : myBucketCounts) {
+				next.reset();
+			}
+		}
+
+		private HookStatistics toStatistics() {
+			List<Long> bucketCounts = new ArrayList<>(myBucketCounts.length);
+			for (LongAdder next : myBucketCounts) {
+				bucketCounts.add(next.sum());
+			}
+			return new HookStatistics(
+					myPointcutName,
+					myHookDescription,
+					myInvocationCount.sum(),
+					myFailureCount.sum(),
+					myTotalNanos.sum(),
+					myMaxNanos.get(),
+					bucketCounts);
+		}
+	}
+
+	/**
+	 * Point in time statistics for a single hook
+	 */
+	public static class HookStatistics {
+
+		private final String myPointcutName;
+		private final String myHookDescription;
+		private final long myInvocationCount;
+		private final long myFailureCount;
+		private final long myTotalNanos;
+		private final long myMaxNanos;
+		private final List<Long> myBucketCounts;
+
+		HookStatistics(
+				String thePointcutName,
+				String theHookDescription,
+				long theInvocationCount,
+				long theFailureCount,
+				long theTotalNanos,
+				long theMaxNanos,
+				List<Long> theBucketCounts) {
+			myPointcutName = thePointcutName;
+			myHookDescription = theHookDescription;
+			myInvocationCount = theInvocationCount;
+			myFailureCount = theFailureCount;
+			myTotalNanos = theTotalNanos;
+			myMaxNanos = theMaxNanos;
+			myBucketCounts = List.copyOf(theBucketCounts);
+		}
+
+		public String getPointcutName() {
+			return myPointcutName;
+		}
+
+		public String getHookDescription() {
+			return myHookDescription;
+		}
+
+		public long getInvocationCount() {
+			return myInvocationCount;
+		}
+
+		/**
+		 * The number of invocations which threw an exception
+		 */
+		public long getFailureCount() {
+			return myFailureCount;
+		}
+
+		public long getTotalNanos() {
+			return myTotalNanos;
+		}
+
+		public long getMaxNanos() {
+			return myMaxNanos;
+		}
+
+		public long getMeanNanos() {
+			return myInvocationCount > 0 ? myTotalNanos / myInvocationCount : 0;
+		}
+
+		/**
+		 * The number of invocations in each latency histogram bucket.
+		 *
+		 * @see InMemoryInterceptorHookMetricsRecorder#getBucketUpperBoundsMicros()
+		 */
+		public List<Long> getBucketCounts() {
+			return myBucketCounts;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+					.append("pointcut", myPointcutName)
+					.append("hook", myHookDescription)
+					.append("invocations", myInvocationCount)
+					.append("failures", myFailureCount)
+					.append("totalNanos", myTotalNanos)
+					.append("maxNanos", myMaxNanos)
+					.toString();
+		}
+	}
+}
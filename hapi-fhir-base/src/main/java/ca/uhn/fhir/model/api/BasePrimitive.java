@@ -34,6 +34,12 @@ public abstract class BasePrimitive<T> extends BaseIdentifiableElement
 
 	private T myCoercedValue;
 	private String myStringValue;
+	/*
+	 * Volatile so that a thread which sees that a deferred value has been parsed also sees
+	 * the parsed value (and any subclass state populated by parse(String))
+	 */
+	private volatile boolean myParsePending;
+	private boolean myParseInProgress;
 
 	/**
 	 * Subclasses must override to convert a "coerced" value into an encoded one.
@@ -62,6 +68,7 @@ public abstract class BasePrimitive<T> extends BaseIdentifiableElement
 
 	@Override
 	public T getValue() {
+		ensureParsed();
 		return myCoercedValue;
 	}
 
@@ -77,9 +84,77 @@ public abstract class BasePrimitive<T> extends BaseIdentifiableElement
 
 	@Override
 	public boolean isEmpty() {
+		if (myParsePending && !StringUtils.isBlank(myStringValue)) {
+			return false;
+		}
 		return super.isBaseEmpty() && getValue() == null;
 	}
 
+	/**
+	 * Subclasses may override to return <code>true</code> if they support
+	 * {@link #setValueAsStringDeferred(String) deferred parsing}. Subclasses which do so must call
+	 * {@link #ensureParsed()} before reading or modifying any state which is populated by
+	 * {@link #parse(String)}.
+	 *
+	 * @since 8.6.0
+	 */
+	protected boolean isDeferredParsingSupported() {
+		return false;
+	}
+
+	/**
+	 * Sets the encoded value of this datatype without parsing it. The value is parsed the first time
+	 * the typed value (or any state derived from it) is accessed, so a value which is only ever
+	 * re-encoded is never parsed at all. As a consequence, an invalid value causes a
+	 * {@link DataFormatException} on first access instead of in this method.
+	 * <p>
+	 * If this datatype does not support deferred parsing, this method behaves exactly
+	 * like {@link #setValueAsString(String)}.
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public void setValueAsStringDeferred(String theValue) throws DataFormatException {
+		if (theValue == null || !isDeferredParsingSupported()) {
+			setValueAsString(theValue);
+			return;
+		}
+		myCoercedValue = null;
+		myStringValue = theValue;
+		myParsePending = true;
+	}
+
+	/**
+	 * Parses a value which was supplied using {@link #setValueAsStringDeferred(String)}, if
+	 * this has not already happened. This is safe to call from multiple threads, so that an
+	 * unmodified resource can be read concurrently even if some of its values have not yet
+	 * been parsed.
+	 *
+	 * @since 8.6.0
+	 */
+	protected void ensureParsed() throws DataFormatException {
+		if (!myParsePending) {
+			return;
+		}
+		synchronized (this) {
+			// parse(String) may call back into methods which call this one
+			if (!myParsePending || myParseInProgress) {
+				return;
+			}
+			String stringValue = myStringValue;
+			myParseInProgress = true;
+			try {
+				myCoercedValue = parse(stringValue);
+			} finally {
+				// Parsing may update derived state and re-encode, but the original text is retained
+				myStringValue = stringValue;
+				myParseInProgress = false;
+			}
+			// Only cleared once the value has been assigned, and left set if parsing failed
+			myParsePending = false;
+		}
+	}
+
 	/**
 	 * Subclasses must override to convert an encoded representation of this datatype into a "coerced" one
 	 *
@@ -97,6 +172,7 @@ public abstract class BasePrimitive<T> extends BaseIdentifiableElement
 
 	@Override
 	public BasePrimitive<T> setValue(T theValue) throws DataFormatException {
+		myParsePending = false;
 		myCoercedValue = theValue;
 		updateStringValue();
 		return this;
@@ -104,6 +180,7 @@ public abstract class BasePrimitive<T> extends BaseIdentifiableElement
 
 	@Override
 	public void setValueAsString(String theValue) throws DataFormatException {
+		myParsePending = false;
 		if (theValue == null) {
 			myCoercedValue = null;
 		} else {
@@ -119,6 +196,7 @@ public abstract class BasePrimitive<T> extends BaseIdentifiableElement
 	}
 
 	protected void updateStringValue() {
+		ensureParsed();
 		if (myCoercedValue == null) {
 			myStringValue = null;
 		} else {
@@ -222,6 +222,7 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 	 * </p>
 	 */
 	public Long getNanos() {
+		ensureParsed();
 		if (isBlank(myFractionalSeconds)) {
 			return null;
 		}
@@ -274,6 +275,7 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 	 * @see #setPrecision(TemporalPrecisionEnum)
 	 */
 	public TemporalPrecisionEnum getPrecision() {
+		ensureParsed();
 		if (myPrecision == null) {
 			return getDefaultPrecisionForDatatype();
 		}
@@ -292,6 +294,7 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 	 * supplied.
 	 */
 	public TimeZone getTimeZone() {
+		ensureParsed();
 		if (myTimeZoneZulu) {
 			return getTimeZone("GMT");
 		}
@@ -331,6 +334,7 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 	 * Returns true if the timezone is set to GMT-0:00 (Z)
 	 */
 	public boolean isTimeZoneZulu() {
+		ensureParsed();
 		return myTimeZoneZulu;
 	}
 
@@ -576,6 +580,7 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 		if (thePrecision == null) {
 			throw new NullPointerException(Msg.code(1881) + "Precision may not be null");
 		}
+		ensureParsed();
 		myPrecision = thePrecision;
 		updateStringValue();
 		return this;
@@ -617,12 +622,14 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 	}
 
 	public BaseDateTimeDt setTimeZone(TimeZone theTimeZone) {
+		ensureParsed();
 		myTimeZone = theTimeZone;
 		updateStringValue();
 		return this;
 	}
 
 	public BaseDateTimeDt setTimeZoneZulu(boolean theTimeZoneZulu) {
+		ensureParsed();
 		myTimeZoneZulu = theTimeZoneZulu;
 		updateStringValue();
 		return this;
@@ -681,6 +688,21 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 		}
 	}
 
+	@Override
+	public void setValueAsStringDeferred(String theValue) throws DataFormatException {
+		if (NOW_DATE_CONSTANT.equalsIgnoreCase(theValue) || TODAY_DATE_CONSTANT.equalsIgnoreCase(theValue)) {
+			setValueAsString(theValue);
+		} else {
+			clearTimeZone();
+			super.setValueAsStringDeferred(theValue);
+		}
+	}
+
+	@Override
+	protected boolean isDeferredParsingSupported() {
+		return true;
+	}
+
 	/**
 	 * Sets the year, e.g. 2015
 	 */
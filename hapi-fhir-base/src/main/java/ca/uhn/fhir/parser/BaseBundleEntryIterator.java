@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.i18n.Msg;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class for {@link IBundleEntryIterator} implementations. Subclasses drive a {@link ParserState}
+ * for the Bundle from their source, and this class removes each entry from the Bundle as soon
+ * as it has been completely parsed. Entries are never retained by the parser once they have been
+ * handed out, so references between entries are not resolved.
+ */
+abstract class BaseBundleEntryIterator implements IBundleEntryIterator {
+
+	private final BaseParser myParser;
+	private final BaseRuntimeChildDefinition myEntryChild;
+	private final BaseRuntimeChildDefinition myFullUrlChild;
+	private final BaseRuntimeChildDefinition myResourceChild;
+	private final BaseRuntimeChildDefinition myRequestChild;
+	private final BaseRuntimeChildDefinition myRequestUrlChild;
+	private final boolean myOverrideResourceIdWithFullUrl;
+	private IBaseBundle myBundle;
+	private IBase myNext;
+	private boolean myFinished;
+
+	BaseBundleEntryIterator(BaseParser theParser) {
+		myParser = theParser;
+		RuntimeResourceDefinition bundleDef = theParser.getContext().getResourceDefinition("Bundle");
+		myEntryChild = bundleDef.getChildByName("entry");
+		BaseRuntimeElementCompositeDefinition<?> entryDef =
+				(BaseRuntimeElementCompositeDefinition<?>) myEntryChild.getChildByName("entry");
+		myFullUrlChild = entryDef.getChildByName("fullUrl");
+		myResourceChild = entryDef.getChildByName("resource");
+		myRequestChild = entryDef.getChildByName("request");
+		BaseRuntimeElementCompositeDefinition<?> requestDef =
+				(BaseRuntimeElementCompositeDefinition<?>) myRequestChild.getChildByName("request");
+		myRequestUrlChild = requestDef.getChildByName("url");
+		myOverrideResourceIdWithFullUrl = theParser.isOverrideResourceIdWithBundleEntryFullUrl();
+	}
+
+	/**
+	 * Continues parsing the source up to the next point where no entry is partially parsed,
+	 * typically after one more entry has been completely parsed.
+	 *
+	 * @return Returns <code>false</code> if the end of the Bundle has been reached
+	 */
+	protected abstract boolean parseMore();
+
+	/**
+	 * Releases the underlying source
+	 */
+	protected abstract void closeSource();
+
+	/**
+	 * Subclasses must call this method once the Bundle instance has been created
+	 */
+	protected void setBundle(IBase theBundle) {
+		if (!(theBundle instanceof IBaseBundle)) {
+			throw new DataFormatException(
+					Msg.code(2819) + "Content does not appear to be a Bundle, unable to parse entries incrementally");
+		}
+		myBundle = (IBaseBundle) theBundle;
+	}
+
+	@Override
+	public IBaseBundle getBundle() {
+		return myBundle;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (myNext == null) {
+			myNext = takeEntry();
+			if (myNext != null || myFinished) {
+				break;
+			}
+			if (!parseMore()) {
+				close();
+			}
+		}
+		return myNext != null;
+	}
+
+	@Override
+	public IBase next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException(Msg.code(2820) + "No more Bundle entries");
+		}
+		IBase retVal = myNext;
+		myNext = null;
+		return retVal;
+	}
+
+	@Override
+	public void close() {
+		if (!myFinished) {
+			myFinished = true;
+			closeSource();
+		}
+	}
+
+	private IBase takeEntry() {
+		List<IBase> entries = myEntryChild.getAccessor().getValues(myBundle);
+		if (entries.isEmpty()) {
+			return null;
+		}
+
+		IBase retVal = entries.get(0);
+		myEntryChild.getMutator().remove(myBundle, 0);
+
+		IBaseResource resource = myResourceChild
+				.getAccessor()
+				.<IBaseResource>getFirstValueOrNull(retVal)
+				.orElse(null);
+		if (resource == null) {
+			return retVal;
+		}
+
+		if (myOverrideResourceIdWithFullUrl && myFullUrlChild != null) {
+			String fullUrl = myFullUrlChild
+					.getAccessor()
+					.getFirstValueOrNull(retVal)
+					.map(t -> ((IPrimitiveType<?>) t).getValueAsString())
+					.orElse(null);
+			myParser.overrideResourceIdWithBundleEntryFullUrl(fullUrl, resource);
+		}
+
+		// Same as ParserState does when parsing a complete Bundle: resources without an ID take
+		// their ID from a placeholder request URL
+		if (resource.getIdElement().isEmpty()) {
+			String requestUrl = myRequestChild
+					.getAccessor()
+					.getFirstValueOrNull(retVal)
+					.flatMap(t -> myRequestUrlChild.getAccessor().getFirstValueOrNull(t))
+					.map(t -> ((IPrimitiveType<?>) t).getValueAsString())
+					.orElse(null);
+			if (requestUrl != null && requestUrl.startsWith("urn:")) {
+				resource.setId(requestUrl);
+			}
+		}
+
+		return retVal;
+	}
+}
@@ -20,6 +20,7 @@
 package ca.uhn.fhir.parser;
 
 import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition.ChildNameAndDef;
 import ca.uhn.fhir.context.BaseRuntimeDeclaredChildDefinition;
 import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
 import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
@@ -70,10 +71,13 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -305,6 +309,14 @@ public abstract class BaseParser implements IParser {
 		encodeResourceToWriter(theResource, theWriter, encodeContext);
 	}
 
+	@Override
+	public final void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream)
+			throws IOException, DataFormatException {
+		EncodeContext encodeContext =
+				new EncodeContext(this, myContext.getParserOptions(), new FhirTerser.ContainedResources());
+		encodeResourceToOutputStream(theResource, theOutputStream, encodeContext);
+	}
+
 	@Override
 	public String encodeToString(IBase theElement) throws DataFormatException {
 		Writer stringWriter = new StringBuilderWriter();
@@ -339,6 +351,17 @@ public abstract class BaseParser implements IParser {
 		}
 	}
 
+	@Override
+	public IBundleEntryIterator parseBundleEntries(Reader theReader) throws DataFormatException {
+		Validate.notNull(theReader, "theReader must not be null");
+		return doParseBundleEntries(theReader);
+	}
+
+	protected IBundleEntryIterator doParseBundleEntries(Reader theReader) {
+		throw new InternalErrorException(Msg.code(2824) + "This " + getEncoding()
+				+ " parser does not support incremental parsing of Bundle entries");
+	}
+
 	protected void doParseIntoComplexStructure(Reader theSource, IBase theTarget) {
 		throw new InternalErrorException(
 				Msg.code(2633) + "This " + getEncoding() + " parser does not support parsing non-resource values");
@@ -346,8 +369,40 @@ public abstract class BaseParser implements IParser {
 
 	protected void encodeResourceToWriter(IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException {
-		Validate.notNull(theResource, "theResource can not be null");
 		Validate.notNull(theWriter, "theWriter can not be null");
+		pushResourcePath(theResource, theEncodeContext);
+
+		doEncodeResourceToWriter(theResource, theWriter, theEncodeContext);
+
+		theEncodeContext.popPath();
+	}
+
+	protected void encodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		Validate.notNull(theOutputStream, "theOutputStream can not be null");
+		pushResourcePath(theResource, theEncodeContext);
+
+		doEncodeResourceToOutputStream(theResource, theOutputStream, theEncodeContext);
+
+		theEncodeContext.popPath();
+	}
+
+	/**
+	 * Encodes a resource as UTF-8 bytes. The default implementation adapts the stream to a
+	 * {@link Writer}, subclasses should override this method if their encoder is able to write
+	 * bytes directly.
+	 */
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		doEncodeResourceToWriter(theResource, writer, theEncodeContext);
+		writer.flush();
+	}
+
+	private void pushResourcePath(IBaseResource theResource, EncodeContext theEncodeContext) {
+		Validate.notNull(theResource, "theResource can not be null");
 		Validate.notNull(theEncodeContext, "theEncodeContext can not be null");
 
 		if (theResource.getStructureFhirVersionEnum() != myContext.getVersion().getVersion()) {
@@ -359,10 +414,6 @@ public abstract class BaseParser implements IParser {
 		String resourceName =
 				myContext.getElementDefinition(theResource.getClass()).getName();
 		theEncodeContext.pushPath(resourceName, true);
-
-		doEncodeResourceToWriter(theResource, theWriter, theEncodeContext);
-
-		theEncodeContext.popPath();
 	}
 
 	protected void encodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
@@ -399,51 +450,13 @@ public abstract class BaseParser implements IParser {
 		return retVal;
 	}
 
-	@SuppressWarnings("unchecked")
 	ChildNameAndDef getChildNameAndDef(BaseRuntimeChildDefinition theChild, IBase theValue) {
 		Class<? extends IBase> type = theValue.getClass();
-		String childName = theChild.getChildNameByDatatype(type);
-		BaseRuntimeElementDefinition<?> childDef = theChild.getChildElementDefinitionByDatatype(type);
-		if (childDef == null) {
-			// if (theValue instanceof IBaseExtension) {
-			// return null;
-			// }
-
-			/*
-			 * For RI structures Enumeration class, this replaces the child def
-			 * with the "code" one. This is messy, and presumably there is a better
-			 * way..
-			 */
-			BaseRuntimeElementDefinition<?> elementDef = myContext.getElementDefinition(type);
-			if (elementDef.getName().equals("code")) {
-				Class<? extends IBase> type2 =
-						myContext.getElementDefinition("code").getImplementingClass();
-				childDef = theChild.getChildElementDefinitionByDatatype(type2);
-				childName = theChild.getChildNameByDatatype(type2);
-			}
-
-			// See possibly the user has extended a built-in type without
-			// declaring it anywhere, as in XmlParserDstu3Test#testEncodeUndeclaredBlock
-			if (childDef == null) {
-				Class<?> nextSuperType = theValue.getClass();
-				while (IBase.class.isAssignableFrom(nextSuperType) && childDef == null) {
-					if (Modifier.isAbstract(nextSuperType.getModifiers()) == false) {
-						BaseRuntimeElementDefinition<?> def =
-								myContext.getElementDefinition((Class<? extends IBase>) nextSuperType);
-						Class<?> nextChildType = def.getImplementingClass();
-						childDef = theChild.getChildElementDefinitionByDatatype((Class<? extends IBase>) nextChildType);
-						childName = theChild.getChildNameByDatatype((Class<? extends IBase>) nextChildType);
-					}
-					nextSuperType = nextSuperType.getSuperclass();
-				}
-			}
-
-			if (childDef == null) {
-				throwExceptionForUnknownChildType(theChild, type);
-			}
+		ChildNameAndDef retVal = theChild.getChildNameAndDefForEncoding(myContext, type);
+		if (retVal == null) {
+			throwExceptionForUnknownChildType(theChild, type);
 		}
-
-		return new ChildNameAndDef(childName, childDef);
+		return retVal;
 	}
 
 	protected String getCompositeElementId(IBase theElement) {
@@ -612,7 +625,7 @@ public abstract class BaseParser implements IParser {
 		return myOmitResourceId;
 	}
 
-	private boolean isOverrideResourceIdWithBundleEntryFullUrl() {
+	boolean isOverrideResourceIdWithBundleEntryFullUrl() {
 		Boolean overrideResourceIdWithBundleEntryFullUrl = myOverrideResourceIdWithBundleEntryFullUrl;
 		if (overrideResourceIdWithBundleEntryFullUrl != null) {
 			return overrideResourceIdWithBundleEntryFullUrl;
@@ -715,53 +728,68 @@ public abstract class BaseParser implements IParser {
 			}
 		}
 
-		RuntimeResourceDefinition def = myContext.getResourceDefinition(retVal);
+		overrideResourceIdsWithBundleEntryFullUrls(retVal);
+
+		return retVal;
+	}
+
+	/**
+	 * If the given resource is a Bundle, updates the IDs of the resources in its entries
+	 * using the values of <code>Bundle.entry.fullUrl</code>, if appropriate
+	 */
+	void overrideResourceIdsWithBundleEntryFullUrls(IBaseResource theResource) {
+		RuntimeResourceDefinition def = myContext.getResourceDefinition(theResource);
 		if ("Bundle".equals(def.getName())) {
 
 			if (isOverrideResourceIdWithBundleEntryFullUrl()) {
-				BundleUtil.processEntries(myContext, (IBaseBundle) retVal, t -> {
-					String fullUrl = t.getFullUrl();
-					if (fullUrl != null) {
-						IBaseResource resource = t.getResource();
-						if (resource != null) {
-							IIdType resourceId = resource.getIdElement();
-							if (isBlank(resourceId.getValue())) {
-								resourceId.setValue(fullUrl);
-							} else {
-								if (fullUrl.startsWith("urn:")
-										&& fullUrl.length()
-												> resourceId.getIdPart().length()
-										&& fullUrl.charAt(fullUrl.length()
-														- resourceId.getIdPart().length()
-														- 1)
-												== ':'
-										&& fullUrl.endsWith(resourceId.getIdPart())) {
-									resourceId.setValue(fullUrl);
-								} else {
-									IIdType fullUrlId = myContext.getVersion().newIdType();
-									fullUrlId.setValue(fullUrl);
-									if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
-										IIdType newId = fullUrlId;
-										if (!newId.hasVersionIdPart() && resourceId.hasVersionIdPart()) {
-											newId = newId.withVersion(resourceId.getVersionIdPart());
-										}
-										resourceId.setValue(newId.getValue());
-									} else if (StringUtils.equals(fullUrlId.getIdPart(), resourceId.getIdPart())) {
-										if (fullUrlId.hasBaseUrl()) {
-											IIdType newResourceId = resourceId.withServerBase(
-													fullUrlId.getBaseUrl(), resourceId.getResourceType());
-											resourceId.setValue(newResourceId.getValue());
-										}
-									}
-								}
+				BundleUtil.processEntries(
+						myContext,
+						(IBaseBundle) theResource,
+						t -> overrideResourceIdWithBundleEntryFullUrl(t.getFullUrl(), t.getResource()));
+			}
+		}
+	}
+
+	/**
+	 * Updates the ID of a resource found in a Bundle entry using the value of
+	 * <code>Bundle.entry.fullUrl</code>, if appropriate
+	 */
+	void overrideResourceIdWithBundleEntryFullUrl(String theFullUrl, IBaseResource theResource) {
+		String fullUrl = theFullUrl;
+		if (fullUrl != null) {
+			if (theResource != null) {
+				IIdType resourceId = theResource.getIdElement();
+				if (isBlank(resourceId.getValue())) {
+					resourceId.setValue(fullUrl);
+				} else {
+					if (fullUrl.startsWith("urn:")
+							&& fullUrl.length() > resourceId.getIdPart().length()
+							&& fullUrl.charAt(fullUrl.length()
+											- resourceId.getIdPart().length()
+											- 1)
+									== ':'
+							&& fullUrl.endsWith(resourceId.getIdPart())) {
+						resourceId.setValue(fullUrl);
+					} else {
+						IIdType fullUrlId = myContext.getVersion().newIdType();
+						fullUrlId.setValue(fullUrl);
+						if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
+							IIdType newId = fullUrlId;
+							if (!newId.hasVersionIdPart() && resourceId.hasVersionIdPart()) {
+								newId = newId.withVersion(resourceId.getVersionIdPart());
+							}
+							resourceId.setValue(newId.getValue());
+						} else if (StringUtils.equals(fullUrlId.getIdPart(), resourceId.getIdPart())) {
+							if (fullUrlId.hasBaseUrl()) {
+								IIdType newResourceId =
+										resourceId.withServerBase(fullUrlId.getBaseUrl(), resourceId.getResourceType());
+								resourceId.setValue(newResourceId.getValue());
 							}
 						}
 					}
-				});
+				}
 			}
 		}
-
-		return retVal;
 	}
 
 	@SuppressWarnings("cast")
@@ -951,6 +979,26 @@ public abstract class BaseParser implements IParser {
 		return this;
 	}
 
+	/**
+	 * Copies the parsing and encoding settings of this parser to the given parser. The
+	 * {@link #setEncodeForceResourceId(IIdType) forced resource ID} is not copied, since it
+	 * applies to a single resource.
+	 */
+	void copySettingsTo(BaseParser theTarget) {
+		theTarget.myEncodeElementsAppliesToChildResourcesOnly = myEncodeElementsAppliesToChildResourcesOnly;
+		theTarget.myDontEncodeElements = myDontEncodeElements;
+		theTarget.myEncodeElements = myEncodeElements;
+		theTarget.myErrorHandler = myErrorHandler;
+		theTarget.myOmitResourceId = myOmitResourceId;
+		theTarget.myPreferTypes = myPreferTypes;
+		theTarget.myServerBaseUrl = myServerBaseUrl;
+		theTarget.myStripVersionsFromReferences = myStripVersionsFromReferences;
+		theTarget.myOverrideResourceIdWithBundleEntryFullUrl = myOverrideResourceIdWithBundleEntryFullUrl;
+		theTarget.mySummaryMode = mySummaryMode;
+		theTarget.mySuppressNarratives = mySuppressNarratives;
+		theTarget.myDontStripVersionsFromReferencesAtPaths = myDontStripVersionsFromReferencesAtPaths;
+	}
+
 	protected boolean shouldAddSubsettedTag(EncodeContext theEncodeContext) {
 		if (isSummaryMode()) {
 			return true;
@@ -1079,25 +1127,6 @@ public abstract class BaseParser implements IParser {
 		theContext.setContainedResources(containedResources);
 	}
 
-	static class ChildNameAndDef {
-
-		private final BaseRuntimeElementDefinition<?> myChildDef;
-		private final String myChildName;
-
-		public ChildNameAndDef(String theChildName, BaseRuntimeElementDefinition<?> theChildDef) {
-			myChildName = theChildName;
-			myChildDef = theChildDef;
-		}
-
-		public BaseRuntimeElementDefinition<?> getChildDef() {
-			return myChildDef;
-		}
-
-		public String getChildName() {
-			return myChildName;
-		}
-	}
-
 	/**
 	 * EncodeContext is a shared state object that is passed around the
 	 * encode process
@@ -1159,6 +1188,7 @@ public abstract class BaseParser implements IParser {
 		private final CompositeChildElement myParent;
 		private final RuntimeResourceDefinition myResDef;
 		private final EncodeContext myEncodeContext;
+		private int myHashCode;
 
 		public CompositeChildElement(
 				CompositeChildElement theParent,
@@ -1366,12 +1396,18 @@ public abstract class BaseParser implements IParser {
 
 		@Override
 		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + ((myDef == null) ? 0 : myDef.hashCode());
-			result = prime * result + ((myParent == null) ? 0 : myParent.hashCode());
-			result = prime * result + ((myResDef == null) ? 0 : myResDef.hashCode());
-			result = prime * result + ((myEncodeContext == null) ? 0 : myEncodeContext.hashCode());
+			// All fields are final, and hashing walks the whole parent chain, so the
+			// result is computed once
+			int result = myHashCode;
+			if (result == 0) {
+				final int prime = 31;
+				result = 1;
+				result = prime * result + ((myDef == null) ? 0 : myDef.hashCode());
+				result = prime * result + ((myParent == null) ? 0 : myParent.hashCode());
+				result = prime * result + ((myResDef == null) ? 0 : myResDef.hashCode());
+				result = prime * result + ((myEncodeContext == null) ? 0 : myEncodeContext.hashCode());
+				myHashCode = result;
+			}
 			return result;
 		}
 
@@ -0,0 +1,57 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator over the <code>Bundle.entry</code> elements of a Bundle which is being parsed
+ * incrementally from its source, as returned by {@link IParser#parseBundleEntries(java.io.Reader)}.
+ * Each entry is parsed only when it is requested, and entries are not retained by the
+ * iterator once they have been returned, so a Bundle of any size can be processed with
+ * bounded memory.
+ * <p>
+ * Any errors in the source content are thrown as {@link DataFormatException} from
+ * {@link #hasNext()} or {@link #next()}. Closing the iterator closes the underlying source.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public interface IBundleEntryIterator extends Iterator<IBase>, Closeable {
+
+	/**
+	 * Returns the Bundle being parsed. This is populated with every Bundle-level element (e.g.
+	 * <code>Bundle.type</code>, <code>Bundle.total</code> and <code>Bundle.link</code>) which appears
+	 * in the source before the first entry, which in the standard FHIR element order is everything
+	 * except <code>Bundle.signature</code>. Any elements appearing after the entries are added
+	 * once iteration is complete. The returned Bundle never contains any entries.
+	 */
+	IBaseBundle getBundle();
+
+	/**
+	 * Stops parsing and closes the underlying source
+	 */
+	@Override
+	void close();
+}
@@ -36,9 +36,13 @@ import org.hl7.fhir.instance.model.api.IIdType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -71,6 +75,24 @@ public interface IParser {
 	 */
 	void encodeResourceToWriter(IBaseResource theResource, Writer theWriter) throws IOException, DataFormatException;
 
+	/**
+	 * Encodes a resource using the parser's given encoding format, writing the result to the
+	 * given stream as UTF-8 encoded bytes. Where supported by the underlying encoder (currently
+	 * JSON and XML), characters are encoded straight into the stream's bytes rather than passing
+	 * through an intermediate {@link Writer} or {@link String}. The stream is flushed but is not closed.
+	 *
+	 * @param theResource     The resource to encode. Must not be null.
+	 * @param theOutputStream The stream to write to.
+	 * @throws DataFormatException If any invalid elements within the contents to be encoded prevent successful encoding.
+	 * @since 8.6.0
+	 */
+	default void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream)
+			throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		encodeResourceToWriter(theResource, writer);
+		writer.flush();
+	}
+
 	/**
 	 * Encodes any FHIR element to a string.
 	 * If a {@link IBaseResource resource object} is passed in, the resource will be encoded using standard FHIR
@@ -234,6 +256,40 @@ public interface IParser {
 	 */
 	IParser setSummaryMode(boolean theSummaryMode);
 
+	/**
+	 * Parses a Bundle incrementally, returning an iterator over its <code>Bundle.entry</code> elements.
+	 * Entries are parsed one at a time as they are requested from the iterator and are not retained,
+	 * so this method can be used to process very large Bundles (e.g. large transaction or searchset
+	 * Bundles) with bounded memory. Bundle-level elements such as <code>Bundle.type</code>,
+	 * <code>Bundle.total</code> and <code>Bundle.link</code> are available immediately via
+	 * {@link IBundleEntryIterator#getBundle()}.
+	 * <p>
+	 * Note that because entries are not retained, references between resources in different
+	 * entries are not resolved to the target resource object as they are by
+	 * {@link #parseResource(Reader)}. The returned iterator should be closed when it is no longer
+	 * needed, and closing it also closes the given reader.
+	 * </p>
+	 *
+	 * @param theReader The reader to parse input from. Note that the Reader will be closed by the iterator.
+	 * @return An iterator over the entries of the Bundle
+	 * @throws DataFormatException If the content is not a Bundle, or can not be parsed for any reason
+	 * @since 8.6.0
+	 */
+	IBundleEntryIterator parseBundleEntries(Reader theReader) throws DataFormatException;
+
+	/**
+	 * Parses a Bundle incrementally, returning an iterator over its <code>Bundle.entry</code> elements.
+	 * The input is read as UTF-8. See {@link #parseBundleEntries(Reader)} for details.
+	 *
+	 * @param theInputStream The input stream to parse input from. Note that the stream will be closed by the iterator.
+	 * @return An iterator over the entries of the Bundle
+	 * @throws DataFormatException If the content is not a Bundle, or can not be parsed for any reason
+	 * @since 8.6.0
+	 */
+	default IBundleEntryIterator parseBundleEntries(InputStream theInputStream) throws DataFormatException {
+		return parseBundleEntries(new InputStreamReader(theInputStream, StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Parses a resource
 	 *
@@ -20,6 +20,7 @@
 package ca.uhn.fhir.parser;
 
 import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition.ChildNameAndDef;
 import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
 import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
 import ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum;
@@ -73,9 +74,9 @@ import org.hl7.fhir.instance.model.api.INarrative;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -226,6 +227,15 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		eventWriter.close();
 	}
 
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		BaseJsonLikeWriter eventWriter = new JacksonStructure().getJsonLikeWriter(theOutputStream);
+		doEncodeResourceToJsonLikeWriter(theResource, eventWriter, theEncodeContext);
+		eventWriter.close();
+	}
+
 	@Override
 	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException, DataFormatException {
@@ -238,6 +248,11 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	@Override
 	protected void doParseIntoComplexStructure(Reader theSource, IBase theTarget) {
+		if (getContext().getParserOptions().isJsonTokenStreamingEnabled()) {
+			new JsonTokenStreamParser(this).parseInto(theSource, theTarget);
+			return;
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theSource);
 
@@ -252,6 +267,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		if (getContext().getParserOptions().isJsonTokenStreamingEnabled()) {
+			return new JsonTokenStreamParser(this).parseResource(theResourceType, theReader);
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theReader);
 
@@ -260,6 +279,11 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		return retVal;
 	}
 
+	@Override
+	protected IBundleEntryIterator doParseBundleEntries(Reader theReader) {
+		return new JsonTokenStreamParser(this).parseBundleEntries(theReader);
+	}
+
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, JsonLikeStructure theJsonStructure) {
 		BaseJsonLikeObject object = theJsonStructure.getRootObject();
 
@@ -350,19 +374,12 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 						theEventWriter.write(((IBaseIntegerDatatype) value).getValue());
 					}
 				} else if (value instanceof IBaseDecimalDatatype) {
-					BigDecimal decimalValue = ((IBaseDecimalDatatype) value).getValue();
-					decimalValue = new BigDecimal(decimalValue.toString()) {
-						private static final long serialVersionUID = 1L;
-
-						@Override
-						public String toString() {
-							return value.getValueAsString();
-						}
-					};
+					// Write the original text so that the typed value never needs to be created
+					String decimalValue = value.getValueAsString();
 					if (theChildName != null) {
-						write(theEventWriter, theChildName, decimalValue);
+						theEventWriter.writeNumber(theChildName, decimalValue);
 					} else {
-						theEventWriter.write(decimalValue);
+						theEventWriter.writeNumber(decimalValue);
 					}
 				} else if (value instanceof IBaseBooleanDatatype) {
 					if (theChildName != null) {
@@ -581,7 +598,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 					}
 				}
 
-				BaseParser.ChildNameAndDef childNameAndDef = super.getChildNameAndDef(nextChild, nextValue);
+				ChildNameAndDef childNameAndDef = super.getChildNameAndDef(nextChild, nextValue);
 				if (childNameAndDef == null) {
 					continue;
 				}
@@ -816,7 +833,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		}
 	}
 
-	private boolean isSupportsFhirComment() {
+	boolean isSupportsFhirComment() {
 		if (myIsSupportsFhirComment == null) {
 			myIsSupportsFhirComment = !getContext().getVersion().getVersion().isNewerThan(FhirVersionEnum.DSTU2_1);
 		}
@@ -1710,11 +1727,6 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 	// theState.endingElement();
 	// }
 
-	private void write(BaseJsonLikeWriter theEventWriter, String theChildName, BigDecimal theDecimalValue)
-			throws IOException {
-		theEventWriter.write(theChildName, theDecimalValue);
-	}
-
 	private void write(BaseJsonLikeWriter theEventWriter, String theChildName, Integer theValue) throws IOException {
 		theEventWriter.write(theChildName, theValue);
 	}
@@ -0,0 +1,774 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ScalarType;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ValueType;
+import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.io.IOUtils;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Parses FHIR JSON by driving {@link ParserState} directly from the Jackson token stream
+ * instead of first loading the whole document into a tree. This is used by {@link JsonParser}
+ * when {@link ca.uhn.fhir.context.ParserOptions#isJsonTokenStreamingEnabled()} is set.
+ * <p>
+ * Complex elements are streamed as they are read. Primitive elements and their
+ * <code>_</code>-prefixed siblings are buffered until the end of the object containing them
+ * so that they can be paired up regardless of the order in which they appear, and objects which
+ * are expected to hold a resource but do not start with <code>resourceType</code> (or extensions
+ * which do not start with <code>url</code>) are buffered before being processed. An
+ * <code>_</code>-prefixed element which appears after a complex element with the same name is
+ * ignored, since FHIR only allows these for primitive elements.
+ * </p>
+ */
+class JsonTokenStreamParser {
+
+	private static final JsonNodeFactory ourNodeFactory = JsonNodeFactory.withExactBigDecimals(true);
+	private final JsonParser myParser;
+	private final IParserErrorHandler myErrorHandler;
+
+	JsonTokenStreamParser(JsonParser theParser) {
+		myParser = theParser;
+		myErrorHandler = theParser.getErrorHandler();
+	}
+
+	<T extends IBaseResource> T parseResource(Class<T> theResourceType, Reader theReader) {
+		return parseResource(theResourceType, JacksonStructure.createStreamingParser(theReader));
+	}
+
+	/**
+	 * Parses a resource from the given token stream, which may be produced by any Jackson
+	 * format (e.g. JSON or SMILE). The token stream is closed by this method.
+	 */
+	<T extends IBaseResource> T parseResource(
+			Class<T> theResourceType, com.fasterxml.jackson.core.JsonParser theTokens) {
+		try (com.fasterxml.jackson.core.JsonParser tokens = theTokens) {
+			tokens.nextToken();
+
+			ResourceBody body = readResourceType(tokens);
+			if (body.myResourceType == null || isBlank(body.myResourceType)) {
+				throw new DataFormatException(
+						Msg.code(2845) + "Invalid JSON content detected, missing required element: 'resourceType'");
+			}
+
+			ParserState<? extends IBaseResource> state = ParserState.getPreResourceInstance(
+					myParser, theResourceType, myParser.getContext(), true, myErrorHandler);
+			state.enteringNewElement(null, body.myResourceType);
+
+			parseChildren(body.myTokens, state, false);
+
+			state.endingElement();
+			state.endingElement();
+
+			verifyNoTrailingTokens(tokens);
+
+			@SuppressWarnings("unchecked")
+			T retVal = (T) state.getObject();
+			return retVal;
+		} catch (IOException e) {
+			throw JacksonStructure.newParseException(e);
+		}
+	}
+
+	void parseInto(Reader theSource, IBase theTarget) {
+		try (com.fasterxml.jackson.core.JsonParser tokens = JacksonStructure.createStreamingParser(theSource)) {
+			tokens.nextToken();
+
+			ParserState<IBase> state = ParserState.getComplexObjectState(
+					myParser, myParser.getContext(), myParser.getContext(), true, theTarget, myErrorHandler);
+			state.enteringNewElement(null, null);
+
+			parseChildren(tokens, state, false);
+
+			state.endingElement();
+
+			verifyNoTrailingTokens(tokens);
+		} catch (IOException e) {
+			throw JacksonStructure.newParseException(e);
+		}
+	}
+
+	IBundleEntryIterator parseBundleEntries(Reader theReader) {
+		return parseBundleEntries(JacksonStructure.createStreamingParser(theReader), theReader);
+	}
+
+	/**
+	 * @param theTokens The token stream to read from
+	 * @param theSource The source of the token stream, which is closed along with the token stream
+	 */
+	IBundleEntryIterator parseBundleEntries(com.fasterxml.jackson.core.JsonParser theTokens, Closeable theSource) {
+		return new JsonBundleEntryIterator(theTokens, theSource);
+	}
+
+	/**
+	 * Processes the fields of a JSON object. The token stream must be positioned on the
+	 * <code>START_OBJECT</code> token or on the value of a field within the object, and
+	 * will be positioned on the matching <code>END_OBJECT</code> token when this method returns.
+	 */
+	private void parseChildren(
+			com.fasterxml.jackson.core.JsonParser theTokens, ParserState<?> theState, boolean theInExtension)
+			throws IOException {
+		ObjectFields fields = new ObjectFields(theTokens, theState, theInExtension);
+		fields.parse(null);
+		fields.finish();
+	}
+
+	/**
+	 * Processes a single value. The token stream must be positioned on the first token of the value.
+	 */
+	private void parseValue(
+			com.fasterxml.jackson.core.JsonParser theTokens,
+			ParserState<?> theState,
+			String theName,
+			JsonNode theAlternate,
+			String theAlternateName,
+			boolean theInArray)
+			throws IOException {
+		JsonToken token = theTokens.currentToken();
+		if (theName.equals("id") && token != JsonToken.VALUE_STRING) {
+			myErrorHandler.incorrectJsonType(
+					null, "id", ValueType.SCALAR, ScalarType.STRING, toValueType(token), toScalarType(token));
+		}
+
+		switch (token) {
+			case START_ARRAY:
+				parseArrayElements(theTokens, theTokens.nextToken(), theState, theName, theAlternate, theAlternateName);
+				break;
+			case START_OBJECT:
+				if (!theInArray && theState.elementIsRepeating(theName)) {
+					myErrorHandler.incorrectJsonType(null, theName, ValueType.ARRAY, null, ValueType.OBJECT, null);
+				}
+
+				theState.enteringNewElement(null, theName);
+				parseAlternates(theAlternate, theState, theAlternateName, theAlternateName);
+				if (theState.isPreResource()) {
+					ResourceBody body = readResourceType(theTokens);
+					if (body.myResourceType == null) {
+						throw new DataFormatException(Msg.code(2846)
+								+ "Missing required element 'resourceType' from JSON resource object, unable to parse");
+					}
+					theState.enteringNewElement(null, body.myResourceType);
+					parseChildren(body.myTokens, theState, false);
+					theState.endingElement();
+				} else {
+					parseChildren(theTokens, theState, false);
+				}
+				theState.endingElement();
+				break;
+			case VALUE_NULL:
+				theState.enteringNewElement(null, theName);
+				parseAlternates(theAlternate, theState, theAlternateName, theAlternateName);
+				theState.endingElement();
+				break;
+			default:
+				theState.enteringNewElement(null, theName);
+				theState.attributeValue("value", getScalarText(theTokens));
+				parseAlternates(theAlternate, theState, theAlternateName, theAlternateName);
+				theState.endingElement();
+				break;
+		}
+	}
+
+	private void parseArrayElements(
+			com.fasterxml.jackson.core.JsonParser theTokens,
+			JsonToken theFirstToken,
+			ParserState<?> theState,
+			String theName,
+			JsonNode theAlternate,
+			String theAlternateName)
+			throws IOException {
+		JsonNode alternate = theAlternate;
+		if (alternate != null && !alternate.isArray()) {
+			myErrorHandler.incorrectJsonType(
+					null, theAlternateName, ValueType.ARRAY, null, toValueType(alternate), null);
+			alternate = null;
+		}
+
+		int index = 0;
+		for (JsonToken token = theFirstToken;
+				token != null && token != JsonToken.END_ARRAY;
+				token = theTokens.nextToken(), index++) {
+			JsonNode nextAlternate = null;
+			if (alternate != null && alternate.size() > index) {
+				nextAlternate = alternate.get(index);
+			}
+			parseValue(theTokens, theState, theName, nextAlternate, theAlternateName, true);
+		}
+	}
+
+	private void parseAlternates(
+			JsonNode theAlternate, ParserState<?> theState, String theElementName, String theAlternateName)
+			throws IOException {
+		if (theAlternate == null || theAlternate.isNull()) {
+			return;
+		}
+
+		if (theAlternate.isArray()) {
+			if (theAlternate.size() > 1) {
+				throw new DataFormatException(Msg.code(2847) + "Unexpected array of length " + theAlternate.size()
+						+ " (expected 0 or 1) for element: " + theElementName);
+			}
+			if (theAlternate.size() == 0) {
+				return;
+			}
+			parseAlternates(theAlternate.get(0), theState, theElementName, theAlternateName);
+			return;
+		}
+
+		if (!theAlternate.isObject()) {
+			myErrorHandler.incorrectJsonType(
+					null, theAlternateName, ValueType.OBJECT, null, toValueType(theAlternate), null);
+			return;
+		}
+
+		for (Map.Entry<String, JsonNode> next : theAlternate.properties()) {
+			String nextKey = next.getKey();
+			JsonNode nextVal = next.getValue();
+			if ("extension".equals(nextKey) || "modifierExtension".equals(nextKey)) {
+				boolean isModifier = "modifierExtension".equals(nextKey);
+				parseExtension(nextVal.isArray() ? startTokens(nextVal) : null, theState, isModifier);
+			} else if ("id".equals(nextKey)) {
+				if (nextVal.isTextual()) {
+					theState.attributeValue("id", nextVal.asText());
+				} else {
+					myErrorHandler.incorrectJsonType(
+							null,
+							"id",
+							ValueType.SCALAR,
+							ScalarType.STRING,
+							toValueType(nextVal),
+							toScalarType(nextVal));
+				}
+			} else if ("fhir_comments".equals(nextKey)) {
+				parseFhirComments(nextVal, theState);
+			}
+		}
+	}
+
+	/**
+	 * Processes an array of extensions. The token stream must be positioned on the <code>START_ARRAY</code>
+	 * token, or may be <code>null</code> if the extension array was missing or not an array.
+	 */
+	private void parseExtension(
+			com.fasterxml.jackson.core.JsonParser theTokens, ParserState<?> theState, boolean theIsModifier)
+			throws IOException {
+		if (theTokens == null) {
+			myErrorHandler.missingRequiredElement(
+					new ParseLocation().setParentElementName(getExtensionElementName(theIsModifier)), "url");
+			return;
+		}
+
+		for (JsonToken token = theTokens.nextToken();
+				token != null && token != JsonToken.END_ARRAY;
+				token = theTokens.nextToken()) {
+			if (token != JsonToken.START_OBJECT) {
+				myErrorHandler.incorrectJsonType(
+						null,
+						getExtensionElementName(theIsModifier),
+						ValueType.OBJECT,
+						null,
+						toValueType(token),
+						toScalarType(token));
+				theTokens.skipChildren();
+				continue;
+			}
+
+			com.fasterxml.jackson.core.JsonParser extensionTokens = theTokens;
+			JsonNode url;
+			JsonToken firstToken = theTokens.nextToken();
+			if (firstToken == JsonToken.FIELD_NAME && "url".equals(theTokens.currentName())) {
+				theTokens.nextToken();
+				url = JacksonStructure.readTree(theTokens);
+			} else {
+				ObjectNode extension = readRemainingObject(theTokens, firstToken);
+				url = extension.get("url");
+				extensionTokens = startTokens(extension);
+			}
+
+			String urlString;
+			if (url == null || !url.isValueNode() || url.isNull()) {
+				myErrorHandler.missingRequiredElement(
+						new ParseLocation().setParentElementName(getExtensionElementName(theIsModifier)), "url");
+				urlString = null;
+			} else {
+				urlString = myParser.getExtensionUrl(getScalarText(startTokens(url)));
+			}
+
+			theState.enteringNewElementExtension(null, urlString, theIsModifier, myParser.getServerBaseUrl());
+			parseChildren(extensionTokens, theState, true);
+			theState.endingElement();
+		}
+	}
+
+	private void parseFhirComments(JsonNode theComments, ParserState<?> theState) {
+		if (myParser.isSupportsFhirComment() && theComments.isArray()) {
+			for (JsonNode nextComment : theComments) {
+				if (nextComment.isTextual()) {
+					theState.commentPre(nextComment.asText());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Locates the <code>resourceType</code> of a resource object. The token stream must be positioned
+	 * on the <code>START_OBJECT</code> token. If <code>resourceType</code> is the first property it is
+	 * consumed and the stream is returned as-is, otherwise the object is buffered and a stream
+	 * over the buffered copy is returned.
+	 */
+	private ResourceBody readResourceType(com.fasterxml.jackson.core.JsonParser theTokens) throws IOException {
+		JsonToken firstToken = theTokens.nextToken();
+		if (firstToken == JsonToken.FIELD_NAME && "resourceType".equals(theTokens.currentName())) {
+			JsonToken valueToken = theTokens.nextToken();
+			String resourceType = null;
+			if (valueToken == JsonToken.VALUE_STRING) {
+				resourceType = theTokens.getText();
+			} else {
+				theTokens.skipChildren();
+			}
+			return new ResourceBody(resourceType, theTokens);
+		}
+
+		ObjectNode resource = readRemainingObject(theTokens, firstToken);
+		JsonNode resourceType = resource.get("resourceType");
+		String resourceTypeString = resourceType != null && resourceType.isTextual() ? resourceType.asText() : null;
+		return new ResourceBody(resourceTypeString, startTokens(resource));
+	}
+
+	/**
+	 * Buffers the remaining fields of an object, starting with the given token (which must be
+	 * a <code>FIELD_NAME</code> or the closing <code>END_OBJECT</code>)
+	 */
+	private static ObjectNode readRemainingObject(com.fasterxml.jackson.core.JsonParser theTokens, JsonToken theToken)
+			throws IOException {
+		ObjectNode retVal = ourNodeFactory.objectNode();
+		for (JsonToken token = theToken; token == JsonToken.FIELD_NAME; token = theTokens.nextToken()) {
+			String nextName = theTokens.currentName();
+			theTokens.nextToken();
+			retVal.set(nextName, JacksonStructure.readTree(theTokens));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Buffers the remaining elements of an array, starting with the given token
+	 */
+	private static ArrayNode readRemainingArray(com.fasterxml.jackson.core.JsonParser theTokens, JsonToken theToken)
+			throws IOException {
+		ArrayNode retVal = ourNodeFactory.arrayNode();
+		for (JsonToken token = theToken; token != null && token != JsonToken.END_ARRAY; token = theTokens.nextToken()) {
+			retVal.add(JacksonStructure.readTree(theTokens));
+		}
+		return retVal;
+	}
+
+	private static com.fasterxml.jackson.core.JsonParser startTokens(JsonNode theNode) throws IOException {
+		com.fasterxml.jackson.core.JsonParser retVal = JacksonStructure.traverse(theNode);
+		retVal.nextToken();
+		return retVal;
+	}
+
+	private static void verifyNoTrailingTokens(com.fasterxml.jackson.core.JsonParser theTokens) throws IOException {
+		JsonToken trailing = theTokens.nextToken();
+		if (trailing != null) {
+			throw new JsonParseException(
+					theTokens, "Trailing token (of type " + trailing + ") found after value: not allowed");
+		}
+	}
+
+	/**
+	 * Returns the same string representation of a scalar that {@link JacksonStructure} would
+	 */
+	private static String getScalarText(com.fasterxml.jackson.core.JsonParser theTokens) throws IOException {
+		switch (theTokens.currentToken()) {
+			case VALUE_NUMBER_FLOAT:
+				return theTokens.getDecimalValue().toPlainString();
+			case VALUE_NUMBER_INT:
+				return theTokens.getNumberValue().toString();
+			default:
+				return theTokens.getText();
+		}
+	}
+
+	private static String getExtensionElementName(boolean theIsModifier) {
+		return theIsModifier ? "modifierExtension" : "extension";
+	}
+
+	private static ValueType toValueType(JsonToken theToken) {
+		if (theToken == null) {
+			return ValueType.NULL;
+		}
+		switch (theToken) {
+			case START_OBJECT:
+				return ValueType.OBJECT;
+			case START_ARRAY:
+				return ValueType.ARRAY;
+			case VALUE_NULL:
+				return ValueType.NULL;
+			default:
+				return ValueType.SCALAR;
+		}
+	}
+
+	private static ScalarType toScalarType(JsonToken theToken) {
+		if (theToken == null) {
+			return null;
+		}
+		switch (theToken) {
+			case VALUE_STRING:
+				return ScalarType.STRING;
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+				return ScalarType.NUMBER;
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				return ScalarType.BOOLEAN;
+			default:
+				return null;
+		}
+	}
+
+	private static ValueType toValueType(JsonNode theNode) {
+		if (theNode.isNull() || theNode.isMissingNode()) {
+			return ValueType.NULL;
+		}
+		if (theNode.isObject()) {
+			return ValueType.OBJECT;
+		}
+		if (theNode.isArray()) {
+			return ValueType.ARRAY;
+		}
+		return ValueType.SCALAR;
+	}
+
+	private static ScalarType toScalarType(JsonNode theNode) {
+		if (theNode.isNumber()) {
+			return ScalarType.NUMBER;
+		}
+		if (theNode.isTextual()) {
+			return ScalarType.STRING;
+		}
+		if (theNode.isBoolean()) {
+			return ScalarType.BOOLEAN;
+		}
+		return null;
+	}
+
+	/**
+	 * Streams the fields of a single JSON object into a {@link ParserState}
+	 */
+	private class ObjectFields {
+		private final com.fasterxml.jackson.core.JsonParser myTokens;
+		private final ParserState<?> myState;
+		private final boolean myInExtension;
+		private Map<String, JsonNode> myDeferred;
+		private Set<String> myStreamedNames;
+
+		private ObjectFields(
+				com.fasterxml.jackson.core.JsonParser theTokens, ParserState<?> theState, boolean theInExtension) {
+			myTokens = theTokens;
+			myState = theState;
+			myInExtension = theInExtension;
+		}
+
+		/**
+		 * Processes fields until the end of the object is reached, or until a field with the given
+		 * name and an array value is found. In the latter case the token stream is left positioned on
+		 * the <code>START_ARRAY</code> token of that field and <code>true</code> is returned.
+		 */
+		private boolean parse(String theStopAtArrayField) throws IOException {
+			for (JsonToken token = myTokens.nextToken(); token == JsonToken.FIELD_NAME; token = myTokens.nextToken()) {
+				String nextName = myTokens.currentName();
+				JsonToken valueToken = myTokens.nextToken();
+
+				if (myInExtension) {
+					if ("url".equals(nextName)) {
+						myTokens.skipChildren();
+						continue;
+					} else if ("extension".equals(nextName) || "modifierExtension".equals(nextName)) {
+						boolean isModifier = "modifierExtension".equals(nextName);
+						if (valueToken == JsonToken.START_ARRAY) {
+							parseExtension(myTokens, myState, isModifier);
+						} else {
+							myTokens.skipChildren();
+							parseExtension(null, myState, isModifier);
+						}
+						continue;
+					}
+				} else if ("resourceType".equals(nextName)) {
+					if (myState.isToplevelResourceElement()) {
+						myTokens.skipChildren();
+						continue;
+					}
+				} else if ("extension".equals(nextName) || "modifierExtension".equals(nextName)) {
+					boolean isModifier = "modifierExtension".equals(nextName);
+					if (valueToken == JsonToken.START_ARRAY) {
+						parseExtension(myTokens, myState, isModifier);
+					} else if (valueToken == JsonToken.VALUE_NULL) {
+						parseExtension(null, myState, isModifier);
+					} else {
+						throw new DataFormatException(
+								Msg.code(2848) + "Syntax error parsing JSON FHIR structure: Expected ARRAY at element '"
+										+ nextName + "', found '" + toValueType(valueToken) + "'");
+					}
+					continue;
+				} else if ("fhir_comments".equals(nextName)) {
+					parseFhirComments(JacksonStructure.readTree(myTokens), myState);
+					continue;
+				}
+
+				if (nextName.charAt(0) == '_') {
+					defer(nextName, JacksonStructure.readTree(myTokens));
+					continue;
+				}
+
+				if (valueToken == JsonToken.START_ARRAY && nextName.equals(theStopAtArrayField)) {
+					addStreamedName(nextName);
+					return true;
+				}
+
+				String alternateName = '_' + nextName;
+				if (valueToken == JsonToken.START_OBJECT) {
+					JsonNode alternate = myDeferred != null ? myDeferred.remove(alternateName) : null;
+					addStreamedName(nextName);
+					parseValue(myTokens, myState, nextName, alternate, alternateName, false);
+				} else if (valueToken == JsonToken.START_ARRAY) {
+					JsonToken firstToken = myTokens.nextToken();
+					if (firstToken == JsonToken.START_OBJECT || firstToken == JsonToken.START_ARRAY) {
+						if (nextName.equals("id")) {
+							myErrorHandler.incorrectJsonType(
+									null, "id", ValueType.SCALAR, ScalarType.STRING, ValueType.ARRAY, null);
+						}
+						JsonNode alternate = myDeferred != null ? myDeferred.remove(alternateName) : null;
+						addStreamedName(nextName);
+						parseArrayElements(myTokens, firstToken, myState, nextName, alternate, alternateName);
+					} else {
+						defer(nextName, readRemainingArray(myTokens, firstToken));
+					}
+				} else {
+					defer(nextName, JacksonStructure.readTree(myTokens));
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Processes any primitive values which have been buffered so far, along with any
+		 * <code>_</code>-prefixed elements for them which have already been seen
+		 */
+		private void flushDeferredValues() throws IOException {
+			if (myDeferred == null) {
+				return;
+			}
+			for (Iterator<Map.Entry<String, JsonNode>> iter =
+							myDeferred.entrySet().iterator();
+					iter.hasNext(); ) {
+				Map.Entry<String, JsonNode> next = iter.next();
+				String nextName = next.getKey();
+				if (nextName.charAt(0) == '_') {
+					continue;
+				}
+				String alternateName = '_' + nextName;
+				JsonNode alternate = myDeferred.get(alternateName);
+				parseValue(startTokens(next.getValue()), myState, nextName, alternate, alternateName, false);
+				addStreamedName(nextName);
+				iter.remove();
+			}
+			if (myStreamedNames != null) {
+				myDeferred.keySet().removeIf(t -> t.charAt(0) == '_' && myStreamedNames.contains(t.substring(1)));
+			}
+		}
+
+		/**
+		 * Processes the primitive values and <code>_</code>-prefixed elements which were buffered
+		 * while streaming the object, in the order they appeared in
+		 */
+		private void finish() throws IOException {
+			if (myDeferred == null) {
+				return;
+			}
+
+			boolean haveUnpairedAlternates = false;
+			for (Map.Entry<String, JsonNode> next : myDeferred.entrySet()) {
+				String nextName = next.getKey();
+				if (nextName.charAt(0) == '_') {
+					haveUnpairedAlternates = true;
+					continue;
+				}
+				String alternateName = '_' + nextName;
+				com.fasterxml.jackson.core.JsonParser tokens = startTokens(next.getValue());
+				parseValue(tokens, myState, nextName, myDeferred.get(alternateName), alternateName, false);
+			}
+
+			/*
+			 * This happens if an element has an extension but no actual value. I.e.
+			 * if a resource has a "_status" element but no corresponding "status"
+			 * element. This could be used to handle a null value with an extension
+			 * for example.
+			 */
+			if (haveUnpairedAlternates) {
+				for (Map.Entry<String, JsonNode> next : myDeferred.entrySet()) {
+					String alternateName = next.getKey();
+					if (alternateName.charAt(0) != '_' || alternateName.length() == 1) {
+						continue;
+					}
+					String nextName = alternateName.substring(1);
+					if (myDeferred.containsKey(nextName)
+							|| (myStreamedNames != null && myStreamedNames.contains(nextName))) {
+						continue;
+					}
+
+					JsonNode nextValue = next.getValue();
+					if (nextValue.isObject()) {
+						myState.enteringNewElement(null, nextName);
+						parseAlternates(nextValue, myState, alternateName, alternateName);
+						myState.endingElement();
+					} else {
+						myErrorHandler.incorrectJsonType(
+								null, alternateName, ValueType.OBJECT, null, toValueType(nextValue), null);
+					}
+				}
+			}
+		}
+
+		private void defer(String theName, JsonNode theValue) {
+			if (myDeferred == null) {
+				myDeferred = new LinkedHashMap<>();
+			}
+			myDeferred.put(theName, theValue);
+		}
+
+		private void addStreamedName(String theName) {
+			if (myStreamedNames == null) {
+				myStreamedNames = new HashSet<>();
+			}
+			myStreamedNames.add(theName);
+		}
+	}
+
+	private class JsonBundleEntryIterator extends BaseBundleEntryIterator {
+		private final Closeable mySource;
+		private final com.fasterxml.jackson.core.JsonParser myTokens;
+		private com.fasterxml.jackson.core.JsonParser myBodyTokens;
+		private ParserState<IBaseResource> myState;
+		private ObjectFields myFields;
+		private boolean myInEntries;
+
+		private JsonBundleEntryIterator(com.fasterxml.jackson.core.JsonParser theTokens, Closeable theSource) {
+			super(myParser);
+			mySource = theSource;
+			myTokens = theTokens;
+
+			try {
+				myTokens.nextToken();
+				ResourceBody body = readResourceType(myTokens);
+				if (body.myResourceType == null || isBlank(body.myResourceType)) {
+					throw new DataFormatException(
+							Msg.code(2823) + "Invalid JSON content detected, missing required element: 'resourceType'");
+				}
+
+				myBodyTokens = body.myTokens;
+				myState =
+						ParserState.getPreResourceInstance(myParser, null, myParser.getContext(), true, myErrorHandler);
+				myState.setResolveBundleCrossReferences(false);
+				myState.enteringNewElement(null, body.myResourceType);
+				setBundle(myState.getCurrentElement());
+
+				// Parse everything up to the first entry
+				myFields = new ObjectFields(myBodyTokens, myState, false);
+				myInEntries = myFields.parse("entry");
+				myFields.flushDeferredValues();
+				if (!myInEntries) {
+					finishBundle();
+				}
+			} catch (IOException e) {
+				closeSource();
+				throw JacksonStructure.newParseException(e);
+			} catch (RuntimeException e) {
+				closeSource();
+				throw e;
+			}
+		}
+
+		@Override
+		protected boolean parseMore() {
+			if (!myInEntries) {
+				return false;
+			}
+
+			try {
+				JsonToken token = myBodyTokens.nextToken();
+				if (token == null || token == JsonToken.END_ARRAY) {
+					myInEntries = false;
+					myFields.parse(null);
+					finishBundle();
+				} else {
+					parseValue(myBodyTokens, myState, "entry", null, "_entry", true);
+				}
+				return true;
+			} catch (IOException e) {
+				throw JacksonStructure.newParseException(e);
+			}
+		}
+
+		private void finishBundle() throws IOException {
+			myFields.finish();
+			myState.endingElement();
+			myState.endingElement();
+			verifyNoTrailingTokens(myTokens);
+		}
+
+		@Override
+		protected void closeSource() {
+			IOUtils.closeQuietly(myTokens);
+			IOUtils.closeQuietly(mySource);
+		}
+	}
+
+	private static class ResourceBody {
+		private final String myResourceType;
+		private final com.fasterxml.jackson.core.JsonParser myTokens;
+
+		private ResourceBody(String theResourceType, com.fasterxml.jackson.core.JsonParser theTokens) {
+			myResourceType = theResourceType;
+			myTokens = theTokens;
+		}
+	}
+}
@@ -24,25 +24,53 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 /**
  * This class is the FHIR NDJSON parser/encoder. Users should not interact with this class directly, but should use
  * {@link FhirContext#newNDJsonParser()} to get an instance.
+ * <p>
+ * By default, lines are parsed and encoded sequentially on the calling thread. If
+ * {@link #setParallelism(int) parallelism} is set to a value greater than 1, the lines are still read and
+ * written sequentially (and in their original order), but the parsing and encoding of individual
+ * lines is performed on an {@link #setExecutor(Executor) executor}, with a bounded number of lines
+ * in flight at any given time.
+ * </p>
  */
 public class NDJsonParser extends BaseParser {
 
+	/**
+	 * Number of lines handed to a single parallel task
+	 */
+	static final int LINES_PER_TASK = 64;
+
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(NDJsonParser.class);
 
-	private IParser myJsonParser;
 	private FhirContext myFhirContext;
+	private int myParallelism = 1;
+	private Executor myExecutor = ForkJoinPool.commonPool();
 
 	/**
 	 * Do not use this constructor, the recommended way to obtain a new instance of the NDJSON parser is to invoke
@@ -53,8 +81,6 @@ public class NDJsonParser extends BaseParser {
 	public NDJsonParser(FhirContext theContext, IParserErrorHandler theParserErrorHandler) {
 		super(theContext, theParserErrorHandler);
 		myFhirContext = theContext;
-
-		myJsonParser = theContext.newJsonParser().setPrettyPrint(false);
 	}
 
 	@Override
@@ -68,6 +94,85 @@ public class NDJsonParser extends BaseParser {
 		return EncodingEnum.NDJSON;
 	}
 
+	/**
+	 * Returns the maximum number of parallel tasks used to parse or encode lines. A value of
+	 * <code>1</code> (the default) means that all work is done sequentially on the calling thread.
+	 *
+	 * @since 8.6.0
+	 */
+	public int getParallelism() {
+		return myParallelism;
+	}
+
+	/**
+	 * Sets the maximum number of parallel tasks used to parse or encode lines. A value of
+	 * <code>1</code> (the default) means that all work is done sequentially on the calling thread.
+	 * <p>
+	 * When greater than <code>1</code>, at most <code>parallelism * 2</code> tasks of
+	 * {@value #LINES_PER_TASK} lines each are in flight at any given time, so memory use stays bounded
+	 * regardless of the size of the input.
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public NDJsonParser setParallelism(int theParallelism) {
+		Validate.isTrue(theParallelism >= 1, "theParallelism must be at least 1");
+		myParallelism = theParallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the executor used for parallel parsing and encoding. Defaults to the
+	 * {@link ForkJoinPool#commonPool() common ForkJoin pool}. This setting has no effect
+	 * unless {@link #setParallelism(int) parallelism} is greater than <code>1</code>.
+	 *
+	 * @since 8.6.0
+	 */
+	public NDJsonParser setExecutor(@Nonnull Executor theExecutor) {
+		Validate.notNull(theExecutor, "theExecutor must not be null");
+		myExecutor = theExecutor;
+		return this;
+	}
+
+	/**
+	 * Parses each non-blank line of the given NDJSON content and passes the resulting resources
+	 * to the consumer, in the order in which they appear in the source. Unlike
+	 * {@link #parseResource(Reader)}, resources are not collected into a Bundle.
+	 *
+	 * @param theReader   The NDJSON source
+	 * @param theConsumer Receives each parsed resource on the calling thread
+	 * @since 8.6.0
+	 */
+	public void parseResources(Reader theReader, Consumer<IBaseResource> theConsumer) throws DataFormatException {
+		BufferedReader reader = new BufferedReader(theReader);
+		Iterator<String> lines = reader.lines()
+				// The string must be trimmed, as per the NDJson spec 3.2
+				.map(String::trim)
+				.filter(t -> isNotBlank(t))
+				.iterator();
+		try {
+			processInOrder(lines, this::newLineParser, (parser, line) -> parser.parseResource(line), theConsumer);
+		} catch (UncheckedIOException e) {
+			throw new DataFormatException(Msg.code(1835) + e.getCause().getMessage());
+		}
+	}
+
+	/**
+	 * Encodes each of the given resources as a single line of NDJSON and passes the results
+	 * to the consumer, in the same order as the resources were supplied.
+	 *
+	 * @param theResources The resources to encode
+	 * @param theConsumer  Receives each encoded line (without a line separator) on the calling thread
+	 * @since 8.6.0
+	 */
+	public void encodeResources(Iterable<? extends IBaseResource> theResources, Consumer<String> theConsumer) {
+		processInOrder(
+				theResources.iterator(),
+				this::newLineParser,
+				(parser, resource) -> parser.encodeResourceToString(resource),
+				theConsumer);
+	}
+
 	@Override
 	protected void doEncodeResourceToWriter(IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException {
@@ -82,6 +187,27 @@ public class NDJsonParser extends BaseParser {
 
 		// Now we write each one in turn.
 		// Use newline only as a line separator, not at the end of the file.
+		if (myParallelism > 1) {
+			boolean[] isFirstResource = {true};
+			try {
+				encodeResources(theBundleResources, line -> {
+					try {
+						if (!isFirstResource[0]) {
+							theWriter.write("\n");
+						}
+						isFirstResource[0] = false;
+						theWriter.write(line);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			return;
+		}
+
+		IParser lineParser = newLineParser();
 		boolean isFirstResource = true;
 		for (IBaseResource theBundleEntryResource : theBundleResources) {
 			if (!(isFirstResource)) {
@@ -89,7 +215,7 @@ public class NDJsonParser extends BaseParser {
 			}
 			isFirstResource = false;
 
-			myJsonParser.encodeResourceToWriter(theBundleEntryResource, theWriter);
+			lineParser.encodeResourceToWriter(theBundleEntryResource, theWriter);
 		}
 	}
 
@@ -102,23 +228,89 @@ public class NDJsonParser extends BaseParser {
 					+ theResourceType.getName());
 		}
 
+		// Now we go through line-by-line parsing the JSON and then stuffing it into a bundle.
+		BundleBuilder myBuilder = new BundleBuilder(myFhirContext);
+		myBuilder.setType("collection");
+		parseResources(theReader, myBuilder::addCollectionEntry);
+
+		return (T) myBuilder.getBundle();
+	}
+
+	/**
+	 * Creates a JSON parser for individual lines, with the same settings as this parser. Parsers are
+	 * not thread safe, so each parallel task uses its own.
+	 */
+	private IParser newLineParser() {
+		JsonParser retVal = new JsonParser(myFhirContext, getErrorHandler());
+		copySettingsTo(retVal);
+		retVal.setPrettyPrint(false);
+		return retVal;
+	}
+
+	/**
+	 * Applies the function to every input and passes the outputs to the consumer in input order. If
+	 * parallelism is enabled, inputs are grouped into tasks of {@link #LINES_PER_TASK} which are
+	 * submitted to the executor, and the consumer blocks on the oldest outstanding task once the
+	 * maximum number of tasks are in flight.
+	 */
+	private <I, W, O> void processInOrder(
+			Iterator<? extends I> theInputs,
+			Supplier<W> theWorkerFactory,
+			LineFunction<W, I, O> theFunction,
+			Consumer<O> theConsumer) {
+		if (myParallelism <= 1) {
+			W worker = theWorkerFactory.get();
+			while (theInputs.hasNext()) {
+				theConsumer.accept(theFunction.apply(worker, theInputs.next()));
+			}
+			return;
+		}
+
+		int maxTasksInFlight = myParallelism * 2;
+		Deque<CompletableFuture<List<O>>> inFlight = new ArrayDeque<>(maxTasksInFlight);
 		try {
-			// Now we go through line-by-line parsing the JSON and then stuffing it into a bundle.
-			BundleBuilder myBuilder = new BundleBuilder(myFhirContext);
-			myBuilder.setType("collection");
-			BufferedReader myBufferedReader = new BufferedReader(theReader);
-			String jsonString = myBufferedReader.readLine();
-			while (jsonString != null) {
-				// And add it to a collection in a Bundle.
-				// The string must be trimmed, as per the NDJson spec 3.2
-				myBuilder.addCollectionEntry(myJsonParser.parseResource(jsonString.trim()));
-				// Try to read another line.
-				jsonString = myBufferedReader.readLine();
+			while (theInputs.hasNext()) {
+				List<I> batch = new ArrayList<>(LINES_PER_TASK);
+				while (batch.size() < LINES_PER_TASK && theInputs.hasNext()) {
+					batch.add(theInputs.next());
+				}
+				inFlight.add(CompletableFuture.supplyAsync(
+						() -> {
+							W worker = theWorkerFactory.get();
+							List<O> retVal = new ArrayList<>(batch.size());
+							for (I next : batch) {
+								retVal.add(theFunction.apply(worker, next));
+							}
+							return retVal;
+						},
+						myExecutor));
+
+				if (inFlight.size() >= maxTasksInFlight) {
+					awaitResults(inFlight.removeFirst()).forEach(theConsumer);
+				}
 			}
 
-			return (T) myBuilder.getBundle();
-		} catch (IOException err) {
-			throw new DataFormatException(Msg.code(1835) + err.getMessage());
+			while (!inFlight.isEmpty()) {
+				awaitResults(inFlight.removeFirst()).forEach(theConsumer);
+			}
+		} finally {
+			inFlight.forEach(t -> t.cancel(false));
 		}
 	}
+
+	private static <O> List<O> awaitResults(CompletableFuture<List<O>> theFuture) {
+		try {
+			return theFuture.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@FunctionalInterface
+	private interface LineFunction<W, I, O> {
+		O apply(W theWorker, I theInput);
+	}
 }
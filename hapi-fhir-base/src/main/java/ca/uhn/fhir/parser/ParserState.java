@@ -33,6 +33,7 @@ import ca.uhn.fhir.context.RuntimePrimitiveDatatypeXhtmlHl7OrgDefinition;
 import ca.uhn.fhir.context.RuntimeResourceBlockDefinition;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.model.api.BasePrimitive;
 import ca.uhn.fhir.model.api.ExtensionDt;
 import ca.uhn.fhir.model.api.IElement;
 import ca.uhn.fhir.model.api.IIdentifiableElement;
@@ -95,12 +96,15 @@ class ParserState<T> {
 	private final IParserErrorHandler myErrorHandler;
 	private final boolean myJsonMode;
 	private final IParser myParser;
+	private final boolean myDeferPrimitiveParsing;
+	private final StringPool myStringPool;
 	private final List<String> myComments = new ArrayList<>(2);
 	private T myObject;
 	private IBase myPreviousElement;
 	private BaseState myState;
 	private final List<IBaseResource> myGlobalResources = new ArrayList<>();
 	private final List<IBaseReference> myGlobalReferences = new ArrayList<>();
+	private boolean myResolveBundleCrossReferences = true;
 
 	private ParserState(
 			IParser theParser, FhirContext theContext, boolean theJsonMode, IParserErrorHandler theErrorHandler) {
@@ -108,6 +112,8 @@ class ParserState<T> {
 		myContext = theContext;
 		myJsonMode = theJsonMode;
 		myErrorHandler = theErrorHandler;
+		myDeferPrimitiveParsing = theContext.getParserOptions().isDeferredPrimitiveParsingEnabled();
+		myStringPool = theContext.getParserOptions().getStringPool();
 	}
 
 	public void attributeValue(String theName, String theValue) throws DataFormatException {
@@ -148,6 +154,23 @@ class ParserState<T> {
 		return myObject;
 	}
 
+	/**
+	 * By default every resource and reference which is parsed is retained so that references
+	 * between Bundle entries can be resolved once the Bundle has been parsed. Incremental Bundle
+	 * parsing disables this, since entries are handed out (and must not be retained or modified)
+	 * before the end of the Bundle is reached.
+	 */
+	void setResolveBundleCrossReferences(boolean theResolveBundleCrossReferences) {
+		myResolveBundleCrossReferences = theResolveBundleCrossReferences;
+	}
+
+	/**
+	 * Returns the element currently being populated, or <code>null</code> if parsing is complete
+	 */
+	IBase getCurrentElement() {
+		return myState != null ? myState.getCurrentElement() : null;
+	}
+
 	boolean isPreResource() {
 		return myState.isPreResource();
 	}
@@ -212,7 +235,9 @@ class ParserState<T> {
 				(ICompositeType) theCompositeTarget.newInstance(theChild.getInstanceConstructorArguments());
 		if (retVal instanceof IBaseReference) {
 			IBaseReference ref = (IBaseReference) retVal;
-			myGlobalReferences.add(ref);
+			if (myResolveBundleCrossReferences) {
+				myGlobalReferences.add(ref);
+			}
 			if (thePreResourceState != null) {
 				thePreResourceState.getLocalReferences().add(ref);
 			}
@@ -225,7 +250,9 @@ class ParserState<T> {
 		ICompositeType retVal = (ICompositeType) theCompositeTarget.newInstance();
 		if (retVal instanceof IBaseReference) {
 			IBaseReference ref = (IBaseReference) retVal;
-			myGlobalReferences.add(ref);
+			if (myResolveBundleCrossReferences) {
+				myGlobalReferences.add(ref);
+			}
 			thePreResourceState.getLocalReferences().add(ref);
 		}
 		return retVal;
@@ -256,7 +283,9 @@ class ParserState<T> {
 
 	public IBaseResource newInstance(RuntimeResourceDefinition theDef) {
 		IBaseResource retVal = theDef.newInstance();
-		myGlobalResources.add(retVal);
+		if (myResolveBundleCrossReferences) {
+			myGlobalResources.add(retVal);
+		}
 		return retVal;
 	}
 
@@ -1184,18 +1213,22 @@ class ParserState<T> {
 						FhirTerser t = myContext.newTerser();
 
 						// Clean up the cached resources
-						myGlobalResources.remove(myInstance);
-						myGlobalReferences.removeAll(
-								t.getAllPopulatedChildElementsOfType(myInstance, IBaseReference.class));
+						if (myResolveBundleCrossReferences) {
+							myGlobalResources.remove(myInstance);
+							myGlobalReferences.removeAll(
+									t.getAllPopulatedChildElementsOfType(myInstance, IBaseReference.class));
+						}
 
 						IParser parser = myContext.newJsonParser();
 						String asString = parser.encodeResourceToString(myInstance);
 						myInstance = parser.parseResource(wantedProfileType, asString);
 
 						// Add newly created instance
-						myGlobalResources.add(myInstance);
-						myGlobalReferences.addAll(
-								t.getAllPopulatedChildElementsOfType(myInstance, IBaseReference.class));
+						if (myResolveBundleCrossReferences) {
+							myGlobalResources.add(myInstance);
+							myGlobalReferences.addAll(
+									t.getAllPopulatedChildElementsOfType(myInstance, IBaseReference.class));
+						}
 					}
 				}
 			}
@@ -1206,6 +1239,9 @@ class ParserState<T> {
 		}
 
 		private void stitchBundleCrossReferences() {
+			if (!myResolveBundleCrossReferences) {
+				return;
+			}
 			final boolean bundle = "Bundle".equals(myContext.getResourceType(myInstance));
 			if (bundle) {
 
@@ -1464,8 +1500,16 @@ class ParserState<T> {
 						}
 					}
 
+					if (myStringPool != null && isPooledType(myTypeName)) {
+						value = myStringPool.intern(value);
+					}
+
 					try {
-						myInstance.setValueAsString(value);
+						if (myDeferPrimitiveParsing && myInstance instanceof BasePrimitive) {
+							((BasePrimitive<?>) myInstance).setValueAsStringDeferred(value);
+						} else {
+							myInstance.setValueAsString(value);
+						}
 					} catch (DataFormatException | IllegalArgumentException e) {
 						ParseLocation location = ParseLocation.fromElementName(myChildName);
 						myErrorHandler.invalidValue(location, value, e.getMessage());
@@ -1504,6 +1548,22 @@ class ParserState<T> {
 		}
 	}
 
+	private static boolean isPooledType(String theTypeName) {
+		if (theTypeName == null) {
+			return false;
+		}
+		switch (theTypeName) {
+			case "code":
+			case "id":
+			case "uri":
+			case "url":
+			case "canonical":
+				return true;
+			default:
+				return false;
+		}
+	}
+
 	private class ResourceStateHapi extends ElementCompositeState {
 
 		private final IResource myInstance;
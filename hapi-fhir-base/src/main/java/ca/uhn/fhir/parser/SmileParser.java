@@ -0,0 +1,169 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.json.BaseJsonLikeWriter;
+import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
+import ca.uhn.fhir.parser.json.jackson.JacksonWriter;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * This class is the FHIR binary SMILE parser/encoder. It produces and consumes the same
+ * model as the {@link JsonParser}, but uses the compact binary
+ * <a href="https://github.com/FasterXML/smile-format-specification">Jackson SMILE</a>
+ * format, which is considerably cheaper to encode and parse than text JSON. It is intended for
+ * exchanging resources between systems which both understand this encoding, such as
+ * internal messaging and caching.
+ * <p>
+ * Because the encoding is binary, resources can only be encoded to an {@link OutputStream}
+ * and parsed from an {@link InputStream}. The methods which accept a {@link Writer}, a
+ * {@link Reader} or a {@link String} are not supported.
+ * </p>
+ * <p>
+ * Do not use this class directly, use {@link FhirContext#newSmileParser()} to get an instance.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public class SmileParser extends JsonParser {
+
+	private static final SmileFactory ourSmileFactory = createSmileFactory();
+
+	/**
+	 * Do not use this constructor, the recommended way to obtain a new instance of the SMILE parser is to invoke
+	 * {@link FhirContext#newSmileParser()}.
+	 */
+	public SmileParser(FhirContext theContext, IParserErrorHandler theParserErrorHandler) {
+		super(theContext, theParserErrorHandler);
+	}
+
+	@Override
+	public EncodingEnum getEncoding() {
+		return EncodingEnum.SMILE;
+	}
+
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		BaseJsonLikeWriter eventWriter = new JacksonWriter(ourSmileFactory, theOutputStream);
+		doEncodeResourceToJsonLikeWriter(theResource, eventWriter, theEncodeContext);
+		eventWriter.close();
+	}
+
+	@Override
+	protected void doEncodeResourceToWriter(
+			IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext) {
+		throw new InternalErrorException(
+				Msg.code(2826)
+						+ "The SMILE encoding is binary and can not be encoded as text, use encodeResourceToOutputStream(IBaseResource, OutputStream) instead");
+	}
+
+	@Override
+	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext) {
+		throw new InternalErrorException(
+				Msg.code(2827) + "The SMILE encoding is binary and can not be encoded as text");
+	}
+
+	@Override
+	public IBaseResource parseResource(InputStream theInputStream) throws DataFormatException {
+		return parseResource(null, theInputStream);
+	}
+
+	@Override
+	public <T extends IBaseResource> T parseResource(Class<T> theResourceType, InputStream theInputStream)
+			throws DataFormatException {
+		Validate.notNull(theInputStream, "theInputStream must not be null");
+
+		/*
+		 * We do this so that the context can verify that the structure is for
+		 * the correct FHIR version
+		 */
+		if (theResourceType != null) {
+			getContext().getResourceDefinition(theResourceType);
+		}
+
+		T retVal = new JsonTokenStreamParser(this).parseResource(theResourceType, createTokens(theInputStream));
+
+		overrideResourceIdsWithBundleEntryFullUrls(retVal);
+
+		return retVal;
+	}
+
+	@Override
+	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		throw new InternalErrorException(
+				Msg.code(2828)
+						+ "The SMILE encoding is binary and can not be parsed from text, use parseResource(InputStream) instead");
+	}
+
+	@Override
+	protected void doParseIntoComplexStructure(Reader theSource, IBase theTarget) {
+		throw new InternalErrorException(
+				Msg.code(2829) + "The SMILE encoding is binary and can not be parsed from text");
+	}
+
+	@Override
+	public IBundleEntryIterator parseBundleEntries(InputStream theInputStream) throws DataFormatException {
+		Validate.notNull(theInputStream, "theInputStream must not be null");
+		return new JsonTokenStreamParser(this).parseBundleEntries(createTokens(theInputStream), theInputStream);
+	}
+
+	@Override
+	protected IBundleEntryIterator doParseBundleEntries(Reader theReader) {
+		throw new InternalErrorException(
+				Msg.code(2830)
+						+ "The SMILE encoding is binary and can not be parsed from text, use parseBundleEntries(InputStream) instead");
+	}
+
+	private static com.fasterxml.jackson.core.JsonParser createTokens(InputStream theInputStream) {
+		try {
+			return ourSmileFactory.createParser(theInputStream);
+		} catch (IOException e) {
+			throw JacksonStructure.newParseException(e);
+		}
+	}
+
+	private static SmileFactory createSmileFactory() {
+		return SmileFactory.builder()
+				.streamReadConstraints(StreamReadConstraints.builder()
+						.maxStringLength(Integer.MAX_VALUE)
+						.build())
+				.disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+				.disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+				.build();
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.ParserOptions;
+import org.apache.commons.lang3.Validate;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool of canonical {@link String} instances. When a pool is supplied to
+ * {@link ParserOptions#setStringPool(StringPool)}, the parser passes the values of coded and
+ * identifier-like primitives (<code>code</code>, <code>id</code>, <code>uri</code>, <code>url</code>
+ * and <code>canonical</code>, which includes elements such as <code>Coding.system</code>) through
+ * the pool so that the many identical copies of values like code systems, profiles and status codes
+ * which appear in large Bundles share a single instance.
+ * <p>
+ * The pool is lossy: it is a fixed size table indexed by hash code, and a new value simply replaces
+ * whatever was previously stored in its slot. This keeps the memory used by the pool bounded and
+ * avoids any locking, at the cost of occasionally creating a duplicate instance when two frequently
+ * used values collide. Values longer than {@link #getMaxStringLength()} are never pooled.
+ * </p>
+ * <p>
+ * A single pool may be shared by any number of parsers and threads.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public class StringPool {
+
+	/**
+	 * The default number of entries in the pool
+	 */
+	public static final int DEFAULT_SIZE = 4096;
+
+	/**
+	 * The default maximum length of a string which will be pooled
+	 */
+	public static final int DEFAULT_MAX_STRING_LENGTH = 256;
+
+	private final AtomicReferenceArray<String> myEntries;
+	private final int myMask;
+	private final int myMaxStringLength;
+	private final LongAdder myHits = new LongAdder();
+	private final LongAdder myMisses = new LongAdder();
+
+	/**
+	 * Constructor which creates a pool with {@link #DEFAULT_SIZE} entries
+	 */
+	public StringPool() {
+		this(DEFAULT_SIZE, DEFAULT_MAX_STRING_LENGTH);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theSize            The number of entries in the pool. Will be rounded up to the next power of two.
+	 * @param theMaxStringLength Strings longer than this will not be pooled
+	 */
+	public StringPool(int theSize, int theMaxStringLength) {
+		Validate.isTrue(theSize >= 1, "Size must be at least 1");
+		Validate.isTrue(theSize <= 1 << 30, "Size must not exceed 2^30");
+		Validate.isTrue(theMaxStringLength >= 1, "Maximum string length must be at least 1");
+		int size = Integer.highestOneBit(theSize);
+		if (size < theSize) {
+			size <<= 1;
+		}
+		myEntries = new AtomicReferenceArray<>(size);
+		myMask = size - 1;
+		myMaxStringLength = theMaxStringLength;
+	}
+
+	/**
+	 * Returns a canonical instance which is equal to the given string. If an equal string is already
+	 * present in the pool, the pooled instance is returned. Otherwise the given string is added to
+	 * the pool and returned.
+	 *
+	 * @param theValue The value, may be <code>null</code>
+	 */
+	public String intern(String theValue) {
+		if (theValue == null || theValue.length() > myMaxStringLength) {
+			return theValue;
+		}
+
+		int hash = theValue.hashCode();
+		int index = (hash ^ (hash >>> 16)) & myMask;
+		String existing = myEntries.get(index);
+		if (existing != null && existing.equals(theValue)) {
+			myHits.increment();
+			return existing;
+		}
+
+		myMisses.increment();
+		myEntries.lazySet(index, theValue);
+		return theValue;
+	}
+
+	/**
+	 * Returns the number of entries in the pool
+	 */
+	public int getSize() {
+		return myEntries.length();
+	}
+
+	/**
+	 * Returns the maximum length of a string which will be pooled
+	 */
+	public int getMaxStringLength() {
+		return myMaxStringLength;
+	}
+
+	/**
+	 * Returns the number of calls to {@link #intern(String)} which returned a pooled instance
+	 */
+	public long getHitCount() {
+		return myHits.sum();
+	}
+
+	/**
+	 * Returns the number of calls to {@link #intern(String)} for a poolable value which was not
+	 * already present in the pool
+	 */
+	public long getMissCount() {
+		return myMisses.sum();
+	}
+
+	/**
+	 * Returns the proportion (between 0.0 and 1.0) of poolable values which were found in the pool,
+	 * or 0.0 if the pool has not been used yet
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	/**
+	 * Removes all entries from the pool and resets the hit and miss counts
+	 */
+	public void clear() {
+		for (int i = 0; i < myEntries.length(); i++) {
+			myEntries.set(i, null);
+		}
+		myHits.reset();
+		myMisses.reset();
+	}
+}
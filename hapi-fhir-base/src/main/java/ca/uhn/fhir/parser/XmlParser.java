@@ -20,6 +20,7 @@
 package ca.uhn.fhir.parser;
 
 import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition.ChildNameAndDef;
 import ca.uhn.fhir.context.BaseRuntimeDeclaredChildDefinition;
 import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
 import ca.uhn.fhir.context.ConfigurationException;
@@ -45,6 +46,7 @@ import ca.uhn.fhir.util.ElementUtil;
 import ca.uhn.fhir.util.NonPrettyPrintWriterWrapper;
 import ca.uhn.fhir.util.PrettyPrintWriterWrapper;
 import ca.uhn.fhir.util.XmlUtil;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -58,6 +60,7 @@ import org.hl7.fhir.instance.model.api.IBaseXhtml;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -141,6 +144,21 @@ public class XmlParser extends BaseParser {
 		}
 	}
 
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws DataFormatException {
+		XMLStreamWriter eventWriter;
+		try {
+			eventWriter = decorateStreamWriter(XmlUtil.createXmlStreamWriter(theOutputStream));
+
+			encodeResourceToXmlStreamWriter(theResource, eventWriter, false, theEncodeContext);
+			eventWriter.flush();
+		} catch (XMLStreamException e) {
+			throw new ConfigurationException(Msg.code(2825) + "Failed to initialize STaX event factory", e);
+		}
+	}
+
 	@Override
 	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
 			throws DataFormatException {
@@ -188,93 +206,95 @@ public class XmlParser extends BaseParser {
 
 			while (streamReader.hasNext()) {
 				XMLEvent nextEvent = streamReader.nextEvent();
-				try {
-
-					switch (nextEvent.getEventType()) {
-						case XMLStreamConstants.START_ELEMENT: {
-							StartElement elem = nextEvent.asStartElement();
-
-							String namespaceURI = elem.getName().getNamespaceURI();
-
-							String localPart = elem.getName().getLocalPart();
-							if ("extension".equals(localPart)) {
-								Attribute urlAttr = elem.getAttributeByName(new QName("url"));
-								String url;
-								if (urlAttr == null || isBlank(urlAttr.getValue())) {
-									getErrorHandler()
-											.missingRequiredElement(
-													new ParseLocation().setParentElementName("extension"), "url");
-									url = null;
-								} else {
-									url = urlAttr.getValue();
-								}
-								parserState.enteringNewElementExtension(elem, url, false, getServerBaseUrl());
-							} else if ("modifierExtension".equals(localPart)) {
-								Attribute urlAttr = elem.getAttributeByName(new QName("url"));
-								String url;
-								if (urlAttr == null || isBlank(urlAttr.getValue())) {
-									getErrorHandler()
-											.missingRequiredElement(
-													new ParseLocation().setParentElementName("modifierExtension"),
-													"url");
-									url = null;
-								} else {
-									url = urlAttr.getValue();
-								}
-								parserState.enteringNewElementExtension(elem, url, true, getServerBaseUrl());
-							} else {
-								parserState.enteringNewElement(namespaceURI, localPart);
-							}
-
-							if (!heldComments.isEmpty()) {
-								for (String next : heldComments) {
-									parserState.commentPre(next);
-								}
-								heldComments.clear();
-							}
+				processXmlEvent(nextEvent, parserState, heldComments);
+			}
+			return parserState.getObject();
+		} catch (XMLStreamException e) {
+			throw new DataFormatException(Msg.code(1852) + "Failed to parse XML content: " + e.getMessage());
+		}
+	}
 
-							for (Iterator<Attribute> attributes = elem.getAttributes(); attributes.hasNext(); ) {
-								Attribute next = attributes.next();
-								parserState.attributeValue(next.getName().getLocalPart(), next.getValue());
-							}
+	private void processXmlEvent(XMLEvent nextEvent, ParserState<?> parserState, List<String> heldComments) {
+		try {
 
-							break;
-						}
-						case XMLStreamConstants.END_DOCUMENT:
-						case XMLStreamConstants.END_ELEMENT: {
-							if (!heldComments.isEmpty()) {
-								for (String next : heldComments) {
-									parserState.commentPost(next);
-								}
-								heldComments.clear();
-							}
-							parserState.endingElement();
-							break;
+			switch (nextEvent.getEventType()) {
+				case XMLStreamConstants.START_ELEMENT: {
+					StartElement elem = nextEvent.asStartElement();
+
+					String namespaceURI = elem.getName().getNamespaceURI();
+
+					String localPart = elem.getName().getLocalPart();
+					if ("extension".equals(localPart)) {
+						Attribute urlAttr = elem.getAttributeByName(new QName("url"));
+						String url;
+						if (urlAttr == null || isBlank(urlAttr.getValue())) {
+							getErrorHandler()
+									.missingRequiredElement(
+											new ParseLocation().setParentElementName("extension"), "url");
+							url = null;
+						} else {
+							url = urlAttr.getValue();
 						}
-						case XMLStreamConstants.CHARACTERS: {
-							parserState.string(nextEvent.asCharacters().getData());
-							break;
+						parserState.enteringNewElementExtension(elem, url, false, getServerBaseUrl());
+					} else if ("modifierExtension".equals(localPart)) {
+						Attribute urlAttr = elem.getAttributeByName(new QName("url"));
+						String url;
+						if (urlAttr == null || isBlank(urlAttr.getValue())) {
+							getErrorHandler()
+									.missingRequiredElement(
+											new ParseLocation().setParentElementName("modifierExtension"), "url");
+							url = null;
+						} else {
+							url = urlAttr.getValue();
 						}
-						case XMLStreamConstants.COMMENT: {
-							Comment comment = (Comment) nextEvent;
-							String commentText = comment.getText();
-							heldComments.add(commentText);
-							break;
+						parserState.enteringNewElementExtension(elem, url, true, getServerBaseUrl());
+					} else {
+						parserState.enteringNewElement(namespaceURI, localPart);
+					}
+
+					if (!heldComments.isEmpty()) {
+						for (String next : heldComments) {
+							parserState.commentPre(next);
 						}
+						heldComments.clear();
 					}
 
-					parserState.xmlEvent(nextEvent);
+					for (Iterator<Attribute> attributes = elem.getAttributes(); attributes.hasNext(); ) {
+						Attribute next = attributes.next();
+						parserState.attributeValue(next.getName().getLocalPart(), next.getValue());
+					}
 
-				} catch (DataFormatException e) {
-					throw new DataFormatException(
-							Msg.code(1851) + "DataFormatException at ["
-									+ nextEvent.getLocation().toString() + "]: " + e.getMessage(),
-							e);
+					break;
+				}
+				case XMLStreamConstants.END_DOCUMENT:
+				case XMLStreamConstants.END_ELEMENT: {
+					if (!heldComments.isEmpty()) {
+						for (String next : heldComments) {
+							parserState.commentPost(next);
+						}
+						heldComments.clear();
+					}
+					parserState.endingElement();
+					break;
+				}
+				case XMLStreamConstants.CHARACTERS: {
+					parserState.string(nextEvent.asCharacters().getData());
+					break;
+				}
+				case XMLStreamConstants.COMMENT: {
+					Comment comment = (Comment) nextEvent;
+					String commentText = comment.getText();
+					heldComments.add(commentText);
+					break;
 				}
 			}
-			return parserState.getObject();
-		} catch (XMLStreamException e) {
-			throw new DataFormatException(Msg.code(1852) + "Failed to parse XML content: " + e.getMessage());
+
+			parserState.xmlEvent(nextEvent);
+		} catch (DataFormatException e) {
+			throw new DataFormatException(
+					Msg.code(1851) + "DataFormatException at ["
+							+ nextEvent.getLocation().toString() + "]: " + e.getMessage(),
+					e);
 		}
 	}
 
@@ -497,7 +517,7 @@ public class XmlParser extends BaseParser {
 						continue;
 					}
 
-					BaseParser.ChildNameAndDef childNameAndDef = super.getChildNameAndDef(nextChild, nextValue);
+					ChildNameAndDef childNameAndDef = super.getChildNameAndDef(nextChild, nextValue);
 					if (childNameAndDef == null) {
 						continue;
 					}
@@ -1002,6 +1022,11 @@ public class XmlParser extends BaseParser {
 		return EncodingEnum.XML;
 	}
 
+	@Override
+	protected IBundleEntryIterator doParseBundleEntries(Reader theReader) {
+		return new XmlBundleEntryIterator(theReader);
+	}
+
 	private <T extends IBaseResource> T parseResource(Class<T> theResourceType, XMLEventReader theStreamReader) {
 		ParserState<T> parserState =
 				ParserState.getPreResourceInstance(this, theResourceType, getContext(), false, getErrorHandler());
@@ -1053,4 +1078,80 @@ public class XmlParser extends BaseParser {
 			theEventWriter.writeEndElement();
 		}
 	}
+
+	private class XmlBundleEntryIterator extends BaseBundleEntryIterator {
+		private final Reader myReader;
+		private final XMLEventReader myStreamReader;
+		private final ParserState<IBaseResource> myState;
+		private final List<String> myHeldComments = new ArrayList<>(1);
+		private int myDepth;
+
+		private XmlBundleEntryIterator(Reader theReader) {
+			super(XmlParser.this);
+			myReader = theReader;
+			myStreamReader = createStreamReader(theReader);
+			myState = ParserState.getPreResourceInstance(XmlParser.this, null, getContext(), false, getErrorHandler());
+			myState.setResolveBundleCrossReferences(false);
+
+			try {
+				// Parse everything up to the first entry
+				while (myStreamReader.hasNext()) {
+					XMLEvent peek = myStreamReader.peek();
+					if (myDepth == 1
+							&& peek.isStartElement()
+							&& "entry".equals(peek.asStartElement().getName().getLocalPart())) {
+						break;
+					}
+					processEvent(myStreamReader.nextEvent());
+					if (myDepth == 1 && getBundle() == null) {
+						setBundle(myState.getCurrentElement());
+					}
+				}
+				if (getBundle() == null) {
+					setBundle(myState.getObject());
+				}
+			} catch (XMLStreamException e) {
+				closeSource();
+				throw new DataFormatException(Msg.code(2821) + "Failed to parse XML content: " + e.getMessage());
+			} catch (RuntimeException e) {
+				closeSource();
+				throw e;
+			}
+		}
+
+		@Override
+		protected boolean parseMore() {
+			try {
+				while (myStreamReader.hasNext()) {
+					XMLEvent next = myStreamReader.nextEvent();
+					processEvent(next);
+					if (next.isEndElement() && myDepth == 1) {
+						return true;
+					}
+				}
+				return false;
+			} catch (XMLStreamException e) {
+				throw new DataFormatException(Msg.code(2822) + "Failed to parse XML content: " + e.getMessage());
+			}
+		}
+
+		private void processEvent(XMLEvent theEvent) {
+			processXmlEvent(theEvent, myState, myHeldComments);
+			if (theEvent.isStartElement()) {
+				myDepth++;
+			} else if (theEvent.isEndElement()) {
+				myDepth--;
+			}
+		}
+
+		@Override
+		protected void closeSource() {
+			try {
+				myStreamReader.close();
+			} catch (XMLStreamException e) {
+				ourLog.debug("Failed to close XML stream reader", e);
+			}
+			IOUtils.closeQuietly(myReader);
+		}
+	}
 }
@@ -19,6 +19,9 @@
  */
 package ca.uhn.fhir.parser.json;
 
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.DataFormatException;
+
 import java.io.IOException;
 import java.io.Writer;
 import java.math.BigDecimal;
@@ -83,6 +86,26 @@ public abstract class BaseJsonLikeWriter {
 
 	public abstract BaseJsonLikeWriter write(String name, BigDecimal value) throws IOException;
 
+	/**
+	 * Writes a number exactly as it is given, without converting it to a typed value first.
+	 *
+	 * @throws DataFormatException If the value is not a valid decimal number
+	 * @since 8.6.0
+	 */
+	public BaseJsonLikeWriter writeNumber(String theEncodedValue) throws IOException {
+		return write(toVerbatimBigDecimal(theEncodedValue));
+	}
+
+	/**
+	 * Writes a number exactly as it is given, without converting it to a typed value first.
+	 *
+	 * @throws DataFormatException If the value is not a valid decimal number
+	 * @since 8.6.0
+	 */
+	public BaseJsonLikeWriter writeNumber(String theName, String theEncodedValue) throws IOException {
+		return write(theName, toVerbatimBigDecimal(theEncodedValue));
+	}
+
 	public abstract BaseJsonLikeWriter write(String name, long value) throws IOException;
 
 	public abstract BaseJsonLikeWriter write(String name, double value) throws IOException;
@@ -96,4 +119,73 @@ public abstract class BaseJsonLikeWriter {
 	public abstract BaseJsonLikeWriter endArray() throws IOException;
 
 	public abstract BaseJsonLikeWriter endBlock() throws IOException;
+
+	/**
+	 * Throws a {@link DataFormatException} unless the given value is a valid decimal number, so that
+	 * an invalid stored value can never be written as a JSON number verbatim.
+	 *
+	 * @since 8.6.0
+	 */
+	protected static void validateNumber(String theEncodedValue) throws DataFormatException {
+		if (!isDecimal(theEncodedValue)) {
+			throw new DataFormatException(
+					Msg.code(2849) + "Unable to encode invalid decimal value: " + theEncodedValue);
+		}
+	}
+
+	/**
+	 * Accepts the same syntax as {@link BigDecimal#BigDecimal(String)} (for ASCII digits) without creating one
+	 */
+	private static boolean isDecimal(String theValue) {
+		if (theValue == null) {
+			return false;
+		}
+		int length = theValue.length();
+		int index = 0;
+		if (index < length && (theValue.charAt(index) == '+' || theValue.charAt(index) == '-')) {
+			index++;
+		}
+		boolean haveDigits = false;
+		boolean haveDecimalPoint = false;
+		for (; index < length; index++) {
+			char next = theValue.charAt(index);
+			if (next >= '0' && next <= '9') {
+				haveDigits = true;
+			} else if (next == '.' && !haveDecimalPoint) {
+				haveDecimalPoint = true;
+			} else {
+				break;
+			}
+		}
+		if (!haveDigits) {
+			return false;
+		}
+		if (index == length) {
+			return true;
+		}
+		if (theValue.charAt(index) != 'e' && theValue.charAt(index) != 'E') {
+			return false;
+		}
+		index++;
+		if (index < length && (theValue.charAt(index) == '+' || theValue.charAt(index) == '-')) {
+			index++;
+		}
+		int exponentStart = index;
+		while (index < length && theValue.charAt(index) >= '0' && theValue.charAt(index) <= '9') {
+			index++;
+		}
+		return index == length && index > exponentStart;
+	}
+
+	private static BigDecimal toVerbatimBigDecimal(String theEncodedValue) {
+		validateNumber(theEncodedValue);
+		return new BigDecimal(theEncodedValue) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public String toString() {
+				return theEncodedValue;
+			}
+		};
+	}
 }
@@ -20,6 +20,7 @@
 package ca.uhn.fhir.parser.json.jackson;
 
 import ca.uhn.fhir.parser.json.BaseJsonLikeWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
@@ -27,6 +28,7 @@ import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.core.util.Separators;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -40,6 +42,16 @@ public class JacksonWriter extends BaseJsonLikeWriter {
 		setWriter(theWriter);
 	}
 
+	/**
+	 * Creates a writer which encodes directly to UTF-8 bytes, using the factory's
+	 * recycled buffers rather than going through an intermediate {@link Writer}
+	 *
+	 * @since 8.6.0
+	 */
+	public JacksonWriter(JsonFactory theJsonFactory, OutputStream theOutputStream) throws IOException {
+		myJsonGenerator = theJsonFactory.createGenerator(theOutputStream, JsonEncoding.UTF8);
+	}
+
 	public JacksonWriter() {}
 
 	@Override
@@ -107,6 +119,21 @@ public class JacksonWriter extends BaseJsonLikeWriter {
 		return this;
 	}
 
+	@Override
+	public BaseJsonLikeWriter writeNumber(String theEncodedValue) throws IOException {
+		validateNumber(theEncodedValue);
+		myJsonGenerator.writeNumber(theEncodedValue);
+		return this;
+	}
+
+	@Override
+	public BaseJsonLikeWriter writeNumber(String theName, String theEncodedValue) throws IOException {
+		validateNumber(theEncodedValue);
+		myJsonGenerator.writeFieldName(theName);
+		myJsonGenerator.writeNumber(theEncodedValue);
+		return this;
+	}
+
 	@Override
 	public BaseJsonLikeWriter write(long value) throws IOException {
 		myJsonGenerator.writeObject(value);
@@ -162,6 +162,13 @@ public class Constants {
 	public static final String FORMAT_HTML = "html";
 	public static final String FORMAT_JSON = "json";
 	public static final String FORMAT_NDJSON = "ndjson";
+	/**
+	 * "smile"
+	 *
+	 * @since 8.6.0
+	 */
+	public static final String FORMAT_SMILE = "smile";
+
 	public static final String FORMAT_XML = "xml";
 	public static final String CT_RDF_TURTLE_LEGACY = "text/turtle";
 	public static final String FORMAT_TURTLE = "ttl";
@@ -318,6 +325,13 @@ public class Constants {
 	public static final int MAX_RESOURCE_NAME_LENGTH = 100;
 	public static final String CACHE_CONTROL_PRIVATE = "private";
 	public static final String CT_FHIR_NDJSON = "application/fhir+ndjson";
+	/**
+	 * The MimeType for the binary Jackson SMILE encoding
+	 *
+	 * @since 8.6.0
+	 */
+	public static final String CT_SMILE = "application/x-jackson-smile";
+
 	public static final String CT_APP_NDJSON = "application/ndjson";
 	public static final String CT_APP_X_NDJSON = "application/x-ndjson";
 	public static final String CT_NDJSON = "ndjson";
@@ -56,6 +56,24 @@ public enum EncodingEnum {
 		public IParser newParser(FhirContext theContext) {
 			return theContext.newNDJsonParser();
 		}
+	},
+
+	/**
+	 * Binary encoding of the FHIR JSON model using Jackson SMILE. This encoding requires the
+	 * <code>jackson-dataformat-smile</code> library to be on the classpath.
+	 *
+	 * @since 8.6.0
+	 */
+	SMILE(Constants.CT_SMILE, Constants.CT_SMILE, Constants.FORMAT_SMILE) {
+		@Override
+		public IParser newParser(FhirContext theContext) {
+			return theContext.newSmileParser();
+		}
+
+		@Override
+		public boolean isBinary() {
+			return true;
+		}
 	};
 
 	/**
@@ -78,6 +96,11 @@ public enum EncodingEnum {
 	 */
 	public static final String NDJSON_PLAIN_STRING = "ndjson";
 
+	/**
+	 * "smile"
+	 */
+	public static final String SMILE_PLAIN_STRING = "smile";
+
 	private static Map<String, EncodingEnum> ourContentTypeToEncoding;
 	private static Map<String, EncodingEnum> ourContentTypeToEncodingLegacy;
 	private static Map<String, EncodingEnum> ourContentTypeToEncodingStrict;
@@ -123,6 +146,7 @@ public enum EncodingEnum {
 		ourContentTypeToEncoding.put(XML_PLAIN_STRING, XML);
 		ourContentTypeToEncoding.put(RDF_PLAIN_STRING, RDF);
 		ourContentTypeToEncoding.put(NDJSON_PLAIN_STRING, NDJSON);
+		ourContentTypeToEncoding.put(SMILE_PLAIN_STRING, SMILE);
 		ourContentTypeToEncoding.put(Constants.FORMAT_TURTLE, RDF);
 
 		ourContentTypeToEncodingLegacy = Collections.unmodifiableMap(ourContentTypeToEncodingLegacy);
@@ -161,6 +185,17 @@ public enum EncodingEnum {
 
 	public abstract IParser newParser(final FhirContext theContext);
 
+	/**
+	 * Returns <code>true</code> if this encoding produces binary content, which must be read from an
+	 * {@link java.io.InputStream} and written to an {@link java.io.OutputStream} rather than
+	 * being handled as text
+	 *
+	 * @since 8.6.0
+	 */
+	public boolean isBinary() {
+		return false;
+	}
+
 	public static EncodingEnum detectEncoding(final String theBody) {
 		EncodingEnum retVal = detectEncodingNoDefault(theBody);
 		retVal = ObjectUtils.defaultIfNull(retVal, EncodingEnum.XML);
@@ -29,6 +29,8 @@ import ca.uhn.fhir.model.api.ResourceMetadataKeyEnum;
 import ca.uhn.fhir.model.primitive.IdDt;
 import ca.uhn.fhir.model.valueset.BundleEntrySearchModeEnum;
 import ca.uhn.fhir.model.valueset.BundleTypeEnum;
+import ca.uhn.fhir.parser.IBundleEntryIterator;
+import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.PatchTypeEnum;
 import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
@@ -55,6 +57,7 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -724,6 +727,55 @@ public class BundleUtil {
 		return new SearchBundleEntryParts(fullUrl, resource, matchMode, searchScore);
 	}
 
+	/**
+	 * Reads a Bundle incrementally from a stream, invoking a consumer for each entry as it is
+	 * parsed. Entries are not retained, so this can be used to process Bundles which are too
+	 * large to hold in memory (for example, those written by {@link StreamingBundleBuilder}).
+	 * Note that references between resources in different entries are not resolved to the
+	 * target resource object, as they would be when parsing the complete Bundle.
+	 *
+	 * @param theContext       The FhirContext for the FHIR version associated with the Bundle
+	 * @param theParser        The parser to use, which determines the expected encoding
+	 * @param theInputStream   The stream to read from. It will be closed once the Bundle has been read.
+	 * @param theEntryConsumer A consumer to process each entry
+	 * @return Returns the Bundle with all of its Bundle-level elements (e.g. <code>Bundle.type</code>) but without any entries
+	 * @see IParser#parseBundleEntries(InputStream)
+	 * @since 8.6.0
+	 */
+	public static IBaseBundle processEntriesStreaming(
+			FhirContext theContext,
+			IParser theParser,
+			InputStream theInputStream,
+			Consumer<BundleEntryParts> theEntryConsumer) {
+		BaseRuntimeChildDefinition entryChildDef =
+				theContext.getResourceDefinition("Bundle").getChildByName("entry");
+		BaseRuntimeElementCompositeDefinition<?> entryChildContentsDef =
+				(BaseRuntimeElementCompositeDefinition<?>) entryChildDef.getChildByName("entry");
+		BaseRuntimeChildDefinition fullUrlChildDef = entryChildContentsDef.getChildByName("fullUrl");
+		BaseRuntimeChildDefinition resourceChildDef = entryChildContentsDef.getChildByName("resource");
+		BaseRuntimeChildDefinition requestChildDef = entryChildContentsDef.getChildByName("request");
+		BaseRuntimeElementCompositeDefinition<?> requestChildContentsDef =
+				(BaseRuntimeElementCompositeDefinition<?>) requestChildDef.getChildByName("request");
+		BaseRuntimeChildDefinition requestUrlChildDef = requestChildContentsDef.getChildByName("url");
+		BaseRuntimeChildDefinition requestIfNoneExistChildDef = requestChildContentsDef.getChildByName("ifNoneExist");
+		BaseRuntimeChildDefinition methodChildDef = requestChildContentsDef.getChildByName("method");
+
+		try (IBundleEntryIterator iterator = theParser.parseBundleEntries(theInputStream)) {
+			while (iterator.hasNext()) {
+				BundleEntryParts parts = getBundleEntryParts(
+						fullUrlChildDef,
+						resourceChildDef,
+						requestChildDef,
+						requestUrlChildDef,
+						requestIfNoneExistChildDef,
+						methodChildDef,
+						iterator.next());
+				theEntryConsumer.accept(parts);
+			}
+			return iterator.getBundle();
+		}
+	}
+
 	/**
 	 * Given a bundle, and a consumer, apply the consumer to each entry in the bundle.
 	 *
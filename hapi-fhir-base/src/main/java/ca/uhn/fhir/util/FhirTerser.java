@@ -41,6 +41,8 @@ import ca.uhn.fhir.model.base.composite.BaseContainedDt;
 import ca.uhn.fhir.model.base.composite.BaseResourceReferenceDt;
 import ca.uhn.fhir.model.primitive.StringDt;
 import ca.uhn.fhir.parser.DataFormatException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
@@ -74,6 +76,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -93,6 +96,19 @@ public class FhirTerser {
 	private static final String USER_DATA_KEY_CONTAIN_RESOURCES_COMPLETED =
 			FhirTerser.class.getName() + "_CONTAIN_RESOURCES_COMPLETED";
 
+	/**
+	 * Upper bound on the number of distinct paths whose parsed form is cached for the string-based methods
+	 */
+	private static final int MAX_CACHED_PATHS = 1000;
+
+	/**
+	 * Parsed paths for the string-based methods. These are shared by all contexts, so they only hold
+	 * the parsed names and never any definitions. The least recently used paths are evicted once the
+	 * cache is full.
+	 */
+	private static final Cache<String, PathStep[]> ourPathStepsCache =
+			CacheBuilder.newBuilder().maximumSize(MAX_CACHED_PATHS).build();
+
 	private final FhirContext myContext;
 	private static final Logger ourLog = LoggerFactory.getLogger(FhirTerser.class);
 
@@ -411,7 +427,15 @@ public class FhirTerser {
 	public <T extends IBase> T getSingleValueOrNull(IBase theTarget, String thePath, Class<T> theWantedType) {
 		Validate.notNull(theTarget, "theTarget must not be null");
 		Validate.notBlank(thePath, "thePath must not be empty");
+		return getSingleValueOrNull(theTarget, getPathSteps(thePath), null, thePath, theWantedType);
+	}
 
+	private <T extends IBase> T getSingleValueOrNull(
+			IBase theTarget,
+			PathStep[] theSteps,
+			@Nullable AtomicReferenceArray<ResolvedChild> theResolvedChildren,
+			String thePath,
+			Class<T> theWantedType) {
 		BaseRuntimeElementDefinition<?> def = myContext.getElementDefinition(theTarget.getClass());
 		if (!(def instanceof BaseRuntimeElementCompositeDefinition)) {
 			throw new IllegalArgumentException(Msg.code(1791) + "Target is not a composite type: "
@@ -420,9 +444,8 @@ public class FhirTerser {
 
 		BaseRuntimeElementCompositeDefinition<?> currentDef = (BaseRuntimeElementCompositeDefinition<?>) def;
 
-		List<String> parts = parsePath(currentDef, thePath);
-
-		List<T> retVal = getValues(currentDef, theTarget, parts, theWantedType);
+		List<T> retVal =
+				getValues(currentDef, theTarget, theSteps, theResolvedChildren, thePath, theWantedType, false, false);
 		if (retVal.isEmpty()) {
 			return null;
 		}
@@ -446,218 +469,79 @@ public class FhirTerser {
 	private <T extends IBase> List<T> getValues(
 			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
 			IBase theCurrentObj,
-			List<String> theSubList,
-			Class<T> theWantedClass) {
-		return getValues(theCurrentDef, theCurrentObj, theSubList, theWantedClass, false, false);
-	}
-
-	@SuppressWarnings("unchecked")
-	private <T extends IBase> List<T> getValues(
-			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
-			IBase theCurrentObj,
-			List<String> theSubList,
+			PathStep[] theSteps,
+			@Nullable AtomicReferenceArray<ResolvedChild> theResolvedChildren,
+			String thePath,
 			Class<T> theWantedClass,
 			boolean theCreate,
 			boolean theAddExtension) {
-		if (theSubList.isEmpty()) {
+		int firstStep = getFirstStepIndex(theCurrentDef, theSteps, thePath);
+		if (firstStep == -1) {
 			return Collections.emptyList();
 		}
 
-		String name = theSubList.get(0);
 		List<T> retVal = new ArrayList<>();
+		collectValues(
+				theCurrentDef,
+				theCurrentObj,
+				theSteps,
+				theResolvedChildren,
+				firstStep,
+				theWantedClass,
+				theCreate,
+				theAddExtension,
+				retVal);
+		return retVal;
+	}
 
-		if (name.startsWith("extension('")) {
-			String extensionUrl = name.substring("extension('".length());
-			int endIndex = extensionUrl.indexOf('\'');
-			if (endIndex != -1) {
-				extensionUrl = extensionUrl.substring(0, endIndex);
-			}
-
-			if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
-				// DTSU2
-				final String extensionDtUrlForLambda = extensionUrl;
-				List<ExtensionDt> extensionDts = Collections.emptyList();
-				if (theCurrentObj instanceof ISupportsUndeclaredExtensions) {
-					extensionDts = ((ISupportsUndeclaredExtensions) theCurrentObj)
-							.getUndeclaredExtensions().stream()
-									.filter(t -> t.getUrl().equals(extensionDtUrlForLambda))
-									.collect(Collectors.toList());
-
-					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensionDts.isEmpty() && theSubList.size() == 1))) {
-						extensionDts.add(
-								createEmptyExtensionDt((ISupportsUndeclaredExtensions) theCurrentObj, extensionUrl));
-					}
-
-					if (extensionDts.isEmpty() && theCreate) {
-						extensionDts.add(
-								createEmptyExtensionDt((ISupportsUndeclaredExtensions) theCurrentObj, extensionUrl));
-					}
-
-				} else if (theCurrentObj instanceof IBaseExtension) {
-					extensionDts = ((IBaseExtension) theCurrentObj).getExtension();
-
-					if (theAddExtension && (extensionDts.isEmpty() && theSubList.size() == 1)) {
-						extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, extensionUrl));
-					}
-
-					if (extensionDts.isEmpty() && theCreate) {
-						extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, extensionUrl));
-					}
-				}
-
-				for (ExtensionDt next : extensionDts) {
-					if (theWantedClass.isAssignableFrom(next.getClass())) {
-						retVal.add((T) next);
-					}
-				}
+	@SuppressWarnings("unchecked")
+	private <T extends IBase> void collectValues(
+			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
+			IBase theCurrentObj,
+			PathStep[] theSteps,
+			@Nullable AtomicReferenceArray<ResolvedChild> theResolvedChildren,
+			int theStepIndex,
+			Class<T> theWantedClass,
+			boolean theCreate,
+			boolean theAddExtension,
+			List<T> theValues) {
+		PathStep step = theSteps[theStepIndex];
+		boolean lastStep = theStepIndex == theSteps.length - 1;
+
+		if (step.myExtensionUrl != null) {
+			List<T> extensions;
+			if (step.myModifierExtension) {
+				extensions = getModifierExtensionValues(
+						theCurrentObj, step.myExtensionUrl, lastStep, theWantedClass, theCreate, theAddExtension);
 			} else {
-				// DSTU3+
-				final String extensionUrlForLambda = extensionUrl;
-				List<IBaseExtension<?, ?>> extensions = Collections.emptyList();
-				if (theCurrentObj instanceof IBaseHasExtensions) {
-					extensions = ((IBaseHasExtensions) theCurrentObj)
-							.getExtension().stream()
-									.filter(t -> t.getUrl().equals(extensionUrlForLambda))
-									.collect(Collectors.toList());
-
-					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensions.isEmpty() && theSubList.size() == 1))) {
-						extensions.add(createEmptyExtension((IBaseHasExtensions) theCurrentObj, extensionUrl));
-					}
-
-					if (extensions.isEmpty() && theCreate) {
-						extensions.add(createEmptyExtension((IBaseHasExtensions) theCurrentObj, extensionUrl));
-					}
-				}
-
-				for (IBaseExtension<?, ?> next : extensions) {
-					if (theWantedClass.isAssignableFrom(next.getClass())) {
-						retVal.add((T) next);
-					}
-				}
+				extensions = getExtensionValues(
+						theCurrentObj, step.myExtensionUrl, lastStep, theWantedClass, theCreate, theAddExtension);
 			}
 
-			if (theSubList.size() > 1) {
-				List<T> values = retVal;
-				retVal = new ArrayList<>();
-				for (T nextElement : values) {
-					BaseRuntimeElementCompositeDefinition<?> nextChildDef = (BaseRuntimeElementCompositeDefinition<?>)
-							myContext.getElementDefinition(nextElement.getClass());
-					List<T> foundValues = getValues(
-							nextChildDef,
-							nextElement,
-							theSubList.subList(1, theSubList.size()),
-							theWantedClass,
-							theCreate,
-							theAddExtension);
-					retVal.addAll(foundValues);
-				}
-			}
-
-			return retVal;
-		}
-
-		if (name.startsWith("modifierExtension('")) {
-			String extensionUrl = name.substring("modifierExtension('".length());
-			int endIndex = extensionUrl.indexOf('\'');
-			if (endIndex != -1) {
-				extensionUrl = extensionUrl.substring(0, endIndex);
-			}
-
-			if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
-				// DSTU2
-				final String extensionDtUrlForLambda = extensionUrl;
-				List<ExtensionDt> extensionDts = Collections.emptyList();
-				if (theCurrentObj instanceof ISupportsUndeclaredExtensions) {
-					extensionDts = ((ISupportsUndeclaredExtensions) theCurrentObj)
-							.getUndeclaredModifierExtensions().stream()
-									.filter(t -> t.getUrl().equals(extensionDtUrlForLambda))
-									.collect(Collectors.toList());
-
-					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensionDts.isEmpty() && theSubList.size() == 1))) {
-						extensionDts.add(createEmptyModifierExtensionDt(
-								(ISupportsUndeclaredExtensions) theCurrentObj, extensionUrl));
-					}
-
-					if (extensionDts.isEmpty() && theCreate) {
-						extensionDts.add(createEmptyModifierExtensionDt(
-								(ISupportsUndeclaredExtensions) theCurrentObj, extensionUrl));
-					}
-
-				} else if (theCurrentObj instanceof IBaseExtension) {
-					extensionDts = ((IBaseExtension) theCurrentObj).getExtension();
-
-					if (theAddExtension && (extensionDts.isEmpty() && theSubList.size() == 1)) {
-						extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, extensionUrl));
-					}
-
-					if (extensionDts.isEmpty() && theCreate) {
-						extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, extensionUrl));
-					}
-				}
-
-				for (ExtensionDt next : extensionDts) {
-					if (theWantedClass.isAssignableFrom(next.getClass())) {
-						retVal.add((T) next);
-					}
-				}
+			if (lastStep) {
+				theValues.addAll(extensions);
 			} else {
-				// DSTU3+
-				final String extensionUrlForLambda = extensionUrl;
-				List<IBaseExtension<?, ?>> extensions = Collections.emptyList();
-
-				if (theCurrentObj instanceof IBaseHasModifierExtensions) {
-					extensions = ((IBaseHasModifierExtensions) theCurrentObj)
-							.getModifierExtension().stream()
-									.filter(t -> t.getUrl().equals(extensionUrlForLambda))
-									.collect(Collectors.toList());
-
-					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensions.isEmpty() && theSubList.size() == 1))) {
-						extensions.add(
-								createEmptyModifierExtension((IBaseHasModifierExtensions) theCurrentObj, extensionUrl));
-					}
-
-					if (extensions.isEmpty() && theCreate) {
-						extensions.add(
-								createEmptyModifierExtension((IBaseHasModifierExtensions) theCurrentObj, extensionUrl));
-					}
-				}
-
-				for (IBaseExtension<?, ?> next : extensions) {
-					if (theWantedClass.isAssignableFrom(next.getClass())) {
-						retVal.add((T) next);
-					}
-				}
-			}
-
-			if (theSubList.size() > 1) {
-				List<T> values = retVal;
-				retVal = new ArrayList<>();
-				for (T nextElement : values) {
+				for (T nextElement : extensions) {
 					BaseRuntimeElementCompositeDefinition<?> nextChildDef = (BaseRuntimeElementCompositeDefinition<?>)
 							myContext.getElementDefinition(nextElement.getClass());
-					List<T> foundValues = getValues(
+					collectValues(
 							nextChildDef,
 							nextElement,
-							theSubList.subList(1, theSubList.size()),
+							theSteps,
+							theResolvedChildren,
+							theStepIndex + 1,
 							theWantedClass,
 							theCreate,
-							theAddExtension);
-					retVal.addAll(foundValues);
+							theAddExtension,
+							theValues);
 				}
 			}
-
-			return retVal;
+			return;
 		}
 
-		BaseRuntimeChildDefinition nextDef = theCurrentDef.getChildByNameOrThrowDataFormatException(name);
+		String name = step.myName;
+		ResolvedChild resolvedChild = resolveChild(theCurrentDef, step, theResolvedChildren, theStepIndex);
+		BaseRuntimeChildDefinition nextDef = resolvedChild.myChildDef;
 		List<? extends IBase> values = nextDef.getAccessor().getValues(theCurrentObj);
 
 		if (values.isEmpty() && theCreate) {
@@ -675,19 +559,19 @@ public class FhirTerser {
 			values = list;
 		}
 
-		if (theSubList.size() == 1) {
+		if (lastStep) {
 			if (nextDef instanceof RuntimeChildChoiceDefinition) {
 				for (IBase next : values) {
 					if (next != null) {
 						if (name.endsWith("[x]")) {
 							if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
-								retVal.add((T) next);
+								theValues.add((T) next);
 							}
 						} else {
 							String childName = nextDef.getChildNameByDatatype(next.getClass());
-							if (theSubList.get(0).equals(childName)) {
+							if (name.equals(childName)) {
 								if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
-									retVal.add((T) next);
+									theValues.add((T) next);
 								}
 							}
 						}
@@ -697,7 +581,7 @@ public class FhirTerser {
 				for (IBase next : values) {
 					if (next != null) {
 						if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
-							retVal.add((T) next);
+							theValues.add((T) next);
 						}
 					}
 				}
@@ -707,19 +591,184 @@ public class FhirTerser {
 				// We can only continue iterating if the current element is composite.
 				// If we haven't reached the end of the path, and we have already reached an element
 				// with a primitive data type, we did not find a match.
-				if (myContext.getElementDefinition(nextElement.getClass())
+				if (resolvedChild.getElementDefinition(myContext, nextElement)
 						instanceof BaseRuntimeElementCompositeDefinition<?> nextChildDef) {
-					List<T> foundValues = getValues(
+					collectValues(
 							nextChildDef,
 							nextElement,
-							theSubList.subList(1, theSubList.size()),
+							theSteps,
+							theResolvedChildren,
+							theStepIndex + 1,
 							theWantedClass,
 							theCreate,
-							theAddExtension);
-					retVal.addAll(foundValues);
+							theAddExtension,
+							theValues);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends IBase> List<T> getExtensionValues(
+			IBase theCurrentObj,
+			String theExtensionUrl,
+			boolean theLastStep,
+			Class<T> theWantedClass,
+			boolean theCreate,
+			boolean theAddExtension) {
+		List<T> retVal = new ArrayList<>();
+
+		if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
+			// DTSU2
+			List<ExtensionDt> extensionDts = Collections.emptyList();
+			if (theCurrentObj instanceof ISupportsUndeclaredExtensions) {
+				extensionDts = new ArrayList<>();
+				for (ExtensionDt next : ((ISupportsUndeclaredExtensions) theCurrentObj).getUndeclaredExtensions()) {
+					if (next.getUrl().equals(theExtensionUrl)) {
+						extensionDts.add(next);
+					}
+				}
+
+				if (theAddExtension
+						&& (!(theCurrentObj instanceof IBaseExtension) || (extensionDts.isEmpty() && theLastStep))) {
+					extensionDts.add(
+							createEmptyExtensionDt((ISupportsUndeclaredExtensions) theCurrentObj, theExtensionUrl));
+				}
+
+				if (extensionDts.isEmpty() && theCreate) {
+					extensionDts.add(
+							createEmptyExtensionDt((ISupportsUndeclaredExtensions) theCurrentObj, theExtensionUrl));
+				}
+
+			} else if (theCurrentObj instanceof IBaseExtension) {
+				extensionDts = ((IBaseExtension) theCurrentObj).getExtension();
+
+				if (theAddExtension && (extensionDts.isEmpty() && theLastStep)) {
+					extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, theExtensionUrl));
+				}
+
+				if (extensionDts.isEmpty() && theCreate) {
+					extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, theExtensionUrl));
+				}
+			}
+
+			for (ExtensionDt next : extensionDts) {
+				if (theWantedClass.isAssignableFrom(next.getClass())) {
+					retVal.add((T) next);
+				}
+			}
+		} else {
+			// DSTU3+
+			List<IBaseExtension<?, ?>> extensions = Collections.emptyList();
+			if (theCurrentObj instanceof IBaseHasExtensions) {
+				extensions = new ArrayList<>();
+				for (IBaseExtension<?, ?> next : ((IBaseHasExtensions) theCurrentObj).getExtension()) {
+					if (next.getUrl().equals(theExtensionUrl)) {
+						extensions.add(next);
+					}
+				}
+
+				if (theAddExtension
+						&& (!(theCurrentObj instanceof IBaseExtension) || (extensions.isEmpty() && theLastStep))) {
+					extensions.add(createEmptyExtension((IBaseHasExtensions) theCurrentObj, theExtensionUrl));
+				}
+
+				if (extensions.isEmpty() && theCreate) {
+					extensions.add(createEmptyExtension((IBaseHasExtensions) theCurrentObj, theExtensionUrl));
+				}
+			}
+
+			for (IBaseExtension<?, ?> next : extensions) {
+				if (theWantedClass.isAssignableFrom(next.getClass())) {
+					retVal.add((T) next);
 				}
 			}
 		}
+
+		return retVal;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends IBase> List<T> getModifierExtensionValues(
+			IBase theCurrentObj,
+			String theExtensionUrl,
+			boolean theLastStep,
+			Class<T> theWantedClass,
+			boolean theCreate,
+			boolean theAddExtension) {
+		List<T> retVal = new ArrayList<>();
+
+		if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
+			// DSTU2
+			List<ExtensionDt> extensionDts = Collections.emptyList();
+			if (theCurrentObj instanceof ISupportsUndeclaredExtensions) {
+				extensionDts = new ArrayList<>();
+				for (ExtensionDt next :
+						((ISupportsUndeclaredExtensions) theCurrentObj).getUndeclaredModifierExtensions()) {
+					if (next.getUrl().equals(theExtensionUrl)) {
+						extensionDts.add(next);
+					}
+				}
+
+				if (theAddExtension
+						&& (!(theCurrentObj instanceof IBaseExtension) || (extensionDts.isEmpty() && theLastStep))) {
+					extensionDts.add(createEmptyModifierExtensionDt(
+							(ISupportsUndeclaredExtensions) theCurrentObj, theExtensionUrl));
+				}
+
+				if (extensionDts.isEmpty() && theCreate) {
+					extensionDts.add(createEmptyModifierExtensionDt(
+							(ISupportsUndeclaredExtensions) theCurrentObj, theExtensionUrl));
+				}
+
+			} else if (theCurrentObj instanceof IBaseExtension) {
+				extensionDts = ((IBaseExtension) theCurrentObj).getExtension();
+
+				if (theAddExtension && (extensionDts.isEmpty() && theLastStep)) {
+					extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, theExtensionUrl));
+				}
+
+				if (extensionDts.isEmpty() && theCreate) {
+					extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, theExtensionUrl));
+				}
+			}
+
+			for (ExtensionDt next : extensionDts) {
+				if (theWantedClass.isAssignableFrom(next.getClass())) {
+					retVal.add((T) next);
+				}
+			}
+		} else {
+			// DSTU3+
+			List<IBaseExtension<?, ?>> extensions = Collections.emptyList();
+
+			if (theCurrentObj instanceof IBaseHasModifierExtensions) {
+				extensions = new ArrayList<>();
+				for (IBaseExtension<?, ?> next : ((IBaseHasModifierExtensions) theCurrentObj).getModifierExtension()) {
+					if (next.getUrl().equals(theExtensionUrl)) {
+						extensions.add(next);
+					}
+				}
+
+				if (theAddExtension
+						&& (!(theCurrentObj instanceof IBaseExtension) || (extensions.isEmpty() && theLastStep))) {
+					extensions.add(
+							createEmptyModifierExtension((IBaseHasModifierExtensions) theCurrentObj, theExtensionUrl));
+				}
+
+				if (extensions.isEmpty() && theCreate) {
+					extensions.add(
+							createEmptyModifierExtension((IBaseHasModifierExtensions) theCurrentObj, theExtensionUrl));
+				}
+			}
+
+			for (IBaseExtension<?, ?> next : extensions) {
+				if (theWantedClass.isAssignableFrom(next.getClass())) {
+					retVal.add((T) next);
+				}
+			}
+		}
+
 		return retVal;
 	}
 
@@ -781,8 +830,7 @@ public class FhirTerser {
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass);
+		return getValues(def, theElement, getPathSteps(thePath), null, thePath, theWantedClass, false, false);
 	}
 
 	/**
@@ -800,8 +848,7 @@ public class FhirTerser {
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, false);
+		return getValues(def, theElement, getPathSteps(thePath), null, thePath, theWantedClass, theCreate, false);
 	}
 
 	/**
@@ -820,12 +867,60 @@ public class FhirTerser {
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, theAddExtension);
+		return getValues(
+				def, theElement, getPathSteps(thePath), null, thePath, theWantedClass, theCreate, theAddExtension);
 	}
 
-	private List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
-		List<String> parts = new ArrayList<>();
+	/**
+	 * Compiles a path of the form accepted by {@link #getValues(IBase, String)} into a reusable
+	 * accessor. The path is tokenized only once, and the child definitions along the path are
+	 * resolved the first time the path is evaluated and then reused, so repeatedly evaluating a
+	 * compiled path is considerably cheaper than repeatedly calling the string-based methods.
+	 * <p>
+	 * The returned object is thread-safe and may be shared and cached.
+	 * </p>
+	 *
+	 * @param thePath The path, e.g. <code>Patient.name.given</code>
+	 * @since 8.6.0
+	 */
+	public CompiledPath compile(@Nonnull String thePath) {
+		Validate.notBlank(thePath, "thePath must not be empty");
+		return new CompiledPath(thePath, parsePath(thePath));
+	}
+
+	private static PathStep[] getPathSteps(String thePath) {
+		PathStep[] retVal = ourPathStepsCache.getIfPresent(thePath);
+		if (retVal == null) {
+			retVal = parsePath(thePath);
+			ourPathStepsCache.put(thePath, retVal);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Resolves the child of <code>theParentDef</code> which a path step refers to. Compiled paths
+	 * pass in their own per-step cache, which holds the child definition resolved for the most
+	 * recently seen parent definition. That is almost always the only one a given path is
+	 * evaluated against.
+	 */
+	private static ResolvedChild resolveChild(
+			BaseRuntimeElementCompositeDefinition<?> theParentDef,
+			PathStep theStep,
+			@Nullable AtomicReferenceArray<ResolvedChild> theResolvedChildren,
+			int theStepIndex) {
+		ResolvedChild retVal = theResolvedChildren != null ? theResolvedChildren.get(theStepIndex) : null;
+		if (retVal == null || retVal.myParentDef != theParentDef) {
+			BaseRuntimeChildDefinition childDef = theParentDef.getChildByNameOrThrowDataFormatException(theStep.myName);
+			retVal = new ResolvedChild(theParentDef, childDef, childDef.getChildByName(theStep.myName));
+			if (theResolvedChildren != null) {
+				theResolvedChildren.set(theStepIndex, retVal);
+			}
+		}
+		return retVal;
+	}
+
+	private static PathStep[] parsePath(String thePath) {
+		List<PathStep> parts = new ArrayList<>();
 
 		int currentStart = 0;
 		boolean inSingleQuote = false;
@@ -836,30 +931,54 @@ public class FhirTerser {
 					break;
 				case '.':
 					if (!inSingleQuote) {
-						parts.add(thePath.substring(currentStart, i));
+						parts.add(new PathStep(thePath.substring(currentStart, i)));
 						currentStart = i + 1;
 					}
 					break;
 			}
 		}
 
-		parts.add(thePath.substring(currentStart));
+		parts.add(new PathStep(thePath.substring(currentStart)));
+		return parts.toArray(new PathStep[0]);
+	}
+
+	/**
+	 * Returns the index of the first step in the path which applies to children of the given
+	 * element (i.e. skipping a leading type name), or <code>-1</code> if the path starts with
+	 * the name of a different resource type.
+	 */
+	private static int getFirstStepIndex(
+			BaseRuntimeElementCompositeDefinition<?> theElementDef, PathStep[] theSteps, String thePath) {
+		int retVal = 0;
 
-		String firstPart = parts.get(0);
+		String firstPart = theSteps[0].myName;
 		if (Character.isUpperCase(firstPart.charAt(0)) && theElementDef instanceof RuntimeResourceDefinition) {
 			if (firstPart.equals(theElementDef.getName())) {
-				parts = parts.subList(1, parts.size());
+				retVal = 1;
 			} else {
-				parts = Collections.emptyList();
-				return parts;
+				return -1;
 			}
 		} else if (firstPart.equals(theElementDef.getName())) {
-			parts = parts.subList(1, parts.size());
+			retVal = 1;
 		}
 
-		if (parts.size() < 1) {
+		if (retVal >= theSteps.length) {
 			throw new ConfigurationException(Msg.code(1792) + "Invalid path: " + thePath);
 		}
+		return retVal;
+	}
+
+	private List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
+		PathStep[] steps = getPathSteps(thePath);
+		int firstStep = getFirstStepIndex(theElementDef, steps, thePath);
+		if (firstStep == -1) {
+			return Collections.emptyList();
+		}
+
+		List<String> parts = new ArrayList<>(steps.length - firstStep);
+		for (int i = firstStep; i < steps.length; i++) {
+			parts.add(steps[i].myName);
+		}
 		return parts;
 	}
 
@@ -1861,6 +1980,165 @@ public class FhirTerser {
 		return target;
 	}
 
+	/**
+	 * A path which has been compiled using {@link FhirTerser#compile(String)}. Instances are
+	 * thread-safe and may be reused indefinitely.
+	 *
+	 * @since 8.6.0
+	 */
+	public class CompiledPath {
+
+		private final String myPath;
+		private final PathStep[] mySteps;
+		private final AtomicReferenceArray<ResolvedChild> myResolvedChildren;
+
+		private CompiledPath(String thePath, PathStep[] theSteps) {
+			myPath = thePath;
+			mySteps = theSteps;
+			myResolvedChildren = new AtomicReferenceArray<>(theSteps.length);
+		}
+
+		/**
+		 * Returns the path which was compiled
+		 */
+		public String getPath() {
+			return myPath;
+		}
+
+		/**
+		 * Returns values stored in the given element at this path
+		 *
+		 * @param theElement The element to be accessed. Must not be null.
+		 * @see FhirTerser#getValues(IBase, String)
+		 */
+		public List<IBase> getValues(IBase theElement) {
+			return getValues(theElement, IBase.class, false);
+		}
+
+		/**
+		 * Returns values stored in the given element at this path which are of type <code>theWantedClass</code>
+		 *
+		 * @param theElement     The element to be accessed. Must not be null.
+		 * @param theWantedClass The desired class to be returned in a list.
+		 * @see FhirTerser#getValues(IBase, String, Class)
+		 */
+		public <T extends IBase> List<T> getValues(IBase theElement, Class<T> theWantedClass) {
+			return getValues(theElement, theWantedClass, false);
+		}
+
+		/**
+		 * Returns values stored in the given element at this path which are of type <code>theWantedClass</code>
+		 *
+		 * @param theElement     The element to be accessed. Must not be null.
+		 * @param theWantedClass The desired class to be returned in a list.
+		 * @param theCreate      When set to <code>true</code>, the terser will create a null-valued element where none exists.
+		 * @see FhirTerser#getValues(IBase, String, Class, boolean)
+		 */
+		public <T extends IBase> List<T> getValues(IBase theElement, Class<T> theWantedClass, boolean theCreate) {
+			BaseRuntimeElementCompositeDefinition<?> def =
+					(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
+			return FhirTerser.this.getValues(
+					def, theElement, mySteps, myResolvedChildren, myPath, theWantedClass, theCreate, false);
+		}
+
+		/**
+		 * Returns the first value stored in the given element at this path which is of type
+		 * <code>theWantedClass</code>, or <code>null</code> if there is none
+		 *
+		 * @see FhirTerser#getSingleValueOrNull(IBase, String, Class)
+		 */
+		public <T extends IBase> T getSingleValueOrNull(IBase theTarget, Class<T> theWantedType) {
+			Validate.notNull(theTarget, "theTarget must not be null");
+			return FhirTerser.this.getSingleValueOrNull(theTarget, mySteps, myResolvedChildren, myPath, theWantedType);
+		}
+
+		/**
+		 * Returns the first value stored in the given element at this path which is of type
+		 * <code>theWantedClass</code>
+		 *
+		 * @see FhirTerser#getSingleValue(IBase, String, Class)
+		 */
+		public <T extends IBase> Optional<T> getSingleValue(IBase theTarget, Class<T> theWantedType) {
+			return Optional.ofNullable(getSingleValueOrNull(theTarget, theWantedType));
+		}
+
+		/**
+		 * Returns the string value of the first primitive stored in the given element at this path,
+		 * or <code>null</code> if there is none
+		 *
+		 * @see FhirTerser#getSinglePrimitiveValueOrNull(IBase, String)
+		 */
+		public String getSinglePrimitiveValueOrNull(IBase theTarget) {
+			IPrimitiveType<?> value = getSingleValueOrNull(theTarget, IPrimitiveType.class);
+			return value != null ? value.getValueAsString() : null;
+		}
+
+		@Override
+		public String toString() {
+			return myPath;
+		}
+	}
+
+	/**
+	 * A single dot-separated part of a path. Instances are immutable and hold no definitions, so
+	 * they can be shared between contexts.
+	 */
+	private static class PathStep {
+
+		private final String myName;
+		private final String myExtensionUrl;
+		private final boolean myModifierExtension;
+
+		private PathStep(String theName) {
+			myName = theName;
+			if (theName.startsWith("extension('")) {
+				myExtensionUrl = extractExtensionUrl(theName.substring("extension('".length()));
+				myModifierExtension = false;
+			} else if (theName.startsWith("modifierExtension('")) {
+				myExtensionUrl = extractExtensionUrl(theName.substring("modifierExtension('".length()));
+				myModifierExtension = true;
+			} else {
+				myExtensionUrl = null;
+				myModifierExtension = false;
+			}
+		}
+
+		private static String extractExtensionUrl(String theRemainder) {
+			int endIndex = theRemainder.indexOf('\'');
+			if (endIndex != -1) {
+				return theRemainder.substring(0, endIndex);
+			}
+			return theRemainder;
+		}
+	}
+
+	private static class ResolvedChild {
+
+		private final BaseRuntimeElementCompositeDefinition<?> myParentDef;
+		private final BaseRuntimeChildDefinition myChildDef;
+		private final BaseRuntimeElementDefinition<?> myElementDef;
+
+		private ResolvedChild(
+				BaseRuntimeElementCompositeDefinition<?> theParentDef,
+				BaseRuntimeChildDefinition theChildDef,
+				BaseRuntimeElementDefinition<?> theElementDef) {
+			myParentDef = theParentDef;
+			myChildDef = theChildDef;
+			myElementDef = theElementDef;
+		}
+
+		/**
+		 * Returns the definition for a value of this child, avoiding a lookup for the common
+		 * case where the value is of the declared type
+		 */
+		private BaseRuntimeElementDefinition<?> getElementDefinition(FhirContext theContext, IBase theValue) {
+			if (myElementDef != null && myElementDef.getImplementingClass() == theValue.getClass()) {
+				return myElementDef;
+			}
+			return theContext.getElementDefinition(theValue.getClass());
+		}
+	}
+
 	@FunctionalInterface
 	private interface ICompartmentOwnerVisitor {
 
@@ -501,6 +501,21 @@ public class ParametersUtil {
 		return addPart(theContext, theParameter, theName, theContext.newPrimitiveBoolean(theValue));
 	}
 
+	/**
+	 * Adds a part with a <code>decimal</code> value, since FHIR versions before R5 have no
+	 * datatype for integers larger than 32 bits
+	 *
+	 * @since 8.6.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static void addPartLong(FhirContext theContext, IBase theParameter, String theName, long theValue) {
+		IPrimitiveType<BigDecimal> value =
+				(IPrimitiveType<BigDecimal>) Objects.requireNonNull(theContext.getElementDefinition("decimal"))
+						.newInstance();
+		value.setValue(BigDecimal.valueOf(theValue));
+		addPart(theContext, theParameter, theName, value);
+	}
+
 	public static void addPartDecimal(FhirContext theContext, IBase theParameter, String theName, Double theValue) {
 		IPrimitiveType<BigDecimal> value = (IPrimitiveType<BigDecimal>)
 				theContext.getElementDefinition("decimal").newInstance();
@@ -0,0 +1,509 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.io.output.ProxyWriter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link BundleBuilder} which writes each entry to an output stream as it is added, instead
+ * of accumulating entries in a Bundle object. This can be used to produce very large transaction,
+ * batch or collection Bundles with bounded memory. JSON and XML encodings are supported.
+ * <p>
+ * Entries are encoded lazily: an entry is written when the next entry is added, or when
+ * {@link #flush()} or {@link #close()} is called. This means that an entry may still be
+ * modified after it has been added (e.g. by calling
+ * {@link CreateBuilder#conditional(String) conditional(..)} on the returned builder), but
+ * not once another entry has been added.
+ * </p>
+ * <p>
+ * Bundle-level elements (e.g. <code>Bundle.type</code>, <code>Bundle.identifier</code> and
+ * <code>Bundle.meta</code>) are written before the first entry, so they must be set before
+ * the first entry is written. The one exception is <code>Bundle.signature</code>, which
+ * follows the entries in the FHIR element order and is written by {@link #close()}. Because
+ * entries are not retained, {@link #getBundle()} returns a Bundle containing only the
+ * Bundle-level elements.
+ * </p>
+ * <p>
+ * {@link #close()} must be called to complete the Bundle. It also closes the output stream or writer.
+ * </p>
+ *
+ * @see BundleUtil#processEntriesStreaming(FhirContext, IParser, java.io.InputStream, java.util.function.Consumer)
+ * @since 8.6.0
+ */
+public class StreamingBundleBuilder extends BundleBuilder implements Closeable {
+
+	private static final String XML_FRAGMENT_START = "<element>";
+	private static final String XML_FRAGMENT_END = "</element>";
+
+	private final IParser myParser;
+	private final boolean myJson;
+	private final Writer myWriter;
+	private final Writer myElementWriter;
+	private final RuntimeResourceDefinition myBundleDef;
+	private IBase myPendingEntry;
+	private boolean myHeaderWritten;
+	private boolean myClosed;
+	private int myEntryCount;
+	private List<BaseRuntimeChildDefinition> myTrailingChildren;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext      The FHIR context
+	 * @param theParser       The parser to use for encoding. This must be a JSON or XML parser, and it
+	 *                        will be used to encode the Bundle envelope and each individual entry.
+	 * @param theOutputStream The stream to write to. Output is encoded as UTF-8.
+	 */
+	public StreamingBundleBuilder(
+			@Nonnull FhirContext theContext, @Nonnull IParser theParser, @Nonnull OutputStream theOutputStream) {
+		this(
+				theContext,
+				theParser,
+				new BufferedWriter(new OutputStreamWriter(
+						Objects.requireNonNull(theOutputStream, "theOutputStream must not be null"),
+						StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext The FHIR context
+	 * @param theParser  The parser to use for encoding. This must be a JSON or XML parser, and it
+	 *                   will be used to encode the Bundle envelope and each individual entry.
+	 * @param theWriter  The writer to write to. The writer is not buffered by this builder.
+	 */
+	public StreamingBundleBuilder(
+			@Nonnull FhirContext theContext, @Nonnull IParser theParser, @Nonnull Writer theWriter) {
+		super(theContext);
+		Validate.notNull(theParser, "theParser must not be null");
+		Validate.notNull(theWriter, "theWriter must not be null");
+
+		EncodingEnum encoding = theParser.getEncoding();
+		if (encoding != EncodingEnum.JSON && encoding != EncodingEnum.XML) {
+			throw new IllegalArgumentException(
+					Msg.code(2832) + "Streaming Bundles can only be written as JSON or XML, not " + encoding);
+		}
+
+		myParser = theParser;
+		myJson = encoding == EncodingEnum.JSON;
+		myWriter = theWriter;
+		myElementWriter = new ElementWriter(theWriter);
+		myBundleDef = theContext.getResourceDefinition("Bundle");
+	}
+
+	/**
+	 * Queues an entry for writing, first writing any previously added entry to the stream.
+	 * Unlike {@link BundleBuilder#addEntry(IBase)}, the entry is not added to {@link #getBundle()}.
+	 */
+	@Override
+	public IBase addEntry(IBase theEntry) {
+		Validate.notNull(theEntry, "theEntry must not be null");
+		validateNotClosed();
+		writePendingEntry();
+		myPendingEntry = theEntry;
+		return theEntry;
+	}
+
+	/**
+	 * Writes any pending entry and flushes the underlying stream. After this is called, the
+	 * most recently added entry can no longer be modified, and Bundle-level elements can
+	 * no longer be changed.
+	 */
+	public void flush() {
+		validateNotClosed();
+		writePendingEntry();
+		try {
+			myWriter.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of entries which have been written to the stream so far
+	 */
+	public int getEntryCount() {
+		return myEntryCount;
+	}
+
+	/**
+	 * Writes any pending entry and the end of the Bundle, and closes the underlying stream or writer.
+	 * Calling this method more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (myClosed) {
+			return;
+		}
+		try {
+			writePendingEntry();
+			writeHeaderIfNeeded();
+			writeFooter();
+			myWriter.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			myClosed = true;
+		}
+	}
+
+	@Override
+	public BundleBuilder setBundleField(String theFieldName, String theFieldValue) {
+		if (myHeaderWritten) {
+			// Allow the no-op sets performed by the add*Entry(..) methods (e.g. Bundle.type)
+			String existingValue = myBundleDef
+					.getChildByName(theFieldName)
+					.getAccessor()
+					.getFirstValueOrNull(getBundle())
+					.map(t -> ((IPrimitiveType<?>) t).getValueAsString())
+					.orElse(null);
+			if (Objects.equals(existingValue, theFieldValue)) {
+				return this;
+			}
+			if (!isTrailingChild(theFieldName)) {
+				throwHeaderAlreadyWritten(theFieldName);
+			}
+		}
+		return super.setBundleField(theFieldName, theFieldValue);
+	}
+
+	@Override
+	public BundleBuilder setMetaField(String theFieldName, IBase theFieldValue) {
+		validateHeaderNotWritten("meta");
+		return super.setMetaField(theFieldName, theFieldValue);
+	}
+
+	@Override
+	public void setIdentifier(@Nullable String theSystem, @Nullable String theValue) {
+		validateHeaderNotWritten("identifier");
+		super.setIdentifier(theSystem, theValue);
+	}
+
+	@Override
+	public void setTimestamp(@Nonnull IPrimitiveType<Date> theTimestamp) {
+		validateHeaderNotWritten("timestamp");
+		super.setTimestamp(theTimestamp);
+	}
+
+	@Override
+	public void addProfile(String theProfile) {
+		validateHeaderNotWritten("meta");
+		super.addProfile(theProfile);
+	}
+
+	private void writePendingEntry() {
+		if (myPendingEntry == null) {
+			return;
+		}
+		IBase entry = myPendingEntry;
+		myPendingEntry = null;
+
+		try {
+			writeHeaderIfNeeded();
+			if (myJson) {
+				if (myEntryCount > 0) {
+					myWriter.write(',');
+				}
+				encodeElement(entry, myElementWriter);
+			} else {
+				writeXmlFragment("entry", entry);
+			}
+			myEntryCount++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The envelope is produced by encoding the Bundle (which never holds any entries) with
+	 * any elements that follow <code>Bundle.entry</code> temporarily removed, and then
+	 * opening it up so that entries can be appended.
+	 */
+	private void writeHeaderIfNeeded() throws IOException {
+		if (myHeaderWritten) {
+			return;
+		}
+		myHeaderWritten = true;
+
+		IBaseBundle bundle = getBundle();
+		List<BaseRuntimeChildDefinition> trailingChildren = getTrailingChildren();
+		List<List<? extends IBase>> trailingValues = new ArrayList<>();
+		for (BaseRuntimeChildDefinition next : trailingChildren) {
+			trailingValues.add(new ArrayList<>(next.getAccessor().getValues(bundle)));
+			next.getMutator().setValue(bundle, null);
+		}
+
+		String envelope;
+		try {
+			envelope = StringUtils.stripEnd(myParser.encodeResourceToString(bundle), null);
+		} finally {
+			for (int i = 0; i < trailingChildren.size(); i++) {
+				for (IBase nextValue : trailingValues.get(i)) {
+					trailingChildren.get(i).getMutator().addValue(bundle, nextValue);
+				}
+			}
+		}
+
+		if (myJson) {
+			Validate.validState(envelope.endsWith("}"), "Unexpected Bundle encoding");
+			envelope = envelope.substring(0, envelope.length() - 1);
+			myWriter.write(envelope);
+			myWriter.write(envelope.endsWith("{") ? "\"entry\":[" : ",\"entry\":[");
+		} else if (envelope.endsWith("/>")) {
+			myWriter.write(envelope.substring(0, envelope.length() - 2));
+			myWriter.write('>');
+		} else {
+			Validate.validState(envelope.endsWith("</Bundle>"), "Unexpected Bundle encoding");
+			myWriter.write(envelope.substring(0, envelope.length() - "</Bundle>".length()));
+		}
+	}
+
+	private void writeFooter() throws IOException {
+		IBaseBundle bundle = getBundle();
+		if (myJson) {
+			myWriter.write(']');
+		}
+
+		for (BaseRuntimeChildDefinition nextChild : getTrailingChildren()) {
+			List<IBase> values = nextChild.getAccessor().getValues(bundle);
+			if (values.isEmpty()) {
+				continue;
+			}
+			String name = nextChild.getElementName();
+			if (myJson) {
+				boolean repeating = nextChild.getMax() != 1;
+				myWriter.write(",\"" + name + "\":");
+				if (repeating) {
+					myWriter.write('[');
+				}
+				for (int i = 0; i < values.size(); i++) {
+					if (i > 0) {
+						myWriter.write(',');
+					}
+					encodeElement(values.get(i), myElementWriter);
+				}
+				if (repeating) {
+					myWriter.write(']');
+				}
+			} else {
+				for (IBase nextValue : values) {
+					writeXmlFragment(name, nextValue);
+				}
+			}
+		}
+
+		myWriter.write(myJson ? "}" : "</Bundle>");
+	}
+
+	/**
+	 * The XML parser wraps non-resource fragments in an <code>&lt;element&gt;</code> tag, which
+	 * is replaced here with the actual element name
+	 */
+	private void writeXmlFragment(String theElementName, IBase theValue) throws IOException {
+		if (theValue instanceof IBaseResource) {
+			myWriter.write("<" + theElementName + ">");
+			encodeElement(theValue, myElementWriter);
+			myWriter.write("</" + theElementName + ">");
+		} else {
+			XmlFragmentWriter fragmentWriter = new XmlFragmentWriter(myWriter, theElementName);
+			encodeElement(theValue, fragmentWriter);
+			fragmentWriter.finish();
+		}
+	}
+
+	private void encodeElement(IBase theValue, Writer theWriter) throws IOException {
+		if (theValue instanceof IBaseResource) {
+			myParser.encodeResourceToWriter((IBaseResource) theValue, theWriter);
+		} else {
+			myParser.encodeToWriter(theValue, theWriter);
+		}
+	}
+
+	/**
+	 * Returns the Bundle children which follow <code>Bundle.entry</code> in the FHIR element order
+	 * (e.g. <code>Bundle.signature</code>), and therefore must be written after the entries
+	 */
+	private List<BaseRuntimeChildDefinition> getTrailingChildren() {
+		if (myTrailingChildren == null) {
+			List<BaseRuntimeChildDefinition> retVal = new ArrayList<>();
+			boolean foundEntry = false;
+			for (BaseRuntimeChildDefinition next : myBundleDef.getChildren()) {
+				if (foundEntry) {
+					retVal.add(next);
+				} else if (next.getElementName().equals("entry")) {
+					foundEntry = true;
+				}
+			}
+			myTrailingChildren = retVal;
+		}
+		return myTrailingChildren;
+	}
+
+	private boolean isTrailingChild(String theElementName) {
+		return getTrailingChildren().stream().anyMatch(t -> t.getElementName().equals(theElementName));
+	}
+
+	private void validateHeaderNotWritten(String theElementName) {
+		validateNotClosed();
+		if (myHeaderWritten) {
+			throwHeaderAlreadyWritten(theElementName);
+		}
+	}
+
+	private static void throwHeaderAlreadyWritten(String theElementName) {
+		throw new IllegalStateException(
+				Msg.code(2834) + "Can not modify Bundle." + theElementName + " after the first entry has been written");
+	}
+
+	private void validateNotClosed() {
+		Validate.validState(!myClosed, "This builder has been closed");
+	}
+
+	/**
+	 * Passes encoded elements through to the underlying writer, but does not let the parser
+	 * flush or close it after each element
+	 */
+	private static class ElementWriter extends ProxyWriter {
+
+		ElementWriter(Writer theWriter) {
+			super(theWriter);
+		}
+
+		@Override
+		public void flush() {
+			// nothing
+		}
+
+		@Override
+		public void close() {
+			// nothing
+		}
+	}
+
+	/**
+	 * Passes an XML fragment through to the underlying writer as it is encoded, replacing the
+	 * <code>&lt;element&gt;</code> tag around it with the given element name. Only the end of
+	 * the fragment is held back, until it is known whether it is the closing tag.
+	 */
+	private static class XmlFragmentWriter extends Writer {
+
+		private final Writer myWriter;
+		private final String myElementName;
+		private final StringBuilder myPending = new StringBuilder();
+		private boolean myStarted;
+
+		XmlFragmentWriter(Writer theWriter, String theElementName) {
+			myWriter = theWriter;
+			myElementName = theElementName;
+		}
+
+		@Override
+		public void write(char[] theBuffer, int theOffset, int theLength) throws IOException {
+			myPending.append(theBuffer, theOffset, theLength);
+
+			if (!myStarted) {
+				int start = indexOfFirstNonWhitespace();
+				if (myPending.length() - start < XML_FRAGMENT_START.length()
+						|| !myPending
+								.substring(start, start + XML_FRAGMENT_START.length())
+								.equals(XML_FRAGMENT_START)) {
+					// Either not enough has been written yet, or this is an empty element
+					return;
+				}
+				myWriter.write("<" + myElementName + ">");
+				myPending.delete(0, start + XML_FRAGMENT_START.length());
+				myStarted = true;
+			}
+
+			int writable = indexAfterLastNonWhitespace() - XML_FRAGMENT_END.length();
+			if (writable > 0) {
+				myWriter.append(myPending, 0, writable);
+				myPending.delete(0, writable);
+			}
+		}
+
+		void finish() throws IOException {
+			String remaining = myPending.substring(0, indexAfterLastNonWhitespace());
+			if (myStarted && remaining.endsWith(XML_FRAGMENT_END)) {
+				myWriter.write(remaining, 0, remaining.length() - XML_FRAGMENT_END.length());
+				myWriter.write("</" + myElementName + ">");
+			} else if (!myStarted && remaining.trim().equals("<element/>")) {
+				myWriter.write("<" + myElementName + "/>");
+			} else {
+				throw new InternalErrorException(
+						Msg.code(2833) + "Unexpected XML fragment encoding for " + myElementName);
+			}
+		}
+
+		private int indexOfFirstNonWhitespace() {
+			int retVal = 0;
+			while (retVal < myPending.length() && Character.isWhitespace(myPending.charAt(retVal))) {
+				retVal++;
+			}
+			return retVal;
+		}
+
+		private int indexAfterLastNonWhitespace() {
+			int retVal = myPending.length();
+			while (retVal > 0 && Character.isWhitespace(myPending.charAt(retVal - 1))) {
+				retVal--;
+			}
+			return retVal;
+		}
+
+		@Override
+		public void flush() {
+			// nothing
+		}
+
+		@Override
+		public void close() {
+			// nothing
+		}
+	}
+}
@@ -44,6 +44,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -1601,6 +1602,19 @@ public class XmlUtil {
 		return outputFactory.createXMLStreamWriter(theWriter);
 	}
 
+	/**
+	 * Creates a stream writer which encodes directly to the given stream as UTF-8
+	 *
+	 * @since 8.6.0
+	 */
+	public static XMLStreamWriter createXmlStreamWriter(OutputStream theOutputStream)
+			throws FactoryConfigurationError, XMLStreamException {
+		throwUnitTestExceptionIfConfiguredToDoSo();
+
+		XMLOutputFactory outputFactory = getOrCreateOutputFactory();
+		return outputFactory.createXMLStreamWriter(theOutputStream, StandardCharsets.UTF_8.name());
+	}
+
 	public static XMLEventWriter createXmlWriter(Writer theWriter)
 			throws FactoryConfigurationError, XMLStreamException {
 		XMLOutputFactory outputFactory = getOrCreateOutputFactory();
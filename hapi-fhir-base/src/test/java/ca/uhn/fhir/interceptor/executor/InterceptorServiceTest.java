@@ -328,6 +328,117 @@ class InterceptorServiceTest {
 		assertThat(interceptor1.myLastString1).isSameAs(null);
 	}
 
+	@Test
+	void testRegistryChangesAreVisibleToDispatch() {
+		InterceptorService svc = new InterceptorService();
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+		assertThat(svc.getInvokersForPointcut(Pointcut.TEST_RB)).isEmpty();
+
+		MyTestInterceptorTwo interceptor1 = new MyTestInterceptorTwo();
+		MyTestAnonymousInterceptorOne interceptor0 = new MyTestAnonymousInterceptorOne();
+		svc.registerInterceptor(interceptor1);
+		svc.registerAnonymousInterceptor(Pointcut.TEST_RB, interceptor0);
+		assertTrue(svc.hasHooks(Pointcut.TEST_RB));
+		assertFalse(svc.hasHooks(Pointcut.TEST_RO));
+
+		// The returned list is a copy, so modifying it must not affect dispatch
+		List<IBaseInterceptorBroadcaster.IInvoker> invokers = svc.getInvokersForPointcut(Pointcut.TEST_RB);
+		assertThat(invokers).hasSize(2);
+		invokers.clear();
+
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertThat(myInvocations).containsExactly("MyTestAnonymousInterceptorOne.testRb", "MyTestInterceptorTwo.testRb");
+
+		svc.unregisterInterceptor(interceptor1);
+		svc.unregisterAllAnonymousInterceptors();
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+
+		myInvocations.clear();
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertThat(myInvocations).isEmpty();
+	}
+
+	@Test
+	void testHookMetricsRecorder() {
+		InterceptorService svc = new InterceptorService();
+		MyTestInterceptorOne interceptor0 = new MyTestInterceptorOne();
+		MyTestInterceptorTwo interceptor1 = new MyTestInterceptorTwo();
+		svc.registerInterceptor(interceptor0);
+
+		// Recorder set after the first registration and before the second
+		InMemoryInterceptorHookMetricsRecorder recorder = new InMemoryInterceptorHookMetricsRecorder();
+		svc.setHookMetricsRecorder(recorder);
+		svc.registerInterceptor(interceptor1);
+
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(svc.getInterceptorsWithInvokersForPointcut(Pointcut.TEST_RB)).containsExactly(interceptor0, interceptor1);
+
+		List<InMemoryInterceptorHookMetricsRecorder.HookStatistics> stats = recorder.getStatistics();
+		assertThat(stats).hasSize(2);
+		assertThat(stats).extracting(InMemoryInterceptorHookMetricsRecorder.HookStatistics::getHookDescription).containsExactlyInAnyOrder(
+			MyTestInterceptorOne.class.getName() + ".testRb",
+			MyTestInterceptorTwo.class.getName() + ".testRb");
+		for (InMemoryInterceptorHookMetricsRecorder.HookStatistics next : stats) {
+			assertEquals("TEST_RB", next.getPointcutName());
+			assertEquals(2, next.getInvocationCount());
+			assertEquals(0, next.getFailureCount());
+			assertThat(next.getMaxNanos()).isLessThanOrEqualTo(next.getTotalNanos());
+			assertThat(next.getBucketCounts()).hasSize(InMemoryInterceptorHookMetricsRecorder.getBucketUpperBoundsMicros().size() + 1);
+			assertEquals(2, next.getBucketCounts().stream().mapToLong(t -> t).sum());
+		}
+
+		recorder.clear();
+		assertThat(recorder.getStatistics()).allMatch(t -> t.getInvocationCount() == 0);
+
+		// Disabling the recorder stops collection
+		svc.setHookMetricsRecorder(null);
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(recorder.getStatistics()).allMatch(t -> t.getInvocationCount() == 0);
+	}
+
+	@Test
+	void testHookMetricsRecorderCountsFailures() {
+		class InterceptorThrowingException {
+			@Hook(Pointcut.TEST_RB)
+			public void test(String theValue) {
+				throw new AuthenticationException(theValue);
+			}
+		}
+
+		InMemoryInterceptorHookMetricsRecorder recorder = new InMemoryInterceptorHookMetricsRecorder();
+		InterceptorService svc = new InterceptorService();
+		svc.setHookMetricsRecorder(recorder);
+		svc.registerInterceptor(new InterceptorThrowingException());
+
+		assertThatThrownBy(() -> svc.callHooks(Pointcut.TEST_RB, new HookParams("A MESSAGE", "B")))
+				.isInstanceOf(AuthenticationException.class);
+
+		List<InMemoryInterceptorHookMetricsRecorder.HookStatistics> stats = recorder.getStatistics();
+		assertThat(stats).hasSize(1);
+		assertEquals(1, stats.get(0).getInvocationCount());
+		assertEquals(1, stats.get(0).getFailureCount());
+	}
+
+	@Test
+	void testInterceptorThrowsCheckedException() {
+
+		class InterceptorThrowingCheckedException {
+			@Hook(Pointcut.TEST_RB)
+			public void test(String theValue) throws Exception {
+				throw new Exception(theValue);
+			}
+		}
+
+		InterceptorService svc = new InterceptorService();
+		svc.registerInterceptor(new InterceptorThrowingCheckedException());
+
+		assertThatThrownBy(() -> svc.callHooks(Pointcut.TEST_RB, new HookParams("A MESSAGE", "B")))
+				.isInstanceOf(InternalErrorException.class)
+				.hasMessageContaining(Msg.code(1910))
+				.hasRootCauseMessage("A MESSAGE");
+	}
+
 	@Test
 	void testCallHooksInvokedWithNullParameters() {
 		InterceptorService svc = new InterceptorService();
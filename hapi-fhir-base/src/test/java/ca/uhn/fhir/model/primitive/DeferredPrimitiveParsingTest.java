@@ -0,0 +1,124 @@
+package ca.uhn.fhir.model.primitive;
+
+import ca.uhn.fhir.model.api.TemporalPrecisionEnum;
+import ca.uhn.fhir.parser.DataFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeferredPrimitiveParsingTest {
+
+	@Test
+	public void testDecimal() {
+		DecimalDt dt = new DecimalDt();
+		dt.setValueAsStringDeferred("1.50");
+
+		assertEquals("1.50", dt.getValueAsString());
+		assertFalse(dt.isEmpty());
+		assertEquals(new BigDecimal("1.50"), dt.getValue());
+		assertEquals("1.50", dt.getValueAsString());
+	}
+
+	@Test
+	public void testDateTime() {
+		String input = "2020-01-02T03:04:05.678+05:00";
+		DateTimeDt eager = new DateTimeDt(input);
+
+		DateTimeDt dt = new DateTimeDt();
+		dt.setValueAsStringDeferred(input);
+
+		assertEquals(input, dt.getValueAsString());
+		assertEquals(TemporalPrecisionEnum.MILLI, dt.getPrecision());
+		assertEquals(eager.getTimeZone(), dt.getTimeZone());
+		assertEquals(eager.getValue(), dt.getValue());
+		assertEquals(eager.getNanos(), dt.getNanos());
+		assertEquals(input, dt.getValueAsString());
+	}
+
+	@Test
+	public void testDateTimeModifiedBeforeAccess() {
+		DateTimeDt eager = new DateTimeDt("2020-01-02T03:04:05-03:00");
+		eager.setTimeZone(TimeZone.getTimeZone("GMT+02:00"));
+
+		DateTimeDt dt = new DateTimeDt();
+		dt.setValueAsStringDeferred("2020-01-02T03:04:05-03:00");
+		dt.setTimeZone(TimeZone.getTimeZone("GMT+02:00"));
+
+		assertEquals("2020-01-02T08:04:05+02:00", eager.getValueAsString());
+		assertEquals(eager.getValueAsString(), dt.getValueAsString());
+		assertEquals(eager.getValue(), dt.getValue());
+	}
+
+	@Test
+	public void testDateTimeReplacedBeforeAccess() {
+		InstantDt dt = new InstantDt();
+		dt.setValueAsStringDeferred("2020-01-02T03:04:05.123Z");
+		dt.setValueAsString("2021-01-01T00:00:00Z");
+
+		assertEquals(TemporalPrecisionEnum.SECOND, dt.getPrecision());
+		assertEquals("2021-01-01T00:00:00Z", dt.getValueAsString());
+	}
+
+	@Test
+	public void testInvalidValueFailsOnAccess() {
+		DateDt dt = new DateDt();
+		dt.setValueAsStringDeferred("2020-13-01");
+
+		assertEquals("2020-13-01", dt.getValueAsString());
+		assertThatThrownBy(dt::getValue).isInstanceOf(DataFormatException.class).hasMessageContaining("HAPI-1882");
+		assertThatThrownBy(dt::getValue).isInstanceOf(DataFormatException.class);
+		assertEquals("2020-13-01", dt.getValueAsString());
+	}
+
+	@Test
+	public void testConcurrentFirstAccess() throws Exception {
+		String input = "2020-01-02T03:04:05.678+05:00";
+		Date expected = new DateTimeDt(input).getValue();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int pass = 0; pass < 200; pass++) {
+				DateTimeDt dt = new DateTimeDt();
+				dt.setValueAsStringDeferred(input);
+
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<Date>> futures = new ArrayList<>();
+				for (int i = 0; i < 8; i++) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						return dt.getValue();
+					}));
+				}
+				start.countDown();
+				for (Future<Date> next : futures) {
+					assertEquals(expected, next.get());
+				}
+				assertEquals(input, dt.getValueAsString());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testTypeWithoutDeferredParsingParsesImmediately() {
+		IntegerDt dt = new IntegerDt();
+		assertThatThrownBy(() -> dt.setValueAsStringDeferred("abc")).isInstanceOf(DataFormatException.class);
+
+		dt.setValueAsStringDeferred("5");
+		assertTrue(dt.getValue() == 5);
+	}
+}
@@ -1,10 +1,13 @@
 package ca.uhn.fhir.parser.json;
 
+import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
 import org.junit.jupiter.api.Test;
 
 import java.io.StringReader;
+import java.io.StringWriter;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -141,4 +144,35 @@ public class JsonLikeStructureTest {
 		assertEquals(value.getAsString(), "true");
 	}
 
+	@Test
+	public void testWriteNumberVerbatim() throws Exception {
+		StringWriter stringWriter = new StringWriter();
+		BaseJsonLikeWriter writer = new JacksonStructure().getJsonLikeWriter(stringWriter);
+		writer.init();
+		writer.beginObject();
+		writer.writeNumber("value", "1.50");
+		writer.writeNumber("exponent", "-1.5E+3");
+		writer.endObject();
+		writer.close();
+
+		assertEquals("{\"value\":1.50,\"exponent\":-1.5E+3}", stringWriter.toString());
+	}
+
+	@Test
+	public void testWriteNumberInvalid() throws Exception {
+		BaseJsonLikeWriter writer = new JacksonStructure().getJsonLikeWriter(new StringWriter());
+		writer.init();
+		writer.beginObject();
+
+		assertThatThrownBy(() -> writer.writeNumber("value", "1.2.3"))
+				.isInstanceOf(DataFormatException.class)
+				.hasMessageContaining("HAPI-2849")
+				.hasMessageContaining("1.2.3");
+		assertThatThrownBy(() -> writer.writeNumber("value", "1e"))
+				.isInstanceOf(DataFormatException.class)
+				.hasMessageContaining("HAPI-2849");
+		assertThatThrownBy(() -> writer.writeNumber("abc"))
+				.isInstanceOf(DataFormatException.class)
+				.hasMessageContaining("HAPI-2849");
+	}
 }
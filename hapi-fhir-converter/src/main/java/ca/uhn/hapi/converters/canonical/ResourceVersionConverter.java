@@ -0,0 +1,385 @@
+/*-
+ * #%L
+ * HAPI FHIR - Converter
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.hapi.converters.canonical;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.NDJsonParser;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.converter.NullVersionConverterAdvisor10_30;
+import org.hl7.fhir.converter.NullVersionConverterAdvisor10_40;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_10_50;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_14_30;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_14_40;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_14_50;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_30_40;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_30_50;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_40_50;
+import org.hl7.fhir.convertors.advisors.impl.BaseAdvisor_43_50;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_10_30;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_10_40;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_10_50;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_14_30;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_14_40;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_14_50;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_30_40;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_30_50;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_40_50;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_43_50;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+
+/**
+ * Converts resources from one FHIR version to another, using the version converters
+ * from <code>org.hl7.fhir.convertors</code>.
+ * <p>
+ * The conversion function for the source and target version pair is resolved once when
+ * this object is created, and the converter advisors are shared between all conversions,
+ * so instances should be created once and reused. Resources are converted directly in memory,
+ * without being serialized. The only exception is the HAPI FHIR DSTU2 structures
+ * (<code>ca.uhn.fhir.model.dstu2</code>), which have no converter of their own and must
+ * be re-encoded to and from the HL7.org DSTU2 structures.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public class ResourceVersionConverter {
+
+	private static final int NDJSON_RESOURCES_PER_TASK = 128;
+	private static final NullVersionConverterAdvisor10_30 ADVISOR_10_30 = new NullVersionConverterAdvisor10_30();
+	private static final NullVersionConverterAdvisor10_40 ADVISOR_10_40 = new NullVersionConverterAdvisor10_40();
+	private static final BaseAdvisor_10_50 ADVISOR_10_50 = new BaseAdvisor_10_50();
+	private static final BaseAdvisor_14_30 ADVISOR_14_30 = new BaseAdvisor_14_30();
+	private static final BaseAdvisor_14_40 ADVISOR_14_40 = new BaseAdvisor_14_40();
+	private static final BaseAdvisor_14_50 ADVISOR_14_50 = new BaseAdvisor_14_50();
+	private static final BaseAdvisor_30_40 ADVISOR_30_40 = new BaseAdvisor_30_40();
+	private static final BaseAdvisor_30_50 ADVISOR_30_50 = new BaseAdvisor_30_50();
+	private static final BaseAdvisor_40_50 ADVISOR_40_50 = new BaseAdvisor_40_50();
+	private static final BaseAdvisor_43_50 ADVISOR_43_50 = new BaseAdvisor_43_50();
+
+	private final FhirContext mySourceContext;
+	private final FhirContext myTargetContext;
+	private final UnaryOperator<IBaseResource> myConverter;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theSourceContext The context for the version that resources will be converted from
+	 * @param theTargetContext The context for the version that resources will be converted to
+	 * @throws IllegalArgumentException If no converter exists between the two versions
+	 */
+	public ResourceVersionConverter(@Nonnull FhirContext theSourceContext, @Nonnull FhirContext theTargetContext) {
+		Validate.notNull(theSourceContext, "theSourceContext must not be null");
+		Validate.notNull(theTargetContext, "theTargetContext must not be null");
+		mySourceContext = theSourceContext;
+		myTargetContext = theTargetContext;
+
+		FhirVersionEnum sourceVersion = theSourceContext.getVersion().getVersion();
+		FhirVersionEnum targetVersion = theTargetContext.getVersion().getVersion();
+		UnaryOperator<IBaseResource> converter =
+				resolveConverter(toConvertorVersion(sourceVersion), toConvertorVersion(targetVersion));
+		if (converter == null) {
+			throw new IllegalArgumentException(Msg.code(2836) + "Can not convert resources from FHIR version "
+					+ sourceVersion + " to " + targetVersion);
+		}
+
+		if (sourceVersion == FhirVersionEnum.DSTU2 && targetVersion != FhirVersionEnum.DSTU2) {
+			UnaryOperator<IBaseResource> next = converter;
+			FhirContext hl7OrgContext = FhirContext.forDstu2Hl7OrgCached();
+			converter = r -> next.apply(reencode(r, theSourceContext, hl7OrgContext));
+		}
+		if (targetVersion == FhirVersionEnum.DSTU2 && sourceVersion != FhirVersionEnum.DSTU2) {
+			UnaryOperator<IBaseResource> previous = converter;
+			FhirContext hl7OrgContext = FhirContext.forDstu2Hl7OrgCached();
+			converter = r -> reencode(previous.apply(r), hl7OrgContext, theTargetContext);
+		}
+		myConverter = converter;
+	}
+
+	public FhirContext getSourceContext() {
+		return mySourceContext;
+	}
+
+	public FhirContext getTargetContext() {
+		return myTargetContext;
+	}
+
+	/**
+	 * Converts a single resource. The source resource is not modified.
+	 *
+	 * @param theResource The resource to convert, which must use the structures of the source context
+	 * @return The converted resource, or <code>null</code> if the input was <code>null</code>
+	 */
+	public IBaseResource convert(IBaseResource theResource) {
+		if (theResource == null) {
+			return null;
+		}
+		return myConverter.apply(theResource);
+	}
+
+	/**
+	 * Converts a stream of NDJSON (one JSON encoded resource per line) from the source version
+	 * to the target version. Lines are parsed, converted and encoded in parallel using the
+	 * {@link ForkJoinPool#commonPool() common ForkJoin pool}.
+	 *
+	 * @see #convertNdJson(Reader, Writer, int, Executor)
+	 */
+	public long convertNdJson(@Nonnull Reader theInput, @Nonnull Writer theOutput, int theParallelism)
+			throws IOException {
+		return convertNdJson(theInput, theOutput, theParallelism, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Converts a stream of NDJSON (one JSON encoded resource per line) from the source version
+	 * to the target version. Lines are parsed and encoded in parallel using {@link NDJsonParser}
+	 * (see {@link NDJsonParser#setParallelism(int)}), and each batch of parsed resources is split
+	 * into tasks which are converted in parallel on the same executor. The output is always written
+	 * in the same order as the input. Blank lines are skipped. Only a bounded number of resources
+	 * are held in memory at any given time, regardless of the size of the input.
+	 *
+	 * @param theInput       The NDJSON input. This reader is not closed.
+	 * @param theOutput      The writer to write converted NDJSON to. This writer is not closed.
+	 * @param theParallelism The maximum number of parallel tasks used to parse, convert and encode resources
+	 * @param theExecutor    The executor on which resources are parsed, converted and encoded. This executor is not shut down.
+	 * @return The number of resources converted
+	 */
+	public long convertNdJson(
+			@Nonnull Reader theInput, @Nonnull Writer theOutput, int theParallelism, @Nonnull Executor theExecutor)
+			throws IOException {
+		NDJsonParser sourceParser = ((NDJsonParser) mySourceContext.newNDJsonParser())
+				.setParallelism(theParallelism)
+				.setExecutor(theExecutor);
+		NDJsonParser targetParser = ((NDJsonParser) myTargetContext.newNDJsonParser())
+				.setParallelism(theParallelism)
+				.setExecutor(theExecutor);
+
+		int batchSize = theParallelism * NDJSON_RESOURCES_PER_TASK;
+		List<IBaseResource> batch = new ArrayList<>(batchSize);
+		long[] count = {0};
+		try {
+			sourceParser.parseResources(theInput, resource -> {
+				batch.add(resource);
+				count[0]++;
+				if (batch.size() >= batchSize) {
+					convertNdJsonBatch(batch, theParallelism, theExecutor);
+					writeNdJsonBatch(targetParser, batch, theOutput);
+				}
+			});
+			convertNdJsonBatch(batch, theParallelism, theExecutor);
+			writeNdJsonBatch(targetParser, batch, theOutput);
+			theOutput.flush();
+		} catch (NdJsonWriteException e) {
+			throw e.getCause();
+		}
+		return count[0];
+	}
+
+	/**
+	 * Replaces each resource in the batch with its converted form. The batch is split into
+	 * at most <code>theParallelism</code> tasks which are converted on the executor.
+	 */
+	private void convertNdJsonBatch(List<IBaseResource> theBatch, int theParallelism, Executor theExecutor) {
+		if (theParallelism <= 1) {
+			theBatch.replaceAll(this::convert);
+			return;
+		}
+
+		int perTask = Math.max(1, (theBatch.size() + theParallelism - 1) / theParallelism);
+		List<CompletableFuture<Void>> tasks = new ArrayList<>(theParallelism);
+		for (int from = 0; from < theBatch.size(); from += perTask) {
+			int taskFrom = from;
+			int taskTo = Math.min(from + perTask, theBatch.size());
+			tasks.add(CompletableFuture.runAsync(
+					() -> {
+						// Each task only touches its own range of the list
+						for (int i = taskFrom; i < taskTo; i++) {
+							theBatch.set(i, convert(theBatch.get(i)));
+						}
+					},
+					theExecutor));
+		}
+
+		try {
+			CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static void writeNdJsonBatch(NDJsonParser theParser, List<IBaseResource> theBatch, Writer theOutput) {
+		theParser.encodeResources(theBatch, line -> {
+			try {
+				theOutput.write(line);
+				theOutput.write('\n');
+			} catch (IOException e) {
+				throw new NdJsonWriteException(e);
+			}
+		});
+		theBatch.clear();
+	}
+
+	/**
+	 * Wraps failures to write the output, so that they are not reported as failures to read the input
+	 */
+	private static class NdJsonWriteException extends RuntimeException {
+
+		private NdJsonWriteException(IOException theCause) {
+			super(theCause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
+
+	private static IBaseResource reencode(IBaseResource theResource, FhirContext theFrom, FhirContext theTo) {
+		if (theResource == null) {
+			return null;
+		}
+		return theTo.newJsonParser().parseResource(theFrom.newJsonParser().encodeResourceToString(theResource));
+	}
+
+	/**
+	 * The HAPI FHIR DSTU2 structures are converted via the HL7.org DSTU2 structures
+	 */
+	private static FhirVersionEnum toConvertorVersion(FhirVersionEnum theVersion) {
+		if (theVersion == FhirVersionEnum.DSTU2) {
+			return FhirVersionEnum.DSTU2_HL7ORG;
+		}
+		return theVersion;
+	}
+
+	private static UnaryOperator<IBaseResource> resolveConverter(FhirVersionEnum theSource, FhirVersionEnum theTarget) {
+		if (theSource == theTarget) {
+			return UnaryOperator.identity();
+		}
+		switch (theSource) {
+			case DSTU2_HL7ORG:
+				switch (theTarget) {
+					case DSTU3:
+						return r -> VersionConvertorFactory_10_30.convertResource(
+								(org.hl7.fhir.dstu2.model.Resource) r, ADVISOR_10_30);
+					case R4:
+						return r -> VersionConvertorFactory_10_40.convertResource(
+								(org.hl7.fhir.dstu2.model.Resource) r, ADVISOR_10_40);
+					case R5:
+						return r -> VersionConvertorFactory_10_50.convertResource(
+								(org.hl7.fhir.dstu2.model.Resource) r, ADVISOR_10_50);
+					default:
+						return null;
+				}
+			case DSTU2_1:
+				switch (theTarget) {
+					case DSTU3:
+						return r -> VersionConvertorFactory_14_30.convertResource(
+								(org.hl7.fhir.dstu2016may.model.Resource) r, ADVISOR_14_30);
+					case R4:
+						return r -> VersionConvertorFactory_14_40.convertResource(
+								(org.hl7.fhir.dstu2016may.model.Resource) r, ADVISOR_14_40);
+					case R5:
+						return r -> VersionConvertorFactory_14_50.convertResource(
+								(org.hl7.fhir.dstu2016may.model.Resource) r, ADVISOR_14_50);
+					default:
+						return null;
+				}
+			case DSTU3:
+				switch (theTarget) {
+					case DSTU2_HL7ORG:
+						return r -> VersionConvertorFactory_10_30.convertResource(
+								(org.hl7.fhir.dstu3.model.Resource) r, ADVISOR_10_30);
+					case DSTU2_1:
+						return r -> VersionConvertorFactory_14_30.convertResource(
+								(org.hl7.fhir.dstu3.model.Resource) r, ADVISOR_14_30);
+					case R4:
+						return r -> VersionConvertorFactory_30_40.convertResource(
+								(org.hl7.fhir.dstu3.model.Resource) r, ADVISOR_30_40);
+					case R5:
+						return r -> VersionConvertorFactory_30_50.convertResource(
+								(org.hl7.fhir.dstu3.model.Resource) r, ADVISOR_30_50);
+					default:
+						return null;
+				}
+			case R4:
+				switch (theTarget) {
+					case DSTU2_HL7ORG:
+						return r -> VersionConvertorFactory_10_40.convertResource(
+								(org.hl7.fhir.r4.model.Resource) r, ADVISOR_10_40);
+					case DSTU2_1:
+						return r -> VersionConvertorFactory_14_40.convertResource(
+								(org.hl7.fhir.r4.model.Resource) r, ADVISOR_14_40);
+					case DSTU3:
+						return r -> VersionConvertorFactory_30_40.convertResource(
+								(org.hl7.fhir.r4.model.Resource) r, ADVISOR_30_40);
+					case R5:
+						return r -> VersionConvertorFactory_40_50.convertResource(
+								(org.hl7.fhir.r4.model.Resource) r, ADVISOR_40_50);
+					default:
+						return null;
+				}
+			case R4B:
+				if (theTarget == FhirVersionEnum.R5) {
+					return r -> VersionConvertorFactory_43_50.convertResource(
+							(org.hl7.fhir.r4b.model.Resource) r, ADVISOR_43_50);
+				}
+				return null;
+			case R5:
+				switch (theTarget) {
+					case DSTU2_HL7ORG:
+						return r -> VersionConvertorFactory_10_50.convertResource(
+								(org.hl7.fhir.r5.model.Resource) r, ADVISOR_10_50);
+					case DSTU2_1:
+						return r -> VersionConvertorFactory_14_50.convertResource(
+								(org.hl7.fhir.r5.model.Resource) r, ADVISOR_14_50);
+					case DSTU3:
+						return r -> VersionConvertorFactory_30_50.convertResource(
+								(org.hl7.fhir.r5.model.Resource) r, ADVISOR_30_50);
+					case R4:
+						return r -> VersionConvertorFactory_40_50.convertResource(
+								(org.hl7.fhir.r5.model.Resource) r, ADVISOR_40_50);
+					case R4B:
+						return r -> VersionConvertorFactory_43_50.convertResource(
+								(org.hl7.fhir.r5.model.Resource) r, ADVISOR_43_50);
+					default:
+						return null;
+				}
+			default:
+				return null;
+		}
+	}
+}
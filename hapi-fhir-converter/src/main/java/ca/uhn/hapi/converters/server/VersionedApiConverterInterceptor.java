@@ -23,7 +23,6 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.Interceptor;
-import ca.uhn.fhir.model.api.IResource;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.api.server.ResponseDetails;
@@ -31,17 +30,15 @@ import ca.uhn.fhir.rest.server.exceptions.AuthenticationException;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.interceptor.InterceptorAdapter;
 import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationConstants;
+import ca.uhn.hapi.converters.canonical.ResourceVersionConverter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.hl7.fhir.converter.NullVersionConverterAdvisor10_30;
-import org.hl7.fhir.converter.NullVersionConverterAdvisor10_40;
-import org.hl7.fhir.convertors.factory.VersionConvertorFactory_10_30;
-import org.hl7.fhir.convertors.factory.VersionConvertorFactory_10_40;
-import org.hl7.fhir.convertors.factory.VersionConvertorFactory_30_40;
-import org.hl7.fhir.dstu3.model.Resource;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hl7.fhir.exceptions.FHIRException;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
@@ -59,17 +56,30 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  */
 @Interceptor(order = AuthorizationConstants.ORDER_CONVERTER_INTERCEPTOR)
 public class VersionedApiConverterInterceptor extends InterceptorAdapter {
-	private final FhirContext myCtxDstu2;
-	private final FhirContext myCtxDstu2Hl7Org;
-	private final NullVersionConverterAdvisor10_40 advisor40;
-	private final NullVersionConverterAdvisor10_30 advisor30;
+	private final Map<Pair<FhirVersionEnum, FhirVersionEnum>, ResourceVersionConverter> myConverters = new HashMap<>();
 
 	public VersionedApiConverterInterceptor() {
-		advisor40 = new NullVersionConverterAdvisor10_40();
-		advisor30 = new NullVersionConverterAdvisor10_30();
+		FhirContext ctxDstu2 = FhirContext.forDstu2Cached();
+		FhirContext ctxDstu2Hl7Org = FhirContext.forDstu2Hl7OrgCached();
+		FhirContext ctxDstu3 = FhirContext.forDstu3Cached();
+		FhirContext ctxR4 = FhirContext.forR4Cached();
+
+		addConverter(FhirVersionEnum.DSTU3, FhirVersionEnum.R4, ctxDstu3, ctxR4);
+		addConverter(FhirVersionEnum.R4, FhirVersionEnum.DSTU3, ctxR4, ctxDstu3);
+		addConverter(FhirVersionEnum.R4, FhirVersionEnum.DSTU2, ctxR4, ctxDstu2Hl7Org);
+		addConverter(FhirVersionEnum.DSTU2, FhirVersionEnum.R4, ctxDstu2, ctxR4);
+		addConverter(FhirVersionEnum.DSTU3, FhirVersionEnum.DSTU2, ctxDstu3, ctxDstu2Hl7Org);
+		addConverter(FhirVersionEnum.DSTU2, FhirVersionEnum.DSTU3, ctxDstu2, ctxDstu3);
+	}
 
-		myCtxDstu2 = FhirContext.forDstu2();
-		myCtxDstu2Hl7Org = FhirContext.forDstu2Hl7Org();
+	private void addConverter(
+			FhirVersionEnum theHaveVersion,
+			FhirVersionEnum theWantVersion,
+			FhirContext theSourceContext,
+			FhirContext theTargetContext) {
+		myConverters.put(
+				Pair.of(theHaveVersion, theWantVersion),
+				new ResourceVersionConverter(theSourceContext, theTargetContext));
 	}
 
 	@Override
@@ -110,22 +120,13 @@ public class VersionedApiConverterInterceptor extends InterceptorAdapter {
 		FhirVersionEnum haveVersion = responseResource.getStructureFhirVersionEnum();
 
 		IBaseResource converted = null;
-		try {
-			if (wantVersion == FhirVersionEnum.R4 && haveVersion == FhirVersionEnum.DSTU3) {
-				converted = VersionConvertorFactory_30_40.convertResource(toDstu3(responseResource));
-			} else if (wantVersion == FhirVersionEnum.DSTU3 && haveVersion == FhirVersionEnum.R4) {
-				converted = VersionConvertorFactory_30_40.convertResource(toR4(responseResource));
-			} else if (wantVersion == FhirVersionEnum.DSTU2 && haveVersion == FhirVersionEnum.R4) {
-				converted = VersionConvertorFactory_10_40.convertResource(toR4(responseResource), advisor40);
-			} else if (wantVersion == FhirVersionEnum.R4 && haveVersion == FhirVersionEnum.DSTU2) {
-				converted = VersionConvertorFactory_10_40.convertResource(toDstu2(responseResource), advisor40);
-			} else if (wantVersion == FhirVersionEnum.DSTU2 && haveVersion == FhirVersionEnum.DSTU3) {
-				converted = VersionConvertorFactory_10_30.convertResource(toDstu3(responseResource), advisor30);
-			} else if (wantVersion == FhirVersionEnum.DSTU3 && haveVersion == FhirVersionEnum.DSTU2) {
-				converted = VersionConvertorFactory_10_30.convertResource(toDstu2(responseResource), advisor30);
+		ResourceVersionConverter converter = myConverters.get(Pair.of(haveVersion, wantVersion));
+		if (converter != null) {
+			try {
+				converted = converter.convert(responseResource);
+			} catch (FHIRException e) {
+				throw new InternalErrorException(Msg.code(73) + e);
 			}
-		} catch (FHIRException e) {
-			throw new InternalErrorException(Msg.code(73) + e);
 		}
 
 		if (converted != null) {
@@ -134,21 +135,4 @@ public class VersionedApiConverterInterceptor extends InterceptorAdapter {
 
 		return true;
 	}
-
-	private org.hl7.fhir.dstu2.model.Resource toDstu2(IBaseResource theResponseResource) {
-		if (theResponseResource instanceof IResource) {
-			return (org.hl7.fhir.dstu2.model.Resource) myCtxDstu2Hl7Org
-					.newJsonParser()
-					.parseResource(myCtxDstu2.newJsonParser().encodeResourceToString(theResponseResource));
-		}
-		return (org.hl7.fhir.dstu2.model.Resource) theResponseResource;
-	}
-
-	private Resource toDstu3(IBaseResource theResponseResource) {
-		return (Resource) theResponseResource;
-	}
-
-	private org.hl7.fhir.r4.model.Resource toR4(IBaseResource theResponseResource) {
-		return (org.hl7.fhir.r4.model.Resource) theResponseResource;
-	}
 }
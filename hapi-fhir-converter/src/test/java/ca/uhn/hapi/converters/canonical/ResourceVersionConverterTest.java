@@ -0,0 +1,100 @@
+package ca.uhn.hapi.converters.canonical;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.dstu2.resource.Patient;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResourceVersionConverterTest {
+
+	private static final FhirContext ourCtxDstu2 = FhirContext.forDstu2Cached();
+	private static final FhirContext ourCtxDstu3 = FhirContext.forDstu3Cached();
+	private static final FhirContext ourCtxR4 = FhirContext.forR4Cached();
+	private static final FhirContext ourCtxR5 = FhirContext.forR5Cached();
+
+	@Test
+	public void testConvertR4ToR5() {
+		org.hl7.fhir.r4.model.Patient input = new org.hl7.fhir.r4.model.Patient();
+		input.setId("Patient/123");
+		input.addName().setFamily("Smith");
+
+		ResourceVersionConverter converter = new ResourceVersionConverter(ourCtxR4, ourCtxR5);
+		IBaseResource actual = converter.convert(input);
+
+		org.hl7.fhir.r5.model.Patient patient = (org.hl7.fhir.r5.model.Patient) actual;
+		assertEquals("123", patient.getIdElement().getIdPart());
+		assertEquals("Smith", patient.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testConvertHapiDstu2ToR4() {
+		Patient input = new Patient();
+		input.addName().addFamily("Smith");
+
+		ResourceVersionConverter converter = new ResourceVersionConverter(ourCtxDstu2, ourCtxR4);
+		IBaseResource actual = converter.convert(input);
+
+		assertEquals("Smith", ((org.hl7.fhir.r4.model.Patient) actual).getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testConvertR4ToHapiDstu2() {
+		org.hl7.fhir.r4.model.Patient input = new org.hl7.fhir.r4.model.Patient();
+		input.addName().setFamily("Smith");
+
+		ResourceVersionConverter converter = new ResourceVersionConverter(ourCtxR4, ourCtxDstu2);
+		IBaseResource actual = converter.convert(input);
+
+		assertEquals("Smith", ((Patient) actual).getNameFirstRep().getFamilyAsSingleString());
+	}
+
+	@Test
+	public void testConvertNdJson() throws Exception {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			org.hl7.fhir.dstu3.model.Patient patient = new org.hl7.fhir.dstu3.model.Patient();
+			patient.setId("Patient/" + i);
+			input.append(ourCtxDstu3.newJsonParser().encodeResourceToString(patient)).append('\n');
+			if (i == 10) {
+				input.append('\n');
+			}
+		}
+
+		ResourceVersionConverter converter = new ResourceVersionConverter(ourCtxDstu3, ourCtxR4);
+		StringWriter output = new StringWriter();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			long count = converter.convertNdJson(new StringReader(input.toString()), output, 2, executor);
+			assertFalse(executor.isShutdown());
+
+			assertEquals(1000, count);
+			String[] lines = output.toString().split("\n");
+			assertThat(lines).hasSize(1000);
+			for (int i = 0; i < lines.length; i++) {
+				org.hl7.fhir.r4.model.Patient patient =
+						ourCtxR4.newJsonParser().parseResource(org.hl7.fhir.r4.model.Patient.class, lines[i]);
+				assertEquals(Integer.toString(i), patient.getIdElement().getIdPart());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testUnsupportedVersions() {
+		IllegalArgumentException e = assertThrows(
+				IllegalArgumentException.class,
+				() -> new ResourceVersionConverter(FhirContext.forDstu2_1(), ourCtxDstu2));
+		assertThat(e.getMessage()).contains("Can not convert resources from FHIR version DSTU2_1 to DSTU2");
+	}
+}
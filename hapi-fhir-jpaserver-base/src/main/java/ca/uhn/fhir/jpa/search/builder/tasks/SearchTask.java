@@ -302,7 +302,9 @@ public class SearchTask implements Callable<Void> {
 					// Interceptor call: STORAGE_PREACCESS_RESOURCES
 					// This can be used to remove results from the search result details before
 					// the user has a chance to know that they were in the results
-					if (mySearchRuntimeDetails.getRequestDetails() != null && !unsyncedPids.isEmpty()) {
+					if (mySearchRuntimeDetails.getRequestDetails() != null
+							&& !unsyncedPids.isEmpty()
+							&& myCompositeBroadcaster.hasHooks(Pointcut.STORAGE_PREACCESS_RESOURCES)) {
 						JpaPreResourceAccessDetails accessDetails =
 								new JpaPreResourceAccessDetails(unsyncedPids, this::newSearchBuilder);
 						HookParams params = new HookParams()
@@ -86,11 +86,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.measure.quantity.Quantity;
 import javax.measure.unit.NonSI;
@@ -175,6 +178,10 @@ public abstract class BaseSearchParamExtractor implements ISearchParamExtractor
 	// allow extraction of Resource-level search param values
 	private boolean myExtractResourceLevelParams = false;
 
+	private final Map<RuntimeResourceDefinition, SearchParamPathTrie> myResourceDefinitionToPathTrie =
+			new ConcurrentHashMap<>();
+	private final ThreadLocal<Map<IBase, SearchParamPathTrie.ValueCache>> myExtractionScopes = new ThreadLocal<>();
+
 	/**
 	 * Constructor
 	 */
@@ -933,8 +940,6 @@ public abstract class BaseSearchParamExtractor implements ISearchParamExtractor
 		if (isNotBlank(thePaths)) {
 			String[] nextPathsSplit = split(thePaths);
 			for (String nextPath : nextPathsSplit) {
-				List<? extends IBase> allValues;
-
 				// This path is hard to parse and isn't likely to produce anything useful anyway
 				if (myContext.getVersion().getVersion().equals(FhirVersionEnum.DSTU2)
 						&& nextPath.equals("Bundle.entry.resource(0)")) {
@@ -942,14 +947,18 @@ public abstract class BaseSearchParamExtractor implements ISearchParamExtractor
 				}
 
 				nextPath = trim(nextPath);
-				IValueExtractor allValuesFunc = getPathValueExtractor(theResource, nextPath);
-				try {
-					allValues = allValuesFunc.get();
-				} catch (Exception e) {
-					String msg = getContext()
-							.getLocalizer()
-							.getMessage(BaseSearchParamExtractor.class, "failedToExtractPaths", nextPath, e.toString());
-					throw new InternalErrorException(Msg.code(504) + msg, e);
+				List<? extends IBase> allValues = extractSimplePathValues(theResource, nextPath);
+				if (allValues == null) {
+					IValueExtractor allValuesFunc = getPathValueExtractor(theResource, nextPath);
+					try {
+						allValues = allValuesFunc.get();
+					} catch (Exception e) {
+						String msg = getContext()
+								.getLocalizer()
+								.getMessage(
+										BaseSearchParamExtractor.class, "failedToExtractPaths", nextPath, e.toString());
+						throw new InternalErrorException(Msg.code(504) + msg, e);
+					}
 				}
 
 				values.addAll(allValues);
@@ -968,6 +977,74 @@ public abstract class BaseSearchParamExtractor implements ISearchParamExtractor
 		return values;
 	}
 
+	/**
+	 * Paths which consist only of element names (e.g. <code>Patient.name.given</code>) are evaluated
+	 * directly against the resource model using a {@link SearchParamPathTrie} instead of FHIRPath.
+	 * If an {@link #openExtractionScope(IBaseResource) extraction scope} is open for the resource, the
+	 * values found along the way are reused by every search parameter whose path shares a prefix.
+	 *
+	 * @return The values, or <code>null</code> if the path needs to be evaluated using FHIRPath
+	 */
+	@Nullable
+	private List<IBase> extractSimplePathValues(IBase theResource, String thePath) {
+		if (!(theResource instanceof IBaseResource)
+				|| !myContext.getVersion().getVersion().isEqualOrNewerThan(FhirVersionEnum.R4)) {
+			return null;
+		}
+
+		RuntimeResourceDefinition def = myContext.getResourceDefinition((IBaseResource) theResource);
+		SearchParamPathTrie trie = myResourceDefinitionToPathTrie.computeIfAbsent(def, this::createPathTrie);
+
+		SearchParamPathTrie.ValueCache cache = null;
+		Map<IBase, SearchParamPathTrie.ValueCache> scopes = myExtractionScopes.get();
+		if (scopes != null) {
+			cache = scopes.get(theResource);
+		}
+
+		return trie.getValues(theResource, thePath, cache);
+	}
+
+	private SearchParamPathTrie createPathTrie(RuntimeResourceDefinition theResourceDefinition) {
+		SearchParamPathTrie retVal = new SearchParamPathTrie(theResourceDefinition);
+		if (mySearchParamRegistry != null) {
+			Collection<RuntimeSearchParam> searchParams = mySearchParamRegistry
+					.getActiveSearchParams(
+							theResourceDefinition.getName(), ISearchParamRegistry.SearchParamLookupContextEnum.INDEX)
+					.values();
+			for (RuntimeSearchParam nextSearchParam : searchParams) {
+				if (isNotBlank(nextSearchParam.getPath())) {
+					for (String nextPath : split(nextSearchParam.getPath())) {
+						retVal.addPath(trim(nextPath));
+					}
+				}
+			}
+		}
+		return retVal;
+	}
+
+	@Override
+	public IExtractionScope openExtractionScope(IBaseResource theResource) {
+		Map<IBase, SearchParamPathTrie.ValueCache> scopes = myExtractionScopes.get();
+		if (scopes == null) {
+			scopes = new IdentityHashMap<>();
+			myExtractionScopes.set(scopes);
+		}
+
+		// A scope is already open for this resource further up the stack
+		if (scopes.containsKey(theResource)) {
+			return () -> {};
+		}
+
+		scopes.put(theResource, new SearchParamPathTrie.ValueCache());
+		Map<IBase, SearchParamPathTrie.ValueCache> openScopes = scopes;
+		return () -> {
+			openScopes.remove(theResource);
+			if (openScopes.isEmpty()) {
+				myExtractionScopes.remove();
+			}
+		};
+	}
+
 	protected FhirContext getContext() {
 		return myContext;
 	}
@@ -151,6 +151,29 @@ public interface ISearchParamExtractor {
 
 	String getDisplayTextFromCodeableConcept(IBase theValue);
 
+	/**
+	 * Signals that a series of extraction calls is about to be made against the given resource, allowing
+	 * the extractor to share work (such as walking the parts of the resource which are common to the paths
+	 * of several search parameters) between them until the returned scope is closed. The resource must not
+	 * be modified while the scope is open. Scopes are bound to the calling thread.
+	 *
+	 * @since 8.6.0
+	 */
+	default IExtractionScope openExtractionScope(IBaseResource theResource) {
+		return () -> {};
+	}
+
+	/**
+	 * @see #openExtractionScope(IBaseResource)
+	 * @since 8.6.0
+	 */
+	@FunctionalInterface
+	interface IExtractionScope extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+
 	@FunctionalInterface
 	interface ISearchParamFilter {
 
@@ -32,12 +32,12 @@ import org.hl7.fhir.exceptions.FHIRException;
 import org.hl7.fhir.exceptions.PathEngineException;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.r4.context.IWorkerContext;
-import org.hl7.fhir.r4.fhirpath.ExpressionNode;
 import org.hl7.fhir.r4.fhirpath.FHIRPathEngine;
 import org.hl7.fhir.r4.fhirpath.FHIRPathUtilityClasses.FunctionDetails;
 import org.hl7.fhir.r4.fhirpath.IHostApplicationServices;
 import org.hl7.fhir.r4.fhirpath.TypeDetails;
 import org.hl7.fhir.r4.hapi.ctx.HapiWorkerContext;
+import org.hl7.fhir.r4.hapi.fluentpath.FhirPathR4Compiler;
 import org.hl7.fhir.r4.model.Base;
 import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Resource;
@@ -55,7 +55,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class SearchParamExtractorR4 extends BaseSearchParamExtractor implements ISearchParamExtractor {
 
-	private Cache<String, ExpressionNode> myParsedFhirPathCache;
+	private Cache<String, FhirPathR4Compiler.CompiledExpression> myParsedFhirPathCache;
 	private FHIRPathEngine myFhirPathEngine;
 
 	/**
@@ -80,9 +80,10 @@ public class SearchParamExtractorR4 extends BaseSearchParamExtractor implements
 	@Override
 	public IValueExtractor getPathValueExtractor(IBase theResource, String theSinglePath) {
 		return () -> {
-			ExpressionNode parsed = myParsedFhirPathCache.get(theSinglePath, path -> myFhirPathEngine.parse(path));
-			return myFhirPathEngine.evaluate(
-					theResource, (Base) theResource, (Base) theResource, (Base) theResource, parsed);
+			FhirPathR4Compiler.CompiledExpression compiled = myParsedFhirPathCache.get(
+					theSinglePath, path -> FhirPathR4Compiler.compile(myFhirPathEngine.parse(path)));
+			return compiled.evaluate(
+					myFhirPathEngine, theResource, (Base) theResource, (Base) theResource, (Base) theResource);
 		};
 	}
 
@@ -0,0 +1,250 @@
+/*
+ * #%L
+ * HAPI FHIR JPA - Search Parameters
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.searchparam.extractor;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
+import ca.uhn.fhir.context.RuntimeChildChoiceDefinition;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A trie of the simple search parameter paths (i.e. paths such as <code>Patient.name.given</code>
+ * which consist only of element names) for a single resource type. Each node holds the child
+ * definition for its element, resolved once when the node is created, so evaluating a simple
+ * path only needs the child accessors rather than a FHIRPath evaluation.
+ * <p>
+ * When a {@link ValueCache} is supplied, the values found at each node are kept for the lifetime
+ * of the cache, so search parameters whose paths share a prefix (e.g. <code>Patient.name.family</code>
+ * and <code>Patient.name.given</code>) only walk the shared part of the resource once.
+ * </p>
+ * <p>
+ * Paths which use a choice type, a contained or inline resource, or anything beyond element names
+ * are not supported by the trie and must be evaluated using FHIRPath.
+ * </p>
+ */
+class SearchParamPathTrie {
+
+	/**
+	 * Upper bound on the number of distinct paths remembered by a trie
+	 */
+	private static final int MAX_PATHS = 10000;
+
+	private static final Node UNSUPPORTED = new Node(null, null, null);
+
+	private final RuntimeResourceDefinition myResourceDefinition;
+	private final Node myRoot;
+	private final Map<String, Node> myPathToNode = new ConcurrentHashMap<>();
+
+	SearchParamPathTrie(RuntimeResourceDefinition theResourceDefinition) {
+		myResourceDefinition = theResourceDefinition;
+		myRoot = new Node(null, null, theResourceDefinition);
+	}
+
+	/**
+	 * Adds a path to the trie if it is supported
+	 */
+	void addPath(String thePath) {
+		getNode(thePath);
+	}
+
+	/**
+	 * Returns the values found at the given path, or <code>null</code> if the path is not a simple
+	 * path for this resource type and must be evaluated some other way.
+	 *
+	 * @param theResource The resource, which must be of the type this trie was created for
+	 * @param thePath     The path, with any surrounding whitespace already removed
+	 * @param theCache    A cache of values previously found in this resource, or <code>null</code>
+	 */
+	@Nullable
+	List<IBase> getValues(IBase theResource, String thePath, @Nullable ValueCache theCache) {
+		Node node = getNode(thePath);
+		if (node == null) {
+			return null;
+		}
+		return node.getValues(theResource, theCache);
+	}
+
+	@Nullable
+	private Node getNode(String thePath) {
+		Node retVal = myPathToNode.get(thePath);
+		if (retVal == null) {
+			retVal = resolve(thePath);
+			if (myPathToNode.size() < MAX_PATHS) {
+				myPathToNode.put(thePath, retVal);
+			}
+		}
+		return retVal != UNSUPPORTED ? retVal : null;
+	}
+
+	@Nonnull
+	private Node resolve(String thePath) {
+		if (!isSimplePath(thePath)) {
+			return UNSUPPORTED;
+		}
+
+		String[] segments = thePath.split("\\.");
+		if (segments.length < 2 || !segments[0].equals(myResourceDefinition.getName())) {
+			return UNSUPPORTED;
+		}
+
+		Node retVal = myRoot;
+		for (int i = 1; i < segments.length; i++) {
+			retVal = retVal.getOrCreateChild(segments[i]);
+			if (retVal == null) {
+				return UNSUPPORTED;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns <code>true</code> if the path consists only of element names separated by single dots
+	 */
+	static boolean isSimplePath(String thePath) {
+		boolean segmentStart = true;
+		for (int i = 0; i < thePath.length(); i++) {
+			char nextChar = thePath.charAt(i);
+			if (nextChar == '.') {
+				if (segmentStart) {
+					return false;
+				}
+				segmentStart = true;
+			} else if ((nextChar >= 'a' && nextChar <= 'z')
+					|| (nextChar >= 'A' && nextChar <= 'Z')
+					|| (!segmentStart && nextChar >= '0' && nextChar <= '9')) {
+				segmentStart = false;
+			} else {
+				return false;
+			}
+		}
+		return !segmentStart;
+	}
+
+	/**
+	 * Holds the values found at each node of a trie for a single resource instance. The resource must
+	 * not be modified while the cache is in use. Instances are not thread-safe.
+	 */
+	static class ValueCache {
+
+		private final Map<Node, List<IBase>> myNodeToValues = new IdentityHashMap<>();
+	}
+
+	private static class Node {
+
+		private final Node myParent;
+		private final BaseRuntimeChildDefinition myChildDefinition;
+		private final BaseRuntimeElementCompositeDefinition<?> myCompositeDefinition;
+		private final Map<String, Node> myChildren = new ConcurrentHashMap<>();
+
+		/**
+		 * @param theParent              The parent node, or <code>null</code> for the root (resource) node
+		 * @param theChildDefinition     The child definition for this element within the parent
+		 * @param theCompositeDefinition The definition for values of this element if they are composites, otherwise <code>null</code>
+		 */
+		private Node(
+				Node theParent,
+				BaseRuntimeChildDefinition theChildDefinition,
+				BaseRuntimeElementCompositeDefinition<?> theCompositeDefinition) {
+			myParent = theParent;
+			myChildDefinition = theChildDefinition;
+			myCompositeDefinition = theCompositeDefinition;
+		}
+
+		@Nullable
+		private Node getOrCreateChild(String theName) {
+			Node retVal = myChildren.get(theName);
+			if (retVal != null || myCompositeDefinition == null) {
+				return retVal;
+			}
+
+			BaseRuntimeChildDefinition childDefinition = myCompositeDefinition.getChildByName(theName);
+			if (childDefinition == null
+					|| childDefinition instanceof RuntimeChildChoiceDefinition
+					|| !theName.equals(childDefinition.getElementName())) {
+				return null;
+			}
+
+			BaseRuntimeElementDefinition<?> elementDefinition = childDefinition.getChildByName(theName);
+			if (elementDefinition == null) {
+				return null;
+			}
+
+			BaseRuntimeElementCompositeDefinition<?> compositeDefinition;
+			switch (elementDefinition.getChildType()) {
+				case COMPOSITE_DATATYPE:
+				case RESOURCE_BLOCK:
+					compositeDefinition = (BaseRuntimeElementCompositeDefinition<?>) elementDefinition;
+					break;
+				case PRIMITIVE_DATATYPE:
+				case ID_DATATYPE:
+					compositeDefinition = null;
+					break;
+				default:
+					return null;
+			}
+
+			return myChildren.computeIfAbsent(theName, t -> new Node(this, childDefinition, compositeDefinition));
+		}
+
+		private List<IBase> getValues(IBase theResource, @Nullable ValueCache theCache) {
+			if (myParent == null) {
+				return Collections.singletonList(theResource);
+			}
+
+			if (theCache == null) {
+				return extractValues(myParent.getValues(theResource, null));
+			}
+
+			List<IBase> retVal = theCache.myNodeToValues.get(this);
+			if (retVal == null) {
+				retVal = extractValues(myParent.getValues(theResource, theCache));
+				theCache.myNodeToValues.put(this, retVal);
+			}
+			return retVal;
+		}
+
+		private List<IBase> extractValues(List<IBase> theParentValues) {
+			if (theParentValues.isEmpty()) {
+				return Collections.emptyList();
+			}
+
+			List<IBase> retVal = new ArrayList<>();
+			for (IBase nextParentValue : theParentValues) {
+				for (IBase nextValue : myChildDefinition.getAccessor().getValues(nextParentValue)) {
+					if (nextValue != null) {
+						retVal.add(nextValue);
+					}
+				}
+			}
+			return retVal;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package ca.uhn.fhir.jpa.searchparam.extractor;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchParamPathTrieTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@Test
+	public void testGetValues() {
+		Patient patient = new Patient();
+		patient.addName().setFamily("Simpson").addGiven("Homer").addGiven("Jay");
+		patient.addName().addGiven("Max");
+		patient.getManagingOrganization().setReference("Organization/1");
+
+		SearchParamPathTrie trie = new SearchParamPathTrie(ourCtx.getResourceDefinition("Patient"));
+
+		List<IBase> given = trie.getValues(patient, "Patient.name.given", null);
+		assertThat(given).containsExactly(
+				patient.getName().get(0).getGiven().get(0),
+				patient.getName().get(0).getGiven().get(1),
+				patient.getName().get(1).getGiven().get(0));
+		assertThat(trie.getValues(patient, "Patient.name.family", null))
+				.containsExactly(patient.getName().get(0).getFamilyElement());
+		assertThat(trie.getValues(patient, "Patient.managingOrganization", null))
+				.containsExactly(patient.getManagingOrganization());
+		assertThat(trie.getValues(patient, "Patient.birthDate", null)).isEmpty();
+	}
+
+	@Test
+	public void testGetValuesWithCacheSharesPrefix() {
+		Observation obs = new Observation();
+		obs.getCode().addCoding().setSystem("http://loinc.org").setCode("1-2");
+		SearchParamPathTrie trie = new SearchParamPathTrie(ourCtx.getResourceDefinition("Observation"));
+		SearchParamPathTrie.ValueCache cache = new SearchParamPathTrie.ValueCache();
+
+		List<IBase> code = trie.getValues(obs, "Observation.code", cache);
+		assertThat(code).containsExactly(obs.getCode());
+		assertSame(code, trie.getValues(obs, "Observation.code", cache));
+
+		// The cache reflects the resource at the time the values were first found
+		obs.setCode(new CodeableConcept());
+		assertThat(trie.getValues(obs, "Observation.code.coding", cache)).hasSize(1);
+		assertThat(trie.getValues(obs, "Observation.code.coding", null)).isEmpty();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"Observation.value",
+		"Observation.valueQuantity",
+		"(Observation.value as Quantity)",
+		"Observation.subject.where(resolve() is Patient)",
+		"Observation.contained",
+		"Observation.foo",
+		"Patient.name",
+		"Resource.id",
+		"Observation",
+		"Observation..code"
+	})
+	public void testUnsupportedPaths(String thePath) {
+		Observation obs = new Observation();
+		obs.setValue(new Quantity(1));
+		obs.setSubject(new Reference("Patient/1"));
+		SearchParamPathTrie trie = new SearchParamPathTrie(ourCtx.getResourceDefinition("Observation"));
+
+		assertNull(trie.getValues(obs, thePath, null));
+	}
+
+	@Test
+	public void testIsSimplePath() {
+		assertTrue(SearchParamPathTrie.isSimplePath("Patient.name.given"));
+		assertTrue(SearchParamPathTrie.isSimplePath("Observation.component.code"));
+		assertFalse(SearchParamPathTrie.isSimplePath("Patient.name.given "));
+		assertFalse(SearchParamPathTrie.isSimplePath("Patient.name."));
+		assertFalse(SearchParamPathTrie.isSimplePath(".name"));
+		assertFalse(SearchParamPathTrie.isSimplePath("Patient.name[0]"));
+		assertFalse(SearchParamPathTrie.isSimplePath("Patient.1name"));
+		assertFalse(SearchParamPathTrie.isSimplePath(""));
+	}
+}
@@ -19,8 +19,10 @@
  */
 package ca.uhn.fhir.rest.api.server;
 
+import ca.uhn.fhir.rest.api.Constants;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.io.output.WriterOutputStream;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -28,6 +30,7 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Implementations of this interface represent a response back to the client from the server. It is
@@ -84,10 +87,50 @@ public interface IRestfulResponse {
 	OutputStream getResponseOutputStream(int theStatusCode, String theContentType, @Nullable Integer theContentLength)
 			throws IOException;
 
+	/**
+	 * Initiate a new response whose body will be written as already-encoded bytes, for example
+	 * by {@link ca.uhn.fhir.parser.IParser#encodeResourceToOutputStream(org.hl7.fhir.instance.model.api.IBaseResource, OutputStream)}.
+	 * Unlike {@link #getResponseOutputStream(int, String, Integer)} this method may be used for textual
+	 * responses (in which case the bytes written must use <code>theCharset</code>) and supports GZip
+	 * encoding. The OutputStream returned by this method must be finalized by calling
+	 * {@link #commitResponse(Closeable)} later.
+	 * <p>
+	 * The default implementation sends textual responses through
+	 * {@link #getResponseWriter(int, String, String, boolean)} and binary responses through
+	 * {@link #getResponseOutputStream(int, String, Integer)}. Implementations which are able to
+	 * stream bytes straight to the client should override it.
+	 * </p>
+	 *
+	 * @param theStatusCode  The HTTP status code.
+	 * @param theContentType The HTTP response content type.
+	 * @param theCharset     The HTTP response charset, or {@literal null} if the response is binary.
+	 * @param theRespondGzip Should the response be GZip encoded?
+	 * @return Returns an {@link OutputStream} that can accept the response body.
+	 * @since 8.6.0
+	 */
+	@Nonnull
+	default OutputStream getResponseOutputStream(
+			int theStatusCode, String theContentType, @Nullable String theCharset, boolean theRespondGzip)
+			throws IOException {
+		if (theCharset != null) {
+			Writer writer = getResponseWriter(theStatusCode, theContentType, theCharset, theRespondGzip);
+			return WriterOutputStream.builder()
+					.setWriter(writer)
+					.setCharset(theCharset)
+					.get();
+		}
+		if (theRespondGzip) {
+			addHeader(Constants.HEADER_CONTENT_ENCODING, Constants.ENCODING_GZIP);
+			return new GZIPOutputStream(getResponseOutputStream(theStatusCode, theContentType, null));
+		}
+		return getResponseOutputStream(theStatusCode, theContentType, null);
+	}
+
 	/**
 	 * Finalizes the response streaming using the writer that was returned by calling either
-	 * {@link #getResponseWriter(int, String, String, boolean)} or
-	 * {@link #getResponseOutputStream(int, String, Integer)}. This method should only be
+	 * {@link #getResponseWriter(int, String, String, boolean)},
+	 * {@link #getResponseOutputStream(int, String, Integer)} or
+	 * {@link #getResponseOutputStream(int, String, String, boolean)}. This method should only be
 	 * called if the response writing/streaming actually completed successfully. If an error
 	 * occurred you do not need to commit the response.
 	 *
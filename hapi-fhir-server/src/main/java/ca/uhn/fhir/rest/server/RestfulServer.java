@@ -41,6 +41,7 @@ import ca.uhn.fhir.rest.api.PreferReturnEnum;
 import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.BaseParseAction;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.IFhirVersionServer;
 import ca.uhn.fhir.rest.api.server.IRestfulServer;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
@@ -67,6 +68,8 @@ import ca.uhn.fhir.util.VersionUtil;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.UnavailableException;
 import jakarta.servlet.http.HttpServlet;
@@ -75,12 +78,14 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.hl7.fhir.instance.model.api.IBaseConformance;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -101,6 +106,13 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.Manifest;
@@ -137,6 +149,22 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	 * Default value for {@link #setDefaultPreferReturn(PreferReturnEnum)}
 	 */
 	public static final PreferReturnEnum DEFAULT_PREFER_RETURN = PreferReturnEnum.REPRESENTATION;
+	/**
+	 * The number of platform threads used for asynchronous request processing when no executor has
+	 * been supplied and virtual threads are not available
+	 *
+	 * @see #setAsyncRequestProcessing(boolean)
+	 * @since 8.6.0
+	 */
+	public static final int DEFAULT_ASYNC_REQUEST_THREAD_COUNT = 200;
+	/**
+	 * The number of requests which may wait for one of the {@link #DEFAULT_ASYNC_REQUEST_THREAD_COUNT}
+	 * platform threads before further requests are rejected with an HTTP 503
+	 *
+	 * @see #setAsyncRequestProcessing(boolean)
+	 * @since 8.6.0
+	 */
+	public static final int DEFAULT_ASYNC_REQUEST_QUEUE_CAPACITY = 1000;
 
 	private static final ExceptionHandlingInterceptor DEFAULT_EXCEPTION_HANDLER = new ExceptionHandlingInterceptor();
 	private static final Logger ourLog = LoggerFactory.getLogger(RestfulServer.class);
@@ -174,6 +202,9 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	private ITenantIdentificationStrategy myTenantIdentificationStrategy;
 	private PreferReturnEnum myDefaultPreferReturn = DEFAULT_PREFER_RETURN;
 	private ElementsSupportEnum myElementsSupport = ElementsSupportEnum.EXTENDED;
+	private transient Executor myAsyncRequestExecutor;
+	private transient ExecutorService myOwnedAsyncRequestExecutor;
+	private int mySearchResponseStreamingChunkSize;
 
 	/**
 	 * Constructor. Note that if no {@link FhirContext} is passed in to the server (either through the constructor, or
@@ -371,6 +402,8 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myResourceNameToBinding.clear();
 		myGlobalBinding.getMethodBindings().clear();
 		myServerBinding.getMethodBindings().clear();
+
+		shutdownOwnedAsyncRequestExecutor();
 	}
 
 	/**
@@ -1201,10 +1234,12 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			resourceMethod.invokeServer(this, requestDetails);
 
 			// Invoke interceptors
-			HookParams hookParams = new HookParams();
-			hookParams.add(RequestDetails.class, requestDetails);
-			hookParams.add(ServletRequestDetails.class, requestDetails);
-			myInterceptorService.callHooks(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, hookParams);
+			if (myInterceptorService.hasHooks(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY)) {
+				HookParams hookParams = new HookParams();
+				hookParams.add(RequestDetails.class, requestDetails);
+				hookParams.add(ServletRequestDetails.class, requestDetails);
+				myInterceptorService.callHooks(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, hookParams);
+			}
 
 		} catch (NotModifiedException | AuthenticationException e) {
 
@@ -1305,10 +1340,12 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 				unhandledException = null;
 			}
 
-			HookParams params = new HookParams();
-			params.add(RequestDetails.class, requestDetails);
-			params.addIfMatchesType(ServletRequestDetails.class, requestDetails);
-			myInterceptorService.callHooks(Pointcut.SERVER_PROCESSING_COMPLETED, params);
+			if (myInterceptorService.hasHooks(Pointcut.SERVER_PROCESSING_COMPLETED)) {
+				HookParams params = new HookParams();
+				params.add(RequestDetails.class, requestDetails);
+				params.addIfMatchesType(ServletRequestDetails.class, requestDetails);
+				myInterceptorService.callHooks(Pointcut.SERVER_PROCESSING_COMPLETED, params);
+			}
 		}
 	}
 
@@ -1630,6 +1667,149 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myUncompressIncomingContents = theUncompressIncomingContents;
 	}
 
+	/**
+	 * Returns <code>true</code> if asynchronous request processing is enabled
+	 *
+	 * @see #setAsyncRequestProcessing(boolean)
+	 * @since 8.6.0
+	 */
+	public boolean isAsyncRequestProcessing() {
+		return myAsyncRequestExecutor != null;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the server will use Servlet
+	 * asynchronous processing to release the container thread as soon as a request arrives, and
+	 * will process the request on a separate executor instead. This allows a small container
+	 * thread pool to serve many requests which spend most of their time waiting (e.g. on a
+	 * database). Requests are otherwise processed by the same code path as synchronous requests,
+	 * including all interceptor pointcuts, and no timeout is applied to them.
+	 * <p>
+	 * Note that the request is processed on a different thread than the one the container (and any
+	 * filters in front of the server) used. The SLF4J MDC is copied to the processing thread, but
+	 * other thread-local state is not. Anything which relies on state bound to the container thread,
+	 * such as Spring's <code>SecurityContextHolder</code> or <code>RequestContextHolder</code>, or an
+	 * "open session in view" filter, will not see that state while the request is processed unless
+	 * the supplied executor propagates it.
+	 * </p>
+	 * <p>
+	 * Unless an executor has been supplied using {@link #setAsyncRequestExecutor(Executor)}, a
+	 * virtual thread per request is used when running on a JVM which supports virtual threads.
+	 * Otherwise a pool of {@link #DEFAULT_ASYNC_REQUEST_THREAD_COUNT} platform threads is used, with
+	 * up to {@link #DEFAULT_ASYNC_REQUEST_QUEUE_CAPACITY} requests waiting for a free thread. Requests
+	 * beyond that are rejected with an HTTP 503 response.
+	 * </p>
+	 * <p>
+	 * The servlet (and any filters in front of it) must be registered as supporting asynchronous
+	 * processing (e.g. <code>&lt;async-supported&gt;true&lt;/async-supported&gt;</code> in
+	 * <code>web.xml</code>). Requests which do not support asynchronous processing are processed
+	 * synchronously on the container thread.
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public void setAsyncRequestProcessing(boolean theAsyncRequestProcessing) {
+		if (theAsyncRequestProcessing) {
+			if (myAsyncRequestExecutor == null) {
+				myOwnedAsyncRequestExecutor = newDefaultAsyncRequestExecutor();
+				myAsyncRequestExecutor = myOwnedAsyncRequestExecutor;
+			}
+		} else {
+			setAsyncRequestExecutor(null);
+		}
+	}
+
+	/**
+	 * Enables asynchronous request processing (see {@link #setAsyncRequestProcessing(boolean)})
+	 * using the given executor, or disables it if <code>null</code>. The executor is not shut down
+	 * by the server. If the executor rejects a request, an HTTP 503 response is returned.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setAsyncRequestExecutor(@Nullable Executor theExecutor) {
+		shutdownOwnedAsyncRequestExecutor();
+		myAsyncRequestExecutor = theExecutor;
+	}
+
+	/**
+	 * If set to a value greater than zero, search and history responses are streamed to the client
+	 * while the page is still being loaded. The Bundle envelope (including <code>Bundle.total</code>
+	 * and the paging links) is written first, and the resources on the page are then fetched from the
+	 * {@link IBundleProvider} in chunks of this size, with each chunk being encoded and flushed to the
+	 * client before the next one is fetched. This reduces the time to the first byte of the response,
+	 * and means that only one chunk of resources needs to be held in memory at a time.
+	 * <p>
+	 * The default is <code>0</code>, meaning that the whole page is loaded and the complete Bundle is
+	 * built before anything is written.
+	 * </p>
+	 * <p>
+	 * Streaming is only used where it produces the same Bundle as the default behaviour. A response is
+	 * built normally if any interceptor is registered against {@link Pointcut#SERVER_OUTGOING_RESPONSE}
+	 * or {@link Pointcut#SERVER_OUTGOING_WRITER_CREATED} (since these may inspect or replace the
+	 * complete response), if the response is not JSON or XML, if the request uses <code>_summary</code>,
+	 * <code>_elements</code>, <code>_include</code> or <code>_revinclude</code>, if the requested page is
+	 * not larger than the chunk size, or if the {@link IBundleProvider} does not report its size or
+	 * uses its own paging. Note that because the response has already been started, a failure while
+	 * loading a later chunk can not be reported as an error response. The failure is logged and the
+	 * response is ended without completing the Bundle, so clients will receive a status of
+	 * <code>200</code> with an incomplete (unparseable) body.
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public int getSearchResponseStreamingChunkSize() {
+		return mySearchResponseStreamingChunkSize;
+	}
+
+	/**
+	 * If set to a value greater than zero, search and history responses are streamed to the client
+	 * while the page is still being loaded, in chunks of this many resources. The default is
+	 * <code>0</code>, which disables streaming.
+	 *
+	 * @see #getSearchResponseStreamingChunkSize() for the conditions under which responses are streamed
+	 * @since 8.6.0
+	 */
+	public void setSearchResponseStreamingChunkSize(int theSearchResponseStreamingChunkSize) {
+		mySearchResponseStreamingChunkSize = theSearchResponseStreamingChunkSize;
+	}
+
+	private void shutdownOwnedAsyncRequestExecutor() {
+		if (myOwnedAsyncRequestExecutor != null) {
+			if (myAsyncRequestExecutor == myOwnedAsyncRequestExecutor) {
+				myAsyncRequestExecutor = null;
+			}
+			myOwnedAsyncRequestExecutor.shutdown();
+			myOwnedAsyncRequestExecutor = null;
+		}
+	}
+
+	private static ExecutorService newDefaultAsyncRequestExecutor() {
+		try {
+			// Virtual threads are only available on Java 21+, and we still support running on Java 17
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService retVal = (ExecutorService) factory.invoke(null);
+			ourLog.info("Asynchronous request processing will use virtual threads");
+			return retVal;
+		} catch (ReflectiveOperationException e) {
+			ourLog.info("Virtual threads are not available, asynchronous request processing will use platform threads");
+			BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+					.namingPattern("hapi-fhir-request-%d")
+					.daemon(true)
+					.build();
+			// Bounded, so that a burst of requests is rejected (with a 503) instead of exhausting the JVM
+			ThreadPoolExecutor retVal = new ThreadPoolExecutor(
+					DEFAULT_ASYNC_REQUEST_THREAD_COUNT,
+					DEFAULT_ASYNC_REQUEST_THREAD_COUNT,
+					60,
+					TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(DEFAULT_ASYNC_REQUEST_QUEUE_CAPACITY),
+					threadFactory,
+					new ThreadPoolExecutor.AbortPolicy());
+			retVal.allowCoreThreadTimeOut(true);
+			return retVal;
+		}
+	}
+
 	private String resolveRequestPath(RequestDetails theRequestDetails, String theRequestPath) {
 		if (myTenantIdentificationStrategy != null) {
 			theRequestPath = myTenantIdentificationStrategy.resolveRelativeUrl(theRequestPath, theRequestDetails);
@@ -1939,6 +2119,70 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			throws ServletException, IOException {
 		theReq.setAttribute(REQUEST_START_TIME, new Date());
 
+		Executor asyncRequestExecutor = myAsyncRequestExecutor;
+		if (asyncRequestExecutor != null
+				&& theReq.getDispatcherType() == DispatcherType.REQUEST
+				&& theReq.isAsyncSupported()) {
+			serviceAsynchronously(asyncRequestExecutor, theReq, theResp);
+			return;
+		}
+
+		serviceSynchronously(theReq, theResp);
+	}
+
+	/**
+	 * Releases the container thread and processes the request on the given executor, using the
+	 * same code path as synchronous processing. The SLF4J MDC of the container thread is copied
+	 * to the processing thread, but other thread-local state is not.
+	 */
+	private void serviceAsynchronously(Executor theExecutor, HttpServletRequest theReq, HttpServletResponse theResp)
+			throws IOException {
+		AsyncContext asyncContext = theReq.startAsync(theReq, theResp);
+		// The container would otherwise apply its own default timeout, which would complete the
+		// response while it is still being processed
+		asyncContext.setTimeout(0);
+		Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+		try {
+			theExecutor.execute(() -> {
+				Map<String, String> previousMdcContext = MDC.getCopyOfContextMap();
+				setMdcContext(mdcContext);
+				try {
+					serviceSynchronously(theReq, theResp);
+				} catch (Exception e) {
+					ourLog.error("Failure during asynchronous processing of request: {}", theReq.getRequestURI(), e);
+					sendErrorIfNotCommitted(theResp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				} finally {
+					asyncContext.complete();
+					setMdcContext(previousMdcContext);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			ourLog.warn("Asynchronous request executor rejected request: {}", theReq.getRequestURI());
+			sendErrorIfNotCommitted(theResp, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			asyncContext.complete();
+		}
+	}
+
+	private static void setMdcContext(@Nullable Map<String, String> theContext) {
+		if (theContext != null) {
+			MDC.setContextMap(theContext);
+		} else {
+			MDC.clear();
+		}
+	}
+
+	private static void sendErrorIfNotCommitted(HttpServletResponse theResp, int theStatus) {
+		if (!theResp.isCommitted()) {
+			try {
+				theResp.sendError(theStatus);
+			} catch (IOException e) {
+				ourLog.debug("Failed to send error response", e);
+			}
+		}
+	}
+
+	private void serviceSynchronously(HttpServletRequest theReq, HttpServletResponse theResp)
+			throws ServletException, IOException {
 		RequestTypeEnum method;
 		try {
 			method = RequestTypeEnum.valueOf(theReq.getMethod());
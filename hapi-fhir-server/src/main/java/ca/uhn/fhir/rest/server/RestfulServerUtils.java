@@ -728,6 +728,9 @@ public class RestfulServerUtils {
 			case RDF:
 				parser = context.newRDFParser();
 				break;
+			case SMILE:
+				parser = context.newSmileParser();
+				break;
 			case XML:
 			default:
 				parser = context.newXmlParser();
@@ -1058,11 +1061,26 @@ public class RestfulServerUtils {
 		}
 		String charset = Constants.CHARSET_NAME_UTF8;
 
+		boolean hasWriterCreatedHooks = theServer.getInterceptorService() != null
+				&& theServer.getInterceptorService().hasHooks(Pointcut.SERVER_OUTGOING_WRITER_CREATED);
+
+		boolean binaryEncoding = responseEncoding.getEncoding().isBinary();
+		if (theResource != null && !encodingDomainResourceAsText && (binaryEncoding || !hasWriterCreatedHooks)) {
+			// Binary encodings can't be written through a Writer at all, and textual encodings only need one
+			// if an interceptor wants to decorate it, so let the parser write straight to the response stream
+			FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
+			IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
+			String streamCharset = binaryEncoding ? null : charset;
+			OutputStream outputStream =
+					response.getResponseOutputStream(theStatusCode, contentType, streamCharset, respondGzip);
+			parser.encodeResourceToOutputStream(theResource, outputStream);
+			return response.commitResponse(outputStream);
+		}
+
 		Writer writer = response.getResponseWriter(theStatusCode, contentType, charset, respondGzip);
 
 		// Interceptor call: SERVER_OUTGOING_WRITER_CREATED
-		if (theServer.getInterceptorService() != null
-				&& theServer.getInterceptorService().hasHooks(Pointcut.SERVER_OUTGOING_WRITER_CREATED)) {
+		if (hasWriterCreatedHooks) {
 			HookParams params = new HookParams()
 					.add(Writer.class, writer)
 					.add(RequestDetails.class, theRequestDetails)
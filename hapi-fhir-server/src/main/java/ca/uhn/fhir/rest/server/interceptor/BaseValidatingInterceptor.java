@@ -21,7 +21,9 @@ package ca.uhn.fhir.rest.server.interceptor;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
 import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
@@ -35,7 +37,10 @@ import ca.uhn.fhir.validation.ResultSeverityEnum;
 import ca.uhn.fhir.validation.SingleValidationMessage;
 import ca.uhn.fhir.validation.ValidationOptions;
 import ca.uhn.fhir.validation.ValidationResult;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.text.StrLookup;
 import org.apache.commons.lang3.text.StrSubstitutor;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
@@ -44,6 +49,17 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -78,6 +94,14 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 	private List<IValidatorModule> myValidatorModules;
 	private FhirValidator myValidator;
 
+	private final Object myAsyncValidationUserDataKey = new Object();
+	private final Map<String, Double> myAsyncValidationSamplingRateByResourceType = new ConcurrentHashMap<>();
+	private final AtomicLong myAsyncValidationDroppedCount = new AtomicLong();
+	private Executor myAsyncValidationExecutor;
+	private ExecutorService myOwnedAsyncValidationExecutor;
+	private double myAsyncValidationSamplingRate = 1.0;
+	private Consumer<AsyncValidationResult> myAsyncValidationResultConsumer = BaseValidatingInterceptor::logAsyncResult;
+
 	private void addResponseIssueHeader(RequestDetails theRequestDetails, SingleValidationMessage theNext) {
 		// Perform any string substitutions from the message format
 		StrLookup<?> lookup = new MyLookup(theNext);
@@ -129,6 +153,15 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 
 	abstract ValidationResult doValidate(FhirValidator theValidator, T theRequest, ValidationOptions theOptions);
 
+	/**
+	 * Returns the input to validate asynchronously, which must not change once the request
+	 * has completed. The default implementation returns the input itself, which is
+	 * appropriate for inputs that are already immutable.
+	 */
+	T snapshotForAsyncValidation(FhirContext theFhirContext, T theInput) {
+		return theInput;
+	}
+
 	/**
 	 * Fail the request by throwing an {@link UnprocessableEntityException} as a result of a validation failure.
 	 * Subclasses may change this behaviour by providing alternate behaviour.
@@ -337,17 +370,7 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 			}
 		}
 
-		FhirValidator validator;
-		if (myValidator != null) {
-			validator = myValidator;
-		} else {
-			validator = theRequestDetails.getServer().getFhirContext().newValidator();
-			if (myValidatorModules != null) {
-				for (IValidatorModule next : myValidatorModules) {
-					validator.registerValidatorModule(next);
-				}
-			}
-		}
+		FhirValidator validator = provideValidator(theRequestDetails.getServer().getFhirContext());
 
 		ValidationResult validationResult;
 		try {
@@ -427,6 +450,282 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 		return validationResult;
 	}
 
+	private FhirValidator provideValidator(FhirContext theFhirContext) {
+		if (myValidator != null) {
+			return myValidator;
+		}
+		FhirValidator retVal = theFhirContext.newValidator();
+		if (myValidatorModules != null) {
+			for (IValidatorModule next : myValidatorModules) {
+				retVal.registerValidatorModule(next);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns <code>true</code> if asynchronous validation has been enabled using
+	 * {@link #setAsyncValidation(int, int)} or {@link #setAsyncValidationExecutor(Executor)}
+	 *
+	 * @since 8.6.0
+	 */
+	public boolean isAsyncValidation() {
+		return myAsyncValidationExecutor != null;
+	}
+
+	/**
+	 * Enables asynchronous validation using a bounded pool of background threads owned by
+	 * this interceptor.
+	 * <p>
+	 * In asynchronous mode, validation does not happen on the request thread. Instead, a
+	 * (sampled) subset of requests is queued for validation once processing of the request
+	 * has completed, and the results are passed to the consumer supplied to
+	 * {@link #setAsyncValidationResultConsumer(Consumer)}. Because the client has already
+	 * received its response by the time validation runs, the response headers, the
+	 * {@link #setFailOnSeverity(ResultSeverityEnum) fail on severity} setting, and the
+	 * {@link #postProcessResult(RequestDetails, ValidationResult)} hooks do not apply in
+	 * this mode. If the queue is full, the validation is skipped and counted in
+	 * {@link #getAsyncValidationDroppedCount()}.
+	 * </p>
+	 * <p>
+	 * Calling this method again (or {@link #setAsyncValidationExecutor(Executor)}) shuts down
+	 * the pool created by the previous call once its queued validations have completed.
+	 * </p>
+	 *
+	 * @param theThreadCount    The number of threads to validate on
+	 * @param theQueueCapacity The maximum number of validations waiting for a free thread
+	 * @since 8.6.0
+	 */
+	public void setAsyncValidation(int theThreadCount, int theQueueCapacity) {
+		Validate.isTrue(theThreadCount > 0, "theThreadCount must be greater than 0");
+		Validate.isTrue(theQueueCapacity > 0, "theQueueCapacity must be greater than 0");
+		BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+				.namingPattern(getClass().getSimpleName() + "-%d")
+				.daemon(true)
+				.build();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				theThreadCount,
+				theThreadCount,
+				60,
+				TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(theQueueCapacity),
+				threadFactory,
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		setAsyncValidationExecutor(executor);
+		myOwnedAsyncValidationExecutor = executor;
+	}
+
+	/**
+	 * Enables asynchronous validation using the given executor, or disables it if
+	 * <code>null</code> (which is the default). The executor should reject tasks with a
+	 * {@link RejectedExecutionException} when it is saturated, so that validation is shed
+	 * rather than queued without bound. The given executor is not shut down by this
+	 * interceptor.
+	 *
+	 * @see #setAsyncValidation(int, int)
+	 * @since 8.6.0
+	 */
+	public void setAsyncValidationExecutor(@Nullable Executor theExecutor) {
+		ExecutorService previous = myOwnedAsyncValidationExecutor;
+		myOwnedAsyncValidationExecutor = null;
+		myAsyncValidationExecutor = theExecutor;
+		if (previous != null && previous != theExecutor) {
+			previous.shutdown();
+		}
+	}
+
+	/**
+	 * The fraction of requests (between 0.0 and 1.0) which will be validated when
+	 * asynchronous validation is enabled, unless a rate has been specified for the resource
+	 * type using {@link #setAsyncValidationSamplingRate(String, double)}. Default is 1.0.
+	 * Sampling does not apply to synchronous validation.
+	 *
+	 * @since 8.6.0
+	 */
+	public double getAsyncValidationSamplingRate() {
+		return myAsyncValidationSamplingRate;
+	}
+
+	/**
+	 * The fraction of requests (between 0.0 and 1.0) which will be validated when
+	 * asynchronous validation is enabled, unless a rate has been specified for the resource
+	 * type using {@link #setAsyncValidationSamplingRate(String, double)}. Default is 1.0.
+	 * Sampling does not apply to synchronous validation.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setAsyncValidationSamplingRate(double theSamplingRate) {
+		validateSamplingRate(theSamplingRate);
+		myAsyncValidationSamplingRate = theSamplingRate;
+	}
+
+	/**
+	 * Sets the fraction of requests (between 0.0 and 1.0) for the given resource type which
+	 * will be validated when asynchronous validation is enabled, overriding
+	 * {@link #setAsyncValidationSamplingRate(double)}.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setAsyncValidationSamplingRate(@Nonnull String theResourceType, double theSamplingRate) {
+		Validate.notBlank(theResourceType, "theResourceType must not be blank");
+		validateSamplingRate(theSamplingRate);
+		myAsyncValidationSamplingRateByResourceType.put(theResourceType, theSamplingRate);
+	}
+
+	/**
+	 * Sets the consumer which receives the results of asynchronous validation. The consumer
+	 * is invoked on the validation thread. By default, any issues found are logged.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setAsyncValidationResultConsumer(@Nonnull Consumer<AsyncValidationResult> theConsumer) {
+		Validate.notNull(theConsumer, "theConsumer must not be null");
+		myAsyncValidationResultConsumer = theConsumer;
+	}
+
+	/**
+	 * Returns the number of sampled asynchronous validations which were skipped because the
+	 * executor was saturated
+	 *
+	 * @since 8.6.0
+	 */
+	public long getAsyncValidationDroppedCount() {
+		return myAsyncValidationDroppedCount.get();
+	}
+
+	/**
+	 * Queues the given input for asynchronous validation if it is selected by the sampling
+	 * rate. The validation is submitted to the executor once processing of the request has
+	 * completed.
+	 */
+	protected void scheduleAsyncValidation(
+			RequestDetails theRequestDetails, @Nullable String theResourceType, T theInput) {
+		if (theInput == null || theRequestDetails == null || !isAsyncValidation()) {
+			return;
+		}
+		RestOperationTypeEnum opType = theRequestDetails.getRestOperationType();
+		if (opType == RestOperationTypeEnum.GRAPHQL_REQUEST) {
+			return;
+		}
+
+		double samplingRate = myAsyncValidationSamplingRate;
+		if (theResourceType != null) {
+			samplingRate = myAsyncValidationSamplingRateByResourceType.getOrDefault(theResourceType, samplingRate);
+		}
+		if (samplingRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= samplingRate) {
+			return;
+		}
+
+		// Capture everything we need now, since the request details may be recycled once the request completes
+		FhirContext fhirContext = theRequestDetails.getServer().getFhirContext();
+		T input = snapshotForAsyncValidation(fhirContext, theInput);
+		String requestId = theRequestDetails.getRequestId();
+		String completeUrl = theRequestDetails.getCompleteUrl();
+		Runnable task = () -> {
+			try {
+				FhirValidator validator = provideValidator(fhirContext);
+				ValidationResult result = doValidate(validator, input, new ValidationOptions());
+				myAsyncValidationResultConsumer.accept(
+						new AsyncValidationResult(theResourceType, requestId, opType, completeUrl, result));
+			} catch (Exception e) {
+				ourLog.warn("Asynchronous validation of request {} failed", requestId, e);
+			}
+		};
+		theRequestDetails.getUserData().put(myAsyncValidationUserDataKey, task);
+	}
+
+	/**
+	 * Submits any asynchronous validation queued by
+	 * {@link #scheduleAsyncValidation(RequestDetails, String, Object)} for the request.
+	 * This method is not intended to be called by client code.
+	 */
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void submitAsyncValidation(RequestDetails theRequestDetails) {
+		Runnable task = (Runnable) theRequestDetails.getUserData().remove(myAsyncValidationUserDataKey);
+		Executor executor = myAsyncValidationExecutor;
+		if (task == null || executor == null) {
+			return;
+		}
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			long dropped = myAsyncValidationDroppedCount.incrementAndGet();
+			ourLog.debug(
+					"Asynchronous validation queue is full, skipping validation of request {} ({} skipped in total)",
+					theRequestDetails.getRequestId(),
+					dropped);
+		}
+	}
+
+	private static void validateSamplingRate(double theSamplingRate) {
+		Validate.isTrue(
+				theSamplingRate >= 0.0 && theSamplingRate <= 1.0, "theSamplingRate must be between 0.0 and 1.0");
+	}
+
+	private static void logAsyncResult(AsyncValidationResult theResult) {
+		if (!theResult.getValidationResult().getMessages().isEmpty()) {
+			ourLog.info(
+					"Asynchronous validation of request {} ({}) found issues:\n{}",
+					theResult.getRequestId(),
+					theResult.getCompleteUrl(),
+					theResult.getValidationResult());
+		}
+	}
+
+	/**
+	 * The result of a validation performed in asynchronous mode
+	 *
+	 * @see #setAsyncValidationResultConsumer(Consumer)
+	 * @since 8.6.0
+	 */
+	public static class AsyncValidationResult {
+
+		private final String myResourceType;
+		private final String myRequestId;
+		private final RestOperationTypeEnum myOperationType;
+		private final String myCompleteUrl;
+		private final ValidationResult myValidationResult;
+
+		public AsyncValidationResult(
+				String theResourceType,
+				String theRequestId,
+				RestOperationTypeEnum theOperationType,
+				String theCompleteUrl,
+				ValidationResult theValidationResult) {
+			myResourceType = theResourceType;
+			myRequestId = theRequestId;
+			myOperationType = theOperationType;
+			myCompleteUrl = theCompleteUrl;
+			myValidationResult = theValidationResult;
+		}
+
+		/**
+		 * The type of the validated resource, if known
+		 */
+		@Nullable
+		public String getResourceType() {
+			return myResourceType;
+		}
+
+		public String getRequestId() {
+			return myRequestId;
+		}
+
+		@Nullable
+		public RestOperationTypeEnum getOperationType() {
+			return myOperationType;
+		}
+
+		public String getCompleteUrl() {
+			return myCompleteUrl;
+		}
+
+		public ValidationResult getValidationResult() {
+			return myValidationResult;
+		}
+	}
+
 	private static class MyLookup extends StrLookup<String> {
 
 		private SingleValidationMessage myMessage;
@@ -77,6 +77,11 @@ public class RequestValidatingInterceptor extends BaseValidatingInterceptor<Stri
 			return true;
 		}
 
+		if (isAsyncValidation()) {
+			scheduleAsyncValidation(theRequestDetails, theRequestDetails.getResourceName(), requestText);
+			return true;
+		}
+
 		ValidationResult validationResult = validate(requestText, theRequestDetails);
 
 		if (myAddValidationResultsToResponseOperationOutcome) {
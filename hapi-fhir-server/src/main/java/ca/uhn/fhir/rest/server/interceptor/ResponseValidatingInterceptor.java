@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.rest.server.interceptor;
 
+import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.interceptor.api.Hook;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
@@ -66,6 +67,15 @@ public class ResponseValidatingInterceptor extends BaseValidatingInterceptor<IBa
 		return theValidator.validateWithResult(theRequest, theOptions);
 	}
 
+	/**
+	 * The response resource may still be modified after it has been returned (e.g. by other
+	 * interceptors, or because it is shared with a cache), so asynchronous validation uses a copy
+	 */
+	@Override
+	IBaseResource snapshotForAsyncValidation(FhirContext theFhirContext, IBaseResource theResponseObject) {
+		return theFhirContext.newTerser().clone(theResponseObject);
+	}
+
 	@Hook(Pointcut.SERVER_OUTGOING_RESPONSE)
 	public boolean outgoingResponse(RequestDetails theRequestDetails, IBaseResource theResponseObject) {
 		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
@@ -76,6 +86,13 @@ public class ResponseValidatingInterceptor extends BaseValidatingInterceptor<IBa
 			return true;
 		}
 
+		if (isAsyncValidation()) {
+			if (theResponseObject != null) {
+				scheduleAsyncValidation(theRequestDetails, theResponseObject.fhirType(), theResponseObject);
+			}
+			return true;
+		}
+
 		validate(theResponseObject, theRequestDetails);
 
 		return true;
@@ -19,26 +19,47 @@
  */
 package ca.uhn.fhir.rest.server.method;
 
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.api.BundleInclusionRule;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.BundleLinks;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.api.IVersionSpecificBundleFactory;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.IRestfulResponse;
 import ca.uhn.fhir.rest.api.server.IRestfulServer;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.IPagingProvider;
+import ca.uhn.fhir.rest.server.RestfulServer;
 import ca.uhn.fhir.rest.server.RestfulServerUtils;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.rest.server.servlet.ServletSubRequestDetails;
+import ca.uhn.fhir.util.DateUtils;
+import ca.uhn.fhir.util.IoUtil;
+import ca.uhn.fhir.util.StreamingBundleBuilder;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
@@ -48,12 +69,37 @@ import java.util.Objects;
 public class ResponseBundleBuilder {
 	private static final Logger ourLog = LoggerFactory.getLogger(ResponseBundleBuilder.class);
 
+	/**
+	 * Request parameters which change which resources or elements are returned in a way that depends
+	 * on the whole page, so the response is never streamed when these are present
+	 */
+	private static final List<String> STREAMING_UNSUPPORTED_PARAMS = List.of(
+			Constants.PARAM_SUMMARY,
+			Constants.PARAM_NARRATIVE,
+			Constants.PARAM_ELEMENTS,
+			Constants.PARAM_INCLUDE,
+			Constants.PARAM_REVINCLUDE);
+
 	private final boolean myIsOffsetModeHistory;
 
 	public ResponseBundleBuilder(boolean theIsOffsetModeHistory) {
 		myIsOffsetModeHistory = theIsOffsetModeHistory;
 	}
 
+	/**
+	 * Builds the response Bundle for the given request. If the response can be streamed (see
+	 * {@link RestfulServer#setSearchResponseStreamingChunkSize(int)}), it is instead written directly
+	 * to the response as the resources are loaded, and <code>null</code> is returned.
+	 */
+	@Nullable
+	IBaseBundle buildOrStreamResponseBundle(ResponseBundleRequest theResponseBundleRequest) {
+		int chunkSize = determineStreamingChunkSize(theResponseBundleRequest);
+		if (chunkSize > 0 && streamResponseBundle(theResponseBundleRequest, chunkSize)) {
+			return null;
+		}
+		return buildResponseBundle(theResponseBundleRequest);
+	}
+
 	IBaseBundle buildResponseBundle(ResponseBundleRequest theResponseBundleRequest) {
 		final ResponsePage responsePage = buildResponsePage(theResponseBundleRequest);
 
@@ -281,6 +327,184 @@ public class ResponseBundleBuilder {
 		return retval;
 	}
 
+	/**
+	 * Returns the chunk size to stream the response in, or <code>0</code> if the response must be
+	 * built as a complete Bundle because streaming could change its contents
+	 */
+	private int determineStreamingChunkSize(ResponseBundleRequest theResponseBundleRequest) {
+		final IRestfulServer<?> server = theResponseBundleRequest.server;
+		final RequestDetails requestDetails = theResponseBundleRequest.requestDetails;
+		final IBundleProvider bundleProvider = theResponseBundleRequest.bundleProvider;
+
+		if (!(server instanceof RestfulServer)) {
+			return 0;
+		}
+		int retVal = ((RestfulServer) server).getSearchResponseStreamingChunkSize();
+		if (retVal <= 0) {
+			return 0;
+		}
+
+		// Only stream top level requests, not requests nested in a transaction or batch
+		if (!(requestDetails instanceof ServletRequestDetails) || requestDetails instanceof ServletSubRequestDetails) {
+			return 0;
+		}
+
+		// Interceptors on these pointcuts may inspect or replace the complete response
+		IInterceptorBroadcaster interceptorBroadcaster = requestDetails.getInterceptorBroadcaster();
+		if (interceptorBroadcaster != null
+				&& (interceptorBroadcaster.hasHooks(Pointcut.SERVER_OUTGOING_RESPONSE)
+						|| interceptorBroadcaster.hasHooks(Pointcut.SERVER_OUTGOING_WRITER_CREATED))) {
+			return 0;
+		}
+
+		EncodingEnum encoding = RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails)
+				.getEncoding();
+		if (encoding != EncodingEnum.JSON && encoding != EncodingEnum.XML) {
+			return 0;
+		}
+
+		for (String nextParamName : requestDetails.getParameters().keySet()) {
+			for (String nextUnsupported : STREAMING_UNSUPPORTED_PARAMS) {
+				if (nextParamName.equals(nextUnsupported) || nextParamName.startsWith(nextUnsupported + ":")) {
+					return 0;
+				}
+			}
+		}
+
+		// Included resources are de-duplicated across the whole page
+		if ((theResponseBundleRequest.includes != null && !theResponseBundleRequest.includes.isEmpty())
+				|| server.getBundleInclusionRule() != BundleInclusionRule.BASED_ON_INCLUDES) {
+			return 0;
+		}
+
+		// The paging links are written before the resources are loaded, so they must not depend on them
+		if (myIsOffsetModeHistory
+				|| theResponseBundleRequest.requestedPage.offset != null
+				|| !server.canStoreSearchResults()
+				|| bundleProvider.size() == null
+				|| bundleProvider.getCurrentPageId() != null
+				|| bundleProvider.getCurrentPageOffset() != null) {
+			return 0;
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * Writes the Bundle envelope (including the total and the paging links) to the response, and then
+	 * loads the resources on the page in chunks, encoding and flushing each chunk before the next one
+	 * is loaded.
+	 *
+	 * @return <code>false</code> if the page is too small to be worth streaming, in which case nothing
+	 * has been written. Once anything has been written, failures are logged and the response is ended
+	 * without completing the Bundle, and <code>true</code> is returned so that no error response is
+	 * written on top of it.
+	 */
+	private boolean streamResponseBundle(ResponseBundleRequest theResponseBundleRequest, int theChunkSize) {
+		final IRestfulServer<?> server = theResponseBundleRequest.server;
+		final IBundleProvider bundleProvider = theResponseBundleRequest.bundleProvider;
+		final RequestDetails requestDetails = theResponseBundleRequest.requestDetails;
+		final Integer bundleSize = bundleProvider.size();
+
+		int pageSize = pagingCalculatePageSize(theResponseBundleRequest.requestedPage, server.getPagingProvider());
+		int numToReturn = Math.min(pageSize, bundleSize - theResponseBundleRequest.offset);
+		if (numToReturn <= theChunkSize) {
+			return false;
+		}
+
+		String searchId = pagingBuildSearchId(theResponseBundleRequest, numToReturn, bundleSize);
+		ResponsePage responsePage = new ResponsePage.ResponsePageBuilder()
+				.setSearchId(searchId)
+				.setPageSize(pageSize)
+				.setNumToReturn(numToReturn)
+				.setBundleProvider(bundleProvider)
+				.setResources(Collections.emptyList())
+				.build();
+		BundleLinks links = buildLinks(theResponseBundleRequest, responsePage);
+
+		FhirContext ctx = server.getFhirContext();
+		IRestfulResponse response = requestDetails.getResponse();
+
+		int statusCode = Constants.STATUS_HTTP_200_OK;
+		HttpServletResponse servletResponse = ((ServletRequestDetails) requestDetails).getServletResponse();
+		if (servletResponse != null && servletResponse.getStatus() > 0) {
+			statusCode = servletResponse.getStatus();
+		}
+
+		IPrimitiveType<Date> published = bundleProvider.getPublished();
+		if (published != null && !published.isEmpty()) {
+			response.addHeader(Constants.HEADER_LAST_MODIFIED, DateUtils.formatDate(published.getValue()));
+		}
+
+		String contentType = RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails)
+				.getResourceContentType();
+		Writer writer;
+		try {
+			writer = response.getResponseWriter(
+					statusCode, contentType, Constants.CHARSET_NAME_UTF8, requestDetails.isRespondGzip());
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2844) + "Failed to stream response Bundle: " + e.getMessage(), e);
+		}
+
+		/*
+		 * Once the writer has been obtained the status and the start of the Bundle may already have
+		 * been sent, so a failure can no longer be turned into an error response. Instead we log it and
+		 * end the response without completing the Bundle, so that the client sees an unparseable body
+		 * rather than a partial Bundle followed by an OperationOutcome.
+		 */
+		int fromIndex = theResponseBundleRequest.offset;
+		try {
+			IParser parser =
+					RestfulServerUtils.getNewParser(ctx, ctx.getVersion().getVersion(), requestDetails);
+
+			StreamingBundleBuilder bundleBuilder = new StreamingBundleBuilder(ctx, parser, writer);
+			IVersionSpecificBundleFactory bundleFactory = ctx.newBundleFactory();
+			bundleFactory.initializeWithBundleResource(bundleBuilder.getBundle());
+			bundleFactory.addRootPropertiesToBundle(
+					bundleProvider.getUuid(), links, bundleSize, bundleProvider.getPublished());
+
+			BaseRuntimeChildDefinition entryChild =
+					ctx.getResourceDefinition("Bundle").getChildByName("entry");
+			int toIndex = theResponseBundleRequest.offset + numToReturn;
+			for (; fromIndex < toIndex; fromIndex += theChunkSize) {
+				int chunkToIndex = Math.min(fromIndex + theChunkSize, toIndex);
+				List<IBaseResource> chunk =
+						bundleProvider.getResources(fromIndex, chunkToIndex, new ResponsePage.ResponsePageBuilder());
+				RestfulServerUtils.validateResourceListNotNull(chunk);
+				chunk = new ArrayList<>(chunk);
+				removeNulls(chunk);
+				validateIds(chunk);
+
+				// Build the entries using the bundle factory so that they are identical to a non-streamed
+				// response (the root properties supply the server base used for the entry full URLs)
+				IVersionSpecificBundleFactory chunkBundleFactory = ctx.newBundleFactory();
+				chunkBundleFactory.addRootPropertiesToBundle(null, links, null, null);
+				chunkBundleFactory.addResourcesToBundle(
+						chunk,
+						theResponseBundleRequest.bundleType,
+						links.serverBase,
+						server.getBundleInclusionRule(),
+						theResponseBundleRequest.includes);
+				for (IBase nextEntry : entryChild.getAccessor().getValues(chunkBundleFactory.getResourceBundle())) {
+					bundleBuilder.addEntry(nextEntry);
+				}
+				bundleBuilder.flush();
+			}
+
+			bundleBuilder.close();
+			response.commitResponse(writer);
+		} catch (RuntimeException | IOException e) {
+			ourLog.error(
+					"Failed to stream response Bundle for request {} at resource index {}, aborting the response",
+					requestDetails.getCompleteUrl(),
+					fromIndex,
+					e);
+			IoUtil.closeQuietly(writer);
+		}
+
+		return true;
+	}
+
 	private boolean isEverythingOperation(RequestDetails theRequest) {
 		return (theRequest.getRestOperationType() == RestOperationTypeEnum.EXTENDED_OPERATION_TYPE
 						|| theRequest.getRestOperationType() == RestOperationTypeEnum.EXTENDED_OPERATION_INSTANCE)
@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.provider;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.executor.InMemoryInterceptorHookMetricsRecorder;
+import ca.uhn.fhir.interceptor.executor.InMemoryInterceptorHookMetricsRecorder.HookStatistics;
+import ca.uhn.fhir.model.api.annotation.Description;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
+import ca.uhn.fhir.util.ParametersUtil;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseParameters;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * This provider implements the <code>$interceptor-stats</code> system-level operation, which
+ * reports the invocation counts and latency histogram for each interceptor hook as collected
+ * by an {@link InMemoryInterceptorHookMetricsRecorder}. Counts are reported as <code>decimal</code>
+ * values, since they may exceed the range of the FHIR <code>integer</code> datatype. The recorder must also be supplied to
+ * the server's interceptor service, e.g.
+ * <pre>
+ * InMemoryInterceptorHookMetricsRecorder recorder = new InMemoryInterceptorHookMetricsRecorder();
+ * ((InterceptorService) restfulServer.getInterceptorService()).setHookMetricsRecorder(recorder);
+ * restfulServer.registerProvider(new InterceptorStatsProvider(fhirContext, recorder));
+ * </pre>
+ * <p>
+ * This operation exposes details about the server's internals, so it should only be made
+ * available to administrators.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public class InterceptorStatsProvider {
+
+	private final FhirContext myFhirContext;
+	private final InMemoryInterceptorHookMetricsRecorder myHookMetricsRecorder;
+
+	/**
+	 * Constructor
+	 */
+	public InterceptorStatsProvider(
+			FhirContext theFhirContext, InMemoryInterceptorHookMetricsRecorder theHookMetricsRecorder) {
+		Validate.notNull(theFhirContext, "theFhirContext must not be null");
+		Validate.notNull(theHookMetricsRecorder, "theHookMetricsRecorder must not be null");
+		myFhirContext = theFhirContext;
+		myHookMetricsRecorder = theHookMetricsRecorder;
+	}
+
+	@Description(
+			value = "Returns invocation counts and latency statistics for each registered interceptor hook method",
+			shortDefinition = "Interceptor hook statistics")
+	@Operation(name = ProviderConstants.OPERATION_INTERCEPTOR_STATS, idempotent = true)
+	public IBaseParameters interceptorStats(
+			@Description(
+							value = "If specified, only hooks for the given pointcut are returned",
+							example = "STORAGE_PRESHOW_RESOURCES")
+					@OperationParam(
+							name = ProviderConstants.OPERATION_INTERCEPTOR_STATS_PARAM_POINTCUT,
+							typeName = "code",
+							min = 0,
+							max = 1)
+					IPrimitiveType<String> thePointcut) {
+		String pointcut = thePointcut != null ? thePointcut.getValueAsString() : null;
+		List<Long> bucketUpperBounds = InMemoryInterceptorHookMetricsRecorder.getBucketUpperBoundsMicros();
+
+		IBaseParameters retVal = ParametersUtil.newInstance(myFhirContext);
+		for (HookStatistics next : myHookMetricsRecorder.getStatistics()) {
+			if (isNotBlank(pointcut) && !pointcut.equals(next.getPointcutName())) {
+				continue;
+			}
+
+			IBase hook = ParametersUtil.addParameterToParameters(myFhirContext, retVal, "hook");
+			ParametersUtil.addPartCode(myFhirContext, hook, "pointcut", next.getPointcutName());
+			ParametersUtil.addPartString(myFhirContext, hook, "description", next.getHookDescription());
+			ParametersUtil.addPartLong(myFhirContext, hook, "invocationCount", next.getInvocationCount());
+			ParametersUtil.addPartLong(myFhirContext, hook, "failureCount", next.getFailureCount());
+			ParametersUtil.addPartDecimal(myFhirContext, hook, "totalMillis", toMillis(next.getTotalNanos()));
+			ParametersUtil.addPartDecimal(myFhirContext, hook, "meanMillis", toMillis(next.getMeanNanos()));
+			ParametersUtil.addPartDecimal(myFhirContext, hook, "maxMillis", toMillis(next.getMaxNanos()));
+
+			List<Long> bucketCounts = next.getBucketCounts();
+			for (int i = 0; i < bucketCounts.size(); i++) {
+				IBase bucket = ParametersUtil.createPart(myFhirContext, hook, "latencyBucket");
+				if (i < bucketUpperBounds.size()) {
+					ParametersUtil.addPartLong(myFhirContext, bucket, "upperBoundMicros", bucketUpperBounds.get(i));
+				}
+				ParametersUtil.addPartLong(myFhirContext, bucket, "count", bucketCounts.get(i));
+			}
+		}
+
+		return retVal;
+	}
+
+	private static double toMillis(long theNanos) {
+		return theNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
@@ -136,6 +136,20 @@ public class ProviderConstants {
 	 */
 	public static final String OPERATION_EXPUNGE = "$expunge";
 
+	/**
+	 * Operation name for the $interceptor-stats operation
+	 *
+	 * @since 8.6.0
+	 */
+	public static final String OPERATION_INTERCEPTOR_STATS = "$interceptor-stats";
+
+	/**
+	 * Parameter name for the $interceptor-stats operation
+	 *
+	 * @since 8.6.0
+	 */
+	public static final String OPERATION_INTERCEPTOR_STATS_PARAM_POINTCUT = "pointcut";
+
 	/**
 	 * Parameter name for the $expunge operation
 	 */
@@ -23,6 +23,7 @@ import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.server.BaseRestfulResponse;
 import ca.uhn.fhir.util.IoUtil;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
@@ -69,6 +70,27 @@ public class ServletRestfulResponse extends BaseRestfulResponse<ServletRequestDe
 		return myOutputStream;
 	}
 
+	@Nonnull
+	@Override
+	public OutputStream getResponseOutputStream(
+			int theStatusCode, String theContentType, @Nullable String theCharset, boolean theRespondGzip)
+			throws IOException {
+		Validate.isTrue(myWriter == null, "getResponseOutputStream() called after getResponseWriter()");
+		Validate.isTrue(myOutputStream == null, "getResponseOutputStream() called multiple times");
+
+		addHeaders();
+		HttpServletResponse httpResponse = getRequestDetails().getServletResponse();
+		httpResponse.setStatus(theStatusCode);
+		httpResponse.setContentType(theContentType);
+		httpResponse.setCharacterEncoding(theCharset);
+		myOutputStream = httpResponse.getOutputStream();
+		if (theRespondGzip) {
+			httpResponse.addHeader(Constants.HEADER_CONTENT_ENCODING, Constants.ENCODING_GZIP);
+			myOutputStream = new GZIPOutputStream(myOutputStream);
+		}
+		return myOutputStream;
+	}
+
 	@Nonnull
 	@Override
 	public Writer getResponseWriter(int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip)
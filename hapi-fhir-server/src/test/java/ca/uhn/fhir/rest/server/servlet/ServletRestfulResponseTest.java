@@ -1,8 +1,12 @@
 package ca.uhn.fhir.rest.server.servlet;
 
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.server.RestfulServer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,12 +15,19 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests of {@link ServletRestfulResponse}.
@@ -54,6 +65,39 @@ public class ServletRestfulResponseTest {
 		verify(servletResponse).setHeader(eq("Cache-Control"), eq("no-cache, no-store"));
 	}
 
+	@Test
+	public void testGetResponseOutputStream_Textual() throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		when(servletResponse.getOutputStream()).thenReturn(new CapturingServletOutputStream(body));
+
+		final ServletRestfulResponse response = new ServletRestfulResponse(requestDetails);
+		OutputStream outputStream = response.getResponseOutputStream(200, Constants.CT_FHIR_JSON_NEW, "UTF-8", false);
+		outputStream.write("{\"resourceType\":\"Patient\"}".getBytes(StandardCharsets.UTF_8));
+		response.commitResponse(outputStream);
+
+		verify(servletResponse).setStatus(200);
+		verify(servletResponse).setContentType(Constants.CT_FHIR_JSON_NEW);
+		verify(servletResponse).setCharacterEncoding("UTF-8");
+		verify(servletResponse, never()).addHeader(eq(Constants.HEADER_CONTENT_ENCODING), eq(Constants.ENCODING_GZIP));
+		assertEquals("{\"resourceType\":\"Patient\"}", body.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testGetResponseOutputStream_Gzip() throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		when(servletResponse.getOutputStream()).thenReturn(new CapturingServletOutputStream(body));
+
+		final ServletRestfulResponse response = new ServletRestfulResponse(requestDetails);
+		OutputStream outputStream = response.getResponseOutputStream(200, Constants.CT_FHIR_JSON_NEW, "UTF-8", true);
+		outputStream.write("{\"resourceType\":\"Patient\"}".getBytes(StandardCharsets.UTF_8));
+		response.commitResponse(outputStream);
+
+		verify(servletResponse).addHeader(eq(Constants.HEADER_CONTENT_ENCODING), eq(Constants.ENCODING_GZIP));
+		String unzipped = IOUtils.toString(
+				new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())), StandardCharsets.UTF_8);
+		assertEquals("{\"resourceType\":\"Patient\"}", unzipped);
+	}
+
 	@Test
 	public void testSanitizeHeaderField() {
 		assertEquals("AB", ServletRestfulResponse.sanitizeHeaderField("A\nB"));
@@ -61,4 +105,27 @@ public class ServletRestfulResponseTest {
 		assertEquals("AB", ServletRestfulResponse.sanitizeHeaderField("AB"));
 	}
 
+	private static class CapturingServletOutputStream extends ServletOutputStream {
+		private final OutputStream myTarget;
+
+		private CapturingServletOutputStream(OutputStream theTarget) {
+			myTarget = theTarget;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener theWriteListener) {
+			// nothing
+		}
+
+		@Override
+		public void write(int theByte) throws IOException {
+			myTarget.write(theByte);
+		}
+	}
+
 }
@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.batch2.jobs.bulkmodify.patch;
 
+import ca.uhn.fhir.jpa.patch.CompiledFhirPatch;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 public class BulkPatchModificationContext {
@@ -27,9 +28,20 @@ public class BulkPatchModificationContext {
 		return myPatch;
 	}
 
+	/**
+	 * Returns the patch, compiled so that it can be applied efficiently to every resource in the chunk
+	 *
+	 * @since 8.6.0
+	 */
+	public CompiledFhirPatch getCompiledPatch() {
+		return myCompiledPatch;
+	}
+
 	private final IBaseResource myPatch;
+	private final CompiledFhirPatch myCompiledPatch;
 
-	public BulkPatchModificationContext(IBaseResource thePatch) {
+	public BulkPatchModificationContext(IBaseResource thePatch, CompiledFhirPatch theCompiledPatch) {
 		myPatch = thePatch;
+		myCompiledPatch = theCompiledPatch;
 	}
 }
@@ -24,9 +24,11 @@ import ca.uhn.fhir.batch2.jobs.bulkmodify.framework.api.ResourceModificationResp
 import ca.uhn.fhir.batch2.jobs.bulkmodify.framework.base.BaseBulkModifyResourcesStep;
 import ca.uhn.fhir.batch2.jobs.chunk.TypedPidAndVersionJson;
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.patch.CompiledFhirPatch;
 import ca.uhn.fhir.jpa.patch.FhirPatch;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBaseParameters;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -49,7 +51,9 @@ public class BulkPatchModifyResourcesStep<PT extends BulkPatchJobParameters>
 	protected BulkPatchModificationContext preModifyResources(
 			PT theJobParameters, List<TypedPidAndVersionJson> thePids) {
 		IBaseResource patch = theJobParameters.getFhirPatch(myFhirContext);
-		return new BulkPatchModificationContext(patch);
+		// Compile once per chunk so that the patch paths aren't re-parsed for every resource
+		CompiledFhirPatch compiledPatch = new FhirPatch(myFhirContext).compile((IBaseParameters) patch);
+		return new BulkPatchModificationContext(patch, compiledPatch);
 	}
 
 	@Nonnull
@@ -59,8 +63,7 @@ public class BulkPatchModifyResourcesStep<PT extends BulkPatchJobParameters>
 			BulkPatchModificationContext theModificationContext,
 			@Nonnull ResourceModificationRequest theModificationRequest) {
 		IBaseResource resourceToPatch = theModificationRequest.getResource();
-		IBaseResource patchToApply = theModificationContext.getPatch();
-		new FhirPatch(myFhirContext).apply(resourceToPatch, patchToApply);
+		theModificationContext.getCompiledPatch().apply(resourceToPatch);
 		return ResourceModificationResponse.updateResource(resourceToPatch);
 	}
 
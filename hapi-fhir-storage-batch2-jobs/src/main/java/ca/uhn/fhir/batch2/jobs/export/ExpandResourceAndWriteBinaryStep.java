@@ -48,7 +48,7 @@ import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryResourceMatcher;
 import ca.uhn.fhir.jpa.util.RandomTextUtils;
-import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.NDJsonParser;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
@@ -546,15 +546,18 @@ public class ExpandResourceAndWriteBinaryStep
 			}
 
 			// encode them - Key is resource type, Value is a collection of serialized resources of that type
-			IParser parser = getParser(parameters);
+			NDJsonParser parser = getParser(parameters);
+			List<String> encodedResources = new ArrayList<>(theResources.size());
+			parser.encodeResources(theResources, encodedResources::add);
 
 			ListMultimap<String, String> resourceTypeToStringifiedResources = ArrayListMultimap.create();
 			Map<String, Integer> resourceTypeToTotalSize = new HashMap<>();
-			for (IBaseResource resource : theResources) {
+			for (int i = 0; i < theResources.size(); i++) {
+				IBaseResource resource = theResources.get(i);
 				String type = myFhirContext.getResourceType(resource);
 				int existingSize = resourceTypeToTotalSize.getOrDefault(type, 0);
 
-				String jsonResource = parser.encodeResourceToString(resource);
+				String jsonResource = encodedResources.get(i);
 				int newSize = existingSize + jsonResource.length();
 
 				// If adding another stringified resource to the list for the given type
@@ -650,11 +653,13 @@ public class ExpandResourceAndWriteBinaryStep
 			return false;
 		}
 
-		private IParser getParser(@SuppressWarnings("unused") BulkExportJobParameters theParameters) {
+		private NDJsonParser getParser(@SuppressWarnings("unused") BulkExportJobParameters theParameters) {
 			// The parser depends on the output format
 			// but for now, only ndjson is supported
 			// see WriteBinaryStep as well
-			return myFhirContext.newJsonParser().setPrettyPrint(false);
+			NDJsonParser retVal = (NDJsonParser) myFhirContext.newNDJsonParser();
+			retVal.setParallelism(myStorageSettings.getBulkDataNdJsonParallelism());
+			return retVal;
 		}
 	}
 
@@ -42,7 +42,7 @@ import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryResourceMatcher;
-import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.NDJsonParser;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.rest.api.server.bulk.BulkExportJobParameters;
@@ -293,23 +293,26 @@ public class ExpandResourcesStep
 	 */
 	private ListMultimap<String, String> encodeToString(
 			List<IBaseResource> theResources, BulkExportJobParameters theParameters) {
-		IParser parser = getParser(theParameters);
+		NDJsonParser parser = getParser(theParameters);
 
 		ListMultimap<String, String> retVal = ArrayListMultimap.create();
-		for (IBaseResource resource : theResources) {
-			String type = myFhirContext.getResourceType(resource);
-			String jsonResource = parser.encodeResourceToString(resource);
+		// Encoded resources are delivered in the same order as the input
+		Iterator<IBaseResource> resources = theResources.iterator();
+		parser.encodeResources(theResources, jsonResource -> {
+			String type = myFhirContext.getResourceType(resources.next());
 			retVal.put(type, jsonResource);
-		}
+		});
 		return retVal;
 	}
 
-	private IParser getParser(BulkExportJobParameters theParameters) {
+	private NDJsonParser getParser(BulkExportJobParameters theParameters) {
 		// The parser depends on the
 		// output format
 		// (but for now, only ndjson is supported
 		// see WriteBinaryStep as well
-		return myFhirContext.newJsonParser().setPrettyPrint(false);
+		NDJsonParser retVal = (NDJsonParser) myFhirContext.newNDJsonParser();
+		retVal.setParallelism(myStorageSettings.getBulkDataNdJsonParallelism());
+		return retVal;
 	}
 
 	@VisibleForTesting
@@ -27,16 +27,16 @@ import ca.uhn.fhir.batch2.api.StepExecutionDetails;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirSystemDao;
 import ca.uhn.fhir.jpa.dao.TransactionUtil;
 import ca.uhn.fhir.jpa.util.TransactionSemanticsHeader;
 import ca.uhn.fhir.parser.DataFormatException;
-import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.NDJsonParser;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.util.BundleBuilder;
 import jakarta.annotation.Nonnull;
-import org.apache.commons.io.LineIterator;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
@@ -64,6 +64,9 @@ public class ConsumeFilesStepV2
 	@Autowired
 	private IFhirSystemDao mySystemDao;
 
+	@Autowired
+	private JpaStorageSettings myStorageSettings;
+
 	@Nonnull
 	@Override
 	public RunOutcome run(
@@ -74,20 +77,13 @@ public class ConsumeFilesStepV2
 		String ndjson = theStepExecutionDetails.getData().getNdJsonText();
 		String sourceName = theStepExecutionDetails.getData().getSourceName();
 
-		IParser jsonParser = myCtx.newJsonParser();
-		LineIterator lineIter = new LineIterator(new StringReader(ndjson));
+		NDJsonParser ndJsonParser = (NDJsonParser) myCtx.newNDJsonParser();
+		ndJsonParser.setParallelism(myStorageSettings.getBulkDataNdJsonParallelism());
 		List<IBaseResource> resources = new ArrayList<>();
-		while (lineIter.hasNext()) {
-			String next = lineIter.next();
-			if (isNotBlank(next)) {
-				IBaseResource parsed;
-				try {
-					parsed = jsonParser.parseResource(next);
-				} catch (DataFormatException e) {
-					throw new JobExecutionFailedException(Msg.code(2674) + "Failed to parse resource: " + e, e);
-				}
-				resources.add(parsed);
-			}
+		try {
+			ndJsonParser.parseResources(new StringReader(ndjson), resources::add);
+		} catch (DataFormatException e) {
+			throw new JobExecutionFailedException(Msg.code(2674) + "Failed to parse resource: " + e, e);
 		}
 
 		ourLog.info("Bulk loading {} resources from source {}", resources.size(), sourceName);
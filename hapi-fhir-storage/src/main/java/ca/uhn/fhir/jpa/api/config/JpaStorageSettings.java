@@ -341,6 +341,10 @@ public class JpaStorageSettings extends StorageSettings {
 	 * Since 7.2.0
 	 */
 	private long myBulkExportFileMaximumSize = DEFAULT_BULK_EXPORT_MAXIMUM_WORK_CHUNK_SIZE;
+	/**
+	 * Since 8.6.0
+	 */
+	private int myBulkDataNdJsonParallelism = 1;
 	/**
 	 * Since 6.4.0
 	 */
@@ -2514,6 +2518,31 @@ public class JpaStorageSettings extends StorageSettings {
 		myBulkExportFileMaximumSize = theBulkExportFileMaximumSize;
 	}
 
+	/**
+	 * Specifies the maximum number of parallel tasks used to parse and encode individual NDJSON lines
+	 * while processing a bulk import or bulk export work chunk. Lines are always processed and
+	 * written in their original order. The default is <code>1</code>, meaning that lines are processed
+	 * sequentially on the batch worker thread.
+	 *
+	 * @since 8.6.0
+	 */
+	public int getBulkDataNdJsonParallelism() {
+		return myBulkDataNdJsonParallelism;
+	}
+
+	/**
+	 * Specifies the maximum number of parallel tasks used to parse and encode individual NDJSON lines
+	 * while processing a bulk import or bulk export work chunk. Lines are always processed and
+	 * written in their original order. The default is <code>1</code>, meaning that lines are processed
+	 * sequentially on the batch worker thread.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setBulkDataNdJsonParallelism(int theBulkDataNdJsonParallelism) {
+		Validate.isTrue(theBulkDataNdJsonParallelism >= 1, "theBulkDataNdJsonParallelism must be at least 1");
+		myBulkDataNdJsonParallelism = theBulkDataNdJsonParallelism;
+	}
+
 	/**
 	 * If this setting is enabled, then gated batch jobs that produce only one chunk will immediately trigger a batch
 	 * maintenance job.  This may be useful for testing, but is not recommended for production use.
@@ -0,0 +1,65 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.patch;
+
+import ca.uhn.fhir.fhirpath.IFhirPath;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.List;
+
+/**
+ * A FHIRPatch document which has been compiled by {@link FhirPatch#compile(org.hl7.fhir.instance.model.api.IBaseParameters)}
+ * so that it can be applied to many resources efficiently. Instances are thread-safe.
+ * <p>
+ * Note that, as with {@link FhirPatch#apply(IBaseResource, IBaseResource)}, values supplied in the patch
+ * document may be added directly to the patched resources rather than being copied.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public class CompiledFhirPatch {
+
+	private final FhirPatch myFhirPatch;
+	private final List<FhirPatch.PatchOperation> myOperations;
+	private final IFhirPath myFhirPath;
+	private final FhirPatch.PathCache myPathCache;
+
+	CompiledFhirPatch(
+			FhirPatch theFhirPatch,
+			List<FhirPatch.PatchOperation> theOperations,
+			IFhirPath theFhirPath,
+			FhirPatch.PathCache thePathCache) {
+		myFhirPatch = theFhirPatch;
+		myOperations = List.copyOf(theOperations);
+		myFhirPath = theFhirPath;
+		myPathCache = thePathCache;
+	}
+
+	/**
+	 * Apply the patch against the given resource.
+	 *
+	 * @param theResource The resource to patch. This object will be modified in-place.
+	 * @throws InvalidRequestException If the patch can not be applied to the resource
+	 */
+	public void apply(IBaseResource theResource) {
+		myFhirPatch.applyCompiled(theResource, myOperations, myFhirPath, myPathCache);
+	}
+}
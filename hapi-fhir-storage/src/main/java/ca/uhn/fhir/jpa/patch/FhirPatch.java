@@ -37,6 +37,7 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseEnumeration;
 import org.hl7.fhir.instance.model.api.IBaseExtension;
@@ -55,10 +56,13 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -118,8 +122,50 @@ public class FhirPatch {
 	public void apply(IBaseResource theResource, IBaseResource thePatch) {
 		PatchOutcome retVal = new PatchOutcome();
 		doApply(theResource, thePatch, retVal);
-		if (retVal.hasErrors()) {
-			throw new InvalidRequestException(Msg.code(1267) + retVal.getErrors());
+		throwIfHasErrors(retVal);
+	}
+
+	/**
+	 * Compiles the given patch document into a reusable {@link CompiledFhirPatch}. The operations
+	 * in the patch are validated, their parameters are extracted, and their FHIRPath expressions
+	 * are parsed once, so that the returned object can be applied to any number of resources
+	 * without repeating this work. This is much cheaper than calling
+	 * {@link #apply(IBaseResource, IBaseResource)} for every resource when the same patch is
+	 * applied many times (e.g. by a bulk patch job).
+	 *
+	 * @param thePatch The patch document.
+	 * @return A compiled patch, which is thread-safe
+	 * @throws InvalidRequestException If the patch document is not valid
+	 * @since 8.6.0
+	 */
+	public CompiledFhirPatch compile(IBaseParameters thePatch) {
+		PatchOutcome outcome = new PatchOutcome();
+		IFhirPath fhirPath = myContext.newFhirPath();
+		PathCache pathCache = new PathCache();
+		List<PatchOperation> operations = new ArrayList<>();
+		compileOperations(thePatch, fhirPath, pathCache, outcome, operations::add);
+		throwIfHasErrors(outcome);
+		return new CompiledFhirPatch(this, operations, fhirPath, pathCache);
+	}
+
+	/**
+	 * Applies operations previously produced by {@link #compile(IBaseParameters)}
+	 */
+	void applyCompiled(
+			IBaseResource theResource,
+			List<PatchOperation> theOperations,
+			IFhirPath theFhirPath,
+			PathCache thePathCache) {
+		PatchOutcome outcome = new PatchOutcome();
+		for (PatchOperation nextOperation : theOperations) {
+			applyOperation(theResource, nextOperation, theFhirPath, thePathCache, outcome);
+		}
+		throwIfHasErrors(outcome);
+	}
+
+	private static void throwIfHasErrors(PatchOutcome theOutcome) {
+		if (theOutcome.hasErrors()) {
+			throw new InvalidRequestException(Msg.code(1267) + theOutcome.getErrors());
 		}
 	}
 
@@ -128,99 +174,210 @@ public class FhirPatch {
 	 */
 	private void doApply(
 			@Nullable IBaseResource theResource, @Nonnull IBaseResource thePatch, PatchOutcome theOutcome) {
+		IFhirPath fhirPath = myContext.newFhirPath();
+		PathCache pathCache = new PathCache();
+		compileOperations(thePatch, fhirPath, pathCache, theOutcome, operation -> {
+			if (theResource != null) {
+				applyOperation(theResource, operation, fhirPath, pathCache, theOutcome);
+			}
+		});
+	}
+
+	/**
+	 * Compiles each operation in the patch in order, passing each valid one to the given
+	 * consumer before moving on to the next.
+	 */
+	private void compileOperations(
+			IBaseResource thePatch,
+			IFhirPath theFhirPath,
+			PathCache thePathCache,
+			PatchOutcome theOutcome,
+			Consumer<PatchOperation> theConsumer) {
 		Multimap<String, IBase> namedParameters = ParametersUtil.getNamedParameters(myContext, thePatch);
 		for (Map.Entry<String, IBase> namedParameterEntry : namedParameters.entries()) {
 			if (namedParameterEntry.getKey().equals(PARAMETER_OPERATION)) {
-				IBase nextOperation = namedParameterEntry.getValue();
-				String type = ParametersUtil.getParameterPartValueAsString(myContext, nextOperation, PARAMETER_TYPE);
-				type = defaultString(type);
-
-				if (OPERATION_DELETE.equals(type)) {
-					handleDeleteOperation(theResource, nextOperation, theOutcome);
-				} else if (OPERATION_ADD.equals(type)) {
-					handleAddOperation(theResource, nextOperation, theOutcome);
-				} else if (OPERATION_REPLACE.equals(type)) {
-					handleReplaceOperation(theResource, nextOperation, theOutcome);
-				} else if (OPERATION_INSERT.equals(type)) {
-					handleInsertOperation(theResource, nextOperation, theOutcome);
-				} else if (OPERATION_MOVE.equals(type)) {
-					handleMoveOperation(theResource, nextOperation);
-				} else {
-					theOutcome.addError("Unknown patch operation type: " + type);
+				PatchOperation operation =
+						compileOperation(namedParameterEntry.getValue(), theFhirPath, thePathCache, theOutcome);
+				if (operation != null) {
+					theConsumer.accept(operation);
 				}
-
 			} else {
 				theOutcome.addError("Unknown patch parameter name: " + namedParameterEntry.getKey());
 			}
 		}
 	}
 
-	private void handleAddOperation(@Nullable IBaseResource theResource, IBase theParameters, PatchOutcome theOutcome) {
+	/**
+	 * Extracts and validates the parameters of a single operation.
+	 *
+	 * @return Returns <code>null</code> if the operation is invalid, in which case an error has been added to the outcome
+	 */
+	@Nullable
+	private PatchOperation compileOperation(
+			IBase theOperation, IFhirPath theFhirPath, PathCache thePathCache, PatchOutcome theOutcome) {
+		String type = ParametersUtil.getParameterPartValueAsString(myContext, theOperation, PARAMETER_TYPE);
+		type = defaultString(type);
+		String path = ParametersUtil.getParameterPartValueAsString(myContext, theOperation, PARAMETER_PATH);
+		path = defaultString(path);
 
-		String path = ParametersUtil.getParameterPartValueAsString(myContext, theParameters, PARAMETER_PATH);
-		String elementName = ParametersUtil.getParameterPartValueAsString(myContext, theParameters, PARAMETER_NAME);
+		PatchOperation retVal = new PatchOperation(type, path);
+		switch (type) {
+			case OPERATION_ADD -> {
+				retVal.myElementName =
+						ParametersUtil.getParameterPartValueAsString(myContext, theOperation, PARAMETER_NAME);
+				retVal.myContainingPath = path;
+				retVal.myContainingExpression = thePathCache.getExpression(theFhirPath, path);
+				extractValue(theOperation, retVal);
+			}
+			case OPERATION_INSERT -> {
+				int lastDot = path.lastIndexOf(".");
+				if (lastDot == -1) {
+					theOutcome.addError("Invalid path for insert operation (must point to a repeatable element): "
+							+ UrlUtil.sanitizeUrlPart(path));
+					return null;
+				}
+				retVal.myContainingPath = path.substring(0, lastDot);
+				retVal.myElementName = path.substring(lastDot + 1);
+				retVal.myIndex = ParametersUtil.getParameterPartValueAsInteger(myContext, theOperation, PARAMETER_INDEX)
+						.orElseThrow(() -> new InvalidRequestException("No index supplied for insert operation"));
+				retVal.myContainingExpression = thePathCache.getExpression(theFhirPath, retVal.myContainingPath);
+				extractValue(theOperation, retVal);
+			}
+			case OPERATION_DELETE -> {
+				retVal.myAllowMultipleMatches = ParametersUtil.getParameterPartValueAsBoolean(
+								myContext, theOperation, PARAMETER_ALLOW_MULTIPLE_MATCHES)
+						.orElse(Boolean.FALSE);
+				retVal.myParsedPath = thePathCache.getParsedFhirPath(path);
+				if (retVal.myParsedPath.endsWithFilterOrIndex()) {
+					retVal.myContainingPath = retVal.myParsedPath.getContainingPath();
+				} else {
+					retVal.myContainingPath = path;
+				}
+				retVal.myContainingExpression = thePathCache.getExpression(theFhirPath, retVal.myContainingPath);
+				retVal.myPathExpression = thePathCache.getExpression(theFhirPath, path);
+			}
+			case OPERATION_REPLACE -> {
+				// TODO
+				/*
+				 * We should replace this with
+				 * IParsedExpression to expose the parsed parts of the
+				 * path (including functional nodes).
+				 *
+				 * Alternatively, could make an Antir parser using
+				 * the exposed grammar (http://hl7.org/fhirpath/N1/grammar.html)
+				 *
+				 * Might be required for more complex handling.
+				 */
+				thePathCache.getExpression(theFhirPath, path);
+				retVal.myParsedPath = thePathCache.getParsedFhirPath(path);
+
+				List<ParsedFhirPath.FhirPathNode> pathNodes = new ArrayList<>();
+				retVal.myParsedPath.getAllNodesWithPred(pathNodes, ParsedFhirPath.FhirPathNode::isNormalPathNode);
+				List<String> parts = new ArrayList<>();
+				for (ParsedFhirPath.FhirPathNode node : pathNodes) {
+					parts.add(node.getValue());
+				}
+				retVal.myPathParts = Collections.unmodifiableList(parts);
+				extractValue(theOperation, retVal);
+			}
+			case OPERATION_MOVE -> {
+				int lastDot = path.lastIndexOf(".");
+				retVal.myContainingPath = path.substring(0, lastDot);
+				retVal.myElementName = path.substring(lastDot + 1);
+				retVal.myIndex = ParametersUtil.getParameterPartValueAsInteger(
+								myContext, theOperation, PARAMETER_DESTINATION)
+						.orElseThrow(() -> new InvalidRequestException("No index supplied for move operation"));
+				retVal.mySourceIndex = ParametersUtil.getParameterPartValueAsInteger(
+								myContext, theOperation, PARAMETER_SOURCE)
+						.orElseThrow(() -> new InvalidRequestException("No index supplied for move operation"));
+				retVal.myContainingExpression = thePathCache.getExpression(theFhirPath, retVal.myContainingPath);
+			}
+			default -> {
+				theOutcome.addError("Unknown patch operation type: " + type);
+				return null;
+			}
+		}
+		return retVal;
+	}
 
-		String containingPath = defaultString(path);
-		IFhirPath fhirPath = myContext.newFhirPath();
-		IFhirPath.IParsedExpression parsedExpression = parseFhirPathExpression(fhirPath, containingPath);
+	private void extractValue(IBase theOperation, PatchOperation theTarget) {
+		theTarget.myValue = ParametersUtil.getParameterPartValue(myContext, theOperation, PARAMETER_VALUE)
+				.orElse(null);
+		if (theTarget.myValue == null) {
+			theTarget.myValueParts = ParametersUtil.getParameterPart(myContext, theOperation, PARAMETER_VALUE)
+					.map(this::extractPartsFromPart)
+					.orElse(null);
+		}
+	}
 
-		if (theResource == null) {
-			return;
+	private void applyOperation(
+			IBaseResource theResource,
+			PatchOperation theOperation,
+			IFhirPath theFhirPath,
+			PathCache thePathCache,
+			PatchOutcome theOutcome) {
+		switch (theOperation.myType) {
+			case OPERATION_DELETE -> handleDeleteOperation(theResource, theOperation, theFhirPath, theOutcome);
+			case OPERATION_ADD -> handleAddOperation(theResource, theOperation, theFhirPath, thePathCache, theOutcome);
+			case OPERATION_REPLACE -> handleReplaceOperation(
+					theResource, theOperation, theFhirPath, thePathCache, theOutcome);
+			case OPERATION_INSERT -> handleInsertOperation(
+					theResource, theOperation, theFhirPath, thePathCache, theOutcome);
+			case OPERATION_MOVE -> handleMoveOperation(theResource, theOperation, theFhirPath, thePathCache);
+			default -> throw new IllegalStateException(Msg.code(2835) + "Unknown operation: " + theOperation.myType);
 		}
+	}
 
-		List<IBase> containingElements = fhirPath.evaluate(theResource, parsedExpression, IBase.class);
+	private void handleAddOperation(
+			IBaseResource theResource,
+			PatchOperation theOperation,
+			IFhirPath theFhirPath,
+			PathCache thePathCache,
+			PatchOutcome theOutcome) {
+		List<IBase> containingElements =
+				theFhirPath.evaluate(theResource, theOperation.myContainingExpression, IBase.class);
 		for (IBase nextElement : containingElements) {
-			ChildDefinition childDefinition = findChildDefinition(nextElement, elementName);
+			ChildDefinition childDefinition =
+					thePathCache.getChildDefinition(this, nextElement, theOperation.myElementName);
 
-			IBase newValue = getNewValue(theParameters, childDefinition);
+			IBase newValue = getNewValue(theOperation, childDefinition);
 
 			childDefinition.getUseableChildDef().getMutator().addValue(nextElement, newValue);
 		}
 
 		if (containingElements.isEmpty()) {
-			theOutcome.addError("No content found at " + containingPath + " when adding");
+			theOutcome.addError("No content found at " + theOperation.myContainingPath + " when adding");
 		}
 	}
 
 	private void handleInsertOperation(
-			@Nullable IBaseResource theResource, IBase theParameters, PatchOutcome theOutcome) {
-
-		String path = ParametersUtil.getParameterPartValueAsString(myContext, theParameters, PARAMETER_PATH);
-		path = defaultString(path);
-
-		int lastDot = path.lastIndexOf(".");
-		if (lastDot == -1) {
-			theOutcome.addError("Invalid path for insert operation (must point to a repeatable element): "
-					+ UrlUtil.sanitizeUrlPart(path));
-			return;
-		}
-
-		String containingPath = path.substring(0, lastDot);
-		String elementName = path.substring(lastDot + 1);
-		Integer insertIndex = ParametersUtil.getParameterPartValueAsInteger(myContext, theParameters, PARAMETER_INDEX)
-				.orElseThrow(() -> new InvalidRequestException("No index supplied for insert operation"));
-
-		/*
-		 * If there is no resource, we're only validating the patch so we can bail now since validation
-		 * is above
-		 */
-		if (theResource == null) {
-			return;
-		}
+			IBaseResource theResource,
+			PatchOperation theOperation,
+			IFhirPath theFhirPath,
+			PathCache thePathCache,
+			PatchOutcome theOutcome) {
+		Integer insertIndex = theOperation.myIndex;
 
-		List<IBase> containingElements = myContext.newFhirPath().evaluate(theResource, containingPath, IBase.class);
+		List<IBase> containingElements =
+				theFhirPath.evaluate(theResource, theOperation.myContainingExpression, IBase.class);
 		for (IBase nextElement : containingElements) {
 
-			ChildDefinition childDefinition = findChildDefinition(nextElement, elementName);
+			ChildDefinition childDefinition =
+					thePathCache.getChildDefinition(this, nextElement, theOperation.myElementName);
 
-			IBase newValue = getNewValue(theParameters, childDefinition);
+			IBase newValue = getNewValue(theOperation, childDefinition);
 
 			List<IBase> existingValues = new ArrayList<>(
 					childDefinition.getUseableChildDef().getAccessor().getValues(nextElement));
 			if (insertIndex == null || insertIndex < 0 || insertIndex > existingValues.size()) {
 				String msg = myContext
 						.getLocalizer()
-						.getMessage(FhirPatch.class, "invalidInsertIndex", insertIndex, path, existingValues.size());
+						.getMessage(
+								FhirPatch.class,
+								"invalidInsertIndex",
+								insertIndex,
+								theOperation.myPath,
+								existingValues.size());
 				theOutcome.addError(msg);
 				return;
 			}
@@ -234,40 +391,28 @@ public class FhirPatch {
 	}
 
 	private void handleDeleteOperation(
-			@Nullable IBaseResource theResource, IBase theParameters, PatchOutcome theOutcome) {
-		String path = ParametersUtil.getParameterPartValueAsString(myContext, theParameters, PARAMETER_PATH);
-		path = defaultString(path);
-
-		boolean allowMultiDelete = ParametersUtil.getParameterPartValueAsBoolean(
-						myContext, theParameters, PARAMETER_ALLOW_MULTIPLE_MATCHES)
-				.orElse(Boolean.FALSE);
-
-		ParsedFhirPath parsedPath = ParsedFhirPath.parse(path);
-
-		if (theResource == null) {
-			return;
-		}
-
-		String pathToSelect;
-		if (parsedPath.endsWithFilterOrIndex()) {
-			pathToSelect = parsedPath.getContainingPath();
-		} else {
-			pathToSelect = path;
-		}
-		List<IBase> containingElements = myContext.newFhirPath().evaluate(theResource, pathToSelect, IBase.class);
+			IBaseResource theResource, PatchOperation theOperation, IFhirPath theFhirPath, PatchOutcome theOutcome) {
+		ParsedFhirPath parsedPath = theOperation.myParsedPath;
+		List<IBase> containingElements =
+				theFhirPath.evaluate(theResource, theOperation.myContainingExpression, IBase.class);
 
 		int count = 0;
 		for (IBase nextElement : containingElements) {
 			if (parsedPath.endsWithFilterOrIndex()) {
 				// if the path ends with a filter or index, we must be dealing with a list
-				count += deleteFromList(theResource, nextElement, parsedPath.getLastElementName(), path);
+				count += deleteFromList(
+						theResource,
+						nextElement,
+						parsedPath.getLastElementName(),
+						theOperation.myPathExpression,
+						theFhirPath);
 			} else {
 				count += deleteSingleElement(nextElement);
 			}
 		}
 
-		if (count > 1 && !allowMultiDelete) {
-			theOutcome.addError("Multiple elements found at " + path + " when deleting");
+		if (count > 1 && !theOperation.myAllowMultipleMatches) {
+			theOutcome.addError("Multiple elements found at " + theOperation.myPath + " when deleting");
 			return;
 		}
 	}
@@ -276,13 +421,13 @@ public class FhirPatch {
 			IBaseResource theResource,
 			IBase theContainingElement,
 			String theListElementName,
-			String theElementToDeletePath) {
+			IFhirPath.IParsedExpression theElementToDeleteExpression,
+			IFhirPath theFhirPath) {
 		ChildDefinition childDefinition = findChildDefinition(theContainingElement, theListElementName);
 
 		List<IBase> existingValues = new ArrayList<>(
 				childDefinition.getUseableChildDef().getAccessor().getValues(theContainingElement));
-		List<IBase> elementsToRemove =
-				myContext.newFhirPath().evaluate(theResource, theElementToDeletePath, IBase.class);
+		List<IBase> elementsToRemove = theFhirPath.evaluate(theResource, theElementToDeleteExpression, IBase.class);
 
 		int initialSize = existingValues.size();
 		existingValues.removeAll(elementsToRemove);
@@ -297,60 +442,40 @@ public class FhirPatch {
 	}
 
 	private void handleReplaceOperation(
-			@Nullable IBaseResource theResource, @Nullable IBase theParameters, PatchOutcome theOutcome) {
-		String path = ParametersUtil.getParameterPartValueAsString(myContext, theParameters, PARAMETER_PATH);
-		path = defaultString(path);
-
-		// TODO
-		/*
-		 * We should replace this with
-		 * IParsedExpression to expose the parsed parts of the
-		 * path (including functional nodes).
-		 *
-		 * Alternatively, could make an Antir parser using
-		 * the exposed grammar (http://hl7.org/fhirpath/N1/grammar.html)
-		 *
-		 * Might be required for more complex handling.
-		 */
-		IFhirPath fhirPath = myContext.newFhirPath();
-		parseFhirPathExpression(fhirPath, path);
-		ParsedFhirPath parsedFhirPath = ParsedFhirPath.parse(path);
-
-		if (theResource == null) {
-			return;
-		}
-
+			IBaseResource theResource,
+			PatchOperation theOperation,
+			IFhirPath theFhirPath,
+			PathCache thePathCache,
+			PatchOutcome theOutcome) {
 		FhirPathChildDefinition parentDef = new FhirPathChildDefinition();
 
-		List<ParsedFhirPath.FhirPathNode> pathNodes = new ArrayList<>();
-		parsedFhirPath.getAllNodesWithPred(pathNodes, ParsedFhirPath.FhirPathNode::isNormalPathNode);
-		List<String> parts = new ArrayList<>();
-		for (ParsedFhirPath.FhirPathNode node : pathNodes) {
-			parts.add(node.getValue());
-		}
-
 		// fetch all runtime definitions along fhirpath
-		Optional<FhirPathChildDefinition> cdOpt =
-				childDefinition(parentDef, parts, theResource, fhirPath, parsedFhirPath, path, theOutcome);
+		Optional<FhirPathChildDefinition> cdOpt = childDefinition(
+				parentDef,
+				new ArrayList<>(theOperation.myPathParts),
+				theResource,
+				theFhirPath,
+				thePathCache,
+				theOperation.myParsedPath,
+				theOperation.myPath,
+				theOutcome);
 		if (cdOpt.isEmpty()) {
 			return;
 		}
 		FhirPathChildDefinition cd = cdOpt.get();
 
 		// replace the value
-		replaceValuesByPath(cd, theParameters, fhirPath, parsedFhirPath, theOutcome);
+		replaceValuesByPath(cd, theOperation, theFhirPath, theOperation.myParsedPath, theOutcome);
 	}
 
 	private void replaceValuesByPath(
 			FhirPathChildDefinition theChildDefinition,
-			IBase theParameters,
+			PatchOperation theOperation,
 			IFhirPath theFhirPath,
 			ParsedFhirPath theParsedFhirPath,
 			PatchOutcome theOutcome) {
-		Optional<IBase> singleValuePart =
-				ParametersUtil.getParameterPartValue(myContext, theParameters, PARAMETER_VALUE);
-		if (singleValuePart.isPresent()) {
-			IBase replacementValue = singleValuePart.get();
+		if (theOperation.myValue != null) {
+			IBase replacementValue = theOperation.myValue;
 
 			FhirPathChildDefinition childDefinitionToUse =
 					findChildDefinitionByReplacementType(theChildDefinition, replacementValue);
@@ -360,12 +485,9 @@ public class FhirPatch {
 			return; // guard
 		}
 
-		Optional<IBase> valueParts = ParametersUtil.getParameterPart(myContext, theParameters, PARAMETER_VALUE);
-		if (valueParts.isPresent()) {
+		if (theOperation.myValueParts != null) {
 			// multiple replacement values provided via parts
-			List<IBase> partParts = valueParts.map(this::extractPartsFromPart).orElse(Collections.emptyList());
-
-			for (IBase nextValuePartPart : partParts) {
+			for (IBase nextValuePartPart : theOperation.myValueParts) {
 				String name = myContext
 						.newTerser()
 						.getSingleValue(nextValuePartPart, PARAMETER_NAME, IPrimitiveType.class)
@@ -669,27 +791,18 @@ public class FhirPatch {
 		throw new InvalidRequestException(Msg.code(2761) + msg);
 	}
 
-	private void handleMoveOperation(@Nullable IBaseResource theResource, IBase theParameters) {
-		String path = ParametersUtil.getParameterPartValueAsString(myContext, theParameters, PARAMETER_PATH);
-		path = defaultString(path);
-
-		int lastDot = path.lastIndexOf(".");
-		String containingPath = path.substring(0, lastDot);
-		String elementName = path.substring(lastDot + 1);
-		Integer insertIndex = ParametersUtil.getParameterPartValueAsInteger(
-						myContext, theParameters, PARAMETER_DESTINATION)
-				.orElseThrow(() -> new InvalidRequestException("No index supplied for move operation"));
-		Integer removeIndex = ParametersUtil.getParameterPartValueAsInteger(myContext, theParameters, PARAMETER_SOURCE)
-				.orElseThrow(() -> new InvalidRequestException("No index supplied for move operation"));
+	private void handleMoveOperation(
+			IBaseResource theResource, PatchOperation theOperation, IFhirPath theFhirPath, PathCache thePathCache) {
+		String path = theOperation.myPath;
+		Integer insertIndex = theOperation.myIndex;
+		Integer removeIndex = theOperation.mySourceIndex;
 
-		if (theResource == null) {
-			return;
-		}
-
-		List<IBase> containingElements = myContext.newFhirPath().evaluate(theResource, containingPath, IBase.class);
+		List<IBase> containingElements =
+				theFhirPath.evaluate(theResource, theOperation.myContainingExpression, IBase.class);
 		for (IBase nextElement : containingElements) {
 
-			ChildDefinition childDefinition = findChildDefinition(nextElement, elementName);
+			ChildDefinition childDefinition =
+					thePathCache.getChildDefinition(this, nextElement, theOperation.myElementName);
 
 			List<IBase> existingValues = new ArrayList<>(
 					childDefinition.getUseableChildDef().getAccessor().getValues(nextElement));
@@ -731,6 +844,7 @@ public class FhirPatch {
 			List<String> theFhirPathParts,
 			@Nonnull IBase theBase,
 			IFhirPath theFhirPath,
+			PathCache thePathCache,
 			ParsedFhirPath theParsedFhirPath,
 			String theOriginalPath,
 			PatchOutcome theOutcome) {
@@ -784,7 +898,7 @@ public class FhirPatch {
 
 			String directChildName = theFhirPathParts.get(0);
 
-			ParsedFhirPath newPath = ParsedFhirPath.parse(nextPath);
+			ParsedFhirPath newPath = thePathCache.getParsedFhirPath(nextPath);
 
 			if (newPath.getHead() instanceof ParsedFhirPath.FhirPathFunction fn && fn.hasContainedExp()) {
 				newPath = fn.getContainedExp();
@@ -801,7 +915,8 @@ public class FhirPatch {
 				 */
 				allChildren = myContext.newTerser().getValues(theBase, directChildName);
 			} else {
-				allChildren = theFhirPath.evaluate(theBase, directChildName, IBase.class);
+				allChildren = theFhirPath.evaluate(
+						theBase, thePathCache.getExpression(theFhirPath, directChildName), IBase.class);
 			}
 
 			// go through the children and take only the ones that match the path we have
@@ -827,7 +942,7 @@ public class FhirPatch {
 					}
 					filterPath = updated;
 					updated = newPath.getHead().getValue() + "." + updated;
-					newPath = ParsedFhirPath.parse(updated);
+					newPath = thePathCache.getParsedFhirPath(updated);
 				}
 			}
 
@@ -842,12 +957,12 @@ public class FhirPatch {
 					 */
 					childs = allChildren;
 				} else {
-					AtomicReference<String> ref = new AtomicReference<>();
-					ref.set(filterPath);
+					IFhirPath.IParsedExpression filterExpression = thePathCache.getExpression(theFhirPath, filterPath);
 					if (allChildren.size() > 1) {
 						childs = allChildren.stream()
 								.filter(el -> {
-									Optional<IBase> match = theFhirPath.evaluateFirst(el, ref.get(), IBase.class);
+									Optional<IBase> match =
+											theFhirPath.evaluateFirst(el, filterExpression, IBase.class);
 									return match.isPresent();
 								})
 								.toList();
@@ -858,7 +973,8 @@ public class FhirPatch {
 						// eg: everything has "extension" on it
 						childs = allChildren.stream()
 								.filter(el -> {
-									Optional<IBase> match = theFhirPath.evaluateFirst(el, ref.get(), IBase.class);
+									Optional<IBase> match =
+											theFhirPath.evaluateFirst(el, filterExpression, IBase.class);
 									return match.isPresent();
 								})
 								.findFirst()
@@ -886,7 +1002,14 @@ public class FhirPatch {
 			IBase child = childs.get(0);
 
 			Optional<FhirPathChildDefinition> fhirPathChildDefinition = childDefinition(
-					definition, theFhirPathParts, child, theFhirPath, newPath, theOriginalPath, theOutcome);
+					definition,
+					theFhirPathParts,
+					child,
+					theFhirPath,
+					thePathCache,
+					newPath,
+					theOriginalPath,
+					theOutcome);
 			if (fhirPathChildDefinition.isEmpty()) {
 				return Optional.empty();
 			}
@@ -914,17 +1037,13 @@ public class FhirPatch {
 		return new ChildDefinition(childDef, childElement);
 	}
 
-	private IBase getNewValue(IBase theParameters, ChildDefinition theChildDefinition) {
-		Optional<IBase> valuePart = ParametersUtil.getParameterPart(myContext, theParameters, PARAMETER_VALUE);
-		Optional<IBase> valuePartValue =
-				ParametersUtil.getParameterPartValue(myContext, theParameters, PARAMETER_VALUE);
-
+	private IBase getNewValue(PatchOperation theOperation, ChildDefinition theChildDefinition) {
 		IBase newValue;
-		if (valuePartValue.isPresent()) {
-			newValue = maybeMassageToEnumeration(valuePartValue.get(), theChildDefinition);
+		if (theOperation.myValue != null) {
+			newValue = maybeMassageToEnumeration(theOperation.myValue, theChildDefinition);
 
 		} else {
-			List<IBase> partParts = valuePart.map(this::extractPartsFromPart).orElse(Collections.emptyList());
+			List<IBase> partParts = defaultIfNull(theOperation.myValueParts, Collections.emptyList());
 
 			newValue = createAndPopulateNewElement(theChildDefinition, partParts);
 		}
@@ -1294,6 +1413,58 @@ public class FhirPatch {
 		return retVal;
 	}
 
+	/**
+	 * A single compiled patch operation. Instances are not modified after they are
+	 * compiled, so they can be shared between threads.
+	 */
+	static class PatchOperation {
+
+		private final String myType;
+		private final String myPath;
+		private String myElementName;
+		private String myContainingPath;
+		private IFhirPath.IParsedExpression myContainingExpression;
+		private IFhirPath.IParsedExpression myPathExpression;
+		private ParsedFhirPath myParsedPath;
+		private List<String> myPathParts;
+		private Integer myIndex;
+		private Integer mySourceIndex;
+		private boolean myAllowMultipleMatches;
+		private IBase myValue;
+		private List<IBase> myValueParts;
+
+		PatchOperation(String theType, String thePath) {
+			myType = theType;
+			myPath = thePath;
+		}
+	}
+
+	/**
+	 * Caches parsed paths and resolved child definitions so that they are only
+	 * computed once for each patch, no matter how many resources it is applied to.
+	 * This class is thread-safe.
+	 */
+	static class PathCache {
+
+		private final Map<String, IFhirPath.IParsedExpression> myExpressions = new ConcurrentHashMap<>();
+		private final Map<String, ParsedFhirPath> myParsedFhirPaths = new ConcurrentHashMap<>();
+		private final Map<Pair<Class<?>, String>, ChildDefinition> myChildDefinitions = new ConcurrentHashMap<>();
+
+		IFhirPath.IParsedExpression getExpression(IFhirPath theFhirPath, String thePath) {
+			return myExpressions.computeIfAbsent(thePath, p -> parseFhirPathExpression(theFhirPath, p));
+		}
+
+		ParsedFhirPath getParsedFhirPath(String thePath) {
+			return myParsedFhirPaths.computeIfAbsent(thePath, ParsedFhirPath::parse);
+		}
+
+		ChildDefinition getChildDefinition(FhirPatch theFhirPatch, IBase theContainingElement, String theElementName) {
+			Pair<Class<?>, String> key = Pair.of(theContainingElement.getClass(), theElementName);
+			return myChildDefinitions.computeIfAbsent(
+					key, k -> theFhirPatch.findChildDefinition(theContainingElement, theElementName));
+		}
+	}
+
 	public static class PatchOutcome {
 
 		private List<String> myErrors = new ArrayList<>(1);
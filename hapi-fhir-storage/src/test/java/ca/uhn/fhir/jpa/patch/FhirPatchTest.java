@@ -11,6 +11,8 @@ import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.Appointment;
 import org.hl7.fhir.r4.model.CodeType;
 import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.DateType;
+import org.hl7.fhir.r4.model.HumanName;
 import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Parameters;
@@ -28,6 +30,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -292,6 +297,98 @@ public class FhirPatchTest implements ITestDataBuilder {
 			.hasMessageContaining("Invalid path for insert operation (must point to a repeatable element): Patient");
 	}
 
+	@Test
+	void testCompile_AppliedToMultipleResources() {
+		IBaseParameters patch = new FhirPatchBuilder(myFhirContext)
+			.add()
+			.path("Patient")
+			.name("identifier")
+			.value(new Identifier().setSystem("http://added").setValue("added"))
+			.andThen()
+			.insert()
+			.path("Patient.name")
+			.index(0)
+			.value(new HumanName().setFamily("Inserted"))
+			.andThen()
+			.replace()
+			.path("Patient.identifier.where(system='http://system0')")
+			.value(new Identifier().setSystem("http://system0").setValue("replaced"))
+			.andThen()
+			.delete()
+			.path("Patient.birthDate")
+			.andThen()
+			.move()
+			.path("Patient.name")
+			.source(0)
+			.destination(1)
+			.andThen()
+			.build();
+
+		CompiledFhirPatch compiledPatch = myPatch.compile(patch);
+
+		for (int i = 0; i < 3; i++) {
+			Patient expected = buildPatientForCompiledPatch(i);
+			Patient actual = buildPatientForCompiledPatch(i);
+
+			myPatch.apply(expected, patch);
+			compiledPatch.apply(actual);
+
+			assertEquals(myParser.encodeResourceToString(expected), myParser.encodeResourceToString(actual));
+			assertEquals("replaced", actual.getIdentifier().get(0).getValue());
+			assertEquals("Inserted", actual.getName().get(1).getFamily());
+			assertFalse(actual.hasBirthDate());
+		}
+	}
+
+	@Test
+	void testCompile_UsedConcurrently() throws Exception {
+		IBaseParameters patch = new FhirPatchBuilder(myFhirContext)
+			.replace()
+			.path("Patient.identifier.where(system='http://system0')")
+			.value(new Identifier().setSystem("http://system0").setValue("replaced"))
+			.andThen()
+			.build();
+		CompiledFhirPatch compiledPatch = myPatch.compile(patch);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Patient>> futures = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				int index = i;
+				futures.add(executor.submit(() -> {
+					Patient patient = buildPatientForCompiledPatch(index);
+					compiledPatch.apply(patient);
+					return patient;
+				}));
+			}
+			for (Future<Patient> next : futures) {
+				assertEquals("replaced", next.get().getIdentifier().get(0).getValue());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testCompile_InvalidPatch() {
+		Parameters patch = new Parameters();
+		Parameters.ParametersParameterComponent operation = patch.addParameter().setName("operation");
+		operation.addPart().setName("type").setValue(new CodeType("foo"));
+
+		assertThatThrownBy(() -> myPatch.compile(patch))
+			.isInstanceOf(InvalidRequestException.class)
+			.hasMessageContaining("Unknown patch operation type: foo");
+	}
+
+	private Patient buildPatientForCompiledPatch(int theIndex) {
+		Patient retVal = new Patient();
+		retVal.setId("Patient/" + theIndex);
+		retVal.addIdentifier().setSystem("http://system0").setValue("value" + theIndex);
+		retVal.addName().setFamily("Family" + theIndex);
+		retVal.setBirthDateElement(new DateType("2000-01-01"));
+		return retVal;
+	}
+
 	@Test
 	void testReplace_PathEndingInFilter() {
 		FhirPatchBuilder builder = new FhirPatchBuilder(myFhirContext);
@@ -12,6 +12,7 @@ import ca.uhn.fhir.model.dstu2.composite.CodeableConceptDt;
 import ca.uhn.fhir.model.dstu2.composite.CodingDt;
 import ca.uhn.fhir.model.dstu2.composite.HumanNameDt;
 import ca.uhn.fhir.model.dstu2.composite.IdentifierDt;
+import ca.uhn.fhir.model.dstu2.composite.QuantityDt;
 import ca.uhn.fhir.model.dstu2.composite.ResourceReferenceDt;
 import ca.uhn.fhir.model.dstu2.resource.BaseResource;
 import ca.uhn.fhir.model.dstu2.resource.Basic;
@@ -637,6 +638,22 @@ public class JsonParserDstu2Test {
 	/**
 	 * #158
 	 */
+	@Test
+	public void testEncodeInvalidDecimal() {
+		QuantityDt quantity = new QuantityDt();
+		// Deferred parsing means an invalid value is only detected when it is used
+		quantity.getValueElement().setValueAsStringDeferred("1.2.3");
+		Observation obs = new Observation();
+		obs.setValue(quantity);
+
+		try {
+			ourCtx.newJsonParser().encodeResourceToString(obs);
+			fail();
+		} catch (DataFormatException e) {
+			assertEquals(Msg.code(2849) + "Unable to encode invalid decimal value: 1.2.3", e.getMessage());
+		}
+	}
+
 	@Test
 	public void testEncodeEmptyTag() {
 		TagList tagList = new TagList();
@@ -23,6 +23,7 @@ import org.hl7.fhir.utilities.fhirpath.FHIRPathConstantEvaluationMode;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 public class FhirPathR4 implements IFhirPath {
 
@@ -52,27 +53,41 @@ public class FhirPathR4 implements IFhirPath {
 	@Override
 	public <T extends IBase> List<T> evaluate(
 			IBase theInput, IParsedExpression theParsedExpression, Class<T> theReturnType) {
-		ExpressionNode expressionNode = ((ParsedExpression) theParsedExpression).myParsedExpression;
-		return (List<T>) evaluate(theInput, expressionNode, theReturnType);
+		FhirPathR4Compiler.CompiledExpression compiledExpression =
+				((ParsedExpression) theParsedExpression).myCompiledExpression;
+		Base base = (Base) theInput;
+		Base resource = base != null && base.isResource() ? base : null;
+		return (List<T>) evaluateAndValidate(
+				() -> compiledExpression.evaluate(myEngine, null, resource, resource, base), theReturnType);
 	}
 
 	@Nonnull
 	private <T extends IBase> List<Base> evaluate(
 			IBase theInput, ExpressionNode expressionNode, Class<T> theReturnType) {
+		return evaluateAndValidate(() -> myEngine.evaluate((Base) theInput, expressionNode), theReturnType);
+	}
+
+	@Nonnull
+	private static <T extends IBase> List<Base> evaluateAndValidate(
+			Supplier<List<Base>> theEvaluation, Class<T> theReturnType) {
 		List<Base> result;
 		try {
-			result = myEngine.evaluate((Base) theInput, expressionNode);
+			result = theEvaluation.get();
 		} catch (FHIRException e) {
 			throw new FhirPathExecutionException(Msg.code(255) + e.getMessage(), e);
 		}
+		return validateResultTypes(result, theReturnType);
+	}
 
-		for (IBase next : result) {
+	@Nonnull
+	private static <T extends IBase> List<Base> validateResultTypes(List<Base> theResult, Class<T> theReturnType) {
+		for (IBase next : theResult) {
 			if (!theReturnType.isAssignableFrom(next.getClass())) {
 				throw new FhirPathExecutionException(Msg.code(256) + "FhirPath expression returned unexpected type "
 						+ next.getClass().getSimpleName() + " - Expected " + theReturnType.getName());
 			}
 		}
-		return result;
+		return theResult;
 	}
 
 	@Override
@@ -86,9 +101,16 @@ public class FhirPathR4 implements IFhirPath {
 		return evaluate(theInput, theParsedExpression, theReturnType).stream().findFirst();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Expressions are also compiled when they are parsed (see {@link FhirPathR4Compiler}), so
+	 * that repeated evaluations of the returned expression avoid the interpreter where possible.
+	 * </p>
+	 */
 	@Override
 	public IParsedExpression parse(String theExpression) {
-		return new ParsedExpression(myEngine.parse(theExpression));
+		return new ParsedExpression(FhirPathR4Compiler.compile(myEngine.parse(theExpression)));
 	}
 
 	@Override
@@ -166,10 +188,10 @@ public class FhirPathR4 implements IFhirPath {
 
 	private static class ParsedExpression implements IParsedExpression {
 
-		private final ExpressionNode myParsedExpression;
+		private final FhirPathR4Compiler.CompiledExpression myCompiledExpression;
 
-		public ParsedExpression(ExpressionNode theParsedExpression) {
-			myParsedExpression = theParsedExpression;
+		public ParsedExpression(FhirPathR4Compiler.CompiledExpression theCompiledExpression) {
+			myCompiledExpression = theCompiledExpression;
 		}
 	}
 }
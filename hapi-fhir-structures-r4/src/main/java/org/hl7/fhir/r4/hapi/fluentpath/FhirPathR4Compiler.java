@@ -0,0 +1,660 @@
+package org.hl7.fhir.r4.hapi.fluentpath;
+
+import ca.uhn.fhir.util.ElementUtil;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.exceptions.FHIRException;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.fhirpath.ExpressionNode;
+import org.hl7.fhir.r4.fhirpath.FHIRPathEngine;
+import org.hl7.fhir.r4.fhirpath.FHIRPathUtilityClasses;
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.DecimalType;
+import org.hl7.fhir.r4.model.IntegerType;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.StringType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles parsed R4 FHIRPath expressions into a chain of Java functions which can be
+ * evaluated repeatedly without walking the expression tree through the interpreter in
+ * {@link FHIRPathEngine}.
+ * <p>
+ * Only a subset of FHIRPath is compiled: element navigation, <code>$this</code>, parentheses,
+ * <code>where(..)</code>, <code>exists()</code>, <code>exists(..)</code>, <code>empty()</code>,
+ * <code>not()</code>, <code>ofType(..)</code>, the <code>as</code>, <code>|</code> and
+ * <code>=</code> operators, and string, boolean and integer literals. The criteria of a <code>where(..)</code> or <code>exists(..)</code> which
+ * fall outside of that subset (e.g. a <code>resolve() is Patient</code> guard) are handed
+ * to the interpreter one element at a time while the rest of the expression stays compiled.
+ * Expressions which can not be compiled at all are simply interpreted, as are expressions
+ * which refer to environment variables (e.g. <code>%context</code>) or to <code>$index</code>
+ * and <code>$total</code> anywhere, since the compiler does not model these.
+ * </p>
+ * <p>
+ * Compiled expressions produce exactly the same results as the interpreter. Whenever an
+ * input is encountered where the semantics would be anything other than trivial (e.g.
+ * comparing decimals, or a boolean test against a collection of several values), or if
+ * an error is raised, the whole expression is re-evaluated using the interpreter so that
+ * results and error messages are unchanged. Compiled expressions hold no reference to a
+ * particular {@link FHIRPathEngine} and are thread safe, so they may be cached and shared.
+ * </p>
+ *
+ * @since 8.6.0
+ */
+public class FhirPathR4Compiler {
+
+	/**
+	 * Non-instantiable
+	 */
+	private FhirPathR4Compiler() {
+		// nothing
+	}
+
+	/**
+	 * Compiles the given expression. The returned expression can always be evaluated,
+	 * even if no part of it could be compiled (see {@link CompiledExpression#isCompiled()}).
+	 */
+	@Nonnull
+	public static CompiledExpression compile(@Nonnull ExpressionNode theExpression) {
+		Validate.notNull(theExpression, "theExpression must not be null");
+		if (usesUnmodelledVariables(theExpression)) {
+			return new CompiledExpression(theExpression, null);
+		}
+		return new CompiledExpression(theExpression, compileNode(theExpression, true));
+	}
+
+	/**
+	 * Returns <code>true</code> if the expression refers to an environment variable or to
+	 * a variable other than <code>$this</code> anywhere in its tree. Criteria which can't
+	 * be compiled are interpreted with the current element as the context, which would
+	 * change the meaning of these variables, so such expressions are never compiled.
+	 */
+	private static boolean usesUnmodelledVariables(@Nullable ExpressionNode theNode) {
+		if (theNode == null) {
+			return false;
+		}
+		if (theNode.getConstant() instanceof FHIRPathUtilityClasses.FHIRConstant) {
+			return true;
+		}
+		String name = theNode.getName();
+		if (theNode.getKind() == ExpressionNode.Kind.Name
+				&& name != null
+				&& name.startsWith("$")
+				&& !name.equals("$this")) {
+			return true;
+		}
+		if (theNode.getParameters() != null) {
+			for (ExpressionNode next : theNode.getParameters()) {
+				if (usesUnmodelledVariables(next)) {
+					return true;
+				}
+			}
+		}
+		return usesUnmodelledVariables(theNode.getInner())
+				|| usesUnmodelledVariables(theNode.getGroup())
+				|| usesUnmodelledVariables(theNode.getOpNext());
+	}
+
+	@Nullable
+	private static IStep compileNode(ExpressionNode theNode, boolean theAtEntry) {
+		IStep step = compileKind(theNode, theAtEntry);
+		if (step == null) {
+			return null;
+		}
+
+		if (theNode.getInner() != null) {
+			IStep inner = compileNode(theNode.getInner(), false);
+			if (inner == null) {
+				return null;
+			}
+			IStep outer = step;
+			step = (theContext, theThis, theFocus) ->
+					inner.apply(theContext, theThis, outer.apply(theContext, theThis, theFocus));
+		}
+
+		if (theNode.isProximal() && theNode.getOperation() != null) {
+			// Operators are applied left to right, with the right hand side of each one
+			// evaluated against the same focus as the leftmost operand
+			ExpressionNode last = theNode;
+			for (ExpressionNode next = theNode.getOpNext(); next != null; next = next.getOpNext()) {
+				step = compileOperation(step, last.getOperation(), next);
+				if (step == null) {
+					return null;
+				}
+				last = next;
+			}
+		}
+
+		return step;
+	}
+
+	@Nullable
+	private static IStep compileKind(ExpressionNode theNode, boolean theAtEntry) {
+		switch (theNode.getKind()) {
+			case Name:
+				return compileName(theNode, theAtEntry);
+			case Function:
+				return compileFunction(theNode);
+			case Constant:
+				return compileConstant(theNode);
+			case Group:
+				return compileNode(theNode.getGroup(), theAtEntry);
+			case Unary:
+			default:
+				return null;
+		}
+	}
+
+	@Nullable
+	private static IStep compileOperation(
+			IStep theLeft, ExpressionNode.Operation theOperation, ExpressionNode theRight) {
+		switch (theOperation) {
+			case As:
+				if (isTypeName(theRight)) {
+					return new AsStep(theLeft, theRight);
+				}
+				return null;
+			case Equals:
+			case Union:
+				IStep right = compileNode(theRight, true);
+				if (right == null) {
+					return null;
+				}
+				if (theOperation == ExpressionNode.Operation.Equals) {
+					return (theContext, theThis, theFocus) -> equals(
+							theLeft.apply(theContext, theThis, theFocus), right.apply(theContext, theThis, theFocus));
+				}
+				return (theContext, theThis, theFocus) ->
+						union(theLeft.apply(theContext, theThis, theFocus), right.apply(theContext, theThis, theFocus));
+			default:
+				return null;
+		}
+	}
+
+	@Nullable
+	private static IStep compileName(ExpressionNode theNode, boolean theAtEntry) {
+		String name = theNode.getName();
+		if (name == null || name.isEmpty()) {
+			return null;
+		}
+		if (name.startsWith("$")) {
+			if (theAtEntry && name.equals("$this")) {
+				return (theContext, theThis, theFocus) -> Collections.singletonList(theThis);
+			}
+			return null;
+		}
+		if (theAtEntry && Character.isUpperCase(name.charAt(0))) {
+			return new TypeFilterStep(standaloneNode(theNode), false);
+		}
+		return new ChildStep(name);
+	}
+
+	@Nullable
+	private static IStep compileFunction(ExpressionNode theNode) {
+		List<ExpressionNode> parameters = theNode.getParameters();
+		switch (theNode.getFunction()) {
+			case Where:
+				if (parameters.size() == 1) {
+					IStep criteria = compileCriteria(parameters.get(0));
+					return (theContext, theThis, theFocus) -> {
+						List<Base> retVal = new ArrayList<>();
+						for (Base next : theFocus) {
+							if (isTrue(criteria.apply(theContext, next, Collections.singletonList(next)))) {
+								retVal.add(next);
+							}
+						}
+						return retVal;
+					};
+				}
+				return null;
+			case Exists:
+				if (parameters.isEmpty()) {
+					return (theContext, theThis, theFocus) -> {
+						boolean exists = false;
+						for (Base next : theFocus) {
+							if (!next.isEmpty()) {
+								exists = true;
+								break;
+							}
+						}
+						return makeBoolean(exists);
+					};
+				}
+				if (parameters.size() == 1) {
+					IStep criteria = compileCriteria(parameters.get(0));
+					return (theContext, theThis, theFocus) -> {
+						boolean exists = false;
+						for (Base next : theFocus) {
+							if (isTrue(criteria.apply(theContext, next, Collections.singletonList(next)))) {
+								exists = true;
+							}
+						}
+						return makeBoolean(exists);
+					};
+				}
+				return null;
+			case Empty:
+				if (parameters.isEmpty()) {
+					return (theContext, theThis, theFocus) -> makeBoolean(ElementUtil.isEmpty(theFocus));
+				}
+				return null;
+			case Not:
+				if (parameters.isEmpty()) {
+					return (theContext, theThis, theFocus) -> {
+						Boolean value = asBoolean(theFocus);
+						if (value == null) {
+							return new ArrayList<>();
+						}
+						List<Base> retVal = new ArrayList<>(1);
+						retVal.add(new BooleanType(!value));
+						return retVal;
+					};
+				}
+				return null;
+			case OfType:
+				if (parameters.size() == 1 && isFhirTypeName(parameters.get(0))) {
+					return new TypeFilterStep(standaloneNode(theNode), true);
+				}
+				return null;
+			default:
+				return null;
+		}
+	}
+
+	@Nullable
+	private static IStep compileConstant(ExpressionNode theNode) {
+		Base constant = theNode.getConstant();
+		if (constant == null) {
+			return null;
+		}
+		Class<? extends Base> type = constant.getClass();
+		if (type != StringType.class && type != BooleanType.class && type != IntegerType.class) {
+			return null;
+		}
+		return (theContext, theThis, theFocus) -> Collections.singletonList(constant);
+	}
+
+	/**
+	 * Criteria are always evaluated against a single element which is also
+	 * <code>$this</code>, so anything we can't compile can be handed to the interpreter
+	 * as a standalone expression. The interpreter then treats that element as
+	 * <code>%context</code>, which is why expressions using environment variables are
+	 * never compiled in the first place (see {@link #usesUnmodelledVariables(ExpressionNode)}).
+	 */
+	@Nonnull
+	private static IStep compileCriteria(ExpressionNode theCriteria) {
+		IStep retVal = compileNode(theCriteria, true);
+		if (retVal == null) {
+			retVal = (theContext, theThis, theFocus) -> theContext.myEngine.evaluate(
+					theContext.myAppContext,
+					theContext.myFocusResource,
+					theContext.myRootResource,
+					theThis,
+					theCriteria);
+		}
+		return retVal;
+	}
+
+	private static boolean isFhirTypeName(ExpressionNode theParameter) {
+		if (!isTypeName(theParameter)) {
+			return false;
+		}
+		return theParameter.getInner() == null || "FHIR".equals(theParameter.getName());
+	}
+
+	/**
+	 * A type name is either a plain name, or a namespace qualified one (e.g. <code>FHIR.Quantity</code>)
+	 */
+	private static boolean isTypeName(ExpressionNode theNode) {
+		if (theNode.getKind() != ExpressionNode.Kind.Name || theNode.getName() == null) {
+			return false;
+		}
+		ExpressionNode inner = theNode.getInner();
+		return inner == null
+				|| (inner.getKind() == ExpressionNode.Kind.Name
+						&& inner.getInner() == null
+						&& inner.getOperation() == null);
+	}
+
+	/**
+	 * Creates a copy of a name or function node without anything chained to it, so that
+	 * it can be evaluated by itself.
+	 */
+	private static ExpressionNode standaloneNode(ExpressionNode theNode) {
+		ExpressionNode retVal = new ExpressionNode(0);
+		retVal.setKind(theNode.getKind());
+		retVal.setName(theNode.getName());
+		retVal.setFunction(theNode.getFunction());
+		if (theNode.getParameters() != null) {
+			retVal.getParameters().addAll(theNode.getParameters());
+		}
+		return retVal;
+	}
+
+	private static List<Base> equals(List<Base> theLeft, List<Base> theRight) {
+		if (theLeft.isEmpty() || theRight.isEmpty()) {
+			return new ArrayList<>();
+		}
+		if (theLeft.size() != theRight.size()) {
+			return makeBoolean(false);
+		}
+		for (int i = 0; i < theLeft.size(); i++) {
+			if (!doEquals(theLeft.get(i), theRight.get(i))) {
+				return makeBoolean(false);
+			}
+		}
+		return makeBoolean(true);
+	}
+
+	private static List<Base> union(List<Base> theLeft, List<Base> theRight) {
+		List<Base> retVal = new ArrayList<>(theLeft.size() + theRight.size());
+		for (Base next : theLeft) {
+			if (!contains(retVal, next)) {
+				retVal.add(next);
+			}
+		}
+		for (Base next : theRight) {
+			if (!contains(retVal, next)) {
+				retVal.add(next);
+			}
+		}
+		return retVal;
+	}
+
+	private static boolean contains(List<Base> theValues, Base theValue) {
+		for (Base next : theValues) {
+			if (doEquals(next, theValue)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Mirrors the equality used by the interpreter, except that quantities, dates and
+	 * decimals (which have special comparison rules) are left to the interpreter
+	 */
+	private static boolean doEquals(Base theLeft, Base theRight) {
+		if ((theLeft instanceof Quantity && theRight instanceof Quantity)
+				|| (theLeft.isDateTime() && theRight.isDateTime())
+				|| theLeft instanceof DecimalType
+				|| theRight instanceof DecimalType) {
+			throw FallbackException.INSTANCE;
+		}
+		if (theLeft.isPrimitive() && theRight.isPrimitive()) {
+			return Base.equals(theLeft.primitiveValue(), theRight.primitiveValue());
+		}
+		return Base.compareDeep(theLeft, theRight, false);
+	}
+
+	/**
+	 * @return <code>null</code> if the collection is empty
+	 */
+	@Nullable
+	private static Boolean asBoolean(List<Base> theValues) {
+		if (theValues.isEmpty()) {
+			return null;
+		}
+		if (theValues.size() > 1) {
+			// The interpreter raises an error here
+			throw FallbackException.INSTANCE;
+		}
+		Base value = theValues.get(0);
+		if (value instanceof BooleanType) {
+			return ((BooleanType) value).booleanValue();
+		}
+		return true;
+	}
+
+	private static boolean isTrue(List<Base> theValues) {
+		return Boolean.TRUE.equals(asBoolean(theValues));
+	}
+
+	private static List<Base> makeBoolean(boolean theValue) {
+		List<Base> retVal = new ArrayList<>(1);
+		retVal.add(new BooleanType(theValue).noExtensions());
+		return retVal;
+	}
+
+	/**
+	 * A parsed FHIRPath expression along with its compiled form, if it could be compiled
+	 */
+	public static class CompiledExpression {
+
+		private final ExpressionNode myExpression;
+		private final IStep myStep;
+
+		private CompiledExpression(ExpressionNode theExpression, @Nullable IStep theStep) {
+			myExpression = theExpression;
+			myStep = theStep;
+		}
+
+		/**
+		 * Returns the parsed expression this was compiled from
+		 */
+		@Nonnull
+		public ExpressionNode getExpression() {
+			return myExpression;
+		}
+
+		/**
+		 * Returns <code>true</code> if the expression was compiled, or <code>false</code> if
+		 * it is always interpreted
+		 */
+		public boolean isCompiled() {
+			return myStep != null;
+		}
+
+		/**
+		 * Evaluates the expression. The arguments have the same meaning as
+		 * {@link FHIRPathEngine#evaluate(Object, Base, Base, Base, ExpressionNode)}, and the
+		 * engine is used to evaluate anything which was not compiled.
+		 * <p>
+		 * Note that compiled element navigation does not consult
+		 * {@link org.hl7.fhir.r4.fhirpath.IHostApplicationServices#resolveConstant host constants},
+		 * so the engine's host services must not resolve constants for plain element names.
+		 * </p>
+		 */
+		public List<Base> evaluate(
+				@Nonnull FHIRPathEngine theEngine,
+				@Nullable Object theAppContext,
+				@Nullable Base theFocusResource,
+				@Nullable Base theRootResource,
+				@Nullable Base theBase) {
+			if (myStep != null && !theEngine.isAllowPolymorphicNames()) {
+				EvaluationContext context =
+						new EvaluationContext(theEngine, theAppContext, theFocusResource, theRootResource);
+				List<Base> focus = theBase != null ? Collections.singletonList(theBase) : Collections.emptyList();
+				try {
+					return new ArrayList<>(myStep.apply(context, theBase, focus));
+				} catch (FallbackException | FHIRException e) {
+					// fall through and let the interpreter produce the result or the error
+				}
+			}
+			return theEngine.evaluate(theAppContext, theFocusResource, theRootResource, theBase, myExpression);
+		}
+
+		@Override
+		public String toString() {
+			return myExpression.toString();
+		}
+	}
+
+	@FunctionalInterface
+	private interface IStep {
+
+		List<Base> apply(EvaluationContext theContext, Base theThis, List<Base> theFocus);
+	}
+
+	private static class EvaluationContext {
+
+		private final FHIRPathEngine myEngine;
+		private final Object myAppContext;
+		private final Base myFocusResource;
+		private final Base myRootResource;
+
+		private EvaluationContext(
+				FHIRPathEngine theEngine, Object theAppContext, Base theFocusResource, Base theRootResource) {
+			myEngine = theEngine;
+			myAppContext = theAppContext;
+			myFocusResource = theFocusResource;
+			myRootResource = theRootResource;
+		}
+	}
+
+	/**
+	 * Navigates to the named child of each element in the focus, mirroring
+	 * the interpreter (including its handling of <code>id</code> values)
+	 */
+	private static class ChildStep implements IStep {
+
+		private final String myName;
+
+		private ChildStep(String theName) {
+			myName = theName;
+		}
+
+		@Override
+		public List<Base> apply(EvaluationContext theContext, Base theThis, List<Base> theFocus) {
+			List<Base> retVal = new ArrayList<>();
+			for (Base next : theFocus) {
+				Base[] children = next.listChildrenByName(myName, false);
+				if (children != null) {
+					for (Base child : children) {
+						if (child instanceof IIdType) {
+							retVal.add((Base)
+									((IIdType) child).toUnqualifiedVersionless().withResourceType(null));
+						} else if (child != null) {
+							retVal.add(child);
+						}
+					}
+				}
+			}
+			return retVal;
+		}
+	}
+
+	/**
+	 * Keeps the elements in the focus which match a type test. Whether an element passes
+	 * depends only on its FHIR type, so the interpreter is asked once per type and the
+	 * answer is remembered.
+	 */
+	private static class TypeFilterStep implements IStep {
+
+		private final ExpressionNode myTest;
+		private final Map<String, Boolean> myTypeToMatches = new ConcurrentHashMap<>();
+		private volatile boolean myNeedsValidation;
+
+		/**
+		 * @param theNeedsValidation The interpreter rejects unknown types in <code>ofType(..)</code>
+		 *                           even when there is nothing to test, so the type name must be
+		 *                           checked before the first use
+		 */
+		private TypeFilterStep(ExpressionNode theTest, boolean theNeedsValidation) {
+			myTest = theTest;
+			myNeedsValidation = theNeedsValidation;
+		}
+
+		@Override
+		public List<Base> apply(EvaluationContext theContext, Base theThis, List<Base> theFocus) {
+			if (myNeedsValidation) {
+				theContext.myEngine.evaluate(null, null, null, null, myTest);
+				myNeedsValidation = false;
+			}
+			List<Base> retVal = new ArrayList<>(theFocus.size());
+			for (Base next : theFocus) {
+				String type = next.fhirType();
+				Boolean matches = myTypeToMatches.get(type);
+				if (matches == null) {
+					matches = !theContext
+							.myEngine
+							.evaluate(null, null, null, next, myTest)
+							.isEmpty();
+					myTypeToMatches.put(type, matches);
+				}
+				if (matches) {
+					retVal.add(next);
+				}
+			}
+			return retVal;
+		}
+	}
+
+	/**
+	 * Implements the <code>as</code> operator. Like {@link TypeFilterStep}, the interpreter is
+	 * asked once per FHIR type whether it matches.
+	 */
+	private static class AsStep implements IStep {
+
+		private final IStep myLeft;
+		private final ExpressionNode myTest;
+		private final ExpressionNode myValidation;
+		private final Map<String, Boolean> myTypeToMatches = new ConcurrentHashMap<>();
+		private volatile boolean myNeedsValidation = true;
+
+		private AsStep(IStep theLeft, ExpressionNode theTypeName) {
+			myLeft = theLeft;
+			myTest = operationNode("$this", ExpressionNode.Operation.As, theTypeName);
+			myValidation = operationNode("nothing", ExpressionNode.Operation.As, theTypeName);
+		}
+
+		@Override
+		public List<Base> apply(EvaluationContext theContext, Base theThis, List<Base> theFocus) {
+			List<Base> left = myLeft.apply(theContext, theThis, theFocus);
+			if (myNeedsValidation) {
+				// Unknown type names are rejected even if there is nothing to convert
+				theContext.myEngine.evaluate(null, null, null, null, myValidation);
+				myNeedsValidation = false;
+			}
+			if (left.size() > 1 && !theContext.myEngine.isDoNotEnforceAsSingletonRule()) {
+				throw FallbackException.INSTANCE;
+			}
+			List<Base> retVal = new ArrayList<>(left.size());
+			for (Base next : left) {
+				String type = next.fhirType();
+				Boolean matches = myTypeToMatches.get(type);
+				if (matches == null) {
+					matches = !theContext
+							.myEngine
+							.evaluate(null, null, null, next, myTest)
+							.isEmpty();
+					myTypeToMatches.put(type, matches);
+				}
+				if (matches) {
+					retVal.add(next);
+				}
+			}
+			return retVal;
+		}
+
+		private static ExpressionNode operationNode(
+				String theLeftName, ExpressionNode.Operation theOperation, ExpressionNode theRight) {
+			ExpressionNode retVal = new ExpressionNode(0);
+			retVal.setKind(ExpressionNode.Kind.Name);
+			retVal.setName(theLeftName);
+			retVal.setProximal(true);
+			retVal.setOperation(theOperation);
+			retVal.setOpNext(theRight);
+			return retVal;
+		}
+	}
+
+	/**
+	 * Signals that the interpreter must be used for this evaluation
+	 */
+	private static class FallbackException extends RuntimeException {
+
+		private static final FallbackException INSTANCE = new FallbackException();
+
+		private FallbackException() {
+			super(null, null, false, false);
+		}
+	}
+}
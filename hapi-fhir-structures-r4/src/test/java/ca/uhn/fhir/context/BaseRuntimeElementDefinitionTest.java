@@ -1,12 +1,17 @@
 package ca.uhn.fhir.context;
 
 import ca.uhn.fhir.i18n.Msg;
+import org.hl7.fhir.r4.model.Enumeration;
 import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.HumanName;
 import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 
@@ -57,4 +62,31 @@ public class BaseRuntimeElementDefinitionTest {
 			assertEquals("HAPI-2142: Remove by index can only be called on a list-valued field.  'gender' is a single-valued field.", e.getMessage());
 		}
 	}
+
+	@Test
+	void getChildNameAndDefForEncoding_choiceType() {
+		RuntimeResourceDefinition def = ourFhirContext.getResourceDefinition("Observation");
+		BaseRuntimeChildDefinition child = def.getChildByName("value[x]");
+
+		BaseRuntimeChildDefinition.ChildNameAndDef nameAndDef =
+			child.getChildNameAndDefForEncoding(ourFhirContext, Quantity.class);
+		assertEquals("valueQuantity", nameAndDef.getChildName());
+		assertEquals("Quantity", nameAndDef.getChildDef().getName());
+
+		// Subsequent calls are served from the cache
+		assertSame(nameAndDef, child.getChildNameAndDefForEncoding(ourFhirContext, Quantity.class));
+
+		assertNull(child.getChildNameAndDefForEncoding(ourFhirContext, HumanName.class));
+	}
+
+	@Test
+	void getChildNameAndDefForEncoding_enumeration() {
+		RuntimeResourceDefinition def = ourFhirContext.getResourceDefinition("Patient");
+		BaseRuntimeChildDefinition child = def.getChildByName("gender");
+
+		BaseRuntimeChildDefinition.ChildNameAndDef nameAndDef =
+			child.getChildNameAndDefForEncoding(ourFhirContext, Enumeration.class);
+		assertEquals("gender", nameAndDef.getChildName());
+		assertEquals("code", nameAndDef.getChildDef().getName());
+	}
 }
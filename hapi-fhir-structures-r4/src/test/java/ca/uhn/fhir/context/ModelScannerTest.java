@@ -3,13 +3,21 @@ package ca.uhn.fhir.context;
 import org.assertj.core.api.Assertions;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.r4.model.Device;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class ModelScannerTest {
 
@@ -31,4 +39,28 @@ public class ModelScannerTest {
 			 .get("device").getSearchParamsForCompartmentName("Patient");
 		Assertions.assertThat(patientCompartmentSps).isNotEmpty().hasSize(1);
 	}
+
+	@Test
+	public void scanVersionPropertyFile_recordsResourceClassNamesWithoutLoading() {
+		Set<Class<? extends IBase>> datatypes = new HashSet<>();
+		Map<String, String> resourceTypes = new HashMap<>();
+
+		// test
+		ModelScanner.scanVersionPropertyFile(datatypes, resourceTypes, myVersionEnum, new HashMap<>());
+
+		// verify
+		Assertions.assertThat(datatypes).contains(HumanName.class);
+		assertEquals(Patient.class.getName(), resourceTypes.get("patient"));
+		assertSame(Patient.class, ModelScanner.loadResourceType("patient", resourceTypes.get("patient")));
+	}
+
+	@Test
+	public void loadResourceType_invalidClass() {
+		assertThatThrownBy(() -> ModelScanner.loadResourceType("foo", "com.example.NoSuchResource"))
+			.isInstanceOf(ConfigurationException.class)
+			.hasMessageContaining("HAPI-1727");
+		assertThatThrownBy(() -> ModelScanner.loadResourceType("foo", String.class.getName()))
+			.isInstanceOf(ConfigurationException.class)
+			.hasMessageContaining("HAPI-1726");
+	}
 }
@@ -0,0 +1,211 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseReference;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BundleEntryIteratorR4Test {
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	public enum Encoding {
+		JSON,
+		XML
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testIterateEntries(Encoding theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.SEARCHSET);
+		input.setTotal(3);
+		input.addLink().setRelation("self").setUrl("http://example.com/Patient");
+		for (int i = 0; i < 3; i++) {
+			Patient patient = new Patient();
+			patient.setId("P" + i);
+			patient.addName().setFamily("Family" + i);
+			input.addEntry().setFullUrl("http://example.com/Patient/P" + i).setResource(patient);
+		}
+		String encoded = newParser(theEncoding).encodeResourceToString(input);
+
+		List<String> families = new ArrayList<>();
+		try (IBundleEntryIterator iter = newParser(theEncoding).parseBundleEntries(new StringReader(encoded))) {
+			Bundle bundle = (Bundle) iter.getBundle();
+			assertEquals(Bundle.BundleType.SEARCHSET, bundle.getType());
+			assertEquals(3, bundle.getTotal());
+			assertEquals("http://example.com/Patient", bundle.getLink("self").getUrl());
+
+			while (iter.hasNext()) {
+				Bundle.BundleEntryComponent entry = (Bundle.BundleEntryComponent) iter.next();
+				Patient patient = (Patient) entry.getResource();
+				assertEquals("http://example.com/Patient/" + patient.getIdElement().getIdPart(), patient.getId());
+				families.add(patient.getNameFirstRep().getFamily());
+				assertThat(bundle.getEntry()).isEmpty();
+			}
+		}
+
+		assertThat(families).containsExactly("Family0", "Family1", "Family2");
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testCrossEntryReferencesNotResolved(Encoding theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.TRANSACTION);
+		Observation observation = new Observation();
+		observation.setSubject(new Reference("Patient/P1"));
+		observation.setEncounter(new Reference("urn:uuid:0ab8f1c6-4c6a-4f0e-9d63-2a9f8f7c1b11"));
+		input.addEntry()
+				.setResource(observation)
+				.getRequest()
+				.setMethod(Bundle.HTTPVerb.POST)
+				.setUrl("Observation");
+		input.addEntry().setFullUrl("http://example.com/Patient/P1").setResource(new Patient().setId("P1"));
+		input.addEntry()
+				.setFullUrl("urn:uuid:0ab8f1c6-4c6a-4f0e-9d63-2a9f8f7c1b11")
+				.setResource(new org.hl7.fhir.r4.model.Encounter())
+				.getRequest()
+				.setMethod(Bundle.HTTPVerb.POST)
+				.setUrl("urn:uuid:0ab8f1c6-4c6a-4f0e-9d63-2a9f8f7c1b11");
+		String encoded = newParser(theEncoding).encodeResourceToString(input);
+
+		// Parsing the complete Bundle resolves the references to the other entries
+		Bundle parsed = newParser(theEncoding).parseResource(Bundle.class, encoded);
+		Observation parsedObservation = (Observation) parsed.getEntry().get(0).getResource();
+		assertNotNull(parsedObservation.getSubject().getResource());
+		assertNotNull(parsedObservation.getEncounter().getResource());
+
+		// Entries handed out by the iterator are never modified afterwards
+		List<Bundle.BundleEntryComponent> entries = new ArrayList<>();
+		try (IBundleEntryIterator iter = newParser(theEncoding).parseBundleEntries(new StringReader(encoded))) {
+			iter.forEachRemaining(t -> entries.add((Bundle.BundleEntryComponent) t));
+		}
+		assertThat(entries).hasSize(3);
+		Observation iteratedObservation = (Observation) entries.get(0).getResource();
+		assertEquals("Patient/P1", iteratedObservation.getSubject().getReference());
+		assertNull(iteratedObservation.getSubject().getResource());
+		assertEquals(
+				"urn:uuid:0ab8f1c6-4c6a-4f0e-9d63-2a9f8f7c1b11",
+				iteratedObservation.getEncounter().getReference());
+		assertNull(iteratedObservation.getEncounter().getResource());
+		assertEquals(
+				"urn:uuid:0ab8f1c6-4c6a-4f0e-9d63-2a9f8f7c1b11",
+				entries.get(2).getResource().getIdElement().getValue());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testEarlierEntriesNotRetained(Encoding theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.COLLECTION);
+		for (int i = 0; i < 10; i++) {
+			Observation observation = new Observation();
+			observation.setSubject(new Reference("Patient/P" + i));
+			input.addEntry().setFullUrl("http://example.com/Patient/P" + i).setResource(new Patient().setId("P" + i));
+			input.addEntry().setResource(observation);
+		}
+		String encoded = newParser(theEncoding).encodeResourceToString(input);
+
+		try (IBundleEntryIterator iter = newParser(theEncoding).parseBundleEntries(new StringReader(encoded))) {
+			WeakReference<IBaseResource> firstPatient =
+					new WeakReference<>(((Bundle.BundleEntryComponent) iter.next()).getResource());
+			WeakReference<IBaseReference> firstReference =
+					new WeakReference<>(((Observation) ((Bundle.BundleEntryComponent) iter.next()).getResource()).getSubject());
+			for (int i = 0; i < 5; i++) {
+				iter.next();
+			}
+			assertTrue(iter.hasNext());
+
+			await().until(() -> {
+				System.gc();
+				return firstPatient.get() == null && firstReference.get() == null;
+			});
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testElementsAfterEntries(Encoding theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.COLLECTION);
+		input.addEntry().setResource(new Patient().setActive(true));
+		input.getSignature().setWho(new org.hl7.fhir.r4.model.Reference("Patient/A"));
+		String encoded = newParser(theEncoding).encodeResourceToString(input);
+
+		IBundleEntryIterator iter = newParser(theEncoding).parseBundleEntries(new StringReader(encoded));
+		assertTrue(iter.hasNext());
+		Bundle.BundleEntryComponent entry = (Bundle.BundleEntryComponent) iter.next();
+		assertTrue(((Patient) entry.getResource()).getActive());
+		assertFalse(iter.hasNext());
+		assertThrows(NoSuchElementException.class, iter::next);
+
+		Bundle bundle = (Bundle) iter.getBundle();
+		assertEquals("Patient/A", bundle.getSignature().getWho().getReference());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testNoEntries(Encoding theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.BATCH);
+		String encoded = newParser(theEncoding).encodeResourceToString(input);
+
+		try (IBundleEntryIterator iter = newParser(theEncoding).parseBundleEntries(new StringReader(encoded))) {
+			assertFalse(iter.hasNext());
+			assertEquals(Bundle.BundleType.BATCH, ((Bundle) iter.getBundle()).getType());
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testNotABundle(Encoding theEncoding) {
+		String encoded = newParser(theEncoding).encodeResourceToString(new Patient().setActive(true));
+
+		IParser parser = newParser(theEncoding);
+		StringReader reader = new StringReader(encoded);
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseBundleEntries(reader));
+		assertThat(e.getMessage()).contains("HAPI-2819");
+	}
+
+	@ParameterizedTest
+	@EnumSource(Encoding.class)
+	public void testCloseBeforeEnd(Encoding theEncoding) {
+		Bundle input = new Bundle();
+		input.addEntry().setResource(new Patient().setActive(true));
+		input.addEntry().setResource(new Patient().setActive(false));
+		String encoded = newParser(theEncoding).encodeResourceToString(input);
+
+		IBundleEntryIterator iter = newParser(theEncoding).parseBundleEntries(new StringReader(encoded));
+		IBase first = iter.next();
+		assertTrue(((Bundle.BundleEntryComponent) first).hasResource());
+		iter.close();
+		iter.close();
+
+		assertFalse(iter.hasNext());
+	}
+
+	private static IParser newParser(Encoding theEncoding) {
+		return theEncoding == Encoding.JSON ? ourCtx.newJsonParser() : ourCtx.newXmlParser();
+	}
+}
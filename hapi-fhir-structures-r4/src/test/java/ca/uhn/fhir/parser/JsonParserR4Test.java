@@ -59,6 +59,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -66,7 +67,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
@@ -162,6 +165,23 @@ public class JsonParserR4Test extends BaseTest {
 		assertEquals("extension", myParseLocationCaptor.getAllValues().get(2).getParentElementName());
 	}
 
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testEncodeResourceToOutputStream(boolean thePrettyPrint) throws IOException {
+		Patient p = new Patient();
+		p.setId("Patient/A");
+		p.addName().setFamily("Müller").addGiven("Zoë");
+		p.getText().setDivAsString("<div>日本語 &amp; ünïcödé</div>");
+		p.addExtension("http://foo", new StringType("\uD83D\uDE00"));
+
+		IParser parser = ourCtx.newJsonParser().setPrettyPrint(thePrettyPrint);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		parser.encodeResourceToOutputStream(p, bytes);
+
+		String expected = parser.encodeResourceToString(p);
+		assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+	}
+
 	@Test
 	public void testNonDomainResourcesHaveIdResourceTypeParsed() {
 		//Test a non-domain resource
@@ -0,0 +1,184 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.test.BaseTest;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonParserTokenStreamingR4Test extends BaseTest {
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(JsonParserTokenStreamingR4Test.class);
+	private static final FhirContext ourTreeCtx = FhirContext.forR4Cached();
+	private static final FhirContext ourStreamingCtx = createStreamingContext();
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/bundle-with-two-patient-resources.json",
+		"/transaction-bundle.json",
+		"/bundle-circ-ref.json",
+		"/multi-thread-parsing-issue-bundle.json",
+		"/observation-decimal-element-with-leading-plus.json",
+		"/static-capabilitystatement.json"
+	})
+	public void testParseResource_MatchesTreeParser(String theFileName) throws IOException {
+		String input = loadResource(theFileName);
+		assertSameResult(input);
+	}
+
+	@Test
+	public void testPrimitiveExtensions() {
+		@Language("JSON")
+		String input = """
+			{
+			  "resourceType": "Patient",
+			  "_birthDate": { "id": "bd", "extension": [ { "url": "http://before", "valueString": "B" } ] },
+			  "birthDate": "2011-01-02",
+			  "name": [ {
+			    "given": [ "A", null, "C" ],
+			    "_given": [ null, { "extension": [ { "valueCode": "masked", "url": "http://dar" } ] }, { "id": "c" } ]
+			  } ],
+			  "_gender": { "extension": [ { "url": "http://no-value", "valueString": "G" } ] },
+			  "active": true,
+			  "_active": { "extension": [ { "url": "http://after", "valueBoolean": false } ] }
+			}""";
+
+		Patient patient = (Patient) assertSameResult(input);
+
+		assertEquals("bd", patient.getBirthDateElement().getId());
+		assertEquals("B", patient.getBirthDateElement().getExtensionString("http://before"));
+		HumanName name = patient.getNameFirstRep();
+		assertEquals(3, name.getGiven().size());
+		assertEquals("masked", name.getGiven().get(1).getExtensionByUrl("http://dar").getValue().primitiveValue());
+		assertEquals("c", name.getGiven().get(2).getId());
+		assertEquals("G", patient.getGenderElement().getExtensionString("http://no-value"));
+		assertTrue(patient.getActiveElement().hasExtension("http://after"));
+	}
+
+	@Test
+	public void testContainedResourcesWithResourceTypeNotFirst() {
+		@Language("JSON")
+		String input = """
+			{
+			  "id": "O1",
+			  "contained": [ {
+			    "id": "p1",
+			    "name": [ { "family": "Smith" } ],
+			    "resourceType": "Patient"
+			  } ],
+			  "subject": { "reference": "#p1" },
+			  "valueQuantity": { "value": 1.50, "unit": "mg" },
+			  "resourceType": "Observation"
+			}""";
+
+		Observation obs = (Observation) assertSameResult(input);
+
+		assertEquals("1.50", obs.getValueQuantity().getValueElement().getValueAsString());
+		Patient contained = (Patient) obs.getSubject().getResource();
+		assertEquals("Smith", contained.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testBundleEntryFullUrlOverridesId() {
+		@Language("JSON")
+		String input = """
+			{
+			  "resourceType": "Bundle",
+			  "type": "collection",
+			  "entry": [ {
+			    "resource": { "resourceType": "Patient", "id": "B", "meta": { "versionId": "2" } },
+			    "fullUrl": "http://example.com/Patient/B"
+			  } ]
+			}""";
+
+		Bundle bundle = (Bundle) assertSameResult(input);
+
+		assertEquals("http://example.com/Patient/B/_history/2", bundle.getEntryFirstRep().getResource().getId());
+	}
+
+	@Test
+	public void testMissingResourceType() {
+		IParser parser = ourStreamingCtx.newJsonParser();
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource("{\"id\": \"A\"}"));
+		assertThat(e.getMessage()).contains("HAPI-2845");
+	}
+
+	@Test
+	public void testMissingResourceTypeInContainedResource() {
+		IParser parser = ourStreamingCtx.newJsonParser();
+		String input = "{\"resourceType\": \"Patient\", \"contained\": [ { \"id\": \"A\" } ] }";
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource(input));
+		assertThat(e.getMessage()).contains("HAPI-2846");
+	}
+
+	@Test
+	public void testExtensionNotAnArray() {
+		IParser parser = ourStreamingCtx.newJsonParser();
+		String input = "{\"resourceType\": \"Patient\", \"extension\": { \"url\": \"http://foo\" } }";
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource(input));
+		assertThat(e.getMessage()).contains("HAPI-2848");
+	}
+
+	@Test
+	public void testInvalidJsonSyntax() {
+		IParser parser = ourStreamingCtx.newJsonParser();
+		String input = "{\"resourceType\": \"Patient\", \"active\": tru }";
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource(input));
+		assertThat(e.getMessage()).contains("HAPI-1861");
+	}
+
+	@Test
+	public void testTrailingContent() {
+		IParser parser = ourStreamingCtx.newJsonParser();
+		String input = "{\"resourceType\": \"Patient\"} {}";
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource(input));
+		assertThat(e.getMessage()).contains("HAPI-1861");
+	}
+
+	@Test
+	public void testNotAnObject() {
+		IParser parser = ourStreamingCtx.newJsonParser();
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource("[]"));
+		assertThat(e.getMessage()).contains("HAPI-1859");
+	}
+
+	@Test
+	public void testParseInto() throws IOException {
+		HumanName name = new HumanName();
+		ourStreamingCtx.newJsonParser().parseInto("{\"family\": \"Smith\", \"given\": [\"A\", \"B\"]}", name);
+
+		assertEquals("Smith", name.getFamily());
+		assertEquals("B", name.getGiven().get(1).getValue());
+	}
+
+	private static IBaseResource assertSameResult(String theInput) {
+		IBaseResource expected = ourTreeCtx.newJsonParser().parseResource(theInput);
+		IBaseResource actual = ourStreamingCtx.newJsonParser().parseResource(theInput);
+
+		String expectedEncoded = ourTreeCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(expected);
+		String actualEncoded = ourTreeCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(actual);
+		ourLog.debug("Streamed: {}", actualEncoded);
+		assertEquals(expectedEncoded, actualEncoded);
+		assertTrue(((org.hl7.fhir.r4.model.Base) expected).equalsDeep((org.hl7.fhir.r4.model.Base) actual));
+
+		return actual;
+	}
+
+	private static FhirContext createStreamingContext() {
+		FhirContext retVal = FhirContext.forR4();
+		retVal.getParserOptions().setJsonTokenStreamingEnabled(true);
+		return retVal;
+	}
+}
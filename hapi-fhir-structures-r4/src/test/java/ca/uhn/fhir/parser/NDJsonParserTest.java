@@ -2,13 +2,25 @@ package ca.uhn.fhir.parser;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.util.BundleBuilder;
+import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.TestUtil;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.DateType;
 import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class NDJsonParserTest {
@@ -118,6 +130,117 @@ public class NDJsonParserTest {
 		});
 	}
 	
+	@ParameterizedTest
+	@ValueSource(ints = {1, 4})
+	public void testParallelEncodeDecodePreservesOrder(int theParallelism) {
+		BundleBuilder myBuilder = new BundleBuilder(ourCtx);
+		myBuilder.setType("collection");
+		for (int i = 0; i < 1000; i++) {
+			Patient p = new Patient();
+			p.setId("Patient/P" + i);
+			p.addName().setFamily("Family" + i);
+			myBuilder.addCollectionEntry(p);
+		}
+		IBaseResource myBundle = myBuilder.getBundle();
+
+		NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+		parser.setParallelism(theParallelism);
+		String ndjson = parser.encodeResourceToString(myBundle);
+		assertEquals(toNDJson(myBundle), ndjson);
+
+		IBaseResource responseBundle = parser.parseResource(ndjson);
+		assertTrue(fhirResourcesEqual(myBundle, responseBundle));
+	}
+
+	@Test
+	public void testParseResourcesSkipsBlankLines() {
+		String ndjson = "{\"resourceType\":\"Patient\",\"id\":\"A\"}\n\n   \n{\"resourceType\":\"Patient\",\"id\":\"B\"}\n";
+
+		List<IBaseResource> resources = new ArrayList<>();
+		((NDJsonParser) ourCtx.newNDJsonParser()).setParallelism(2).parseResources(new StringReader(ndjson), resources::add);
+
+		assertThat(resources).extracting(t -> t.getIdElement().getIdPart()).containsExactly("A", "B");
+	}
+
+	@Test
+	public void testParallelParseFailurePropagates() {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			ndjson.append(i == 300 ? "{\"resourceType\":\"Patient\",\"active\":tru}" : "{\"resourceType\":\"Patient\"}");
+			ndjson.append('\n');
+		}
+
+		NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+		parser.setParallelism(4);
+		assertThatExceptionOfType(DataFormatException.class)
+			.isThrownBy(() -> parser.parseResources(new StringReader(ndjson.toString()), t -> {}))
+			.withMessageContaining("HAPI-1861");
+	}
+
+	@Test
+	public void testParallelEncodeResources() {
+		List<Patient> patients = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			patients.add(new Patient().setActive(i % 2 == 0));
+		}
+
+		List<String> lines = new ArrayList<>();
+		((NDJsonParser) ourCtx.newNDJsonParser()).setParallelism(3).encodeResources(patients, lines::add);
+
+		assertEquals(200, lines.size());
+		for (int i = 0; i < 200; i++) {
+			assertEquals(ourCtx.newJsonParser().encodeResourceToString(patients.get(i)), lines.get(i));
+		}
+	}
+
+	@Test
+	public void testParallelEncodeUsesParserSettings() {
+		BundleBuilder myBuilder = new BundleBuilder(ourCtx);
+		myBuilder.setType("collection");
+		for (int i = 0; i < 500; i++) {
+			Patient p = new Patient();
+			p.setId("Patient/P" + i + "/_history/1");
+			p.getText().setDivAsString("<div>Patient " + i + "</div>");
+			p.addName().setFamily("Family" + i);
+			p.setBirthDateElement(new DateType("2000-01-01"));
+			p.getManagingOrganization().setReference("Organization/O" + i + "/_history/2");
+			myBuilder.addCollectionEntry(p);
+		}
+		IBaseResource myBundle = myBuilder.getBundle();
+
+		String sequential = encodeWithNonDefaultSettings(myBundle, 1);
+		String parallel = encodeWithNonDefaultSettings(myBundle, 4);
+
+		assertEquals(sequential, parallel);
+		IParser jsonParser = ourCtx.newJsonParser();
+		jsonParser.setSuppressNarratives(true);
+		jsonParser.setOmitResourceId(true);
+		jsonParser.setStripVersionsFromReferences(false);
+		jsonParser.setDontEncodeElements(Set.of("Patient.birthDate"));
+		List<String> expected = new ArrayList<>();
+		for (IBaseResource next : BundleUtil.toListOfResources(ourCtx, (IBaseBundle) myBundle)) {
+			expected.add(jsonParser.encodeResourceToString(next));
+		}
+		assertEquals(String.join("\n", expected), sequential);
+		assertThat(expected.get(0)).doesNotContain("\"id\"", "birthDate", "div").contains("Organization/O0/_history/2");
+	}
+
+	private String encodeWithNonDefaultSettings(IBaseResource theBundle, int theParallelism) {
+		NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+		parser.setParallelism(theParallelism);
+		parser.setSuppressNarratives(true);
+		parser.setOmitResourceId(true);
+		parser.setStripVersionsFromReferences(false);
+		parser.setDontEncodeElements(Set.of("Patient.birthDate"));
+		return parser.encodeResourceToString(theBundle);
+	}
+
+	@Test
+	public void testInvalidParallelism() {
+		NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> parser.setParallelism(0));
+	}
+
 	@AfterAll
 	public static void afterClassClearContext() {
 		TestUtil.randomizeLocaleAndTimezone();
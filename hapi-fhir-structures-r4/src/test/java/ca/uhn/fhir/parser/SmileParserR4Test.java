@@ -0,0 +1,122 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.test.BaseTest;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.DecimalType;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SmileParserR4Test extends BaseTest {
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/bundle-with-two-patient-resources.json",
+		"/transaction-bundle.json",
+		"/observation-decimal-element-with-leading-plus.json",
+		"/static-capabilitystatement.json"
+	})
+	public void testRoundTrip_MatchesJsonParser(String theFileName) throws IOException {
+		IBaseResource input = ourCtx.newJsonParser().parseResource(loadResource(theFileName));
+
+		byte[] encoded = encode(input);
+		IBaseResource output = ourCtx.newSmileParser().parseResource(new ByteArrayInputStream(encoded));
+
+		String expected = ourCtx.newJsonParser().encodeResourceToString(input);
+		assertEquals(expected, ourCtx.newJsonParser().encodeResourceToString(output));
+		assertTrue(((Base) input).equalsDeep((Base) output));
+	}
+
+	@Test
+	public void testEncodingIsSmallerThanJson() throws IOException {
+		IBaseResource input = ourCtx.newJsonParser().parseResource(loadResource("/transaction-bundle.json"));
+
+		byte[] encoded = encode(input);
+
+		assertThat(encoded.length).isLessThan(ourCtx.newJsonParser().encodeResourceToString(input).length());
+		// SMILE header
+		assertEquals(':', encoded[0]);
+		assertEquals(')', encoded[1]);
+	}
+
+	@Test
+	public void testPrimitiveValuesAndExtensions() throws IOException {
+		Observation obs = new Observation();
+		obs.setId("O1");
+		obs.setValue(new Quantity().setValueElement(new DecimalType(new BigDecimal("1.50"))));
+		obs.getStatusElement().setValue(Observation.ObservationStatus.FINAL);
+		obs.getStatusElement().addExtension("http://foo", new StringType("bar"));
+		obs.addComponent().getValueIntegerType().setValue(7);
+
+		Observation output = ourCtx.newSmileParser().parseResource(Observation.class, new ByteArrayInputStream(encode(obs)));
+
+		assertEquals("1.50", output.getValueQuantity().getValueElement().getValueAsString());
+		assertEquals(Observation.ObservationStatus.FINAL, output.getStatus());
+		assertTrue(output.getStatusElement().hasExtension("http://foo"));
+		assertEquals(7, output.getComponentFirstRep().getValueIntegerType().getValue());
+	}
+
+	@Test
+	public void testParseBundleEntries() throws IOException {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.COLLECTION);
+		input.addEntry().setResource(new Patient().setActive(true));
+		input.addEntry().setResource(new Patient().setActive(false));
+
+		try (IBundleEntryIterator iter = ourCtx.newSmileParser().parseBundleEntries(new ByteArrayInputStream(encode(input)))) {
+			assertEquals(Bundle.BundleType.COLLECTION, ((Bundle) iter.getBundle()).getType());
+			assertTrue(((Patient) ((Bundle.BundleEntryComponent) iter.next()).getResource()).getActive());
+			assertFalse(((Patient) ((Bundle.BundleEntryComponent) iter.next()).getResource()).getActive());
+			assertFalse(iter.hasNext());
+		}
+	}
+
+	@Test
+	public void testTextMethodsAreNotSupported() {
+		IParser parser = ourCtx.newSmileParser();
+		Patient patient = new Patient();
+
+		InternalErrorException e = assertThrows(InternalErrorException.class, () -> parser.encodeResourceToString(patient));
+		assertThat(e.getMessage()).contains("HAPI-2826");
+
+		e = assertThrows(InternalErrorException.class, () -> parser.parseResource("{}"));
+		assertThat(e.getMessage()).contains("HAPI-2828");
+	}
+
+	@Test
+	public void testEncodingEnum() {
+		assertSame(EncodingEnum.SMILE, ourCtx.newSmileParser().getEncoding());
+		assertSame(EncodingEnum.SMILE, EncodingEnum.forContentType("application/x-jackson-smile"));
+		assertTrue(EncodingEnum.SMILE.isBinary());
+		assertFalse(EncodingEnum.JSON.isBinary());
+		assertTrue(ourCtx.isFormatSmileSupported());
+	}
+
+	private static byte[] encode(IBaseResource theResource) throws IOException {
+		ByteArrayOutputStream retVal = new ByteArrayOutputStream();
+		ourCtx.newSmileParser().encodeResourceToOutputStream(theResource, retVal);
+		return retVal.toByteArray();
+	}
+}
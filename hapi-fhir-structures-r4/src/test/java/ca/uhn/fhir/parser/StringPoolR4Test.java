@@ -0,0 +1,103 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Observation;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StringPoolR4Test {
+
+	@Test
+	public void testIntern() {
+		StringPool pool = new StringPool(16, 10);
+		String first = new String("http://lo");
+		String second = new String(first);
+
+		assertSame(first, pool.intern(first));
+		assertSame(first, pool.intern(second));
+		assertEquals(1, pool.getMissCount());
+		assertEquals(1, pool.getHitCount());
+		assertEquals(0.5, pool.getHitRate());
+
+		// Too long to be pooled
+		String longValue = "http://loinc.org";
+		assertSame(longValue, pool.intern(longValue));
+		assertEquals(1, pool.getMissCount());
+		assertEquals(null, pool.intern(null));
+
+		pool.clear();
+		assertEquals(0, pool.getHitCount());
+		assertEquals(0.0, pool.getHitRate());
+		assertSame(second, pool.intern(second));
+	}
+
+	@Test
+	public void testSizeIsRoundedToPowerOfTwo() {
+		assertEquals(1024, new StringPool(1000, 100).getSize());
+		assertEquals(1, new StringPool(1, 100).getSize());
+		assertThrows(IllegalArgumentException.class, () -> new StringPool(0, 100));
+	}
+
+	@Test
+	public void testParseJson() {
+		FhirContext ctx = FhirContext.forR4();
+		StringPool pool = new StringPool();
+		ctx.getParserOptions().setStringPool(pool);
+
+		Observation obs1 = ctx.newJsonParser().parseResource(Observation.class, createObservationJson());
+		Observation obs2 = ctx.newJsonParser().parseResource(Observation.class, createObservationJson());
+
+		assertSame(obs1.getCode().getCodingFirstRep().getSystem(), obs2.getCode().getCodingFirstRep().getSystem());
+		assertSame(obs1.getCode().getCodingFirstRep().getCode(), obs2.getCode().getCodingFirstRep().getCode());
+		assertSame(obs1.getMeta().getProfile().get(0).getValue(), obs2.getMeta().getProfile().get(0).getValue());
+		// Plain strings are not pooled
+		assertNotSame(obs1.getCode().getText(), obs2.getCode().getText());
+		assertEquals("Glucose", obs2.getCode().getText());
+		assertThat(pool.getHitCount()).isGreaterThanOrEqualTo(4);
+		assertThat(pool.getHitRate()).isGreaterThan(0.0);
+	}
+
+	@Test
+	public void testParseXml() {
+		FhirContext ctx = FhirContext.forR4();
+		StringPool pool = new StringPool();
+		ctx.getParserOptions().setStringPool(pool);
+		String xml = ctx.newXmlParser().encodeResourceToString(ctx.newJsonParser().parseResource(createObservationJson()));
+		pool.clear();
+
+		Observation obs1 = ctx.newXmlParser().parseResource(Observation.class, xml);
+		Observation obs2 = ctx.newXmlParser().parseResource(Observation.class, xml);
+
+		assertSame(obs1.getCode().getCodingFirstRep().getSystem(), obs2.getCode().getCodingFirstRep().getSystem());
+		assertEquals("http://loinc.org", obs2.getCode().getCodingFirstRep().getSystem());
+		assertThat(pool.getHitCount()).isGreaterThanOrEqualTo(4);
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		FhirContext ctx = FhirContext.forR4();
+
+		Observation obs1 = ctx.newJsonParser().parseResource(Observation.class, createObservationJson());
+		Observation obs2 = ctx.newJsonParser().parseResource(Observation.class, createObservationJson());
+
+		assertNotSame(obs1.getCode().getCodingFirstRep().getSystem(), obs2.getCode().getCodingFirstRep().getSystem());
+	}
+
+	private static String createObservationJson() {
+		return """
+			{
+			  "resourceType": "Observation",
+			  "meta": { "profile": [ "http://example.com/StructureDefinition/glucose" ] },
+			  "status": "final",
+			  "code": {
+			    "coding": [ { "system": "http://loinc.org", "code": "15074-8" } ],
+			    "text": "Glucose"
+			  }
+			}""";
+	}
+}
@@ -25,11 +25,15 @@ import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.r4.model.StringType;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 import static ca.uhn.fhir.parser.JsonParserR4Test.createBundleWithCrossReferenceFullUrlsAndNoIds;
@@ -81,6 +85,23 @@ public class XmlParserR4Test extends BaseTest {
 		assertNotNull(input.getMeta().getExtensionByUrl("http://example-source-team.com"));
 	}
 
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testEncodeResourceToOutputStream(boolean thePrettyPrint) throws IOException {
+		Patient p = new Patient();
+		p.setId("Patient/A");
+		p.addName().setFamily("Müller").addGiven("Zoë");
+		p.getText().setDivAsString("<div>日本語 &amp; ünïcödé</div>");
+		p.addExtension("http://foo", new StringType("\uD83D\uDE00"));
+
+		IParser parser = ourCtx.newXmlParser().setPrettyPrint(thePrettyPrint);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		parser.encodeResourceToOutputStream(p, bytes);
+
+		String expected = parser.encodeResourceToString(p);
+		assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+	}
+
 
 	/**
 	 * Ensure that a contained bundle doesn't cause a crash
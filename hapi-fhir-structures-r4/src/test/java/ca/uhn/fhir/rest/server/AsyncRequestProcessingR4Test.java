@@ -0,0 +1,184 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncRequestProcessingR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final List<String> ourReadThreadNames = Collections.synchronizedList(new ArrayList<>());
+	private static final List<String> ourReadMdcRequestIds = Collections.synchronizedList(new ArrayList<>());
+
+	@RegisterExtension
+	private static final RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx)
+		.withAsyncSupported(true)
+		.withServletFilter(new MdcFilter())
+		.registerProvider(new PatientProvider());
+	@RegisterExtension
+	private final HttpClientExtension myClient = new HttpClientExtension();
+
+	@AfterEach
+	public void after() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(null);
+		ourServer.getRestfulServer().getInterceptorService().unregisterAllAnonymousInterceptors();
+		ourReadThreadNames.clear();
+		ourReadMdcRequestIds.clear();
+	}
+
+	@Test
+	public void testRead_ProcessedOnExecutor() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "async-request-test"));
+		try {
+			ourServer.getRestfulServer().setAsyncRequestExecutor(executor);
+			assertTrue(ourServer.getRestfulServer().isAsyncRequestProcessing());
+
+			List<String> completedThreadNames = Collections.synchronizedList(new ArrayList<>());
+			ourServer.getRestfulServer().getInterceptorService().registerAnonymousInterceptor(
+				Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY,
+				(thePointcut, theArgs) -> completedThreadNames.add(
+					theArgs.get(RequestDetails.class).getRequestPath() + " " + Thread.currentThread().getName()));
+
+			HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/123");
+			try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+				String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+				assertEquals(200, status.getStatusLine().getStatusCode());
+				assertThat(responseContent).contains("Simpson");
+			}
+
+			assertThat(ourReadThreadNames).containsExactly("async-request-test");
+			await().until(() -> completedThreadNames, hasSize(1));
+			assertEquals("Patient/123 async-request-test", completedThreadNames.get(0));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRead_DefaultExecutor() throws Exception {
+		ourServer.getRestfulServer().setAsyncRequestProcessing(true);
+		assertTrue(ourServer.getRestfulServer().isAsyncRequestProcessing());
+
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/123");
+		try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+			assertEquals(200, status.getStatusLine().getStatusCode());
+		}
+		assertThat(ourReadThreadNames).hasSize(1);
+
+		ourServer.getRestfulServer().setAsyncRequestProcessing(false);
+		assertFalse(ourServer.getRestfulServer().isAsyncRequestProcessing());
+	}
+
+	@Test
+	public void testRead_MdcPropagated() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "async-request-test"));
+		try {
+			ourServer.getRestfulServer().setAsyncRequestExecutor(executor);
+
+			HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/123");
+			httpGet.addHeader(MdcFilter.HEADER_REQUEST_ID, "request-1");
+			try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+				assertEquals(200, status.getStatusLine().getStatusCode());
+			}
+			httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/123");
+			try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+				assertEquals(200, status.getStatusLine().getStatusCode());
+			}
+
+			assertThat(ourReadThreadNames).containsExactly("async-request-test", "async-request-test");
+			assertThat(ourReadMdcRequestIds).containsExactly("request-1", null);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRead_ExecutorRejects() throws Exception {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(r -> {
+			throw new RejectedExecutionException();
+		});
+
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/123");
+		try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+			assertEquals(503, status.getStatusLine().getStatusCode());
+		}
+		assertThat(ourReadThreadNames).isEmpty();
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) {
+			ourReadThreadNames.add(Thread.currentThread().getName());
+			ourReadMdcRequestIds.add(MDC.get(MdcFilter.MDC_REQUEST_ID));
+			Patient retVal = new Patient();
+			retVal.setId(theId);
+			retVal.addName().setFamily("Simpson");
+			return retVal;
+		}
+	}
+
+	/**
+	 * Populates the MDC on the container thread, the way a logging filter would
+	 */
+	private static class MdcFilter implements Filter {
+
+		private static final String HEADER_REQUEST_ID = "X-Test-Request-Id";
+		private static final String MDC_REQUEST_ID = "requestId";
+
+		@Override
+		public void doFilter(ServletRequest theRequest, ServletResponse theResponse, FilterChain theChain)
+			throws IOException, ServletException {
+			String requestId = ((HttpServletRequest) theRequest).getHeader(HEADER_REQUEST_ID);
+			if (requestId != null) {
+				MDC.put(MDC_REQUEST_ID, requestId);
+			}
+			try {
+				theChain.doFilter(theRequest, theResponse);
+			} finally {
+				MDC.remove(MDC_REQUEST_ID);
+			}
+		}
+	}
+}
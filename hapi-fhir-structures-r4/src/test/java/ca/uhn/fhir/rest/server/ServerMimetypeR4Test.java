@@ -15,14 +15,17 @@ import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
 import ca.uhn.fhir.util.TestUtil;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpTrace;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.CapabilityStatement;
 import org.hl7.fhir.r4.model.CodeType;
 import org.hl7.fhir.r4.model.DateType;
@@ -33,11 +36,13 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -126,6 +131,57 @@ public class ServerMimetypeR4Test {
 		assertEquals(expectedResponseContent, responseContent);
 	}
 
+	@Test
+	public void testCreateWithSmile() throws Exception {
+		Patient p = new Patient();
+		p.addName().setFamily("FAMILY");
+		ByteArrayOutputStream enc = new ByteArrayOutputStream();
+		ourCtx.newSmileParser().encodeResourceToOutputStream(p, enc);
+
+		HttpPost httpPost = new HttpPost(ourServer.getBaseUrl() + "/Patient");
+		httpPost.setEntity(new ByteArrayEntity(enc.toByteArray(), ContentType.parse(Constants.CT_SMILE)));
+		httpPost.addHeader(Constants.HEADER_ACCEPT, Constants.CT_SMILE);
+		try (CloseableHttpResponse status = ourClient.execute(httpPost)) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+			assertEquals(Constants.CT_SMILE, status.getFirstHeader("content-type").getValue().replaceAll(";.*", ""));
+
+			Patient response = ourCtx.newSmileParser().parseResource(Patient.class, status.getEntity().getContent());
+			assertEquals("Patient/1/_history/1", response.getIdElement().toUnqualified().getValue());
+			assertEquals("FAMILY", response.getNameFirstRep().getFamily());
+		}
+	}
+
+	@Test
+	public void testSearchWithSmileFormatParamAndGzip() throws Exception {
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient?_format=" + Constants.FORMAT_SMILE);
+		httpGet.addHeader(Constants.HEADER_ACCEPT_ENCODING, Constants.ENCODING_GZIP);
+		// Keep the client from transparently decompressing the response
+		httpGet.setConfig(RequestConfig.custom().setContentCompressionEnabled(false).build());
+		try (CloseableHttpResponse status = ourClient.execute(httpGet)) {
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertEquals(Constants.CT_SMILE, status.getFirstHeader("content-type").getValue().replaceAll(";.*", ""));
+			assertEquals(Constants.ENCODING_GZIP, status.getFirstHeader(Constants.HEADER_CONTENT_ENCODING).getValue());
+
+			GZIPInputStream content = new GZIPInputStream(status.getEntity().getContent());
+			Bundle bundle = ourCtx.newSmileParser().parseResource(Bundle.class, content);
+			assertEquals(2, bundle.getEntry().size());
+			assertEquals("The Family", ((Patient) bundle.getEntry().get(1).getResource()).getNameFirstRep().getFamily());
+		}
+	}
+
+	@Test
+	public void testSearchWithSmileFormatParam() throws Exception {
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient?_format=" + Constants.FORMAT_SMILE);
+		try (CloseableHttpResponse status = ourClient.execute(httpGet)) {
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertEquals(Constants.CT_SMILE, status.getFirstHeader("content-type").getValue().replaceAll(";.*", ""));
+
+			Bundle bundle = ourCtx.newSmileParser().parseResource(Bundle.class, status.getEntity().getContent());
+			assertEquals(2, bundle.getEntry().size());
+			assertEquals("The Family", ((Patient) bundle.getEntry().get(1).getResource()).getNameFirstRep().getFamily());
+		}
+	}
+
 	@Test
 	public void testCreateWithJsonNewWithAcceptHeader() throws Exception {
 		Patient p = new Patient();
@@ -0,0 +1,239 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.StrictErrorHandler;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.method.ResponsePage;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.InstantType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class StreamingSearchResponseR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final List<String> ourLoadedRanges = Collections.synchronizedList(new ArrayList<>());
+	private static volatile int ourFailFromIndex = -1;
+
+	@RegisterExtension
+	private static final RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx)
+		.withPagingProvider(new FifoMemoryPagingProvider(10).setDefaultPageSize(25))
+		.registerProvider(new PatientProvider());
+	@RegisterExtension
+	private final HttpClientExtension myClient = new HttpClientExtension();
+
+	@AfterEach
+	public void after() {
+		ourServer.getRestfulServer().setSearchResponseStreamingChunkSize(0);
+		ourServer.getRestfulServer().getInterceptorService().unregisterAllAnonymousInterceptors();
+		ourLoadedRanges.clear();
+		ourFailFromIndex = -1;
+	}
+
+	@Test
+	public void testSearch_StreamedInChunks() throws Exception {
+		Bundle expected = search("_format=json");
+		assertThat(ourLoadedRanges).containsExactly("0-25");
+		ourLoadedRanges.clear();
+
+		ourServer.getRestfulServer().setSearchResponseStreamingChunkSize(10);
+		Bundle actual = search("_format=json");
+		assertThat(ourLoadedRanges).containsExactly("0-10", "10-20", "20-25");
+
+		assertBundlesMatch(expected, actual);
+		assertEquals(Bundle.BundleType.SEARCHSET, actual.getType());
+		assertEquals(40, actual.getTotal());
+		assertThat(actual.getLink(Bundle.LINK_NEXT).getUrl()).contains("_getpagesoffset=25");
+	}
+
+	@Test
+	public void testSearch_StreamedInChunks_Xml() throws Exception {
+		Bundle expected = search("_format=xml");
+		ourLoadedRanges.clear();
+
+		ourServer.getRestfulServer().setSearchResponseStreamingChunkSize(10);
+		Bundle actual = search("_format=xml");
+		assertThat(ourLoadedRanges).containsExactly("0-10", "10-20", "20-25");
+
+		assertBundlesMatch(expected, actual);
+	}
+
+	@Test
+	public void testSearch_LastPage() throws Exception {
+		ourServer.getRestfulServer().setSearchResponseStreamingChunkSize(10);
+		Bundle firstPage = search("_format=json");
+		ourLoadedRanges.clear();
+
+		HttpGet httpGet = new HttpGet(firstPage.getLink(Bundle.LINK_NEXT).getUrl());
+		try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, status.getStatusLine().getStatusCode());
+
+			Bundle secondPage = ourCtx.newJsonParser().parseResource(Bundle.class, responseContent);
+			assertThat(secondPage.getEntry()).hasSize(15);
+			assertEquals("Patient/25", secondPage.getEntry().get(0).getResource().getIdElement().toUnqualifiedVersionless().getValue());
+			assertNull(secondPage.getLink(Bundle.LINK_NEXT));
+			assertThat(secondPage.getLink(Bundle.LINK_PREV).getUrl()).contains("_getpagesoffset=0");
+		}
+		assertThat(ourLoadedRanges).containsExactly("25-35", "35-40");
+	}
+
+	@Test
+	public void testSearch_NotStreamedWhenUnsupported() throws Exception {
+		ourServer.getRestfulServer().setSearchResponseStreamingChunkSize(10);
+
+		search("_format=json&_elements=name");
+		assertThat(ourLoadedRanges).containsExactly("0-25");
+		ourLoadedRanges.clear();
+
+		search("_format=json&_include=Patient:organization");
+		assertThat(ourLoadedRanges).containsExactly("0-25");
+		ourLoadedRanges.clear();
+
+		search("_format=json&_count=10");
+		assertThat(ourLoadedRanges).containsExactly("0-10");
+		ourLoadedRanges.clear();
+
+		ourServer.getRestfulServer().getInterceptorService().registerAnonymousInterceptor(
+			Pointcut.SERVER_OUTGOING_RESPONSE, (thePointcut, theArgs) -> {});
+		search("_format=json");
+		assertThat(ourLoadedRanges).containsExactly("0-25");
+	}
+
+	@Test
+	public void testSearch_FailureInLaterChunk() throws Exception {
+		ourServer.getRestfulServer().setSearchResponseStreamingChunkSize(10);
+		ourFailFromIndex = 10;
+
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient?_format=json&_pretty=false");
+		httpGet.addHeader(Constants.HEADER_ACCEPT_ENCODING, Constants.ENCODING_GZIP);
+		try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, status.getStatusLine().getStatusCode());
+
+			// The Bundle is left incomplete and no OperationOutcome is appended to it
+			assertThat(responseContent).startsWith("{\"resourceType\":\"Bundle\"");
+			assertThat(responseContent).contains("\"id\":\"9\"");
+			assertThat(responseContent).doesNotContain("OperationOutcome");
+			assertThat(responseContent).doesNotEndWith("]}");
+			assertThatThrownBy(() -> ourCtx.newJsonParser().parseResource(Bundle.class, responseContent))
+				.isInstanceOf(DataFormatException.class);
+		}
+		assertThat(ourLoadedRanges).containsExactly("0-10", "10-20");
+	}
+
+	private Bundle search(String theParams) throws Exception {
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient?" + theParams);
+		try (CloseableHttpResponse status = myClient.execute(httpGet)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, status.getStatusLine().getStatusCode(), responseContent);
+			IParser parser = responseContent.startsWith("<") ? ourCtx.newXmlParser() : ourCtx.newJsonParser();
+			parser.setParserErrorHandler(new StrictErrorHandler());
+			return parser.parseResource(Bundle.class, responseContent);
+		}
+	}
+
+	private static void assertBundlesMatch(Bundle theExpected, Bundle theActual) {
+		assertEquals(theExpected.getType(), theActual.getType());
+		assertEquals(theExpected.getTotal(), theActual.getTotal());
+		assertEquals(theExpected.getMeta().getLastUpdatedElement().getValueAsString(), theActual.getMeta().getLastUpdatedElement().getValueAsString());
+		assertEquals(theExpected.getLink().size(), theActual.getLink().size());
+		assertEquals(theExpected.getLink(Bundle.LINK_SELF).getUrl(), theActual.getLink(Bundle.LINK_SELF).getUrl());
+		assertEquals(theExpected.getEntry().size(), theActual.getEntry().size());
+		for (int i = 0; i < theExpected.getEntry().size(); i++) {
+			Bundle.BundleEntryComponent expectedEntry = theExpected.getEntry().get(i);
+			Bundle.BundleEntryComponent actualEntry = theActual.getEntry().get(i);
+			assertEquals(expectedEntry.getFullUrl(), actualEntry.getFullUrl());
+			assertEquals(expectedEntry.getSearch().getMode(), actualEntry.getSearch().getMode());
+			assertEquals(
+				ourCtx.newJsonParser().encodeResourceToString(expectedEntry.getResource()),
+				ourCtx.newJsonParser().encodeResourceToString(actualEntry.getResource()));
+		}
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Search
+		public IBundleProvider search(@IncludeParam(allow = "Patient:organization") Set<Include> theIncludes) {
+			return new PatientBundleProvider();
+		}
+	}
+
+	private static class PatientBundleProvider implements IBundleProvider {
+
+		private final InstantType myPublished = new InstantType("2025-01-01T10:00:00Z");
+
+		@Override
+		public IPrimitiveType<Date> getPublished() {
+			return myPublished;
+		}
+
+		@Nonnull
+		@Override
+		public List<IBaseResource> getResources(
+			int theFromIndex, int theToIndex, @Nonnull ResponsePage.ResponsePageBuilder theResponsePageBuilder) {
+			ourLoadedRanges.add(theFromIndex + "-" + theToIndex);
+			if (ourFailFromIndex != -1 && theFromIndex >= ourFailFromIndex) {
+				throw new InternalErrorException("Failed to load resources");
+			}
+			List<IBaseResource> retVal = new ArrayList<>();
+			for (int i = theFromIndex; i < Math.min(theToIndex, 40); i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i + "/_history/1");
+				patient.addName().setFamily("Simpson").addGiven("Given" + i);
+				retVal.add(patient);
+			}
+			return retVal;
+		}
+
+		@Override
+		public String getUuid() {
+			return null;
+		}
+
+		@Override
+		public Integer preferredPageSize() {
+			return null;
+		}
+
+		@Override
+		public Integer size() {
+			return 40;
+		}
+	}
+}
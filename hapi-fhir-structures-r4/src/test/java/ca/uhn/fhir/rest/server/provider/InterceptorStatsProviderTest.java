@@ -0,0 +1,141 @@
+package ca.uhn.fhir.rest.server.provider;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.executor.InMemoryInterceptorHookMetricsRecorder;
+import ca.uhn.fhir.interceptor.executor.InMemoryInterceptorHookMetricsRecorder.HookStatistics;
+import ca.uhn.fhir.interceptor.executor.InterceptorService;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.DecimalType;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InterceptorStatsProviderTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final InMemoryInterceptorHookMetricsRecorder ourRecorder = new InMemoryInterceptorHookMetricsRecorder();
+
+	@RegisterExtension
+	@Order(0)
+	private static final RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new InterceptorStatsProvider(ourCtx, ourRecorder));
+
+	@RegisterExtension
+	@Order(1)
+	private static final HashMapResourceProviderExtension<Patient> ourPatientProvider = new HashMapResourceProviderExtension<>(ourServer, Patient.class);
+
+	private final MyInterceptor myInterceptor = new MyInterceptor();
+
+	@BeforeEach
+	public void before() {
+		((InterceptorService) ourServer.getInterceptorService()).setHookMetricsRecorder(ourRecorder);
+		ourServer.registerInterceptor(myInterceptor);
+		ourRecorder.clear();
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.unregisterInterceptor(myInterceptor);
+		((InterceptorService) ourServer.getInterceptorService()).setHookMetricsRecorder(null);
+	}
+
+	@Test
+	public void testInterceptorStats() {
+		ourServer.getFhirClient().create().resource(new Patient().setActive(true)).execute();
+		ourServer.getFhirClient().search().forResource(Patient.class).execute();
+
+		Parameters outcome = ourServer.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_INTERCEPTOR_STATS)
+			.withNoParameters(Parameters.class)
+			.useHttpGet()
+			.execute();
+
+		List<String> pointcuts = outcome.getParameters("hook").stream()
+			.map(t -> ((CodeType) t.getPartFirstRep().getValue()).getValue())
+			.collect(Collectors.toList());
+		assertThat(pointcuts).contains("SERVER_INCOMING_REQUEST_PRE_HANDLED", "STORAGE_PRESHOW_RESOURCES");
+
+		Parameters.ParametersParameterComponent preHandled = findHook(outcome, "SERVER_INCOMING_REQUEST_PRE_HANDLED");
+		assertEquals(MyInterceptor.class.getName() + ".preHandled", preHandled.getPart().get(1).getValue().primitiveValue());
+		// Two requests made before the stats request itself was handled
+		assertThat(((DecimalType) preHandled.getPart().get(2).getValue()).getValueAsInteger()).isGreaterThanOrEqualTo(2);
+		List<Parameters.ParametersParameterComponent> buckets = preHandled.getPart().stream()
+			.filter(t -> t.getName().equals("latencyBucket"))
+			.collect(Collectors.toList());
+		assertEquals(InMemoryInterceptorHookMetricsRecorder.getBucketUpperBoundsMicros().size() + 1, buckets.size());
+	}
+
+	@Test
+	public void testInterceptorStats_FilterByPointcut() {
+		ourServer.getFhirClient().search().forResource(Patient.class).execute();
+
+		Parameters outcome = ourServer.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_INTERCEPTOR_STATS)
+			.withParameter(Parameters.class, ProviderConstants.OPERATION_INTERCEPTOR_STATS_PARAM_POINTCUT, new CodeType("STORAGE_PRESHOW_RESOURCES"))
+			.execute();
+
+		assertThat(outcome.getParameters("hook")).hasSize(1);
+		assertEquals("STORAGE_PRESHOW_RESOURCES", findHook(outcome, "STORAGE_PRESHOW_RESOURCES").getPartFirstRep().getValue().primitiveValue());
+	}
+
+	@Test
+	public void testInterceptorStats_CountsLargerThanInteger() {
+		HookStatistics statistics = mock(HookStatistics.class);
+		when(statistics.getPointcutName()).thenReturn("STORAGE_PRESHOW_RESOURCES");
+		when(statistics.getInvocationCount()).thenReturn(5_000_000_000L);
+		when(statistics.getBucketCounts()).thenReturn(List.of(5_000_000_000L));
+		InMemoryInterceptorHookMetricsRecorder recorder = mock(InMemoryInterceptorHookMetricsRecorder.class);
+		when(recorder.getStatistics()).thenReturn(List.of(statistics));
+
+		Parameters outcome = (Parameters) new InterceptorStatsProvider(ourCtx, recorder).interceptorStats(null);
+
+		Parameters.ParametersParameterComponent hook = findHook(outcome, "STORAGE_PRESHOW_RESOURCES");
+		assertEquals("5000000000", hook.getPart().get(2).getValue().primitiveValue());
+		Parameters.ParametersParameterComponent bucket = hook.getPart().stream()
+			.filter(t -> t.getName().equals("latencyBucket"))
+			.findFirst()
+			.orElseThrow();
+		assertEquals("5000000000", bucket.getPart().get(1).getValue().primitiveValue());
+	}
+
+	private static Parameters.ParametersParameterComponent findHook(Parameters theOutcome, String thePointcut) {
+		return theOutcome.getParameters("hook").stream()
+			.filter(t -> thePointcut.equals(t.getPartFirstRep().getValue().primitiveValue()))
+			.findFirst()
+			.orElseThrow();
+	}
+
+	public static class MyInterceptor {
+
+		@Hook(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED)
+		public void preHandled(RequestDetails theRequestDetails) {
+			// nothing
+		}
+
+		@Hook(Pointcut.STORAGE_PRESHOW_RESOURCES)
+		public void preShow(RequestDetails theRequestDetails) {
+			// nothing
+		}
+	}
+}
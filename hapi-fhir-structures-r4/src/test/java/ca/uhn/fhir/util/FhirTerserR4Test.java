@@ -26,6 +26,7 @@ import org.hl7.fhir.r4.model.DocumentReference;
 import org.hl7.fhir.r4.model.Enumeration;
 import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.HumanName;
 import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Identifier;
 import org.hl7.fhir.r4.model.Library;
@@ -49,6 +50,7 @@ import org.hl7.fhir.r4.model.ResourceType;
 import org.hl7.fhir.r4.model.SimpleQuantity;
 import org.hl7.fhir.r4.model.StringType;
 import org.hl7.fhir.r4.model.Substance;
+import org.hl7.fhir.r4.model.UriType;
 import org.hl7.fhir.r4.model.ValueSet;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
@@ -80,6 +82,7 @@ import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
@@ -664,6 +667,91 @@ public class FhirTerserR4Test {
 		assertThat(((DateTimeType)values2.get(0)).getValueAsString()).isEqualTo("2025-05-06T16:05:34-04:00");
 	}
 
+	@Test
+	public void testCompiledPath_GetValues() {
+		FhirTerser.CompiledPath givenPath = myCtx.newTerser().compile("Patient.name.given");
+		FhirTerser.CompiledPath extensionPath = myCtx.newTerser().compile("Patient.extension('http://acme.org/parentExtension').extension('http://acme.org/childExtension')");
+		assertEquals("Patient.name.given", givenPath.getPath());
+
+		for (int i = 0; i < 3; i++) {
+			Patient p = new Patient();
+			p.addName().addGiven("A" + i).addGiven("B" + i);
+			p.addName().addGiven("C" + i);
+			p.addExtension()
+				.setUrl("http://acme.org/parentExtension")
+				.addExtension()
+				.setUrl("http://acme.org/childExtension")
+				.setValue(new StringType("nested" + i));
+
+			List<StringType> given = givenPath.getValues(p, StringType.class);
+			assertThat(given.stream().map(StringType::getValue).toList()).containsExactly("A" + i, "B" + i, "C" + i);
+			assertEquals("A" + i, givenPath.getSinglePrimitiveValueOrNull(p));
+			assertEquals(myCtx.newTerser().getValues(p, "Patient.name.given"), givenPath.getValues(p));
+
+			List<Extension> extensions = extensionPath.getValues(p, Extension.class);
+			assertThat(extensions).hasSize(1);
+			assertEquals("nested" + i, extensions.get(0).getValue().primitiveValue());
+		}
+
+		// A path for a different resource type matches nothing
+		assertThat(givenPath.getValues(new Practitioner().addName(new HumanName().addGiven("A")))).isEmpty();
+		assertNull(givenPath.getSinglePrimitiveValueOrNull(new Patient()));
+	}
+
+	@Test
+	public void testCompiledPath_ChoiceAndRelativePaths() {
+		Observation o1 = new Observation();
+		o1.setEffective(new DateTimeType("2025-05-06T15:47:30-04:00"));
+		Observation o2 = new Observation();
+		o2.setEffective(new Period().setStartElement(new DateTimeType("2025-05-06T16:05:34-04:00")));
+
+		FhirTerser.CompiledPath path = myCtx.newTerser().compile("Observation.effectivePeriod.start");
+		assertThat(path.getValues(o1)).isEmpty();
+		assertEquals("2025-05-06T16:05:34-04:00", path.getSinglePrimitiveValueOrNull(o2));
+
+		FhirTerser.CompiledPath relativePath = myCtx.newTerser().compile("start");
+		assertEquals("2025-05-06T16:05:34-04:00", relativePath.getSinglePrimitiveValueOrNull(o2.getEffectivePeriod()));
+		assertThat(relativePath.getSingleValue(new Period(), DateTimeType.class)).isEmpty();
+	}
+
+	@Test
+	public void testCompiledPath_Create() {
+		FhirTerser.CompiledPath path = myCtx.newTerser().compile("Patient.identifier.system");
+
+		Patient p = new Patient();
+		List<UriType> values = path.getValues(p, UriType.class, true);
+
+		assertThat(values).hasSize(1);
+		assertSame(p.getIdentifierFirstRep().getSystemElement(), values.get(0));
+	}
+
+	@Test
+	public void testStringPath_SharedBetweenContexts() {
+		FhirContext otherCtx = FhirContext.forR4();
+		Patient p = new Patient();
+		p.addName().addGiven("A").addGiven("B");
+
+		// The parsed path is shared, but each context resolves it against its own definitions
+		for (int i = 0; i < 3; i++) {
+			for (FhirContext next : List.of(myCtx, otherCtx)) {
+				List<StringType> values = next.newTerser().getValues(p, "Patient.name.given", StringType.class);
+				assertThat(values.stream().map(StringType::getValue).toList()).containsExactly("A", "B");
+
+				FhirTerser.CompiledPath path = next.newTerser().compile("Patient.name.given");
+				assertEquals("A", path.getSinglePrimitiveValueOrNull(p));
+			}
+		}
+	}
+
+	@Test
+	public void testCompiledPath_InvalidChild() {
+		FhirTerser.CompiledPath path = myCtx.newTerser().compile("Patient.foo");
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> path.getValues(new Patient()));
+		assertThat(e.getMessage()).contains("foo");
+		assertThrows(IllegalArgumentException.class, () -> myCtx.newTerser().compile(""));
+	}
+
 	@Test
 	public void testGetEmbeddedResourcesOnBundle() {
 
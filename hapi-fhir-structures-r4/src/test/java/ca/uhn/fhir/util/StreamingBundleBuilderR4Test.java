@@ -0,0 +1,161 @@
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.InstantType;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamingBundleBuilderR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testTransactionMatchesBundleBuilder(EncodingEnum theEncoding) {
+		BundleBuilder expectedBuilder = new BundleBuilder(ourCtx);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		StreamingBundleBuilder streamingBuilder = new StreamingBundleBuilder(ourCtx, theEncoding.newParser(ourCtx).setPrettyPrint(true), output);
+
+		for (BundleBuilder next : List.of(expectedBuilder, streamingBuilder)) {
+			next.setIdentifier("http://foo", "bar");
+			next.setTimestamp(new InstantType("2025-01-01T00:00:00Z"));
+			next.addProfile("http://profile");
+			for (int i = 0; i < 3; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/P" + i);
+				patient.setActive(true);
+				next.addTransactionUpdateEntry(patient);
+				next.addTransactionCreateEntry(new Observation().setSubject(new Reference("Patient/P" + i))).conditional("Observation?identifier=" + i);
+			}
+			next.addTransactionDeleteEntry("Patient", "P99");
+		}
+		streamingBuilder.close();
+		assertEquals(7, streamingBuilder.getEntryCount());
+		assertThat(streamingBuilder.getBundle()).isInstanceOf(Bundle.class);
+		assertThat(((Bundle) streamingBuilder.getBundle()).getEntry()).isEmpty();
+
+		Bundle expected = expectedBuilder.getBundleTyped();
+		Bundle actual = theEncoding.newParser(ourCtx).parseResource(Bundle.class, output.toString());
+		assertEquals(Bundle.BundleType.TRANSACTION, actual.getType());
+		assertEquals(7, actual.getEntry().size());
+		assertEquals("Observation?identifier=1", actual.getEntry().get(3).getRequest().getIfNoneExist());
+
+		IParser parser = ourCtx.newJsonParser();
+		assertEquals(parser.encodeResourceToString(expected), parser.encodeResourceToString(actual));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testSignatureIsWrittenAfterEntries(EncodingEnum theEncoding) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (StreamingBundleBuilder builder = new StreamingBundleBuilder(ourCtx, theEncoding.newParser(ourCtx), output)) {
+			builder.addCollectionEntry(new Patient().setActive(true).setId("Patient/A"));
+			builder.addCollectionEntry(new Patient().setActive(false).setId("Patient/B"));
+			builder.flush();
+			builder.<Bundle>getBundleTyped().getSignature().setWho(new Reference("Practitioner/1"));
+		}
+
+		String encoded = output.toString();
+		assertThat(encoded.indexOf("signature")).isGreaterThan(encoded.lastIndexOf("Patient/B"));
+
+		Bundle actual = theEncoding.newParser(ourCtx).parseResource(Bundle.class, encoded);
+		assertEquals(Bundle.BundleType.COLLECTION, actual.getType());
+		assertEquals(2, actual.getEntry().size());
+		assertEquals("Practitioner/1", actual.getSignature().getWho().getReference());
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testEntriesDoNotFlushWriter(EncodingEnum theEncoding) {
+		AtomicInteger flushCount = new AtomicInteger();
+		StringWriter writer = new StringWriter() {
+			@Override
+			public void flush() {
+				flushCount.incrementAndGet();
+			}
+		};
+		StreamingBundleBuilder builder = new StreamingBundleBuilder(ourCtx, theEncoding.newParser(ourCtx), writer);
+		for (int i = 0; i < 5; i++) {
+			builder.addCollectionEntry(new Patient().setActive(true).setId("Patient/P" + i));
+		}
+		builder.flush();
+		assertEquals(1, flushCount.get());
+		builder.close();
+
+		Bundle actual = theEncoding.newParser(ourCtx).parseResource(Bundle.class, writer.toString());
+		assertEquals(5, actual.getEntry().size());
+		assertEquals("P4", actual.getEntry().get(4).getResource().getIdElement().getIdPart());
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testNoEntries(EncodingEnum theEncoding) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new StreamingBundleBuilder(ourCtx, theEncoding.newParser(ourCtx), output).close();
+
+		Bundle actual = theEncoding.newParser(ourCtx).parseResource(Bundle.class, output.toString());
+		assertTrue(actual.getEntry().isEmpty());
+	}
+
+	@Test
+	public void testBundleFieldsCanNotBeChangedOnceWritten() {
+		StreamingBundleBuilder builder = new StreamingBundleBuilder(ourCtx, ourCtx.newJsonParser(), new ByteArrayOutputStream());
+		builder.addCollectionEntry(new Patient());
+		builder.addCollectionEntry(new Patient());
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> builder.setIdentifier("http://foo", "bar"));
+		assertThat(e.getMessage()).contains("Bundle.identifier");
+		e = assertThrows(IllegalStateException.class, () -> builder.setType("batch"));
+		assertThat(e.getMessage()).contains("Bundle.type");
+	}
+
+	@Test
+	public void testUnsupportedEncoding() {
+		assertThrows(IllegalArgumentException.class, () -> new StreamingBundleBuilder(ourCtx, ourCtx.newRDFParser(), new ByteArrayOutputStream()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testReadWithBundleUtil(EncodingEnum theEncoding) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (StreamingBundleBuilder builder = new StreamingBundleBuilder(ourCtx, theEncoding.newParser(ourCtx), output)) {
+			builder.setType("batch");
+			for (int i = 0; i < 100; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/P" + i);
+				builder.addTransactionUpdateEntry(patient).conditional("Patient?identifier=" + i);
+			}
+		}
+
+		List<BundleEntryParts> entries = new ArrayList<>();
+		IBaseBundle bundle = BundleUtil.processEntriesStreaming(ourCtx, theEncoding.newParser(ourCtx), new ByteArrayInputStream(output.toByteArray()), entries::add);
+
+		assertEquals("batch", BundleUtil.getBundleType(ourCtx, bundle));
+		assertEquals(100, entries.size());
+		assertEquals(RequestTypeEnum.PUT, entries.get(42).getRequestType());
+		assertEquals("Patient?identifier=42", entries.get(42).getUrl());
+		assertEquals("Patient/P42", entries.get(42).getResource().getIdElement().toUnqualifiedVersionless().getValue());
+	}
+}
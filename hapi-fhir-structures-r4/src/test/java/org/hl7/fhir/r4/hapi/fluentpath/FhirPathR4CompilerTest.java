@@ -0,0 +1,188 @@
+package org.hl7.fhir.r4.hapi.fluentpath;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.fhirpath.IFhirPath;
+import ca.uhn.fhir.fhirpath.IFhirPathEvaluationContext;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.exceptions.FHIRException;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.fhirpath.FHIRPathEngine;
+import org.hl7.fhir.r4.hapi.ctx.HapiWorkerContext;
+import org.hl7.fhir.r4.model.Base;
+import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FhirPathR4CompilerTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private FHIRPathEngine myEngine;
+	private Observation myObservation;
+
+	@BeforeEach
+	public void before() {
+		myEngine = new FHIRPathEngine(new HapiWorkerContext(ourCtx, ourCtx.getValidationSupport()));
+
+		myObservation = new Observation();
+		myObservation.setId("Observation/123/_history/2");
+		myObservation.setStatus(Observation.ObservationStatus.FINAL);
+		myObservation.getCode().addCoding().setSystem("http://loinc.org").setCode("1234-5");
+		myObservation.getCode().addCoding().setSystem("http://acme.org").setCode("ABC");
+		myObservation.setValue(new Quantity().setValue(5).setUnit("mg"));
+		myObservation.getSubject().setReference("Patient/1");
+		myObservation.addComponent().setValue(new CodeableConcept().addCoding(new Coding("http://foo", "A", null)));
+		myObservation.addComponent().setValue(new StringType("hello"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(
+			strings = {
+				"Observation.code.coding.code",
+				"Observation.code.coding.where(system = 'http://loinc.org').code",
+				"Observation.code.coding.where(system = 'http://foo').code",
+				"Observation.code.coding.exists(code = 'ABC')",
+				"Observation.code.coding.system | Observation.code.coding.system",
+				"Observation.status = 'final'",
+				"Observation.status = 'preliminary'",
+				"Observation.value.ofType(Quantity).unit",
+				"Observation.component.value.ofType(CodeableConcept).coding.code",
+				"(Observation.value as Quantity).unit",
+				"Observation.component.value.ofType(string)",
+				"Observation.id",
+				"Observation.note.exists()",
+				"Observation.note.empty()",
+				"Observation.code.exists().not()",
+				"Patient.name",
+				"Resource.id",
+				"$this.status"
+			})
+	public void testCompiledMatchesInterpreter(String theExpression) {
+		FhirPathR4Compiler.CompiledExpression compiled = FhirPathR4Compiler.compile(myEngine.parse(theExpression));
+		assertTrue(compiled.isCompiled());
+
+		List<Base> expected = myEngine.evaluate(myObservation, compiled.getExpression());
+		List<Base> actual = compiled.evaluate(myEngine, null, myObservation, myObservation, myObservation);
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equalsDeep(actual.get(i)), theExpression + " at index " + i);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(
+			strings = {
+				"Patient.name.where(%context.exists())",
+				"Observation.code.coding.where(%context.status = 'final').code",
+				"Observation.code.coding.exists(%context.status = 'preliminary')",
+				"Observation.component.where(%resource.status = 'final').value",
+				"Observation.code.coding.where(%context.exists())"
+			})
+	public void testEnvironmentVariablesAreInterpreted(String theExpression) {
+		FhirPathR4Compiler.CompiledExpression compiled = FhirPathR4Compiler.compile(myEngine.parse(theExpression));
+		assertFalse(compiled.isCompiled());
+
+		List<Base> expected = myEngine.evaluate(myObservation, compiled.getExpression());
+		List<Base> actual = compiled.evaluate(myEngine, null, myObservation, myObservation, myObservation);
+
+		assertEquals(expected.size(), actual.size(), theExpression);
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equalsDeep(actual.get(i)), theExpression + " at index " + i);
+		}
+	}
+
+	@Test
+	public void testIdValuesAreUnqualified() {
+		FhirPathR4Compiler.CompiledExpression compiled = FhirPathR4Compiler.compile(myEngine.parse("Observation.id"));
+
+		List<Base> actual = compiled.evaluate(myEngine, null, myObservation, myObservation, myObservation);
+
+		assertThat(actual).hasSize(1);
+		assertEquals("123", actual.get(0).primitiveValue());
+	}
+
+	@Test
+	public void testResolveGuardIsInterpretedPerElement() throws Exception {
+		IFhirPath fhirPath = ourCtx.newFhirPath();
+		fhirPath.setEvaluationContext(new IFhirPathEvaluationContext() {
+			@Override
+			public IBase resolveReference(@Nonnull IIdType theReference, @Nullable IBase theContext) {
+				return new Patient().setId(theReference);
+			}
+		});
+
+		IFhirPath.IParsedExpression parsed = fhirPath.parse("Observation.subject.where(resolve() is Patient)");
+		assertThat(fhirPath.evaluate(myObservation, parsed, Base.class)).containsExactly(myObservation.getSubject());
+
+		parsed = fhirPath.parse("Observation.subject.where(resolve() is Group)");
+		assertThat(fhirPath.evaluate(myObservation, parsed, Base.class)).isEmpty();
+	}
+
+	@Test
+	public void testUnsupportedExpressionIsInterpreted() {
+		Bundle bundle = new Bundle();
+		bundle.addEntry().setResource(myObservation);
+
+		FhirPathR4Compiler.CompiledExpression compiled =
+				FhirPathR4Compiler.compile(myEngine.parse("Bundle.entry[0].resource.status"));
+		assertFalse(compiled.isCompiled());
+
+		List<Base> actual = compiled.evaluate(myEngine, null, bundle, bundle, bundle);
+		assertThat(actual).hasSize(1);
+		assertEquals("final", actual.get(0).primitiveValue());
+	}
+
+	@Test
+	public void testDecimalComparisonFallsBackToInterpreter() {
+		FhirPathR4Compiler.CompiledExpression compiled =
+				FhirPathR4Compiler.compile(myEngine.parse("Observation.value.ofType(Quantity).value = 5"));
+		assertTrue(compiled.isCompiled());
+
+		List<Base> actual = compiled.evaluate(myEngine, null, myObservation, myObservation, myObservation);
+		assertThat(actual).hasSize(1);
+		assertTrue(((BooleanType) actual.get(0)).booleanValue());
+	}
+
+	@Test
+	public void testErrorsMatchInterpreter() {
+		FhirPathR4Compiler.CompiledExpression compiled =
+				FhirPathR4Compiler.compile(myEngine.parse("Observation.note.ofType(FooBar)"));
+
+		FHIRException expected = assertThrows(
+				FHIRException.class, () -> myEngine.evaluate(myObservation, compiled.getExpression()));
+		FHIRException actual = assertThrows(
+				FHIRException.class,
+				() -> compiled.evaluate(myEngine, null, myObservation, myObservation, myObservation));
+		assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+	@Test
+	public void testParsedExpressionsAreCompiled() throws Exception {
+		IFhirPath fhirPath = ourCtx.newFhirPath();
+		IFhirPath.IParsedExpression parsed = fhirPath.parse("Observation.code.coding.where(system = 'http://acme.org').code");
+
+		List<StringType> actual = fhirPath.evaluate(myObservation, parsed, StringType.class);
+
+		assertThat(actual).hasSize(1);
+		assertEquals("ABC", actual.get(0).getValue());
+	}
+}
@@ -84,6 +84,7 @@ public abstract class BaseJettyServerExtension<T extends BaseJettyServerExtensio
 	private Class<? extends WebSocketConfigurer> myEnableSpringWebsocketSupport;
 	private String myEnableSpringWebsocketContextPath;
 	private long myIdleTimeoutMillis = 30000;
+	private boolean myAsyncSupported;
 	private final List<Consumer<Server>> myBeforeStartServerConsumers = new ArrayList<>();
 
 	/**
@@ -100,6 +101,17 @@ public abstract class BaseJettyServerExtension<T extends BaseJettyServerExtensio
 		return (T) this;
 	}
 
+	/**
+	 * Registers the servlet and filters as supporting asynchronous processing. Default is
+	 * <code>false</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public T withAsyncSupported(boolean theAsyncSupported) {
+		Validate.isTrue(myServer == null, "Server is already started");
+		myAsyncSupported = theAsyncSupported;
+		return (T) this;
+	}
+
 	@SuppressWarnings("unchecked")
 	public T withContextPath(String theContextPath) {
 		Validate.isTrue(myServer == null, "Server is already started");
@@ -187,15 +199,20 @@ public abstract class BaseJettyServerExtension<T extends BaseJettyServerExtensio
 		});
 
 		ServletHolder servletHolder = new ServletHolder(provideServlet());
+		servletHolder.setAsyncSupported(myAsyncSupported);
 
 		List<Handler> handlerList = new ArrayList<>();
 
 		ServletContextHandler contextHandler = new ServletContextHandler();
 		contextHandler.setContextPath(myContextPath);
 		contextHandler.addServlet(servletHolder, myServletPath);
-		contextHandler.addFilter(new FilterHolder(requestCapturingFilter()), "/*", EnumSet.allOf(DispatcherType.class));
+		FilterHolder requestCapturingFilterHolder = new FilterHolder(requestCapturingFilter());
+		requestCapturingFilterHolder.setAsyncSupported(myAsyncSupported);
+		contextHandler.addFilter(requestCapturingFilterHolder, "/*", EnumSet.allOf(DispatcherType.class));
 		for (Filter next : myServletFilters) {
-			contextHandler.addFilter(new FilterHolder(next), "/*", EnumSet.allOf(DispatcherType.class));
+			FilterHolder filterHolder = new FilterHolder(next);
+			filterHolder.setAsyncSupported(myAsyncSupported);
+			contextHandler.addFilter(filterHolder, "/*", EnumSet.allOf(DispatcherType.class));
 		}
 		handlerList.add(contextHandler);
 
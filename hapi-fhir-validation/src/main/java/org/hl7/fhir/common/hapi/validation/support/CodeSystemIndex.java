@@ -0,0 +1,152 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import jakarta.annotation.Nonnull;
+import org.hl7.fhir.r5.model.CodeSystem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash based indexes over the concepts of a single (canonical) CodeSystem, used by
+ * {@link InMemoryTerminologyServerValidationSupport} and {@link ValueSetExpansionFilterContext}
+ * to avoid walking the concept tree on every lookup.
+ * <p>
+ * Instances are built once per CodeSystem and are then read-only, apart from the lazily
+ * computed descendant closures, so they can be shared between threads.
+ * </p>
+ */
+class CodeSystemIndex {
+
+	private final CodeSystem myCodeSystem;
+	private final List<CodeSystem.ConceptDefinitionComponent> myConcepts = new ArrayList<>();
+	private final Map<String, List<CodeSystem.ConceptDefinitionComponent>> myConceptsByCode = new HashMap<>();
+	private final Map<String, List<CodeSystem.ConceptDefinitionComponent>> myConceptsByLowerCaseCode = new HashMap<>();
+	private final Map<String, Set<String>> myChildCodes = new HashMap<>();
+	private final Map<String, String> myDisplays = new HashMap<>();
+	private final Map<String, Set<String>> myDescendantCodes = new ConcurrentHashMap<>();
+
+	CodeSystemIndex(@Nonnull CodeSystem theCodeSystem) {
+		myCodeSystem = theCodeSystem;
+		index(theCodeSystem.getConcept());
+	}
+
+	private void index(List<CodeSystem.ConceptDefinitionComponent> theConcepts) {
+		for (CodeSystem.ConceptDefinitionComponent next : theConcepts) {
+			String code = next.getCode();
+			myConcepts.add(next);
+			if (code != null) {
+				myConceptsByCode.computeIfAbsent(code, t -> new ArrayList<>(1)).add(next);
+				myConceptsByLowerCaseCode
+						.computeIfAbsent(toLowerCase(code), t -> new ArrayList<>(1))
+						.add(next);
+				myDisplays.put(code, next.getDisplay());
+				for (CodeSystem.ConceptDefinitionComponent child : next.getConcept()) {
+					if (child.getCode() != null) {
+						myChildCodes.computeIfAbsent(code, t -> new HashSet<>()).add(child.getCode());
+					}
+				}
+			}
+			index(next.getConcept());
+		}
+	}
+
+	CodeSystem getCodeSystem() {
+		return myCodeSystem;
+	}
+
+	boolean isCaseSensitive() {
+		return myCodeSystem.getCaseSensitive();
+	}
+
+	/**
+	 * All concepts in the CodeSystem, in depth-first order
+	 */
+	List<CodeSystem.ConceptDefinitionComponent> getConcepts() {
+		return myConcepts;
+	}
+
+	/**
+	 * Returns the concepts with the given code, respecting the case sensitivity of
+	 * the CodeSystem
+	 */
+	@Nonnull
+	List<CodeSystem.ConceptDefinitionComponent> getConcepts(String theCode) {
+		List<CodeSystem.ConceptDefinitionComponent> retVal;
+		if (isCaseSensitive()) {
+			retVal = myConceptsByCode.get(theCode);
+		} else {
+			retVal = myConceptsByLowerCaseCode.get(toLowerCase(theCode));
+		}
+		return retVal != null ? retVal : Collections.emptyList();
+	}
+
+	/**
+	 * Returns <code>true</code> if the CodeSystem contains the given code, respecting
+	 * the case sensitivity of the CodeSystem
+	 */
+	boolean hasCode(String theCode) {
+		return !getConcepts(theCode).isEmpty();
+	}
+
+	String getDisplay(String theCode) {
+		return myDisplays.get(theCode);
+	}
+
+	@Nonnull
+	Set<String> getChildCodes(String theCode) {
+		return myChildCodes.getOrDefault(theCode, Collections.emptySet());
+	}
+
+	/**
+	 * Returns the codes of all descendants (children, grandchildren, etc.) of the given code.
+	 * The closure is computed on first use for any given code and then cached.
+	 */
+	@Nonnull
+	Set<String> getDescendantCodes(String theCode) {
+		Set<String> retVal = myDescendantCodes.get(theCode);
+		if (retVal == null) {
+			Set<String> descendants = new LinkedHashSet<>();
+			Deque<String> stack = new ArrayDeque<>(getChildCodes(theCode));
+			while (!stack.isEmpty()) {
+				String next = stack.pop();
+				if (descendants.add(next)) {
+					stack.addAll(getChildCodes(next));
+				}
+			}
+			retVal = Collections.unmodifiableSet(descendants);
+			myDescendantCodes.putIfAbsent(theCode, retVal);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns <code>true</code> if the candidate code is a descendant of the parent code. The
+	 * candidate is compared according to the case sensitivity of the CodeSystem.
+	 */
+	boolean isDescendantOf(String theParentCode, String theCandidateCode) {
+		Set<String> descendants = getDescendantCodes(theParentCode);
+		if (isCaseSensitive()) {
+			return descendants.contains(theCandidateCode);
+		}
+		for (String next : descendants) {
+			if (next.equalsIgnoreCase(theCandidateCode)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String toLowerCase(String theCode) {
+		return theCode.toLowerCase(Locale.ROOT);
+	}
+}
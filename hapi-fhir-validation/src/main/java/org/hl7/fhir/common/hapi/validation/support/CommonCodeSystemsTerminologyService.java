@@ -16,6 +16,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
@@ -36,6 +37,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -65,14 +67,23 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 	public static final String USPS_CODESYSTEM_URL = "https://www.usps.com/";
 	public static final String USPS_VALUESET_URL = "http://hl7.org/fhir/us/core/ValueSet/us-core-usps-state";
 	private static final Logger ourLog = Logs.getTerminologyTroubleshootingLog();
-	private static final Map<String, String> USPS_CODES = Collections.unmodifiableMap(buildUspsCodes());
-	private static final Map<String, String> ISO_4217_CODES = Collections.unmodifiableMap(buildIso4217Codes());
-	private static final Map<String, String> ISO_3166_CODES = Collections.unmodifiableMap(buildIso3166Codes());
+	/*
+	 * The lookup tables below are loaded on first use and then shared by all instances of this
+	 * class in the JVM, regardless of the FhirContext they were created for
+	 */
+	private static final Supplier<CompactCodeTable> USPS_CODES =
+			Suppliers.memoize(() -> CompactCodeTable.of(buildUspsCodes()));
+	private static final Supplier<CompactCodeTable> ISO_4217_CODES =
+			Suppliers.memoize(() -> CompactCodeTable.of(buildIso4217Codes()));
+	private static final Supplier<CompactCodeTable> ISO_3166_CODES =
+			Suppliers.memoize(() -> CompactCodeTable.of(buildIso3166Codes()));
+	private static final Supplier<LanguageRegistry> BCP47_LANGUAGE_REGISTRY =
+			Suppliers.memoize(CommonCodeSystemsTerminologyService::loadBcp47LanguageRegistry);
+	private static final Supplier<UcumEssenceService> UCUM_ESSENCE_SERVICE =
+			Suppliers.memoize(CommonCodeSystemsTerminologyService::loadUcumEssenceService);
 	private final FhirContext myFhirContext;
 	private VersionCanonicalizer myVersionCanonicalizer;
 	private volatile org.hl7.fhir.r5.model.ValueSet myLanguagesVs;
-	private volatile Map<String, String> myLanguagesLanugageMap;
-	private volatile Map<String, String> myLanguagesRegionMap;
 
 	/**
 	 * Constructor
@@ -131,9 +142,9 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 
 		switch (valueSet) {
 			case USPS_VALUESET_URL:
-				return validateCodeUsingCodeMap(theCode, system, USPS_CODES);
+				return validateCodeUsingCodeMap(theCode, system, USPS_CODES.get());
 			case CURRENCIES_VALUESET_URL:
-				return validateCodeUsingCodeMap(theCode, system, ISO_4217_CODES);
+				return validateCodeUsingCodeMap(theCode, system, ISO_4217_CODES.get());
 			case LANGUAGES_VALUESET_URL:
 				return validateLanguageCodeInValueSet(theValidationSupportContext, theCode);
 			case ALL_LANGUAGES_VALUESET_URL:
@@ -198,8 +209,8 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 	}
 
 	private CodeValidationResult validateCodeUsingCodeMap(
-			final String theCode, final String theSystem, final Map<String, String> theCodeMap) {
-		if (theCodeMap.containsKey(theCode)) {
+			final String theCode, final String theSystem, final CompactCodeTable theCodeMap) {
+		if (theCodeMap.contains(theCode)) {
 			return getValidateCodeResultOk(theCode, theCodeMap.get(theCode));
 		} else {
 			return getValidateCodeResultInError("unknownCodeInSystem", theSystem, theCode);
@@ -228,7 +239,7 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 		final String code = theLookupCodeRequest.getCode();
 		final String system = theLookupCodeRequest.getSystem();
 
-		Map<String, String> map;
+		CompactCodeTable map;
 		switch (system) {
 			case LANGUAGES_CODESYSTEM_URL:
 				return lookupLanguageCode(code);
@@ -237,13 +248,13 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 			case MIMETYPES_CODESYSTEM_URL:
 				return lookupMimetypeCode(code);
 			case COUNTRIES_CODESYSTEM_URL:
-				map = ISO_3166_CODES;
+				map = ISO_3166_CODES.get();
 				break;
 			case CURRENCIES_CODESYSTEM_URL:
-				map = ISO_4217_CODES;
+				map = ISO_4217_CODES.get();
 				break;
 			case USPS_CODESYSTEM_URL:
-				map = USPS_CODES;
+				map = USPS_CODES.get();
 				break;
 			default:
 				return null;
@@ -296,9 +307,7 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 	}
 
 	private LookupCodeResult lookupLanguageCode(String theCode) {
-		if (myLanguagesLanugageMap == null || myLanguagesRegionMap == null) {
-			initializeBcp47LanguageMap();
-		}
+		LanguageRegistry registry = BCP47_LANGUAGE_REGISTRY.get();
 
 		final LookupCodeResult lookupCodeResult = new LookupCodeResult();
 		lookupCodeResult.setSearchedForSystem(LANGUAGES_CODESYSTEM_URL);
@@ -313,10 +322,10 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 		if (hasRegionAndCodeSegments) {
 			// we look for languages in lowercase only
 			// this will allow case insensitivity for language portion of code
-			String language = myLanguagesLanugageMap.get(
-					theCode.substring(0, langRegionSeparatorIndex).toLowerCase());
-			String region = myLanguagesRegionMap.get(
-					theCode.substring(langRegionSeparatorIndex + 1).toUpperCase());
+			String language = registry.languages()
+					.get(theCode.substring(0, langRegionSeparatorIndex).toLowerCase());
+			String region = registry.regions()
+					.get(theCode.substring(langRegionSeparatorIndex + 1).toUpperCase());
 
 			// In case the user provides both a language and a region, they must both be valid for the lookup to
 			// succeed.
@@ -328,7 +337,7 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 		} else {
 			// In case user has only provided a language, we build the lookup from only that.
 			// NB: we only use the lowercase version of the language
-			String language = myLanguagesLanugageMap.get(theCode.toLowerCase());
+			String language = registry.languages().get(theCode.toLowerCase());
 			found = language != null;
 			display = language;
 			if (!found) {
@@ -342,7 +351,7 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 		return lookupCodeResult;
 	}
 
-	private void initializeBcp47LanguageMap() {
+	private static LanguageRegistry loadBcp47LanguageRegistry() {
 		Map<String, String> regionsMap;
 		Map<String, String> languagesMap;
 		ourLog.info("Loading BCP47 Language Registry");
@@ -371,11 +380,10 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 
 		ourLog.info("Have {} languages and {} regions", languagesMap.size(), regionsMap.size());
 
-		myLanguagesLanugageMap = languagesMap;
-		myLanguagesRegionMap = regionsMap;
+		return new LanguageRegistry(CompactCodeTable.of(languagesMap), CompactCodeTable.of(regionsMap));
 	}
 
-	private void populateSubTagMap(Map<String, String> theLanguagesMap, ObjectNode theNext) {
+	private static void populateSubTagMap(Map<String, String> theLanguagesMap, ObjectNode theNext) {
 		String language = theNext.get("Subtag").asText();
 		ArrayNode descriptions = (ArrayNode) theNext.get("Description");
 		String description = null;
@@ -401,35 +409,42 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 		retVal.setSearchedForCode(theCode);
 		retVal.setSearchedForSystem(UCUM_CODESYSTEM_URL);
 
-		try (InputStream input = ClasspathUtil.loadResourceAsStream("/ucum-essence.xml")) {
-			UcumEssenceService svc = new UcumEssenceService(input);
-			String outcome = svc.analyse(theCode);
+		try {
+			String outcome = UCUM_ESSENCE_SERVICE.get().analyse(theCode);
 			if (outcome != null) {
 				retVal.setFound(true);
 				retVal.setCodeDisplay(outcome);
 			}
-		} catch (UcumException | IOException e) {
+		} catch (UcumException e) {
 			ourLog.debug("Failed parse UCUM code: {}", theCode, e);
 			retVal.setErrorMessage(e.getMessage());
 		}
 		return retVal;
 	}
 
+	private static UcumEssenceService loadUcumEssenceService() {
+		try (InputStream input = ClasspathUtil.loadResourceAsStream("/ucum-essence.xml")) {
+			return new UcumEssenceService(input);
+		} catch (UcumException | IOException e) {
+			throw new ConfigurationException(Msg.code(2843) + "Failed to load UCUM essence: " + e.getMessage(), e);
+		}
+	}
+
 	@Override
 	public IBaseResource fetchCodeSystem(String theSystem) {
 		final CodeSystemContentMode content;
-		Map<String, String> map;
+		CompactCodeTable map;
 		switch (defaultString(theSystem)) {
 			case COUNTRIES_CODESYSTEM_URL:
-				map = ISO_3166_CODES;
+				map = ISO_3166_CODES.get();
 				content = CodeSystemContentMode.COMPLETE;
 				break;
 			case CURRENCIES_CODESYSTEM_URL:
-				map = ISO_4217_CODES;
+				map = ISO_4217_CODES.get();
 				content = CodeSystemContentMode.COMPLETE;
 				break;
 			case MIMETYPES_CODESYSTEM_URL:
-				map = Collections.emptyMap();
+				map = CompactCodeTable.EMPTY;
 				content = CodeSystemContentMode.NOTPRESENT;
 				break;
 			default:
@@ -439,8 +454,8 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 		CodeSystem retVal = new CodeSystem();
 		retVal.setContent(content);
 		retVal.setUrl(theSystem);
-		for (Map.Entry<String, String> nextEntry : map.entrySet()) {
-			retVal.addConcept().setCode(nextEntry.getKey()).setDisplay(nextEntry.getValue());
+		for (int i = 0; i < map.size(); i++) {
+			retVal.addConcept().setCode(map.getCode(i)).setDisplay(map.getDisplay(i));
 		}
 
 		IBaseResource normalized = myVersionCanonicalizer.codeSystemFromCanonical(retVal);
@@ -1359,4 +1374,9 @@ public class CommonCodeSystemsTerminologyService implements IValidationSupport {
 	protected String getErrorMessage(String errorCode, String theFirstParam, String theSecondParam) {
 		return myFhirContext.getLocalizer().getMessage(getClass(), errorCode, theFirstParam, theSecondParam);
 	}
+
+	/**
+	 * The BCP-47 language and region subtags, keyed by lower case language and upper case region
+	 */
+	private record LanguageRegistry(CompactCodeTable languages, CompactCodeTable regions) {}
 }
@@ -0,0 +1,88 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * An immutable code to display lookup table, used by {@link CommonCodeSystemsTerminologyService}
+ * for the code systems whose contents are bundled with HAPI FHIR.
+ * <p>
+ * Codes and displays are held in a pair of parallel arrays sorted by code, and codes are
+ * found using a binary search. Compared to a {@link java.util.HashMap} this avoids one entry
+ * object per code and the hash table itself, which matters for the larger tables such as the
+ * BCP-47 language registry.
+ * </p>
+ */
+final class CompactCodeTable {
+
+	static final CompactCodeTable EMPTY = new CompactCodeTable(new String[0], new String[0]);
+
+	private final String[] myCodes;
+	private final String[] myDisplays;
+
+	private CompactCodeTable(String[] theCodes, String[] theDisplays) {
+		myCodes = theCodes;
+		myDisplays = theDisplays;
+	}
+
+	/**
+	 * Returns the display for the given code, or <code>null</code> if the code is not in the table
+	 * (or has no display)
+	 */
+	@Nullable
+	String get(@Nullable String theCode) {
+		int index = indexOf(theCode);
+		return index >= 0 ? myDisplays[index] : null;
+	}
+
+	boolean contains(@Nullable String theCode) {
+		return indexOf(theCode) >= 0;
+	}
+
+	int size() {
+		return myCodes.length;
+	}
+
+	/**
+	 * Returns the code at the given position. Codes are sorted in ascending order.
+	 */
+	String getCode(int theIndex) {
+		return myCodes[theIndex];
+	}
+
+	String getDisplay(int theIndex) {
+		return myDisplays[theIndex];
+	}
+
+	private int indexOf(@Nullable String theCode) {
+		if (theCode == null) {
+			return -1;
+		}
+		return Arrays.binarySearch(myCodes, theCode);
+	}
+
+	/**
+	 * Creates a table containing the entries of the given map. Entries with a <code>null</code>
+	 * code are ignored.
+	 */
+	@Nonnull
+	static CompactCodeTable of(@Nonnull Map<String, String> theCodeToDisplay) {
+		@SuppressWarnings("unchecked")
+		Map.Entry<String, String>[] entries = theCodeToDisplay.entrySet().stream()
+				.filter(t -> t.getKey() != null)
+				.sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+				.toArray(Map.Entry[]::new);
+
+		String[] codes = new String[entries.length];
+		String[] displays = new String[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			codes[i] = entries[i].getKey();
+			displays[i] = entries[i].getValue();
+		}
+		return new CompactCodeTable(codes, displays);
+	}
+}
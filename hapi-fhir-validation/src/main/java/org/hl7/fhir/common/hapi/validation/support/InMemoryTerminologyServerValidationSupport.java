@@ -8,12 +8,16 @@ import ca.uhn.fhir.context.support.LookupCodeRequest;
 import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.context.support.ValueSetExpansionOptions;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
+import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.FhirVersionIndependentConcept;
 import ca.uhn.hapi.converters.canonical.VersionCanonicalizer;
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.DateUtils;
 import org.hl7.fhir.dstu2.model.ValueSet;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
@@ -45,11 +49,21 @@ import static org.hl7.fhir.common.hapi.validation.support.CommonCodeSystemsTermi
  * completely in-memory. It is suitable for runtime validation purposes where no dedicated terminology
  * service exists (either an internal one such as the HAPI FHIR JPA terminology service, or an
  * external term service API)
+ * <p>
+ * The concepts of each CodeSystem are indexed by code the first time the CodeSystem is used,
+ * and the index is cached by CodeSystem URL and version for up to 10 minutes. Call
+ * {@link #invalidateCaches()} if a CodeSystem resource is modified (or replaced with different
+ * contents under the same URL and version) after it has been used.
+ * </p>
  */
 @SuppressWarnings("EnhancedSwitchMigration")
 public class InMemoryTerminologyServerValidationSupport implements IValidationSupport {
 	private static final String OUR_PIPE_CHARACTER = "|";
+	private static final long CODE_SYSTEM_INDEX_CACHE_TIMEOUT_MILLIS = 10 * DateUtils.MILLIS_PER_MINUTE;
+	private static final long CODE_SYSTEM_INDEX_CACHE_MAX_SIZE = 1000;
 	private final FhirContext myCtx;
+	private final Cache<String, CodeSystemIndex> myCodeSystemIndexes =
+			CacheFactory.build(CODE_SYSTEM_INDEX_CACHE_TIMEOUT_MILLIS, CODE_SYSTEM_INDEX_CACHE_MAX_SIZE);
 	private VersionCanonicalizer myVersionCanonicalizer;
 	private IssueSeverity myIssueSeverityForCodeDisplayMismatch = IssueSeverity.WARNING;
 
@@ -67,6 +81,12 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 	@VisibleForTesting
 	public void setVersionCanonicalizer(VersionCanonicalizer theVersionCanonicalizer) {
 		myVersionCanonicalizer = theVersionCanonicalizer;
+		myCodeSystemIndexes.invalidateAll();
+	}
+
+	@Override
+	public void invalidateCaches() {
+		myCodeSystemIndexes.invalidateAll();
 	}
 
 	@Override
@@ -816,11 +836,12 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 		String includeOrExcludeConceptSystemUrl = theInclude.getSystem();
 		String includeOrExcludeConceptSystemVersion = theInclude.getVersion();
 
-		Function<String, CodeSystem> codeSystemLoader = newCodeSystemLoader(theValidationSupportContext);
+		Function<String, CodeSystemIndex> codeSystemLoader = newCodeSystemLoader(theValidationSupportContext);
 		Function<String, org.hl7.fhir.r5.model.ValueSet> valueSetLoader =
 				newValueSetLoader(theValidationSupportContext);
 
 		List<FhirVersionIndependentConcept> nextCodeList = new ArrayList<>();
+		CodeSystemIndex includeOrExcludeSystemIndex = null;
 		CodeSystem includeOrExcludeSystemResource = null;
 
 		if (isNotBlank(includeOrExcludeConceptSystemUrl)) {
@@ -845,7 +866,10 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 				loadedCodeSystemUrl = includeOrExcludeConceptSystemUrl;
 			}
 
-			includeOrExcludeSystemResource = codeSystemLoader.apply(loadedCodeSystemUrl);
+			includeOrExcludeSystemIndex = codeSystemLoader.apply(loadedCodeSystemUrl);
+			if (includeOrExcludeSystemIndex != null) {
+				includeOrExcludeSystemResource = includeOrExcludeSystemIndex.getCodeSystem();
+			}
 
 			boolean isIncludeWithDeclaredConcepts = !theInclude.getConcept().isEmpty();
 
@@ -1006,10 +1030,14 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 
 			if (includeOrExcludeSystemResource != null
 					&& includeOrExcludeSystemResource.getContent() != Enumerations.CodeSystemContentMode.NOTPRESENT) {
-				addCodes(
+				// If we're looking for a single code, only the concepts with that code can match
+				List<CodeSystem.ConceptDefinitionComponent> concepts = theWantCode != null
+						? includeOrExcludeSystemIndex.getConcepts(theWantCode)
+						: includeOrExcludeSystemIndex.getConcepts();
+				addFlattenedCodes(
 						includeOrExcludeConceptSystemUrl,
 						includeOrExcludeConceptSystemVersion,
-						includeOrExcludeSystemResource.getConcept(),
+						concepts,
 						nextCodeList,
 						wantCodes);
 			}
@@ -1041,7 +1069,7 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 
 		boolean retVal = false;
 		ValueSetExpansionFilterContext valueSetExpansionFilterContext =
-				new ValueSetExpansionFilterContext(includeOrExcludeSystemResource, theInclude.getFilter());
+				new ValueSetExpansionFilterContext(includeOrExcludeSystemIndex, theInclude.getFilter());
 
 		for (FhirVersionIndependentConcept next : nextCodeList) {
 			if (includeOrExcludeSystemResource != null && theWantCode != null) {
@@ -1072,34 +1100,42 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 		};
 	}
 
-	private Function<String, CodeSystem> newCodeSystemLoader(ValidationSupportContext theValidationSupportContext) {
+	private Function<String, CodeSystemIndex> newCodeSystemLoader(
+			ValidationSupportContext theValidationSupportContext) {
 		FhirVersionEnum version = myCtx.getVersion().getVersion();
+		Function<IBaseResource, CodeSystem> converter;
 		if (FhirVersionEnum.DSTU2.equals(version) || FhirVersionEnum.DSTU2_HL7ORG.equals(version)) {
-			return t -> {
-				IBaseResource codeSystem =
-						theValidationSupportContext.getRootValidationSupport().fetchCodeSystem(t);
-				CodeSystem retVal = null;
-				if (codeSystem != null) {
-					retVal = new CodeSystem();
-					if (codeSystem instanceof ca.uhn.fhir.model.dstu2.resource.ValueSet codeSystemCasted) {
-						retVal.setUrl(codeSystemCasted.getUrl());
-						addCodesDstu2(codeSystemCasted.getCodeSystem().getConcept(), retVal.getConcept());
-					} else {
-						org.hl7.fhir.dstu2.model.ValueSet codeSystemCasted =
-								(org.hl7.fhir.dstu2.model.ValueSet) codeSystem;
-						retVal.setUrl(codeSystemCasted.getUrl());
-						addCodesDstu2Hl7Org(codeSystemCasted.getCodeSystem().getConcept(), retVal.getConcept());
-					}
+			converter = codeSystem -> {
+				CodeSystem retVal = new CodeSystem();
+				if (codeSystem instanceof ca.uhn.fhir.model.dstu2.resource.ValueSet codeSystemCasted) {
+					retVal.setUrl(codeSystemCasted.getUrl());
+					addCodesDstu2(codeSystemCasted.getCodeSystem().getConcept(), retVal.getConcept());
+				} else {
+					org.hl7.fhir.dstu2.model.ValueSet codeSystemCasted = (org.hl7.fhir.dstu2.model.ValueSet) codeSystem;
+					retVal.setUrl(codeSystemCasted.getUrl());
+					addCodesDstu2Hl7Org(codeSystemCasted.getCodeSystem().getConcept(), retVal.getConcept());
 				}
 				return retVal;
 			};
 		} else {
-			return t -> {
-				IBaseResource codeSystem =
-						theValidationSupportContext.getRootValidationSupport().fetchCodeSystem(t);
-				return myVersionCanonicalizer.codeSystemToValidatorCanonical(codeSystem);
-			};
+			converter = myVersionCanonicalizer::codeSystemToValidatorCanonical;
 		}
+
+		return t -> {
+			IBaseResource codeSystem =
+					theValidationSupportContext.getRootValidationSupport().fetchCodeSystem(t);
+			if (codeSystem == null) {
+				return null;
+			}
+			FhirTerser terser = myCtx.newTerser();
+			String key = defaultString(terser.getSinglePrimitiveValueOrNull(codeSystem, "url"), t)
+					+ OUR_PIPE_CHARACTER
+					+ defaultString(terser.getSinglePrimitiveValueOrNull(codeSystem, "version"));
+			return myCodeSystemIndexes.get(key, k -> {
+				CodeSystem canonical = converter.apply(codeSystem);
+				return canonical != null ? new CodeSystemIndex(canonical) : null;
+			});
+		};
 	}
 
 	private String getFailureMessageForMissingOrUnusableCodeSystem(
@@ -1133,6 +1169,22 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 		}
 	}
 
+	private void addFlattenedCodes(
+			String theCodeSystemUrl,
+			String theCodeSystemVersion,
+			List<CodeSystem.ConceptDefinitionComponent> theSource,
+			List<FhirVersionIndependentConcept> theTarget,
+			Set<String> theCodeFilter) {
+		for (CodeSystem.ConceptDefinitionComponent next : theSource) {
+			if (isNotBlank(next.getCode())) {
+				if (theCodeFilter == null || theCodeFilter.contains(next.getCode())) {
+					theTarget.add(new FhirVersionIndependentConcept(
+							theCodeSystemUrl, next.getCode(), next.getDisplay(), theCodeSystemVersion));
+				}
+			}
+		}
+	}
+
 	private String optionallyPopulateVersionFromUrl(String theSystemUrl, String theVersion) {
 		if (contains(theSystemUrl, OUR_PIPE_CHARACTER) && isBlank(theVersion)) {
 			theVersion = substringAfter(theSystemUrl, OUR_PIPE_CHARACTER);
@@ -13,15 +13,22 @@ import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.client.api.IRestfulClientFactory;
 import ca.uhn.fhir.rest.gclient.IQuery;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.Logs;
+import ca.uhn.fhir.util.OperationOutcomeUtil;
 import ca.uhn.fhir.util.ParametersUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseDatatype;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
@@ -46,10 +53,20 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.util.ParametersUtil.getNamedParameterResource;
 import static ca.uhn.fhir.util.ParametersUtil.getNamedParameterValueAsString;
+import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -58,6 +75,13 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  * from a remote FHIR based terminology server. It will invoke the FHIR
  * <a href="http://hl7.org/fhir/valueset-operation-validate-code.html">ValueSet/$validate-code</a>
  * operation in order to validate codes.
+ * <p>
+ * Identical <code>$validate-code</code> requests which are issued concurrently (e.g. by several
+ * threads validating the same Bundle) are coalesced, so that only one request is sent to the
+ * remote server and its result is shared by every caller. Requests can also be issued without
+ * blocking by using {@link #validateCodeAsync(String, String, String, String)}, and can optionally
+ * be combined into <code>batch</code> Bundles (see {@link #setValidateCodeBatchSize(int)}).
+ * </p>
  */
 public class RemoteTerminologyServiceValidationSupport extends BaseValidationSupport implements IValidationSupport {
 	private static final Logger ourLog = Logs.getTerminologyTroubleshootingLog();
@@ -65,8 +89,29 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 	public static final String ERROR_CODE_UNKNOWN_CODE_IN_CODE_SYSTEM = "unknownCodeInSystem";
 	public static final String ERROR_CODE_UNKNOWN_CODE_IN_VALUE_SET = "unknownCodeInValueSet";
 
+	/**
+	 * Default value for {@link #setMaxConcurrentRequests(int)}
+	 *
+	 * @since 8.6.0
+	 */
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+	/**
+	 * Default value for {@link #setValidateCodeBatchSize(int)}
+	 *
+	 * @since 8.6.0
+	 */
+	public static final int DEFAULT_VALIDATE_CODE_BATCH_SIZE = 1;
+
 	private String myBaseUrl;
 	private final List<Object> myClientInterceptors = new ArrayList<>();
+	private final ConcurrentHashMap<ValidateCodeKey, CompletableFuture<CodeValidationResult>>
+			myInFlightValidateCodeRequests = new ConcurrentHashMap<>();
+	private final Queue<PendingValidateCode> myPendingValidateCodeRequests = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger myActiveValidateCodeDispatchers = new AtomicInteger();
+	private int myMaxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+	private int myValidateCodeBatchSize = DEFAULT_VALIDATE_CODE_BATCH_SIZE;
+	private Executor myExecutor;
 
 	@Nullable
 	private final IRestfulClientFactory myRestfulClientFactory;
@@ -617,10 +662,243 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 			return null;
 		}
 
-		IGenericClient client = provideClient();
+		// Requests containing a ValueSet resource are sent as-is
+		if (theValueSet != null) {
+			return doInvokeRemoteValidateCode(theCodeSystem, theCode, theDisplay, theValueSetUrl, theValueSet);
+		}
+
+		if (myValidateCodeBatchSize > 1) {
+			return joinValidateCode(validateCodeAsync(theCodeSystem, theCode, theDisplay, theValueSetUrl));
+		}
+
+		ValidateCodeKey key = new ValidateCodeKey(myBaseUrl, theCodeSystem, theCode, theDisplay, theValueSetUrl);
+		CompletableFuture<CodeValidationResult> future = new CompletableFuture<>();
+		CompletableFuture<CodeValidationResult> inFlight = myInFlightValidateCodeRequests.putIfAbsent(key, future);
+		if (inFlight != null) {
+			ourLog.debug("Waiting for in-flight $validate-code request for {}", key);
+			return joinValidateCode(inFlight);
+		}
+
+		try {
+			CodeValidationResult retVal =
+					doInvokeRemoteValidateCode(theCodeSystem, theCode, theDisplay, theValueSetUrl, null);
+			future.complete(retVal);
+			return retVal;
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			myInFlightValidateCodeRequests.remove(key, future);
+		}
+	}
+
+	/**
+	 * Validates a code against a remote CodeSystem (if <code>theValueSetUrl</code> is <code>null</code>) or
+	 * ValueSet without blocking the calling thread.
+	 * <p>
+	 * At most {@link #getMaxConcurrentRequests()} requests are sent to the remote server at the same time.
+	 * Requests which are issued while that limit is reached are queued, and if the
+	 * {@link #setValidateCodeBatchSize(int) batch size} is greater than 1, queued requests are sent together
+	 * in a single <code>batch</code> Bundle. Identical requests which are already in flight are not sent again.
+	 * </p>
+	 *
+	 * @param theCodeSystem  The code system URL
+	 * @param theCode        The code to validate
+	 * @param theDisplay     The display name to validate, or <code>null</code>
+	 * @param theValueSetUrl The ValueSet URL, or <code>null</code> to validate the code against the CodeSystem
+	 * @return A future which will be completed with the validation result, or with <code>null</code> if the code is blank
+	 * @since 8.6.0
+	 */
+	public CompletableFuture<CodeValidationResult> validateCodeAsync(
+			String theCodeSystem, String theCode, String theDisplay, String theValueSetUrl) {
+		if (isBlank(theCode)) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		ValidateCodeKey key = new ValidateCodeKey(myBaseUrl, theCodeSystem, theCode, theDisplay, theValueSetUrl);
+		CompletableFuture<CodeValidationResult> future = new CompletableFuture<>();
+		CompletableFuture<CodeValidationResult> inFlight = myInFlightValidateCodeRequests.putIfAbsent(key, future);
+		if (inFlight != null) {
+			return inFlight.copy();
+		}
+
+		future.whenComplete((result, throwable) -> myInFlightValidateCodeRequests.remove(key, future));
+		myPendingValidateCodeRequests.add(new PendingValidateCode(key, future));
+		scheduleValidateCodeDispatch();
+		return future.copy();
+	}
 
+	private void scheduleValidateCodeDispatch() {
+		while (true) {
+			int active = myActiveValidateCodeDispatchers.get();
+			if (active >= myMaxConcurrentRequests) {
+				// One of the active dispatchers will pick up the request
+				return;
+			}
+			if (myActiveValidateCodeDispatchers.compareAndSet(active, active + 1)) {
+				break;
+			}
+		}
+
+		try {
+			getExecutor().execute(this::dispatchPendingValidateCodeRequests);
+		} catch (RejectedExecutionException e) {
+			dispatchPendingValidateCodeRequests();
+		}
+	}
+
+	private void dispatchPendingValidateCodeRequests() {
+		try {
+			while (true) {
+				List<PendingValidateCode> requests = new ArrayList<>();
+				PendingValidateCode next;
+				while (requests.size() < myValidateCodeBatchSize
+						&& (next = myPendingValidateCodeRequests.poll()) != null) {
+					requests.add(next);
+				}
+
+				if (requests.isEmpty()) {
+					break;
+				} else if (requests.size() == 1) {
+					invokeRemoteValidateCode(requests.get(0));
+				} else {
+					invokeRemoteValidateCodeBatch(requests);
+				}
+			}
+		} finally {
+			myActiveValidateCodeDispatchers.decrementAndGet();
+
+			// A request may have been queued after we stopped looking
+			if (!myPendingValidateCodeRequests.isEmpty()) {
+				scheduleValidateCodeDispatch();
+			}
+		}
+	}
+
+	private void invokeRemoteValidateCode(PendingValidateCode theRequest) {
+		ValidateCodeKey key = theRequest.key();
+		try {
+			theRequest
+					.future()
+					.complete(doInvokeRemoteValidateCode(
+							key.codeSystem(), key.code(), key.display(), key.valueSetUrl(), null));
+		} catch (RuntimeException e) {
+			theRequest.future().completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Sends several <code>$validate-code</code> requests to the remote server in a single
+	 * <code>batch</code> Bundle. If the server rejects the batch, the requests are sent individually.
+	 */
+	private void invokeRemoteValidateCodeBatch(List<PendingValidateCode> theRequests) {
+		try {
+			FhirTerser terser = myCtx.newTerser();
+			BundleBuilder bundleBuilder = new BundleBuilder(myCtx);
+			bundleBuilder.setType("batch");
+			for (PendingValidateCode next : theRequests) {
+				ValidateCodeKey key = next.key();
+				IBaseParameters input = buildValidateCodeInputParameters(
+						key.codeSystem(), key.code(), key.display(), key.valueSetUrl(), null);
+				IBase entry = bundleBuilder.addEntry();
+				bundleBuilder.addToEntry(entry, "resource", input);
+				terser.setElement(entry, "request.method", "POST");
+				terser.setElement(
+						entry, "request.url", getValidateCodeResourceType(key.valueSetUrl(), null) + "/$validate-code");
+			}
+
+			IBaseBundle response;
+			try {
+				response = provideClient()
+						.transaction()
+						.withBundle(bundleBuilder.getBundle())
+						.execute();
+			} catch (BaseServerResponseException e) {
+				ourLog.warn(
+						"Batch $validate-code request to {} failed, sending requests individually: {}",
+						getBaseUrl(),
+						e.getMessage());
+				theRequests.forEach(this::invokeRemoteValidateCode);
+				return;
+			}
+
+			List<IBase> entries = terser.getValues(response, "entry");
+			for (int i = 0; i < theRequests.size(); i++) {
+				PendingValidateCode next = theRequests.get(i);
+				try {
+					if (i >= entries.size()) {
+						throw new InternalErrorException(Msg.code(2841) + "Batch response from " + getBaseUrl()
+								+ " has no entry for $validate-code request " + i);
+					}
+					next.future().complete(createBatchEntryCodeValidationResult(next.key(), entries.get(i), terser));
+				} catch (RuntimeException e) {
+					next.future().completeExceptionally(e);
+				}
+			}
+		} catch (RuntimeException e) {
+			theRequests.forEach(t -> t.future().completeExceptionally(e));
+		}
+	}
+
+	private CodeValidationResult createBatchEntryCodeValidationResult(
+			ValidateCodeKey theKey, IBase theResponseEntry, FhirTerser theTerser) {
+		ValidationErrorMessageBuilder errorMessageBuilder =
+				newValidateCodeErrorMessageBuilder(theKey.codeSystem(), theKey.code(), theKey.valueSetUrl(), null);
+
+		IBaseResource resource = theTerser.getSingleValueOrNull(theResponseEntry, "resource", IBaseResource.class);
+		if (resource instanceof IBaseParameters) {
+			return createCodeValidationResult((IBaseParameters) resource, errorMessageBuilder, theKey.code());
+		}
+
+		String status = defaultString(theTerser.getSinglePrimitiveValueOrNull(theResponseEntry, "response.status"));
+		if (!status.startsWith("4")) {
+			throw new InternalErrorException(Msg.code(2842) + "Unexpected batch response entry status from "
+					+ getBaseUrl() + " for $validate-code request: " + status);
+		}
+
+		String message = status;
+		if (!(resource instanceof IBaseOperationOutcome)) {
+			resource = theTerser.getSingleValueOrNull(theResponseEntry, "response.outcome", IBaseResource.class);
+		}
+		if (resource instanceof IBaseOperationOutcome) {
+			String diagnostics = OperationOutcomeUtil.getFirstIssueDiagnostics(myCtx, (IBaseOperationOutcome) resource);
+			if (isNotBlank(diagnostics)) {
+				message = diagnostics;
+			}
+		}
+
+		CodeValidationIssueCode issueCode =
+				status.startsWith("404") ? CodeValidationIssueCode.NOT_FOUND : CodeValidationIssueCode.CODE_INVALID;
+		return createErrorCodeValidationResult(issueCode, errorMessageBuilder.buildErrorMessage(message));
+	}
+
+	private static CodeValidationResult joinValidateCode(CompletableFuture<CodeValidationResult> theFuture) {
+		try {
+			return theFuture.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new InternalErrorException(Msg.code(2840) + "Failed to invoke $validate-code", e.getCause());
+		}
+	}
+
+	private synchronized Executor getExecutor() {
+		if (myExecutor == null) {
+			BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+					.namingPattern("RemoteTerminologyService-%d")
+					.daemon(true)
+					.build();
+			// The number of threads in use is bounded by the number of concurrent requests
+			myExecutor = Executors.newCachedThreadPool(threadFactory);
+		}
+		return myExecutor;
+	}
+
+	private ValidationErrorMessageBuilder newValidateCodeErrorMessageBuilder(
+			String theCodeSystem, String theCode, String theValueSetUrl, IBaseResource theValueSet) {
 		// this message builder can be removed once we introduce a parameter object like CodeValidationRequest
-		ValidationErrorMessageBuilder errorMessageBuilder = theServerMessage -> {
+		return theServerMessage -> {
 			if (theValueSetUrl == null && theValueSet == null) {
 				return getErrorMessage(
 						ERROR_CODE_UNKNOWN_CODE_IN_CODE_SYSTEM, theCodeSystem, theCode, getBaseUrl(), theServerMessage);
@@ -633,14 +911,26 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 					getBaseUrl(),
 					theServerMessage);
 		};
+	}
+
+	private static String getValidateCodeResourceType(String theValueSetUrl, IBaseResource theValueSet) {
+		if (theValueSet == null && theValueSetUrl == null) {
+			return "CodeSystem";
+		}
+		return "ValueSet";
+	}
+
+	private CodeValidationResult doInvokeRemoteValidateCode(
+			String theCodeSystem, String theCode, String theDisplay, String theValueSetUrl, IBaseResource theValueSet) {
+		IGenericClient client = provideClient();
+
+		ValidationErrorMessageBuilder errorMessageBuilder =
+				newValidateCodeErrorMessageBuilder(theCodeSystem, theCode, theValueSetUrl, theValueSet);
 
 		IBaseParameters input =
 				buildValidateCodeInputParameters(theCodeSystem, theCode, theDisplay, theValueSetUrl, theValueSet);
 
-		String resourceType = "ValueSet";
-		if (theValueSet == null && theValueSetUrl == null) {
-			resourceType = "CodeSystem";
-		}
+		String resourceType = getValidateCodeResourceType(theValueSetUrl, theValueSet);
 
 		try {
 			IBaseParameters output = client.operation()
@@ -849,4 +1139,73 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		Validate.notNull(theClientInterceptor, "theClientInterceptor must not be null");
 		myClientInterceptors.add(theClientInterceptor);
 	}
+
+	/**
+	 * Returns the maximum number of <code>$validate-code</code> requests issued through
+	 * {@link #validateCodeAsync(String, String, String, String)} which will be sent to the
+	 * remote server at the same time. Defaults to {@value #DEFAULT_MAX_CONCURRENT_REQUESTS}.
+	 *
+	 * @since 8.6.0
+	 */
+	public int getMaxConcurrentRequests() {
+		return myMaxConcurrentRequests;
+	}
+
+	/**
+	 * Sets the maximum number of <code>$validate-code</code> requests issued through
+	 * {@link #validateCodeAsync(String, String, String, String)} which will be sent to the
+	 * remote server at the same time. Defaults to {@value #DEFAULT_MAX_CONCURRENT_REQUESTS}.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setMaxConcurrentRequests(int theMaxConcurrentRequests) {
+		Validate.isTrue(theMaxConcurrentRequests > 0, "theMaxConcurrentRequests must be greater than 0");
+		myMaxConcurrentRequests = theMaxConcurrentRequests;
+	}
+
+	/**
+	 * Returns the maximum number of queued <code>$validate-code</code> requests which will be
+	 * combined into a single <code>batch</code> Bundle. Defaults to {@value #DEFAULT_VALIDATE_CODE_BATCH_SIZE},
+	 * meaning that requests are never batched.
+	 *
+	 * @since 8.6.0
+	 */
+	public int getValidateCodeBatchSize() {
+		return myValidateCodeBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of queued <code>$validate-code</code> requests which will be
+	 * combined into a single <code>batch</code> Bundle. Defaults to {@value #DEFAULT_VALIDATE_CODE_BATCH_SIZE},
+	 * meaning that requests are never batched.
+	 * <p>
+	 * If this is set to a value greater than 1, code validations against a CodeSystem or a ValueSet URL
+	 * are queued and sent by at most {@link #getMaxConcurrentRequests()} threads, so that requests
+	 * which are issued while all of these threads are busy are sent together. The remote server must
+	 * support <code>batch</code> Bundles; if a batch is rejected, its requests are sent individually.
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public void setValidateCodeBatchSize(int theValidateCodeBatchSize) {
+		Validate.isTrue(theValidateCodeBatchSize > 0, "theValidateCodeBatchSize must be greater than 0");
+		myValidateCodeBatchSize = theValidateCodeBatchSize;
+	}
+
+	/**
+	 * Sets the executor used to send requests issued through
+	 * {@link #validateCodeAsync(String, String, String, String)}. If not set, a pool of daemon
+	 * threads is created when it is first needed.
+	 *
+	 * @since 8.6.0
+	 */
+	public synchronized void setExecutor(@Nonnull Executor theExecutor) {
+		Validate.notNull(theExecutor, "theExecutor must not be null");
+		myExecutor = theExecutor;
+	}
+
+	private record ValidateCodeKey(
+			String baseUrl, String codeSystem, String code, String display, String valueSetUrl) {}
+
+	private record PendingValidateCode(ValidateCodeKey key, CompletableFuture<CodeValidationResult> future) {}
 }
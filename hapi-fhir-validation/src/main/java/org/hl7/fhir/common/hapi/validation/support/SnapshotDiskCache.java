@@ -0,0 +1,149 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.util.FhirTerser;
+import ca.uhn.fhir.util.VersionUtil;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Stores generated StructureDefinition snapshots in a local directory so that they
+ * survive restarts.
+ * <p>
+ * Entries are keyed by the canonical URL and version of the StructureDefinition,
+ * along with a hash of its full contents, of the full contents of each StructureDefinition
+ * in its base definition chain, and of the HAPI FHIR version which generated the snapshot.
+ * Any change to the profile or to one of its base profiles, or an upgrade of HAPI FHIR,
+ * therefore results in a cache miss rather than a stale snapshot. Failures to read or write the
+ * cache are logged and otherwise ignored, since the snapshot can always be regenerated.
+ * </p>
+ */
+class SnapshotDiskCache {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(SnapshotDiskCache.class);
+	private static final String FILE_SUFFIX = ".json";
+
+	private final Path myDirectory;
+
+	SnapshotDiskCache(@Nonnull Path theDirectory) {
+		myDirectory = theDirectory;
+	}
+
+	Path getDirectory() {
+		return myDirectory;
+	}
+
+	/**
+	 * @return The cached snapshot for the given input, or <code>null</code> if none is cached
+	 */
+	@Nullable
+	IBaseResource get(FhirContext theFhirContext, IBaseResource theInput, String theKey) {
+		Path file = myDirectory.resolve(theKey + FILE_SUFFIX);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			String contents = Files.readString(file, StandardCharsets.UTF_8);
+			IBaseResource retVal = theFhirContext.newJsonParser().parseResource(theInput.getClass(), contents);
+			ourLog.debug("Loaded snapshot for {} from disk cache file {}", theInput.getIdElement(), file);
+			return retVal;
+		} catch (Exception e) {
+			ourLog.warn("Failed to read snapshot disk cache file {}: {}", file, e.toString());
+			return null;
+		}
+	}
+
+	void put(FhirContext theFhirContext, IBaseResource theSnapshot, String theKey) {
+		FhirTerser terser = theFhirContext.newTerser();
+		if (terser.getValues(theSnapshot, "snapshot.element").isEmpty()) {
+			// Snapshot generation didn't produce anything (e.g. a circular dependency was detected)
+			return;
+		}
+
+		Path file = myDirectory.resolve(theKey + FILE_SUFFIX);
+		try {
+			Files.createDirectories(myDirectory);
+			String contents = theFhirContext.newJsonParser().encodeResourceToString(theSnapshot);
+
+			// Write to a temporary file first so that other processes never see a partial file
+			Path tempFile = Files.createTempFile(myDirectory, theKey, ".tmp");
+			try {
+				Files.writeString(tempFile, contents, StandardCharsets.UTF_8);
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tempFile);
+			}
+		} catch (IOException e) {
+			ourLog.warn("Failed to write snapshot disk cache file {}: {}", file, e.toString());
+		}
+	}
+
+	/**
+	 * Computes the cache key for the given snapshot generation input
+	 */
+	String createKey(
+			ValidationSupportContext theValidationSupportContext,
+			FhirContext theFhirContext,
+			IBaseResource theInput,
+			String theUrl,
+			String theWebUrl,
+			String theProfileName) {
+		FhirTerser terser = theFhirContext.newTerser();
+		IParser parser = theFhirContext.newJsonParser();
+		String url = terser.getSinglePrimitiveValueOrNull(theInput, "url");
+		String version = terser.getSinglePrimitiveValueOrNull(theInput, "version");
+
+		Hasher hasher = Hashing.sha256().newHasher();
+		putString(hasher, VersionUtil.getVersion());
+		putString(hasher, theFhirContext.getVersion().getVersion().name());
+		putString(hasher, url);
+		putString(hasher, version);
+		putString(hasher, theUrl);
+		putString(hasher, theWebUrl);
+		putString(hasher, theProfileName);
+		putString(hasher, parser.encodeResourceToString(theInput));
+
+		// The generated snapshot is derived from the base definitions, so they are part of the key too
+		String baseDefinitionPath =
+				theFhirContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3) ? "base" : "baseDefinition";
+		Set<String> visitedUrls = new HashSet<>();
+		String baseUrl = terser.getSinglePrimitiveValueOrNull(theInput, baseDefinitionPath);
+		while (isNotBlank(baseUrl) && visitedUrls.add(baseUrl)) {
+			putString(hasher, baseUrl);
+			IBaseResource base =
+					theValidationSupportContext.getRootValidationSupport().fetchStructureDefinition(baseUrl);
+			if (base == null) {
+				break;
+			}
+			putString(hasher, parser.encodeResourceToString(base));
+			baseUrl = terser.getSinglePrimitiveValueOrNull(base, baseDefinitionPath);
+		}
+
+		return hasher.hash().toString();
+	}
+
+	private static void putString(Hasher theHasher, String theValue) {
+		String value = defaultString(theValue);
+		theHasher.putInt(value.length());
+		theHasher.putString(value, StandardCharsets.UTF_8);
+	}
+}
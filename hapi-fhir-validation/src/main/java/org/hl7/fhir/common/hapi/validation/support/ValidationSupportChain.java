@@ -29,6 +29,7 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -97,8 +98,10 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  * </li>
  * <li>
  *     Results of {@link #generateSnapshot(ValidationSupportContext, IBaseResource, String, String, String)}
- *     are not cached, since this method is generally called in contexts where the results
- *     are cached.
+ *     are not cached in memory, since this method is generally called in contexts where the results
+ *     are cached. They can optionally be cached on disk however, using
+ *     {@link CacheConfiguration#setSnapshotDiskCacheDirectory(Path)}, so that snapshots do not need
+ *     to be regenerated after a restart.
  * </li>
  * <li>
  *     Results of all other methods are stored in an expiring cache.
@@ -144,6 +147,10 @@ public class ValidationSupportChain implements IValidationSupport {
 
 	private final ThreadPoolExecutor myBackgroundExecutor;
 	private final CacheConfiguration myCacheConfiguration;
+
+	@Nullable
+	private final SnapshotDiskCache mySnapshotDiskCache;
+
 	private boolean myEnabledValidationForCodingsLogicalAnd;
 	private String myName = getClass().getSimpleName();
 	private ValidationSupportChainMetrics myMetrics;
@@ -211,6 +218,11 @@ public class ValidationSupportChain implements IValidationSupport {
 		Validate.notNull(theValidationSupportModules, "theValidationSupportModules must not be null");
 
 		myCacheConfiguration = theCacheConfiguration;
+		if (theCacheConfiguration.getSnapshotDiskCacheDirectory() != null) {
+			mySnapshotDiskCache = new SnapshotDiskCache(theCacheConfiguration.getSnapshotDiskCacheDirectory());
+		} else {
+			mySnapshotDiskCache = null;
+		}
 		if (theCacheConfiguration.getCacheSize() == 0 || theCacheConfiguration.getCacheTimeout() == 0) {
 			myExpiringCache = null;
 			myNonExpiringCache = null;
@@ -423,11 +435,21 @@ public class ValidationSupportChain implements IValidationSupport {
 			String theProfileName) {
 
 		/*
-		 * No caching for this method because we typically cache the results anyhow.
+		 * No in-memory caching for this method because we typically cache the results anyhow.
 		 * If this ever changes, make sure to update the class javadocs and the
 		 * HAPI FHIR documentation which indicate that this isn't cached.
 		 */
 
+		String diskCacheKey = null;
+		if (mySnapshotDiskCache != null && getFhirContext() != null) {
+			diskCacheKey = mySnapshotDiskCache.createKey(
+					theValidationSupportContext, getFhirContext(), theInput, theUrl, theWebUrl, theProfileName);
+			IBaseResource retVal = mySnapshotDiskCache.get(getFhirContext(), theInput, diskCacheKey);
+			if (retVal != null) {
+				return retVal;
+			}
+		}
+
 		for (IValidationSupport next : myChain) {
 			IBaseResource retVal =
 					next.generateSnapshot(theValidationSupportContext, theInput, theUrl, theWebUrl, theProfileName);
@@ -437,6 +459,9 @@ public class ValidationSupportChain implements IValidationSupport {
 						.addArgument(theInput::getIdElement)
 						.addArgument(next::getName)
 						.log();
+				if (diskCacheKey != null) {
+					mySnapshotDiskCache.put(getFhirContext(), retVal, diskCacheKey);
+				}
 				return retVal;
 			}
 		}
@@ -1078,6 +1103,7 @@ public class ValidationSupportChain implements IValidationSupport {
 
 		private long myCacheTimeout;
 		private int myCacheSize;
+		private Path mySnapshotDiskCacheDirectory;
 
 		/**
 		 * Non-instantiable. Use the factory methods.
@@ -1106,6 +1132,31 @@ public class ValidationSupportChain implements IValidationSupport {
 			return this;
 		}
 
+		/**
+		 * @see #setSnapshotDiskCacheDirectory(Path)
+		 * @since 8.6.0
+		 */
+		@Nullable
+		public Path getSnapshotDiskCacheDirectory() {
+			return mySnapshotDiskCacheDirectory;
+		}
+
+		/**
+		 * If set (default is <code>null</code>), StructureDefinition snapshots generated by the
+		 * chain are stored as JSON files in the given directory, and are loaded from there
+		 * instead of being regenerated, including after a restart. Entries are keyed by the
+		 * canonical URL, version and a hash of the contents of the StructureDefinition and of
+		 * its base definitions, so a changed profile (or base profile) is never served a stale
+		 * snapshot. The directory is created if it does not
+		 * exist. This setting applies even if in-memory caching is {@link #disabled() disabled}.
+		 *
+		 * @since 8.6.0
+		 */
+		public CacheConfiguration setSnapshotDiskCacheDirectory(@Nullable Path theSnapshotDiskCacheDirectory) {
+			mySnapshotDiskCacheDirectory = theSnapshotDiskCacheDirectory;
+			return this;
+		}
+
 		/**
 		 * Creates a cache configuration with sensible default values:
 		 * 10 minutes expiry, and 5000 cache entries.
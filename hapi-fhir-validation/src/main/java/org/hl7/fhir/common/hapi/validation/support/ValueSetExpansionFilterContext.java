@@ -1,13 +1,11 @@
 package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.util.FhirVersionIndependentConcept;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.r5.model.CodeSystem;
 import org.hl7.fhir.r5.model.ValueSet;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -24,22 +22,26 @@ import java.util.regex.PatternSyntaxException;
  * Supports: equal | is-a | descendent-of | is-not-a | regex | in | not-in | generalizes | child-of | descendent-leaf | exists
  */
 public class ValueSetExpansionFilterContext {
-	private final Map<String, Map<String, String>> propertyIndex = new HashMap<>();
-
-	private final Map<String, Set<String>> conceptCodeTree = new HashMap<>();
-	private final Set<String> allCodes = new HashSet<>();
-	private final Set<String> allCodesLower = new HashSet<>();
 	private final Map<String, Set<String>> inSetsMap = new HashMap<>();
 	private final Map<String, Pattern> regexCache = new HashMap<>();
 	private final CodeSystem codeSystem;
 	private final List<ValueSet.ConceptSetFilterComponent> filters;
-	private boolean hasIndexRun = false;
+	private CodeSystemIndex codeSystemIndex;
 
 	public ValueSetExpansionFilterContext(CodeSystem codeSystem, List<ValueSet.ConceptSetFilterComponent> filters) {
 		this.codeSystem = codeSystem;
 		this.filters = filters;
 	}
 
+	/**
+	 * Constructor which uses an index that has already been built for the CodeSystem
+	 */
+	ValueSetExpansionFilterContext(
+			@Nullable CodeSystemIndex codeSystemIndex, List<ValueSet.ConceptSetFilterComponent> filters) {
+		this(codeSystemIndex != null ? codeSystemIndex.getCodeSystem() : null, filters);
+		this.codeSystemIndex = codeSystemIndex;
+	}
+
 	public boolean isFiltered(FhirVersionIndependentConcept concept) {
 		if (filters == null || filters.isEmpty()) {
 			return false;
@@ -82,11 +84,7 @@ public class ValueSetExpansionFilterContext {
 
 			String theFilterValue = filter.getValue();
 			String theConceptCode = concept.getCode();
-			String theConceptPropertyValue = onCode
-					? concept.getCode()
-					: propertyIndex
-							.getOrDefault("display", Collections.emptyMap())
-							.get(theConceptCode);
+			String theConceptPropertyValue = onCode ? concept.getCode() : codeSystemIndex.getDisplay(theConceptCode);
 
 			switch (filter.getOp()) {
 				case EQUAL:
@@ -186,7 +184,7 @@ public class ValueSetExpansionFilterContext {
 					}
 
 					// 2) Look up the direct children of X
-					Set<String> directKids = conceptCodeTree.getOrDefault(theFilterValue, Collections.emptySet());
+					Set<String> directKids = codeSystemIndex.getChildCodes(theFilterValue);
 
 					// 3) Accept only if our candidate code matches one of those children
 					return directKids.stream()
@@ -204,8 +202,7 @@ public class ValueSetExpansionFilterContext {
 					}
 
 					// 3) It must have no children of its own → is a leaf
-					Set<String> kids = conceptCodeTree.getOrDefault(theConceptCode, Collections.emptySet());
-					return kids.isEmpty();
+					return codeSystemIndex.getChildCodes(theConceptCode).isEmpty();
 				}
 				case EXISTS: {
 					// filter.getValue() will be "true" or "false"
@@ -243,16 +240,7 @@ public class ValueSetExpansionFilterContext {
 	}
 
 	private boolean isDescendantOf(String theParentCode, String theCandidatePropertyValue) {
-		Deque<String> stack = new ArrayDeque<>(conceptCodeTree.getOrDefault(theParentCode, Set.of()));
-		while (!stack.isEmpty()) {
-			String theChildCode = stack.pop();
-			if (isEqualsWithOptionalCaseSensitive(theChildCode, theCandidatePropertyValue)) {
-				return true;
-			}
-			stack.addAll(conceptCodeTree.getOrDefault(theChildCode, Set.of()));
-		}
-
-		return false;
+		return codeSystemIndex.isDescendantOf(theParentCode, theCandidatePropertyValue);
 	}
 
 	private boolean isEqualsWithOptionalCaseSensitive(String a, String b) {
@@ -275,11 +263,7 @@ public class ValueSetExpansionFilterContext {
 
 	private boolean isFilterPropertyValueNotInCodeSystem(String theFilterPropertyValue) {
 		// Fast O(1) existence check, respecting case sensitivity
-		if (codeSystem.getCaseSensitive()) {
-			return !allCodes.contains(theFilterPropertyValue);
-		} else {
-			return !allCodesLower.contains(theFilterPropertyValue.toLowerCase());
-		}
+		return !codeSystemIndex.hasCode(theFilterPropertyValue);
 	}
 
 	/**
@@ -298,34 +282,8 @@ public class ValueSetExpansionFilterContext {
 	}
 
 	private void buildIndexes() {
-		if (!hasIndexRun) {
-			buildIndexes(codeSystem.getConcept());
-			hasIndexRun = true;
-		}
-	}
-
-	private void buildIndexes(List<CodeSystem.ConceptDefinitionComponent> defs) {
-		for (var def : defs) {
-			String code = def.getCode();
-			String display = def.getDisplay();
-
-			// 1) Index existence
-			allCodes.add(code);
-			allCodesLower.add(code.toLowerCase());
-
-			// 2) Index immediate children
-			for (var child : def.getConcept()) {
-				conceptCodeTree.computeIfAbsent(code, k -> new HashSet<>()).add(child.getCode());
-			}
-
-			// 3) Index the "code" property
-			propertyIndex.computeIfAbsent("code", k -> new HashMap<>()).put(code, code);
-
-			// 4) Index the "display" property
-			propertyIndex.computeIfAbsent("display", k -> new HashMap<>()).put(code, display);
-
-			// 5) Recurse
-			buildIndexes(def.getConcept());
+		if (codeSystemIndex == null) {
+			codeSystemIndex = new CodeSystemIndex(codeSystem);
 		}
 	}
 }
@@ -26,10 +26,18 @@ import org.hl7.fhir.utilities.validation.ValidationMessage;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings({"PackageAccessibility", "Duplicates"})
 public class FhirInstanceValidator extends BaseValidatorBridge implements IInstanceValidatorModule {
 
+	/**
+	 * Default value for {@link #setBundleEntriesPerValidationTask(int)}
+	 *
+	 * @since 8.6.0
+	 */
+	public static final int DEFAULT_BUNDLE_ENTRIES_PER_VALIDATION_TASK = 100;
+
 	private boolean myAnyExtensionsAllowed = true;
 	private BestPracticeWarningLevel myBestPracticeWarningLevel;
 	private IValidationSupport myValidationSupport;
@@ -44,6 +52,8 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 	private IValidatorResourceFetcher validatorResourceFetcher;
 	private IValidationPolicyAdvisor validatorPolicyAdvisor = new FhirDefaultPolicyAdvisor();
 	private boolean myAllowExamples;
+	private Executor myBundleEntryValidationExecutor;
+	private int myBundleEntriesPerValidationTask = DEFAULT_BUNDLE_ENTRIES_PER_VALIDATION_TASK;
 
 	/**
 	 * Constructor
@@ -243,6 +253,23 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 	protected List<ValidationMessage> validate(IValidationContext<?> theValidationCtx) {
 		WorkerContextValidationSupportAdapter wrappedWorkerContext = provideWorkerContext();
 
+		if (myBundleEntryValidationExecutor != null) {
+			List<ValidationMessage> retVal = new ParallelBundleValidator(
+							myBundleEntryValidationExecutor,
+							myBundleEntriesPerValidationTask,
+							ctx -> validate(wrappedWorkerContext, ctx))
+					.validate(theValidationCtx);
+			if (retVal != null) {
+				return retVal;
+			}
+		}
+
+		return validate(wrappedWorkerContext, theValidationCtx);
+	}
+
+	private List<ValidationMessage> validate(
+			WorkerContextValidationSupportAdapter theWrappedWorkerContext, IValidationContext<?> theValidationCtx) {
+
 		return new ValidatorWrapper()
 				.setAnyExtensionsAllowed(isAnyExtensionsAllowed())
 				.setBestPracticeWarningLevel(getBestPracticeWarningLevel())
@@ -255,7 +282,7 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 				.setValidatorResourceFetcher(getValidatorResourceFetcher())
 				.setAssumeValidRestReferences(isAssumeValidRestReferences())
 				.setAllowExamples(isAllowExamples())
-				.validate(wrappedWorkerContext, theValidationCtx);
+				.validate(theWrappedWorkerContext, theValidationCtx);
 	}
 
 	@Nonnull
@@ -323,6 +350,56 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 		return myAllowExamples;
 	}
 
+	/**
+	 * If set (default is <code>null</code>), JSON Bundles with more entries than
+	 * {@link #setBundleEntriesPerValidationTask(int) the number of entries per task}
+	 * are validated in parallel. The entries are split into chunks which are validated
+	 * concurrently on the given executor, and the resulting messages are returned in
+	 * entry order. Messages about the Bundle itself (as opposed to the resources in
+	 * its entries) are only reported once. Line and column numbers are not reported
+	 * for Bundles validated this way. Document and message Bundles, and input which
+	 * is not strictly valid JSON, are always validated sequentially.
+	 * <p>
+	 * The executor is not managed by this validator, and should be bounded to a
+	 * suitable number of threads. The {@link IValidationSupport validation support}
+	 * is shared by all validation tasks, so it must be thread-safe (as
+	 * {@link org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain} is).
+	 * </p>
+	 *
+	 * @since 8.6.0
+	 */
+	public void setBundleEntryValidationExecutor(Executor theBundleEntryValidationExecutor) {
+		myBundleEntryValidationExecutor = theBundleEntryValidationExecutor;
+	}
+
+	/**
+	 * @see #setBundleEntryValidationExecutor(Executor)
+	 * @since 8.6.0
+	 */
+	public Executor getBundleEntryValidationExecutor() {
+		return myBundleEntryValidationExecutor;
+	}
+
+	/**
+	 * Sets the number of Bundle entries to validate in each task when a
+	 * {@link #setBundleEntryValidationExecutor(Executor) Bundle entry validation executor}
+	 * is set. Default is {@link #DEFAULT_BUNDLE_ENTRIES_PER_VALIDATION_TASK}.
+	 *
+	 * @since 8.6.0
+	 */
+	public void setBundleEntriesPerValidationTask(int theBundleEntriesPerValidationTask) {
+		Validate.isTrue(theBundleEntriesPerValidationTask > 0, "theBundleEntriesPerValidationTask must be positive");
+		myBundleEntriesPerValidationTask = theBundleEntriesPerValidationTask;
+	}
+
+	/**
+	 * @see #setBundleEntriesPerValidationTask(int)
+	 * @since 8.6.0
+	 */
+	public int getBundleEntriesPerValidationTask() {
+		return myBundleEntriesPerValidationTask;
+	}
+
 	public static class NullEvaluationContext implements IHostApplicationServices {
 
 		@Override
@@ -0,0 +1,432 @@
+package org.hl7.fhir.common.hapi.validation.validator;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.validation.IValidationContext;
+import ca.uhn.fhir.validation.ValidationContext;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.utilities.validation.ValidationMessage;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+
+/**
+ * Validates the entries of a large JSON Bundle in parallel.
+ * <p>
+ * The entries are split into chunks, and each chunk is validated on the executor as a copy of
+ * the Bundle which contains only the chunk's own entries, along with any other entries that
+ * the resources in the chunk refer to (so that references can still be resolved and checked
+ * against their target profiles). Only the messages located within the chunk's own entry
+ * resources are kept from each chunk, with their locations mapped back to the entry indexes
+ * of the original Bundle. The Bundle itself is validated once with every entry resource
+ * replaced by a stub containing only the elements needed by the Bundle invariants
+ * (<code>resourceType</code>, <code>id</code> and <code>meta.versionId</code>), and only the
+ * messages located outside of entry resources are kept from that pass. The messages are then
+ * merged by entry index, so that they are reported in the order in which sequential validation
+ * traverses the Bundle.
+ * </p>
+ * <p>
+ * Input which is not strictly valid JSON, and document and message Bundles (whose validation
+ * checks that every entry is linked to the first one), are left to be validated sequentially.
+ * </p>
+ * <p>
+ * Line and column numbers are not reported for messages produced this way, since they refer to the
+ * copy of the Bundle that was validated and not to the original input.
+ * </p>
+ */
+class ParallelBundleValidator {
+
+	private static final Gson ourGson =
+			new GsonBuilder().serializeNulls().disableHtmlEscaping().create();
+	private static final String ENTRY_LOCATION_PREFIX = "Bundle.entry[";
+	private static final Set<String> SEQUENTIAL_BUNDLE_TYPES = Set.of("document", "message");
+
+	private final Executor myExecutor;
+	private final int myEntriesPerTask;
+	private final Function<IValidationContext<?>, List<ValidationMessage>> myValidator;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theExecutor       The executor to validate entry chunks on
+	 * @param theEntriesPerTask The number of entries to validate in each chunk
+	 * @param theValidator      The function which validates a single resource sequentially
+	 */
+	ParallelBundleValidator(
+			Executor theExecutor,
+			int theEntriesPerTask,
+			Function<IValidationContext<?>, List<ValidationMessage>> theValidator) {
+		myExecutor = theExecutor;
+		myEntriesPerTask = theEntriesPerTask;
+		myValidator = theValidator;
+	}
+
+	/**
+	 * Validates the given resource if it is a JSON Bundle with more entries than fit in a single
+	 * chunk.
+	 *
+	 * @return The validation messages, or <code>null</code> if the resource should be validated sequentially
+	 */
+	@Nullable
+	List<ValidationMessage> validate(IValidationContext<?> theValidationCtx) {
+		if (theValidationCtx.getResourceAsStringEncoding() != EncodingEnum.JSON) {
+			return null;
+		}
+
+		JsonObject bundle = parseStrictly(theValidationCtx.getResourceAsString());
+		if (bundle == null) {
+			// Let the validator report the parse failure
+			return null;
+		}
+
+		JsonElement resourceType = bundle.get("resourceType");
+		JsonElement type = bundle.get("type");
+		JsonElement entries = bundle.get("entry");
+		if (!isString(resourceType)
+				|| !"Bundle".equals(resourceType.getAsString())
+				|| (isString(type) && SEQUENTIAL_BUNDLE_TYPES.contains(type.getAsString()))
+				|| entries == null
+				|| !entries.isJsonArray()
+				|| entries.getAsJsonArray().size() <= myEntriesPerTask) {
+			return null;
+		}
+
+		JsonArray entryArray = entries.getAsJsonArray();
+		int entryCount = entryArray.size();
+		JsonObject[] resources = new JsonObject[entryCount];
+		Map<String, List<Integer>> entryIndexesByReference = new HashMap<>();
+		for (int i = 0; i < entryCount; i++) {
+			JsonElement entry = entryArray.get(i);
+			if (entry.isJsonObject()) {
+				JsonElement fullUrl = entry.getAsJsonObject().get("fullUrl");
+				if (isString(fullUrl)) {
+					entryIndexesByReference
+							.computeIfAbsent(fullUrl.getAsString(), t -> new ArrayList<>())
+							.add(i);
+				}
+				JsonElement resource = entry.getAsJsonObject().get("resource");
+				if (resource != null && resource.isJsonObject()) {
+					resources[i] = resource.getAsJsonObject();
+					JsonElement resourceTypeOfEntry = resources[i].get("resourceType");
+					JsonElement id = resources[i].get("id");
+					if (isString(resourceTypeOfEntry) && isString(id)) {
+						entryIndexesByReference
+								.computeIfAbsent(
+										resourceTypeOfEntry.getAsString() + "/" + id.getAsString(),
+										t -> new ArrayList<>())
+								.add(i);
+					}
+				}
+			}
+		}
+
+		List<CompletableFuture<List<ValidationMessage>>> chunkFutures = new ArrayList<>();
+		for (int from = 0; from < entryCount; from += myEntriesPerTask) {
+			int chunkFrom = from;
+			int chunkTo = Math.min(entryCount, from + myEntriesPerTask);
+			int[] chunkEntryIndexes = selectChunkEntries(resources, entryIndexesByReference, chunkFrom, chunkTo);
+			String chunkBundle = encodeBundle(bundle, chunkEntryIndexes, null);
+			chunkFutures.add(CompletableFuture.supplyAsync(
+					() -> validateChunk(
+							theValidationCtx, chunkBundle, chunkEntryIndexes, resources, chunkFrom, chunkTo),
+					myExecutor));
+		}
+
+		List<ValidationMessage> retVal = new ArrayList<>();
+		JsonObject[] stubs = new JsonObject[entryCount];
+		int[] allEntryIndexes = new int[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			allEntryIndexes[i] = i;
+			if (resources[i] != null) {
+				stubs[i] = createStub(resources[i]);
+			}
+		}
+		String bundleOnly = encodeBundle(bundle, allEntryIndexes, stubs);
+		for (ValidationMessage next : myValidator.apply(newContext(theValidationCtx, bundleOnly))) {
+			if (getEntryResourceIndex(next, resources) == -1) {
+				retVal.add(clearPosition(next));
+			}
+		}
+
+		for (CompletableFuture<List<ValidationMessage>> next : chunkFutures) {
+			try {
+				retVal.addAll(next.join());
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw new InternalErrorException(Msg.code(2839) + "Failed to validate Bundle entries", e.getCause());
+			}
+		}
+
+		// Put the messages back in the order the Bundle is traversed in (the sort is stable, so the
+		// messages for each part of the Bundle keep the order they were reported in)
+		retVal.sort(Comparator.comparingLong(ParallelBundleValidator::getTraversalPosition));
+		return retVal;
+	}
+
+	private List<ValidationMessage> validateChunk(
+			IValidationContext<?> theValidationCtx,
+			String theChunkBundle,
+			int[] theChunkEntryIndexes,
+			JsonObject[] theResources,
+			int theFrom,
+			int theTo) {
+		// Entry indexes in the messages refer to the chunk, so translate them back before filtering
+		JsonObject[] chunkResources = new JsonObject[theChunkEntryIndexes.length];
+		for (int i = 0; i < theChunkEntryIndexes.length; i++) {
+			chunkResources[i] = theResources[theChunkEntryIndexes[i]];
+		}
+
+		List<ValidationMessage> retVal = new ArrayList<>();
+		for (ValidationMessage next : myValidator.apply(newContext(theValidationCtx, theChunkBundle))) {
+			int chunkIndex = getEntryResourceIndex(next, chunkResources);
+			if (chunkIndex != -1) {
+				int index = theChunkEntryIndexes[chunkIndex];
+				if (index >= theFrom && index < theTo) {
+					String location = next.getLocation();
+					next.setLocation(ENTRY_LOCATION_PREFIX + index + location.substring(location.indexOf(']')));
+					retVal.add(clearPosition(next));
+				}
+			}
+		}
+		return retVal;
+	}
+
+	private static IValidationContext<?> newContext(IValidationContext<?> theValidationCtx, String theBundle) {
+		return ValidationContext.forText(theValidationCtx.getFhirContext(), theBundle, theValidationCtx.getOptions());
+	}
+
+	/**
+	 * Parses the input, returning <code>null</code> if it is not a strictly valid JSON object
+	 */
+	@Nullable
+	private static JsonObject parseStrictly(String theInput) {
+		try (JsonReader reader = new JsonReader(new StringReader(theInput))) {
+			reader.setStrictness(Strictness.STRICT);
+			JsonElement parsed = ourGson.getAdapter(JsonElement.class).read(reader);
+			if (reader.peek() != JsonToken.END_DOCUMENT || !parsed.isJsonObject()) {
+				return null;
+			}
+			return parsed.getAsJsonObject();
+		} catch (IOException | JsonParseException | IllegalStateException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the indexes of the entries to include when validating a chunk: the chunk's own
+	 * entries, and any other entries which the resources in the chunk refer to
+	 */
+	private static int[] selectChunkEntries(
+			JsonObject[] theResources, Map<String, List<Integer>> theEntryIndexesByReference, int theFrom, int theTo) {
+		Set<String> references = new HashSet<>();
+		for (int i = theFrom; i < theTo; i++) {
+			if (theResources[i] != null) {
+				collectReferences(theResources[i], references);
+			}
+		}
+
+		TreeSet<Integer> retVal = new TreeSet<>();
+		for (int i = theFrom; i < theTo; i++) {
+			retVal.add(i);
+		}
+		for (String next : references) {
+			retVal.addAll(theEntryIndexesByReference.getOrDefault(next, List.of()));
+			String typeAndId = toTypeAndId(next);
+			if (typeAndId != null) {
+				retVal.addAll(theEntryIndexesByReference.getOrDefault(typeAndId, List.of()));
+			}
+		}
+		return retVal.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static void collectReferences(JsonElement theElement, Set<String> theReferences) {
+		if (theElement.isJsonObject()) {
+			for (Map.Entry<String, JsonElement> next :
+					theElement.getAsJsonObject().entrySet()) {
+				if (next.getKey().equals("reference") && isString(next.getValue())) {
+					theReferences.add(next.getValue().getAsString());
+				} else {
+					collectReferences(next.getValue(), theReferences);
+				}
+			}
+		} else if (theElement.isJsonArray()) {
+			for (JsonElement next : theElement.getAsJsonArray()) {
+				collectReferences(next, theReferences);
+			}
+		}
+	}
+
+	/**
+	 * Returns the <code>[type]/[id]</code> part of a (possibly absolute or versioned) reference
+	 */
+	@Nullable
+	private static String toTypeAndId(String theReference) {
+		if (theReference.contains("?")) {
+			return null;
+		}
+		String reference = substringBefore(theReference, "/_history/");
+		int idSlash = reference.lastIndexOf('/');
+		if (idSlash <= 0) {
+			return null;
+		}
+		return reference.substring(reference.lastIndexOf('/', idSlash - 1) + 1);
+	}
+
+	/**
+	 * Encodes a copy of the Bundle which contains only the entries at the given indexes. If stubs
+	 * are provided, the entry resources are replaced by them.
+	 */
+	private static String encodeBundle(JsonObject theBundle, int[] theEntryIndexes, @Nullable JsonObject[] theStubs) {
+		JsonArray entries = theBundle.getAsJsonArray("entry");
+		JsonArray copyEntries = new JsonArray(theEntryIndexes.length);
+		for (int i : theEntryIndexes) {
+			JsonElement entry = entries.get(i);
+			if (theStubs != null && theStubs[i] != null) {
+				JsonObject copyEntry = new JsonObject();
+				for (Map.Entry<String, JsonElement> next :
+						entry.getAsJsonObject().entrySet()) {
+					if (next.getKey().equals("resource")) {
+						copyEntry.add(next.getKey(), theStubs[i]);
+					} else {
+						copyEntry.add(next.getKey(), next.getValue());
+					}
+				}
+				entry = copyEntry;
+			}
+			copyEntries.add(entry);
+		}
+
+		JsonObject copy = new JsonObject();
+		for (Map.Entry<String, JsonElement> next : theBundle.entrySet()) {
+			if (next.getKey().equals("entry")) {
+				copy.add(next.getKey(), copyEntries);
+			} else {
+				copy.add(next.getKey(), next.getValue());
+			}
+		}
+		return ourGson.toJson(copy);
+	}
+
+	/**
+	 * Creates a stub of the given resource, keeping only the elements which the Bundle
+	 * invariants refer to (e.g. <code>bdl-7</code> uses <code>meta.versionId</code>)
+	 */
+	private static JsonObject createStub(JsonObject theResource) {
+		JsonObject retVal = new JsonObject();
+		JsonElement resourceType = theResource.get("resourceType");
+		if (resourceType != null) {
+			retVal.add("resourceType", resourceType);
+		}
+		JsonElement id = theResource.get("id");
+		if (id != null) {
+			retVal.add("id", id);
+		}
+		JsonElement meta = theResource.get("meta");
+		if (meta != null && meta.isJsonObject()) {
+			JsonElement versionId = meta.getAsJsonObject().get("versionId");
+			if (versionId != null) {
+				JsonObject stubMeta = new JsonObject();
+				stubMeta.add("versionId", versionId);
+				retVal.add("meta", stubMeta);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return The index of the entry whose resource the message is located in, or <code>-1</code>
+	 */
+	private static int getEntryResourceIndex(ValidationMessage theMessage, JsonObject[] theResources) {
+		String location = theMessage.getLocation();
+		int index = getEntryIndex(location);
+		if (index == -1 || !location.startsWith("].resource", location.indexOf(']'))) {
+			return -1;
+		}
+		if (index >= theResources.length || theResources[index] == null) {
+			return -1;
+		}
+		return index;
+	}
+
+	/**
+	 * @return The index of the entry the location is within, or <code>-1</code>
+	 */
+	private static int getEntryIndex(@Nullable String theLocation) {
+		if (theLocation == null || !theLocation.startsWith(ENTRY_LOCATION_PREFIX)) {
+			return -1;
+		}
+		int indexEnd = theLocation.indexOf(']');
+		if (indexEnd == -1) {
+			return -1;
+		}
+		try {
+			int index = Integer.parseInt(theLocation.substring(ENTRY_LOCATION_PREFIX.length(), indexEnd));
+			return index < 0 ? -1 : index;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns a value which orders messages the way sequential validation reports them: the
+	 * Bundle level elements first, then each entry in turn (the elements before the entry
+	 * resource, the resource, then the elements after it), and finally the signature
+	 */
+	private static long getTraversalPosition(ValidationMessage theMessage) {
+		String location = theMessage.getLocation();
+		int index = getEntryIndex(location);
+		if (index == -1) {
+			return location != null && location.startsWith("Bundle.signature") ? Long.MAX_VALUE : -1;
+		}
+		String entryPath = location.substring(location.indexOf(']') + 1);
+		int part;
+		if (entryPath.startsWith(".resource")) {
+			part = 1;
+		} else if (entryPath.startsWith(".search")
+				|| entryPath.startsWith(".request")
+				|| entryPath.startsWith(".response")) {
+			part = 2;
+		} else {
+			part = 0;
+		}
+		return index * 3L + part;
+	}
+
+	private static boolean isString(@Nullable JsonElement theElement) {
+		return theElement != null
+				&& theElement.isJsonPrimitive()
+				&& theElement.getAsJsonPrimitive().isString();
+	}
+
+	private static ValidationMessage clearPosition(ValidationMessage theMessage) {
+		theMessage.setLine(-1);
+		theMessage.setCol(-1);
+		return theMessage;
+	}
+}
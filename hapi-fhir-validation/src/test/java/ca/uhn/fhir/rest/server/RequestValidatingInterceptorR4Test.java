@@ -19,6 +19,7 @@ import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.interceptor.BaseValidatingInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.RequestValidatingInterceptor;
 import ca.uhn.fhir.test.utilities.HttpClientExtension;
 import ca.uhn.fhir.test.utilities.server.ResourceProviderExtension;
@@ -29,6 +30,7 @@ import ca.uhn.fhir.validation.FhirValidator;
 import ca.uhn.fhir.validation.IValidationContext;
 import ca.uhn.fhir.validation.IValidatorModule;
 import ca.uhn.fhir.validation.ResultSeverityEnum;
+import ca.uhn.fhir.validation.SingleValidationMessage;
 import com.google.common.base.Charsets;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
@@ -62,6 +64,9 @@ import org.mockito.Mockito;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -155,6 +160,48 @@ public class RequestValidatingInterceptorR4Test extends BaseValidationTestWithIn
 		assertThat(responseContent).doesNotContain("<severity value=\"error\"/>");
 	}
 
+	@Test
+	public void testCreate_AsyncValidation() throws Exception {
+		AtomicInteger validationCount = new AtomicInteger();
+		myInterceptor.addValidatorModule(theCtx -> {
+			validationCount.incrementAndGet();
+			SingleValidationMessage message = new SingleValidationMessage();
+			message.setSeverity(ResultSeverityEnum.ERROR);
+			message.setMessage("Async failure");
+			theCtx.addValidationMessage(message);
+		});
+		LinkedBlockingQueue<BaseValidatingInterceptor.AsyncValidationResult> results = new LinkedBlockingQueue<>();
+		myInterceptor.setAsyncValidation(1, 10);
+		myInterceptor.setAsyncValidationResultConsumer(results::add);
+		myInterceptor.setAsyncValidationSamplingRate("Patient", 0.0);
+
+		Patient patient = new Patient();
+		patient.addIdentifier().setValue("002");
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(patient);
+
+		// Not sampled
+		HttpPost httpPost = new HttpPost("http://localhost:" + ourPort + "/Patient");
+		httpPost.setEntity(new StringEntity(encoded, ContentType.create(Constants.CT_FHIR_JSON, "UTF-8")));
+		try (CloseableHttpResponse status = ourClient.getClient().execute(httpPost)) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+		}
+
+		// Sampled, but the error doesn't fail the request since validation happens afterwards
+		myInterceptor.setAsyncValidationSamplingRate("Patient", 1.0);
+		try (CloseableHttpResponse status = ourClient.getClient().execute(httpPost)) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+			assertThat(status.toString()).doesNotContain("X-FHIR-Request-Validation");
+		}
+
+		BaseValidatingInterceptor.AsyncValidationResult result = results.poll(10, TimeUnit.SECONDS);
+		assertThat(result).isNotNull();
+		assertEquals("Patient", result.getResourceType());
+		assertThat(result.getCompleteUrl()).endsWith("/Patient");
+		assertEquals("Async failure", result.getValidationResult().getMessages().get(0).getMessage());
+		assertEquals(1, validationCount.get());
+		assertEquals(0, myInterceptor.getAsyncValidationDroppedCount());
+	}
+
 	@Test
 	public void testGraphQlRequestResponse_GET() throws IOException {
 		HttpGet request = new HttpGet("http://localhost:" + ourPort + "/Patient/123/$graphql?query=" + UrlUtil.escapeUrlParam("{name}"));
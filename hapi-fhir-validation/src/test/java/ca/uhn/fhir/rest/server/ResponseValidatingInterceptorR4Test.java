@@ -5,6 +5,7 @@ import ca.uhn.fhir.fhirpath.BaseValidationTestWithInlineMocks;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.interceptor.BaseValidatingInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.ResponseValidatingInterceptor;
 import ca.uhn.fhir.test.utilities.HttpClientExtension;
 import ca.uhn.fhir.test.utilities.server.ResourceProviderExtension;
@@ -23,6 +24,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.hl7.fhir.common.hapi.validation.validator.FhirInstanceValidator;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Enumerations.AdministrativeGender;
 import org.hl7.fhir.r4.model.Narrative;
 import org.hl7.fhir.r4.model.Patient;
@@ -34,8 +36,15 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
@@ -191,6 +200,73 @@ public class ResponseValidatingInterceptorR4Test extends BaseValidationTestWithI
 	}
 
 
+	@Test
+	public void testSearch_AsyncValidationUsesSnapshotOfResponse() throws Exception {
+		Patient patient = new Patient();
+		patient.addIdentifier().setValue("002");
+		ourProvider.getProvider().setReturnResource(patient);
+
+		List<String> validatedIdentifiers = new ArrayList<>();
+		myInterceptor.addValidatorModule(theCtx -> {
+			Bundle bundle = (Bundle) theCtx.getResource();
+			Patient validated = (Patient) bundle.getEntryFirstRep().getResource();
+			validatedIdentifiers.add(validated.getIdentifierFirstRep().getValue());
+		});
+		LinkedBlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+		myInterceptor.setAsyncValidationExecutor(tasks::add);
+		LinkedBlockingQueue<BaseValidatingInterceptor.AsyncValidationResult> results = new LinkedBlockingQueue<>();
+		myInterceptor.setAsyncValidationResultConsumer(results::add);
+
+		HttpGet httpGet = new HttpGet("http://localhost:" + ourPort + "/Patient?foo=bar");
+		try (CloseableHttpResponse status = ourClient.getClient().execute(httpGet)) {
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertThat(status.toString()).doesNotContain("X-FHIR-Response-Validation");
+		}
+		Runnable task = tasks.poll(10, TimeUnit.SECONDS);
+		assertThat(task).isNotNull();
+
+		// Modifying the returned resource after the request must not affect what is validated
+		patient.getIdentifierFirstRep().setValue("MODIFIED");
+		task.run();
+
+		assertThat(validatedIdentifiers).containsExactly("002");
+		BaseValidatingInterceptor.AsyncValidationResult result = results.poll(10, TimeUnit.SECONDS);
+		assertThat(result).isNotNull();
+		assertEquals("Bundle", result.getResourceType());
+		assertEquals(RestOperationTypeEnum.SEARCH_TYPE, result.getOperationType());
+	}
+
+	@Test
+	public void testSearch_AsyncValidationDroppedWhenQueueFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger validationCount = new AtomicInteger();
+		myInterceptor.addValidatorModule(theCtx -> {
+			validationCount.incrementAndGet();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		// One validation running and one queued, so the third is dropped
+		myInterceptor.setAsyncValidation(1, 1);
+
+		try {
+			for (int i = 0; i < 3; i++) {
+				HttpGet httpGet = new HttpGet("http://localhost:" + ourPort + "/Patient?foo=bar");
+				try (CloseableHttpResponse status = ourClient.getClient().execute(httpGet)) {
+					assertEquals(200, status.getStatusLine().getStatusCode());
+				}
+			}
+			await().until(() -> myInterceptor.getAsyncValidationDroppedCount() == 1);
+		} finally {
+			release.countDown();
+		}
+
+		await().until(() -> validationCount.get() == 2);
+		assertEquals(1, myInterceptor.getAsyncValidationDroppedCount());
+	}
+
 	/**
 	 * Test for #345
 	 */
@@ -0,0 +1,59 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactCodeTableTest {
+
+	@Test
+	public void testLookup() {
+		Map<String, String> map = new HashMap<>();
+		map.put("US", "United States");
+		map.put("CA", "Canada");
+		map.put("AQ", null);
+		map.put("MX", "Mexico");
+		map.put(null, "Nothing");
+
+		CompactCodeTable table = CompactCodeTable.of(map);
+
+		assertEquals(4, table.size());
+		assertEquals("United States", table.get("US"));
+		assertEquals("Canada", table.get("CA"));
+		assertEquals("Mexico", table.get("MX"));
+		assertTrue(table.contains("AQ"));
+		assertNull(table.get("AQ"));
+		assertFalse(table.contains("us"));
+		assertFalse(table.contains("ZZ"));
+		assertFalse(table.contains(null));
+		assertNull(table.get(null));
+	}
+
+	@Test
+	public void testCodesAreSorted() {
+		Map<String, String> map = new HashMap<>();
+		map.put("USD", "United States dollar");
+		map.put("AED", "United Arab Emirates dirham");
+		map.put("CAD", "Canadian dollar");
+
+		CompactCodeTable table = CompactCodeTable.of(map);
+
+		assertEquals("AED", table.getCode(0));
+		assertEquals("United Arab Emirates dirham", table.getDisplay(0));
+		assertEquals("CAD", table.getCode(1));
+		assertEquals("USD", table.getCode(2));
+		assertEquals("United States dollar", table.getDisplay(2));
+	}
+
+	@Test
+	public void testEmpty() {
+		assertEquals(0, CompactCodeTable.EMPTY.size());
+		assertFalse(CompactCodeTable.EMPTY.contains("A"));
+	}
+}
@@ -8,6 +8,7 @@ import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.context.support.ValueSetExpansionOptions;
 import ca.uhn.fhir.fhirpath.BaseValidationTestWithInlineMocks;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.hapi.converters.canonical.VersionCanonicalizer;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.CodeSystem;
 import org.hl7.fhir.r4.model.CodeType;
@@ -32,6 +33,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class InMemoryTerminologyServerValidationSupportTest extends BaseValidationTestWithInlineMocks {
 	private InMemoryTerminologyServerValidationSupport mySvc;
@@ -715,4 +720,104 @@ public class InMemoryTerminologyServerValidationSupportTest extends BaseValidati
 			.as("%s on '%s' should yield %s", op, filterValue, expectedCodes)
 			.containsExactlyInAnyOrderElementsOf(expectedCodes);
 	}
+
+	@Test
+	public void testValidateCode_IsAFilter_UsesCodeSystemIndex() {
+		ConceptValidationOptions options = new ConceptValidationOptions();
+		ValidationSupportContext valCtx = new ValidationSupportContext(myChain);
+
+		CodeSystem cs = new CodeSystem();
+		cs.setUrl("http://example.org/CS/indexed");
+		cs.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
+		cs.setCaseSensitive(false);
+		CodeSystem.ConceptDefinitionComponent root = cs.addConcept().setCode("ROOT").setDisplay("Root");
+		CodeSystem.ConceptDefinitionComponent parent = root;
+		CodeSystem.ConceptDefinitionComponent code10 = null;
+		for (int i = 0; i < 100; i++) {
+			parent = parent.addConcept().setCode("CODE-" + i).setDisplay("Code " + i);
+			if (i == 10) {
+				code10 = parent;
+			}
+		}
+		cs.addConcept().setCode("OTHER").setDisplay("Other");
+		myPrePopulated.addCodeSystem(cs);
+
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://example.org/VS/indexed");
+		vs.getCompose()
+			.addInclude()
+			.setSystem(cs.getUrl())
+			.addFilter()
+			.setProperty("concept")
+			.setOp(ValueSet.FilterOperator.ISA)
+			.setValue("CODE-10");
+		myPrePopulated.addValueSet(vs);
+
+		IValidationSupport.CodeValidationResult outcome = mySvc.validateCode(valCtx, options, cs.getUrl(), "CODE-99", null, vs.getUrl());
+		assertTrue(outcome.isOk());
+		assertEquals("Code 99", outcome.getDisplay());
+
+		outcome = mySvc.validateCode(valCtx, options, cs.getUrl(), "code-50", null, vs.getUrl());
+		assertTrue(outcome.isOk());
+
+		outcome = mySvc.validateCode(valCtx, options, cs.getUrl(), "CODE-9", null, vs.getUrl());
+		assertFalse(outcome.isOk());
+
+		outcome = mySvc.validateCode(valCtx, options, cs.getUrl(), "OTHER", null, vs.getUrl());
+		assertFalse(outcome.isOk());
+
+		// Changes made in place to the CodeSystem are visible once the caches are invalidated
+		root.addConcept().setCode("NEW").setDisplay("New");
+		code10.addConcept().setCode("NEWER").setDisplay("Newer");
+		myChain.invalidateCaches();
+		outcome = mySvc.validateCode(valCtx, options, cs.getUrl(), "NEW", null, vs.getUrl());
+		assertFalse(outcome.isOk());
+		outcome = mySvc.validateCode(valCtx, options, cs.getUrl(), "NEWER", null, vs.getUrl());
+		assertTrue(outcome.isOk());
+	}
+
+	@Test
+	public void testValidateCode_CodeSystemIndexReusedForNewInstances() {
+		VersionCanonicalizer canonicalizer = spy(new VersionCanonicalizer(myCtx));
+		mySvc.setVersionCanonicalizer(canonicalizer);
+
+		// Returns a new CodeSystem instance every time it is fetched
+		IValidationSupport codeSystemSupport = new IValidationSupport() {
+			@Override
+			public FhirContext getFhirContext() {
+				return myCtx;
+			}
+
+			@Override
+			public IBaseResource fetchCodeSystem(String theSystem) {
+				if (!"http://example.org/CS/fresh".equals(theSystem)) {
+					return null;
+				}
+				CodeSystem cs = new CodeSystem();
+				cs.setUrl("http://example.org/CS/fresh");
+				cs.setVersion("1");
+				cs.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
+				cs.addConcept().setCode("A").setDisplay("Code A");
+				cs.addConcept().setCode("B").setDisplay("Code B");
+				return cs;
+			}
+		};
+		ValidationSupportChain chain = new ValidationSupportChain(
+			ValidationSupportChain.CacheConfiguration.disabled(), mySvc, myPrePopulated, codeSystemSupport);
+		ValidationSupportContext valCtx = new ValidationSupportContext(chain);
+
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://example.org/VS/fresh");
+		vs.getCompose().addInclude().setSystem("http://example.org/CS/fresh");
+		myPrePopulated.addValueSet(vs);
+
+		ConceptValidationOptions options = new ConceptValidationOptions();
+		IValidationSupport.CodeValidationResult outcome = mySvc.validateCode(valCtx, options, "http://example.org/CS/fresh", "A", null, vs.getUrl());
+		assertTrue(outcome.isOk());
+		outcome = mySvc.validateCode(valCtx, options, "http://example.org/CS/fresh", "B", null, vs.getUrl());
+		assertTrue(outcome.isOk());
+		assertEquals("Code B", outcome.getDisplay());
+
+		verify(canonicalizer, times(1)).codeSystemToValidatorCanonical(any());
+	}
 }
@@ -26,6 +26,7 @@ import org.hl7.fhir.r4.model.StructureDefinition;
 import org.hl7.fhir.r4.model.ValueSet;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -34,6 +35,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -108,6 +110,57 @@ public class ValidationSupportChainTest extends BaseTest {
 		}
 	}
 
+	@Test
+	public void testGenerateSnapshot_DiskCache(@TempDir Path theTempDir) {
+		prepareMock(myValidationSupport0);
+
+		StructureDefinition input = new StructureDefinition();
+		input.setUrl("http://example.com/StructureDefinition/MyPatient");
+		input.setVersion("1.0.0");
+		input.setBaseDefinition("http://hl7.org/fhir/StructureDefinition/Patient");
+		input.getDifferential().addElement().setPath("Patient.name").setMin(1);
+
+		StructureDefinition snapshot = input.copy();
+		snapshot.getSnapshot().addElement().setPath("Patient").setId("Patient");
+		when(myValidationSupport0.generateSnapshot(any(), any(), any(), any(), any())).thenReturn(snapshot);
+
+		ValidationSupportChain.CacheConfiguration cacheConfiguration =
+			ValidationSupportChain.CacheConfiguration.disabled().setSnapshotDiskCacheDirectory(theTempDir);
+
+		// First chain generates the snapshot and stores it
+		ValidationSupportChain chain = new ValidationSupportChain(cacheConfiguration, myValidationSupport0);
+		IBaseResource actual = chain.generateSnapshot(newValidationCtx(chain), input, "", "", "");
+		assertSame(snapshot, actual);
+		verify(myValidationSupport0, times(1)).generateSnapshot(any(), any(), any(), any(), any());
+
+		// A new chain (e.g. after a restart) loads it from disk
+		chain = new ValidationSupportChain(cacheConfiguration, myValidationSupport0);
+		actual = chain.generateSnapshot(newValidationCtx(chain), input, "", "", "");
+		assertThat(actual).isInstanceOf(StructureDefinition.class);
+		assertEquals("Patient", ((StructureDefinition) actual).getSnapshot().getElementFirstRep().getPath());
+		verify(myValidationSupport0, times(1)).generateSnapshot(any(), any(), any(), any(), any());
+
+		// A changed profile is regenerated
+		input.getDifferential().addElement().setPath("Patient.gender").setMin(1);
+		chain.generateSnapshot(newValidationCtx(chain), input, "", "", "");
+		verify(myValidationSupport0, times(2)).generateSnapshot(any(), any(), any(), any(), any());
+
+		// A changed base profile is regenerated too
+		StructureDefinition base = new StructureDefinition();
+		base.setUrl("http://hl7.org/fhir/StructureDefinition/Patient");
+		base.getSnapshot().addElement().setPath("Patient").setId("Patient");
+		when(myValidationSupport0.fetchStructureDefinition("http://hl7.org/fhir/StructureDefinition/Patient"))
+			.thenReturn(base);
+		chain.generateSnapshot(newValidationCtx(chain), input, "", "", "");
+		verify(myValidationSupport0, times(3)).generateSnapshot(any(), any(), any(), any(), any());
+		chain.generateSnapshot(newValidationCtx(chain), input, "", "", "");
+		verify(myValidationSupport0, times(3)).generateSnapshot(any(), any(), any(), any(), any());
+
+		base.getSnapshot().addElement().setPath("Patient.name").setId("Patient.name");
+		chain.generateSnapshot(newValidationCtx(chain), input, "", "", "");
+		verify(myValidationSupport0, times(4)).generateSnapshot(any(), any(), any(), any(), any());
+	}
+
 	@Test
 	public void fetchBinary_normally_returnsExpectedBinaries() {
 		// Setup
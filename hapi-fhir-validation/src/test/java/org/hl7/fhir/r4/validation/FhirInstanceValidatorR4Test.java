@@ -86,6 +86,7 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -1584,6 +1585,91 @@ public class FhirInstanceValidatorR4Test extends BaseTest {
 	}
 
 
+	@Test
+	public void testValidateBundleEntriesInParallel() {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.COLLECTION);
+		for (int i = 0; i < 10; i++) {
+			Observation obs = new Observation();
+			obs.setId("Observation/" + i);
+			obs.getCode().setText("Code " + i);
+			obs.getSubject().setReference("Patient/P");
+			if (i % 3 != 0) {
+				obs.setStatus(ObservationStatus.FINAL);
+			}
+			bundle.addEntry().setFullUrl("http://example.com/fhir/Observation/" + i).setResource(obs);
+		}
+		Patient patient = new Patient();
+		patient.setId("Patient/P");
+		patient.setActive(true);
+		bundle.addEntry().setFullUrl("http://example.com/fhir/Patient/P").setResource(patient);
+		// Bundle level problem
+		bundle.addEntry().setFullUrl("http://example.com/fhir/Patient/P").setResource(patient.copy());
+		String input = ourCtx.newJsonParser().encodeResourceToString(bundle);
+
+		List<String> expected = myFhirValidator.validateWithResult(input).getMessages().stream()
+			.map(t -> t.getSeverity() + " " + t.getLocationString() + " " + t.getMessage())
+			.toList();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			myInstanceVal.setBundleEntryValidationExecutor(executor);
+			myInstanceVal.setBundleEntriesPerValidationTask(3);
+
+			List<SingleValidationMessage> actualMessages = myFhirValidator.validateWithResult(input).getMessages();
+			List<String> actual = actualMessages.stream()
+				.map(t -> t.getSeverity() + " " + t.getLocationString() + " " + t.getMessage())
+				.toList();
+
+			assertThat(actual).containsExactlyElementsOf(expected);
+			assertThat(actual).anyMatch(t -> t.startsWith("ERROR Bundle.entry[3].resource") && t.contains("Observation.status"));
+			assertThat(actual).noneMatch(t -> t.startsWith("ERROR Bundle.entry[4].resource") && t.contains("Observation.status"));
+			assertThat(actualMessages).allMatch(t -> t.getLocationLine() == null);
+		} finally {
+			myInstanceVal.setBundleEntryValidationExecutor(null);
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testValidateBundleEntriesInParallel_MatchesSequentialValidation() {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.COLLECTION);
+		for (int i = 0; i < 6; i++) {
+			Patient patient = new Patient();
+			patient.setId("Patient/P" + (i / 2));
+			// Entries sharing a fullUrl but with different versions are allowed by bdl-7
+			patient.getMeta().setVersionId(Integer.toString(i % 2 + 1));
+			patient.setActive(true);
+			bundle.addEntry().setFullUrl("http://example.com/fhir/Patient/P" + (i / 2)).setResource(patient);
+		}
+		String input = ourCtx.newJsonParser().encodeResourceToString(bundle);
+		// Null values are invalid, and must not be dropped before the entry is validated
+		String inputWithNull = input.replace("\"active\":true", "\"active\":null");
+		// Not strictly valid JSON, so validated sequentially
+		String inputWithSyntaxError = input.replace("\"resourceType\":\"Bundle\"", "resourceType:\"Bundle\"");
+
+		for (String next : List.of(input, inputWithNull, inputWithSyntaxError)) {
+			List<String> expected = myFhirValidator.validateWithResult(next).getMessages().stream()
+				.map(t -> t.getSeverity() + " " + t.getLocationString() + " " + t.getMessage())
+				.toList();
+
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				myInstanceVal.setBundleEntryValidationExecutor(executor);
+				myInstanceVal.setBundleEntriesPerValidationTask(2);
+
+				List<String> actual = myFhirValidator.validateWithResult(next).getMessages().stream()
+					.map(t -> t.getSeverity() + " " + t.getLocationString() + " " + t.getMessage())
+					.toList();
+				assertThat(actual).containsExactlyElementsOf(expected);
+			} finally {
+				myInstanceVal.setBundleEntryValidationExecutor(null);
+				executor.shutdown();
+			}
+		}
+	}
+
 	@Test
 	void testValidateCommonCodes_Ucum_ErrorMessageIsPreserved() {
 		myMockSupport.addValidConcept("http://loinc.org", "1234");
@@ -11,17 +11,21 @@ import ca.uhn.fhir.rest.annotation.Operation;
 import ca.uhn.fhir.rest.annotation.OperationParam;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.annotation.Transaction;
+import ca.uhn.fhir.rest.annotation.TransactionParam;
 import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.client.interceptor.LoggingInterceptor;
 import ca.uhn.fhir.rest.param.UriParam;
 import ca.uhn.fhir.rest.server.IResourceProvider;
 import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import ca.uhn.fhir.util.ParametersUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.hl7.fhir.common.hapi.validation.support.RemoteTerminologyServiceValidationSupport;
 import org.hl7.fhir.instance.model.api.IBaseCoding;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.CodeSystem;
 import org.hl7.fhir.r4.model.CodeType;
 import org.hl7.fhir.r4.model.CodeableConcept;
@@ -39,7 +43,12 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -79,6 +88,7 @@ public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidat
 	private final MyValueSetProvider myValueSetProvider = new MyValueSetProvider();
 	private final MyCodeSystemProvider myCodeSystemProvider = new MyCodeSystemProvider();
 	private final MyConceptMapProvider myConceptMapProvider = new MyConceptMapProvider();
+	private final MyValidateCodeBatchProvider myValidateCodeBatchProvider = new MyValidateCodeBatchProvider();
 	private final RemoteTerminologyServiceValidationSupport mySvc = new RemoteTerminologyServiceValidationSupport(ourCtx);
 
 	@BeforeEach
@@ -86,6 +96,7 @@ public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidat
 		myRestfulServerExtension.getRestfulServer().registerProvider(myValueSetProvider);
 		myRestfulServerExtension.getRestfulServer().registerProvider(myCodeSystemProvider);
 		myRestfulServerExtension.getRestfulServer().registerProvider(myConceptMapProvider);
+		myRestfulServerExtension.getRestfulServer().registerProvider(myValidateCodeBatchProvider);
 
 		String baseUrl = "http://localhost:" + myRestfulServerExtension.getPort();
 		mySvc.setBaseUrl(baseUrl);
@@ -241,6 +252,61 @@ public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidat
 		assertEquals("http://loinc.org", myCodeSystemProvider.myLastUrlParam.getValue());
 	}
 
+	@Test
+	void validateCodeAsync_identicalRequestsInFlight_areCoalesced() throws Exception {
+		// given
+		List<CompletableFuture<IValidationSupport.CodeValidationResult>> futures = new ArrayList<>();
+		futures.add(mySvc.validateCodeAsync("http://loinc.org", "good-1", null, null));
+		assertTrue(myValidateCodeBatchProvider.myEnteredLatch.await(10, TimeUnit.SECONDS));
+
+		// when
+		for (int i = 0; i < 4; i++) {
+			futures.add(mySvc.validateCodeAsync("http://loinc.org", "good-1", null, null));
+		}
+		myValidateCodeBatchProvider.myReleaseLatch.countDown();
+
+		// then
+		for (CompletableFuture<IValidationSupport.CodeValidationResult> next : futures) {
+			IValidationSupport.CodeValidationResult outcome = next.get(10, TimeUnit.SECONDS);
+			assertTrue(outcome.isOk());
+			assertEquals("good-1", outcome.getCode());
+		}
+		assertEquals(1, myValidateCodeBatchProvider.myValidateCodeCount.get());
+		assertThat(myValidateCodeBatchProvider.myBatchSizes).isEmpty();
+	}
+
+	@Test
+	void validateCodeAsync_requestsQueuedWhileBusy_areBatched() throws Exception {
+		// given
+		mySvc.setMaxConcurrentRequests(1);
+		mySvc.setValidateCodeBatchSize(10);
+		CompletableFuture<IValidationSupport.CodeValidationResult> first =
+			mySvc.validateCodeAsync("http://loinc.org", "good-0", null, null);
+		assertTrue(myValidateCodeBatchProvider.myEnteredLatch.await(10, TimeUnit.SECONDS));
+
+		// when
+		List<CompletableFuture<IValidationSupport.CodeValidationResult>> queued = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			queued.add(mySvc.validateCodeAsync("http://loinc.org", "good-" + i, null, null));
+		}
+		queued.add(mySvc.validateCodeAsync("http://loinc.org", "bad-5", null, null));
+		myValidateCodeBatchProvider.myReleaseLatch.countDown();
+
+		// then
+		assertTrue(first.get(10, TimeUnit.SECONDS).isOk());
+		for (int i = 0; i < 4; i++) {
+			IValidationSupport.CodeValidationResult outcome = queued.get(i).get(10, TimeUnit.SECONDS);
+			assertTrue(outcome.isOk());
+			assertEquals("good-" + (i + 1), outcome.getCode());
+		}
+		IValidationSupport.CodeValidationResult badOutcome = queued.get(4).get(10, TimeUnit.SECONDS);
+		assertFalse(badOutcome.isOk());
+		assertEquals(IValidationSupport.IssueSeverity.ERROR, badOutcome.getSeverity());
+
+		assertEquals(1, myValidateCodeBatchProvider.myValidateCodeCount.get());
+		assertThat(myValidateCodeBatchProvider.myBatchSizes).containsExactly(5);
+	}
+
 	@SuppressWarnings("unused")
 	private static class MyCodeSystemProvider implements IResourceProvider {
 		private SummaryEnum myLastSummaryParam;
@@ -324,4 +390,49 @@ public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidat
 			return ConceptMap.class;
 		}
 	}
+
+	/**
+	 * Stub terminology server which accepts codes starting with "good", and which holds
+	 * individual $validate-code requests until it is released
+	 */
+	@SuppressWarnings("unused")
+	private static class MyValidateCodeBatchProvider {
+		private final AtomicInteger myValidateCodeCount = new AtomicInteger();
+		private final List<Integer> myBatchSizes = Collections.synchronizedList(new ArrayList<>());
+		private final CountDownLatch myEnteredLatch = new CountDownLatch(1);
+		private final CountDownLatch myReleaseLatch = new CountDownLatch(1);
+
+		@Operation(name = JpaConstants.OPERATION_VALIDATE_CODE, idempotent = true, type = CodeSystem.class)
+		public Parameters validateCode(
+			@OperationParam(name = "url", min = 0, max = 1) UriType theCodeSystemUrl,
+			@OperationParam(name = "code", min = 0, max = 1) CodeType theCode
+		) throws InterruptedException {
+			myValidateCodeCount.incrementAndGet();
+			myEnteredLatch.countDown();
+			assertTrue(myReleaseLatch.await(10, TimeUnit.SECONDS));
+			return createValidateCodeResponse(theCode.getValue());
+		}
+
+		@Transaction
+		public Bundle batch(@TransactionParam Bundle theInput) {
+			myBatchSizes.add(theInput.getEntry().size());
+			Bundle retVal = new Bundle();
+			retVal.setType(Bundle.BundleType.BATCHRESPONSE);
+			for (Bundle.BundleEntryComponent next : theInput.getEntry()) {
+				assertEquals("CodeSystem/$validate-code", next.getRequest().getUrl());
+				String code = ParametersUtil.getNamedParameterValueAsString(ourCtx, (Parameters) next.getResource(), "code").orElseThrow();
+				retVal.addEntry().setResource(createValidateCodeResponse(code)).getResponse().setStatus("200 OK");
+			}
+			return retVal;
+		}
+
+		private static Parameters createValidateCodeResponse(String theCode) {
+			Parameters retVal = new Parameters();
+			retVal.addParameter("result", theCode.startsWith("good"));
+			if (!theCode.startsWith("good")) {
+				retVal.addParameter("message", "Unknown code: " + theCode);
+			}
+			return retVal;
+		}
+	}
 }